@@ -0,0 +1,353 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ardor3d.bounding.BoundingVolume;
+import com.ardor3d.renderer.Camera;
+import com.ardor3d.renderer.Camera.ProjectionMode;
+import com.ardor3d.scenegraph.Spatial;
+import com.ardor3d.util.Constants;
+import com.ardor3d.util.stat.StatCollector;
+import com.ardor3d.util.stat.StatType;
+
+/**
+ * <p>
+ * Picks a level of detail for each of a crowd of animated characters from how large they appear on
+ * screen, and sets their {@link AnimationManager}s and {@link SkinnedMesh}es up for it. Each
+ * {@link Level} gives:
+ * </p>
+ * <ul>
+ * <li>an update rate. Characters sharing a rate are given different update phases (see
+ * {@link AnimationManager#alignUpdates(double)}) so their updates are spread evenly across
+ * frames.</li>
+ * <li>which joints to animate, from the joint mask of that level of the character's skeleton (see
+ * {@link Skeleton#getLodJointMask(int)}).</li>
+ * <li>the largest number of weights per vertex to skin with on the CPU (see
+ * {@link SkinnedMesh#setMaxSkinningWeights(int)}).</li>
+ * </ul>
+ * <p>
+ * Screen size is the height of a character's world bound on screen, as a fraction of the viewport
+ * height, so it accounts for both camera distance and field of view. To keep characters near a
+ * threshold from switching back and forth, a character moves to a finer level only once it is larger
+ * than that level's threshold by our hysteresis fraction, and to a coarser level only once it is
+ * smaller than its current level's threshold by that fraction.
+ * </p>
+ * <p>
+ * Call {@link #update(Camera)} once per frame, before updating the managers.
+ * </p>
+ */
+public class AnimationLodPolicy {
+
+  /** Number of characters that changed level. */
+  public static final StatType STAT_ANIMATION_LOD_SWITCHES = new StatType("_animationLodSwitches");
+
+  /** Golden ratio conjugate, spreading successive phases evenly over [0, 1) for any count. */
+  private static final double PHASE_STEP = 0.6180339887498949;
+
+  /** Our levels, finest first. */
+  private final List<Level> _levels = new ArrayList<>();
+
+  /** Our characters, for our updates. Removal moves the last one into the gap, so in no particular order. */
+  private final List<Entry> _entries = new ArrayList<>();
+
+  /** Our characters, by manager. */
+  private final Map<AnimationManager, Entry> _entriesByManager = new IdentityHashMap<>();
+
+  /** Fraction a screen size must pass a threshold by to change level. */
+  private double _hysteresis = 0.1;
+
+  /** Phase to give our next character. */
+  private double _nextPhase = 0;
+
+  /** Number of characters at each level after our last update. */
+  private int[] _levelCounts = new int[0];
+
+  /** Stat per level, counting its characters. */
+  private StatType[] _levelStats = new StatType[0];
+
+  private int _lastSwitchCount;
+
+  /**
+   * Add a level of detail. Levels must be added finest first, with decreasing minimum screen sizes.
+   *
+   * @param level
+   *          the level to add.
+   */
+  public void addLevel(final Level level) {
+    if (!_levels.isEmpty() && level.getMinScreenSize() > _levels.get(_levels.size() - 1).getMinScreenSize()) {
+      throw new IllegalArgumentException("levels must be added with decreasing minimum screen sizes.");
+    }
+    _levels.add(level);
+    final int count = _levels.size();
+    _levelCounts = new int[count];
+    _levelStats = new StatType[count];
+    for (int i = 0; i < count; i++) {
+      _levelStats[i] = new StatType("_animationLod" + i);
+    }
+  }
+
+  /**
+   * @return our levels, finest first.
+   */
+  public List<Level> getLevels() { return List.copyOf(_levels); }
+
+  /**
+   * Add a character to be managed by this policy. Its level is picked on our next update.
+   *
+   * @param manager
+   *          the manager animating the character.
+   * @param boundsSource
+   *          the spatial whose world bound gives the character's screen size.
+   */
+  public void addManager(final AnimationManager manager, final Spatial boundsSource) {
+    if (_entriesByManager.containsKey(manager)) {
+      return;
+    }
+    final Entry entry = new Entry(manager, boundsSource, _nextPhase);
+    entry.index = _entries.size();
+    _entries.add(entry);
+    _entriesByManager.put(manager, entry);
+    _nextPhase = (_nextPhase + PHASE_STEP) % 1.0;
+  }
+
+  /**
+   * Stop managing a character, putting its manager back to its update rate from before it was added
+   * and its skins and joints back to full detail.
+   *
+   * @param manager
+   *          the manager to remove.
+   * @return true if the manager was found and removed.
+   */
+  public boolean removeManager(final AnimationManager manager) {
+    final Entry entry = _entriesByManager.remove(manager);
+    if (entry == null) {
+      return false;
+    }
+    final Entry last = _entries.remove(_entries.size() - 1);
+    if (last != entry) {
+      last.index = entry.index;
+      _entries.set(entry.index, last);
+    }
+    manager.setUpdateRate(entry.originalUpdateRate);
+    manager.setJointMask(null);
+    setMaxSkinningWeights(manager, 0);
+    return true;
+  }
+
+  /**
+   * Pick and apply the level of each of our characters, as seen from the given camera.
+   *
+   * @param camera
+   *          the camera our characters are viewed through.
+   */
+  public void update(final Camera camera) {
+    if (_levels.isEmpty()) {
+      return;
+    }
+
+    int switches = 0;
+    for (int i = 0; i < _levelCounts.length; i++) {
+      _levelCounts[i] = 0;
+    }
+    for (int i = 0, maxI = _entries.size(); i < maxI; i++) {
+      final Entry entry = _entries.get(i);
+      final double screenSize = getScreenSize(camera, entry.boundsSource.getWorldBound());
+      final int level = selectLevel(screenSize, entry.level);
+      if (level != entry.level) {
+        applyLevel(entry, level);
+        switches++;
+      }
+      _levelCounts[level]++;
+    }
+    _lastSwitchCount = switches;
+
+    if (Constants.stats) {
+      StatCollector.addStat(STAT_ANIMATION_LOD_SWITCHES, switches);
+      for (int i = 0; i < _levelCounts.length; i++) {
+        StatCollector.addStat(_levelStats[i], _levelCounts[i]);
+      }
+    }
+  }
+
+  /**
+   * @param screenSize
+   *          a screen size, as given by {@link #getScreenSize(Camera, BoundingVolume)}.
+   * @param currentLevel
+   *          the level currently in use, or -1 if none.
+   * @return the level to use for the given screen size, applying our hysteresis.
+   */
+  public int selectLevel(final double screenSize, final int currentLevel) {
+    if (currentLevel < 0) {
+      return findLevel(screenSize, 1.0);
+    }
+    // finer only when clearly above the threshold, coarser only when clearly below.
+    final int finer = findLevel(screenSize, 1.0 + _hysteresis);
+    if (finer < currentLevel) {
+      return finer;
+    }
+    final int coarser = findLevel(screenSize, 1.0 - _hysteresis);
+    return Math.max(coarser, currentLevel);
+  }
+
+  /**
+   * @return the first level whose scaled minimum screen size the given size reaches, or our last level.
+   */
+  private int findLevel(final double screenSize, final double scale) {
+    final int last = _levels.size() - 1;
+    for (int i = 0; i < last; i++) {
+      if (screenSize >= _levels.get(i).getMinScreenSize() * scale) {
+        return i;
+      }
+    }
+    return last;
+  }
+
+  private void applyLevel(final Entry entry, final int levelIndex) {
+    final Level level = _levels.get(levelIndex);
+    final AnimationManager manager = entry.manager;
+    entry.level = levelIndex;
+
+    manager.setUpdateRate(level.getUpdateRate());
+    manager.alignUpdates(entry.phase);
+    manager.setJointMask(
+        manager.getPoseCount() > 0 ? manager.getSkeletonPose(0).getSkeleton().getLodJointMask(levelIndex) : null);
+    setMaxSkinningWeights(manager, level.getMaxWeights());
+  }
+
+  private static void setMaxSkinningWeights(final AnimationManager manager, final int maxWeights) {
+    for (int i = 0, maxI = manager.getPoseCount(); i < maxI; i++) {
+      final List<PoseListener> listeners = manager.getSkeletonPose(i).getPoseListeners();
+      for (int j = 0, maxJ = listeners.size(); j < maxJ; j++) {
+        if (listeners.get(j) instanceof final SkinnedMesh skin) {
+          skin.setMaxSkinningWeights(maxWeights);
+        }
+      }
+    }
+  }
+
+  /**
+   * @param camera
+   *          the viewing camera
+   * @param bound
+   *          a world bound, or null
+   * @return the height the given bound covers on screen, as a fraction of the viewport height. Infinite
+   *         for null or invalid bounds, or bounds the camera is inside of.
+   */
+  public static double getScreenSize(final Camera camera, final BoundingVolume bound) {
+    if (bound == null || !bound.isValid()) {
+      return Double.POSITIVE_INFINITY;
+    }
+    final double diameter = 2.0 * bound.getRadius();
+    final double frustumHeight = camera.getFrustumTop() - camera.getFrustumBottom();
+    if (camera.getProjectionMode() == ProjectionMode.Orthographic) {
+      return diameter / frustumHeight;
+    }
+    final double distance = camera.getLocation().distance(bound.getCenter());
+    if (distance <= bound.getRadius()) {
+      return Double.POSITIVE_INFINITY;
+    }
+    // project onto the near plane
+    return diameter * camera.getFrustumNear() / (distance * frustumHeight);
+  }
+
+  /**
+   * @param manager
+   *          one of our managers
+   * @return the level the given manager is at, or -1 if it is not ours or has not been given one yet.
+   */
+  public int getLevel(final AnimationManager manager) {
+    final Entry entry = _entriesByManager.get(manager);
+    return entry != null ? entry.level : -1;
+  }
+
+  /**
+   * @param level
+   *          a level index
+   * @return the number of characters at the given level after our last update.
+   */
+  public int getLevelCount(final int level) {
+    return _levelCounts[level];
+  }
+
+  /**
+   * @return the number of characters that changed level during our last update.
+   */
+  public int getLastSwitchCount() { return _lastSwitchCount; }
+
+  public double getHysteresis() { return _hysteresis; }
+
+  /**
+   * @param hysteresis
+   *          the fraction a screen size must pass a threshold by to change level, in [0, 1). Defaults
+   *          to 0.1.
+   */
+  public void setHysteresis(final double hysteresis) {
+    if (hysteresis < 0 || hysteresis >= 1) {
+      throw new IllegalArgumentException("hysteresis must be in [0, 1).");
+    }
+    _hysteresis = hysteresis;
+  }
+
+  /**
+   * A level of detail.
+   */
+  public static class Level {
+    private final double _minScreenSize;
+    private final double _updateRate;
+    private final int _maxWeights;
+
+    /**
+     * @param minScreenSize
+     *          the smallest screen size, as a fraction of the viewport height, this level is used for.
+     *          Ignored for the last level, which is used for anything smaller than the level before.
+     * @param updateRate
+     *          the throttle rate of animation at this level, in seconds. 0 to update every frame.
+     * @param maxWeights
+     *          the largest number of weights per vertex to skin with at this level, or 0 for all.
+     */
+    public Level(final double minScreenSize, final double updateRate, final int maxWeights) {
+      _minScreenSize = minScreenSize;
+      _updateRate = updateRate;
+      _maxWeights = maxWeights;
+    }
+
+    public double getMinScreenSize() { return _minScreenSize; }
+
+    public double getUpdateRate() { return _updateRate; }
+
+    public int getMaxWeights() { return _maxWeights; }
+  }
+
+  /**
+   * A managed character.
+   */
+  private static final class Entry {
+    final AnimationManager manager;
+    final Spatial boundsSource;
+    final double phase;
+    final double originalUpdateRate;
+    int level = -1;
+    /** Our position in _entries. */
+    int index;
+
+    Entry(final AnimationManager manager, final Spatial boundsSource, final double phase) {
+      this.manager = manager;
+      this.boundsSource = boundsSource;
+      this.phase = phase;
+      originalUpdateRate = manager.getUpdateRate();
+    }
+  }
+}
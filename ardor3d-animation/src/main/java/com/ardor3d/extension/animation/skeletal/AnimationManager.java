@@ -103,6 +103,18 @@ public class AnimationManager {
    */
   protected final List<AnimationUpdateStateListener> _updateStateListeners = new ArrayList<>();
 
+  /**
+   * If true, callbacks raised while updating (triggers, animation finished events) are queued rather
+   * than run. See {@link #setDeferCallbacks(boolean)}.
+   */
+  protected boolean _deferCallbacks = false;
+
+  /** Callbacks queued while _deferCallbacks is true. */
+  protected final List<Runnable> _deferredCallbacks = new ArrayList<>();
+
+  /** Joint mask given to our clip instances. See {@link #setJointMask(boolean[])}. */
+  protected boolean[] _jointMask;
+
   /**
    * Construct a new AnimationManager.
    *
@@ -346,18 +358,32 @@ public class AnimationManager {
    * data to any SkeletonPoses set on the manager.
    */
   public void update() {
+    if (updatePoses()) {
+      finishUpdate();
+    }
+  }
 
+  /**
+   * First part of {@link #update()}: move associated layers forward to the current global time and
+   * apply the associated animation data to any SkeletonPoses set on the manager. This only touches
+   * state owned by this manager, its layers and its poses, so different managers may run this in
+   * parallel - see {@link AnimationSystem}.
+   *
+   * @return true if an update was done, in which case {@link #finishUpdate()} should be called next.
+   *         False if we are paused, stopped or throttled.
+   */
+  public boolean updatePoses() {
     if (_currentAnimationState != AnimationUpdateState.Play) {
       if (_resetClipsOnStop) {
         if (_currentAnimationState == AnimationUpdateState.Stop && !_canSetStopState) {
           _canSetStopState = true;
         } else {
           // pause state or reset update has occurred
-          return;
+          return false;
         }
       } else {
         // stop update without reseting
-        return;
+        return false;
       }
     } else {
       _canSetStopState = false;
@@ -368,7 +394,7 @@ public class AnimationManager {
     // check throttle
     if (_updateRate != 0.0) {
       if (globalTime - _lastUpdate < _updateRate) {
-        return;
+        return false;
       }
 
       // we subtract a bit to maintain our desired rate, even if there are some gc pauses, etc.
@@ -391,7 +417,14 @@ public class AnimationManager {
         _applier.applyTo(pose, this);
       }
     }
+    return true;
+  }
 
+  /**
+   * Second part of {@link #update()}: apply animation data to non-pose assets in the scene graph and
+   * let layer states clean up.
+   */
+  public void finishUpdate() {
     // apply for non-pose related assets
     _applier.apply(_sceneRoot, this);
 
@@ -405,6 +438,42 @@ public class AnimationManager {
     }
   }
 
+  /**
+   * Run a callback raised during update, such as a trigger callback or an animation finished event.
+   * If we are deferring callbacks, it is queued until {@link #runDeferredCallbacks()} instead.
+   *
+   * @param callback
+   *          the callback to run.
+   */
+  public void runCallback(final Runnable callback) {
+    if (_deferCallbacks) {
+      _deferredCallbacks.add(callback);
+    } else {
+      callback.run();
+    }
+  }
+
+  /**
+   * Run, in the order they were raised, any callbacks queued while deferring callbacks.
+   */
+  public void runDeferredCallbacks() {
+    // callbacks may raise further callbacks, so don't use an iterator.
+    for (int i = 0; i < _deferredCallbacks.size(); i++) {
+      _deferredCallbacks.get(i).run();
+    }
+    _deferredCallbacks.clear();
+  }
+
+  public boolean isDeferCallbacks() { return _deferCallbacks; }
+
+  /**
+   * @param deferCallbacks
+   *          if true, callbacks raised during update are queued rather than run, so that an update may
+   *          be run on another thread and its callbacks delivered afterwards by calling
+   *          {@link #runDeferredCallbacks()} on the thread of our choice. Defaults to false.
+   */
+  public void setDeferCallbacks(final boolean deferCallbacks) { _deferCallbacks = deferCallbacks; }
+
   /**
    * Retrieve and track an instance of an animation clip to be used with this manager.
    *
@@ -417,6 +486,7 @@ public class AnimationManager {
     if (instance == null) {
       instance = new AnimationClipInstance();
       instance.setStartTime(_globalTimer.getTimeInSeconds());
+      instance.setJointMask(_jointMask);
       _clipInstances.put(clip, instance);
     }
 
@@ -552,6 +622,42 @@ public class AnimationManager {
    */
   public void setUpdateRate(final double updateRate) { _updateRate = updateRate; }
 
+  /**
+   * Shift the times at which our throttle lets updates through to phase * updateRate past a multiple
+   * of our update rate. Managers throttled to the same rate but given different phases update on
+   * different frames, spreading their work evenly. Our next update is held back to the first such time
+   * after our last. Does nothing if we are not throttled.
+   *
+   * @param phase
+   *          our phase, in [0, 1).
+   */
+  public void alignUpdates(final double phase) {
+    if (_updateRate == 0.0) {
+      return;
+    }
+    final double offset = phase * _updateRate;
+    final double globalTime = _globalTimer.getTimeInSeconds();
+    _lastUpdate = Math.floor((globalTime - offset) / _updateRate) * _updateRate + offset;
+  }
+
+  public boolean[] getJointMask() { return _jointMask; }
+
+  /**
+   * Limit the joints sampled from our clips on update, for example to animate fewer joints of distant
+   * characters. Joints outside the mask keep their last sampled transform and so follow their parents
+   * rigidly. See {@link Skeleton#getLodJointMask(int)}.
+   *
+   * @param jointMask
+   *          a flag per joint index, true if that joint should be animated, or null (the default) to
+   *          animate all joints. Given to all of our current and future clip instances.
+   */
+  public void setJointMask(final boolean[] jointMask) {
+    _jointMask = jointMask;
+    for (final AnimationClipInstance instance : _clipInstances.values()) {
+      instance.setJointMask(jointMask);
+    }
+  }
+
   /**
    * @return the current source data from the layers of this manager.
    */
@@ -566,6 +672,27 @@ public class AnimationManager {
     return _layers.get(_layers.size() - 1).getCurrentSourceData();
   }
 
+  /**
+   * Evaluate the layers of this manager into a pose buffer. This is the compiled counterpart of
+   * {@link #getCurrentSourceData()}: joint data is written by joint index and no maps are built, so once
+   * the buffer and the blend trees have been through a first evaluation this does not allocate.
+   *
+   * @param store
+   *          the buffer to write to. It is cleared first, and should have been sized for the skeleton
+   *          being animated with {@link PoseBuffer#setJointCount(int)}.
+   */
+  public void getCurrentSourcePose(final PoseBuffer store) {
+    // set up our layer blending.
+    for (int i = 0; i < _layers.size() - 1; i++) {
+      final AnimationLayer layerA = _layers.get(i);
+      final AnimationLayer layerB = _layers.get(i + 1);
+      layerB.updateLayerBlending(layerA);
+    }
+
+    store.clear();
+    _layers.get(_layers.size() - 1).getCurrentSourcePose(store);
+  }
+
   public LoggingMap<String, Double> getValuesStore() { return _valuesStore; }
 
   /**
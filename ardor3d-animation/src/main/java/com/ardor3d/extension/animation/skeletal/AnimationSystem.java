@@ -0,0 +1,294 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import com.ardor3d.util.Constants;
+import com.ardor3d.util.stat.StatCollector;
+import com.ardor3d.util.stat.StatType;
+
+/**
+ * <p>
+ * Updates a crowd of {@link AnimationManager}s together, spreading the work over a
+ * {@link ForkJoinPool}. Calling {@link #update()} is equivalent to calling
+ * {@link AnimationManager#update()} on each of our managers in the order they were added, except that:
+ * </p>
+ * <ol>
+ * <li>state machines, blend trees and pose transforms (including matrix palettes) of the managers are
+ * updated in parallel.</li>
+ * <li>CPU skinned meshes listening to the updated poses are then skinned in parallel.</li>
+ * <li>finally, on the calling thread and in the order managers were added, each manager gets its
+ * animation finished and trigger callbacks (in the order they were raised), then its pose listeners
+ * are notified, then it applies to its scene root and lets its layers clean up.</li>
+ * </ol>
+ * <p>
+ * So all user code - callbacks, custom listeners and appliers' scene graph work - runs on the calling
+ * thread in a deterministic order, no matter how many threads did the animation work.
+ * </p>
+ * <p>
+ * For this to be safe, managers of the same system must not share blend tree nodes, states, layers,
+ * appliers or poses. Clips and channels are read only during update and may be shared. Managers
+ * added to a system should not also be updated on their own.
+ * </p>
+ */
+public class AnimationSystem {
+
+  /** Nanoseconds spent updating state machines and poses. */
+  public static final StatType STAT_ANIMATION_UPDATE = new StatType("_animationUpdate");
+  /** Nanoseconds spent skinning meshes on the CPU. */
+  public static final StatType STAT_ANIMATION_SKIN = new StatType("_animationSkin");
+  /** Nanoseconds spent delivering callbacks and listener notifications and applying to the scene. */
+  public static final StatType STAT_ANIMATION_DELIVER = new StatType("_animationDeliver");
+
+  /** Our managers, in the order they were added. */
+  private final List<AnimationManager> _managers = new ArrayList<>();
+
+  /** The pool to run our work on. */
+  private ForkJoinPool _pool;
+
+  /** Largest number of items handled by a single task. */
+  private int _batchSize = 4;
+
+  /** If true, CPU skinning is done in parallel after updating poses. */
+  private boolean _parallelSkinning = true;
+
+  /** Flag per manager, set if it was updated this frame. Reused between updates. */
+  private boolean[] _updated = new boolean[0];
+
+  /** Meshes to skin this frame. Reused between updates. */
+  private final List<SkinnedMesh> _skins = new ArrayList<>();
+
+  /** The meshes in _skins, to skip meshes listening to more than one updated pose. Reused between updates. */
+  private final Set<SkinnedMesh> _collectedSkins = Collections.newSetFromMap(new IdentityHashMap<>());
+
+  private long _lastUpdateNanos;
+  private long _lastSkinNanos;
+  private long _lastDeliverNanos;
+  private int _lastUpdatedCount;
+  private int _lastSkinnedCount;
+
+  /**
+   * Construct a new animation system running on the common fork join pool.
+   */
+  public AnimationSystem() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Construct a new animation system.
+   *
+   * @param pool
+   *          the pool to run our work on.
+   */
+  public AnimationSystem(final ForkJoinPool pool) {
+    setPool(pool);
+  }
+
+  /**
+   * Add a manager to be updated by this system. Managers are delivered their callbacks in the order
+   * they were added.
+   *
+   * @param manager
+   *          the manager to add
+   */
+  public void addManager(final AnimationManager manager) {
+    if (!_managers.contains(manager)) {
+      _managers.add(manager);
+    }
+  }
+
+  /**
+   * @param manager
+   *          the manager to remove
+   * @return true if the manager was found and removed.
+   */
+  public boolean removeManager(final AnimationManager manager) {
+    return _managers.remove(manager);
+  }
+
+  /**
+   * @return an unmodifiable view of our managers, in the order they were added.
+   */
+  public List<AnimationManager> getManagers() { return Collections.unmodifiableList(_managers); }
+
+  /**
+   * Update all of our managers, as described in the class documentation. Must not be called while
+   * another update of this system is running.
+   */
+  public void update() {
+    final int count = _managers.size();
+    if (_updated.length < count) {
+      _updated = new boolean[count];
+    }
+    _lastSkinnedCount = 0;
+
+    // set everything up to hold its notifications until we are ready to deliver them.
+    for (int i = 0; i < count; i++) {
+      final AnimationManager manager = _managers.get(i);
+      manager.setDeferCallbacks(true);
+      for (int j = 0, maxJ = manager.getPoseCount(); j < maxJ; j++) {
+        manager.getSkeletonPose(j).setDeferPoseUpdated(true);
+      }
+    }
+
+    try {
+      // Phase 1: state machines, blend trees and pose transforms
+      long start = System.nanoTime();
+      RangeTask.run(_pool, count, _batchSize, (from, to) -> {
+        for (int i = from; i < to; i++) {
+          _updated[i] = _managers.get(i).updatePoses();
+        }
+      });
+      int updated = 0;
+      for (int i = 0; i < count; i++) {
+        updated += _updated[i] ? 1 : 0;
+      }
+      _lastUpdatedCount = updated;
+      _lastUpdateNanos = System.nanoTime() - start;
+
+      // Phase 2: CPU skinning
+      start = System.nanoTime();
+      if (_parallelSkinning) {
+        collectSkins(count);
+        _lastSkinnedCount = _skins.size();
+        RangeTask.run(_pool, _skins.size(), _batchSize, (from, to) -> {
+          for (int i = from; i < to; i++) {
+            _skins.get(i).applyPose();
+          }
+        });
+        _skins.clear();
+      }
+      _lastSkinNanos = System.nanoTime() - start;
+
+      // Phase 3: deliver everything, in order, on this thread
+      start = System.nanoTime();
+      for (int i = 0; i < count; i++) {
+        final AnimationManager manager = _managers.get(i);
+        manager.setDeferCallbacks(false);
+        manager.runDeferredCallbacks();
+        for (int j = 0, maxJ = manager.getPoseCount(); j < maxJ; j++) {
+          final SkeletonPose pose = manager.getSkeletonPose(j);
+          pose.setDeferPoseUpdated(false);
+          pose.firePendingPoseUpdated();
+        }
+        if (_updated[i]) {
+          manager.finishUpdate();
+        }
+      }
+      _lastDeliverNanos = System.nanoTime() - start;
+    } finally {
+      for (int i = 0; i < count; i++) {
+        final AnimationManager manager = _managers.get(i);
+        manager.setDeferCallbacks(false);
+        for (int j = 0, maxJ = manager.getPoseCount(); j < maxJ; j++) {
+          manager.getSkeletonPose(j).setDeferPoseUpdated(false);
+        }
+      }
+      _skins.clear();
+    }
+
+    if (Constants.stats) {
+      StatCollector.addStat(STAT_ANIMATION_UPDATE, _lastUpdateNanos);
+      StatCollector.addStat(STAT_ANIMATION_SKIN, _lastSkinNanos);
+      StatCollector.addStat(STAT_ANIMATION_DELIVER, _lastDeliverNanos);
+    }
+  }
+
+  /**
+   * Gather the meshes listening to poses updated this frame that use the default CPU skinning path.
+   */
+  private void collectSkins(final int count) {
+    _collectedSkins.clear();
+    for (int i = 0; i < count; i++) {
+      if (!_updated[i]) {
+        continue;
+      }
+      final AnimationManager manager = _managers.get(i);
+      for (int j = 0, maxJ = manager.getPoseCount(); j < maxJ; j++) {
+        final SkeletonPose pose = manager.getSkeletonPose(j);
+        final List<PoseListener> listeners = pose.getPoseListeners();
+        for (int k = 0, maxK = listeners.size(); k < maxK; k++) {
+          if (listeners.get(k) instanceof final SkinnedMesh skin && !skin.isUseGPU()
+              && skin.getCustomApplier() == null && skin.getCurrentPose() == pose && _collectedSkins.add(skin)) {
+            _skins.add(skin);
+          }
+        }
+      }
+    }
+    _collectedSkins.clear();
+  }
+
+  public ForkJoinPool getPool() { return _pool; }
+
+  /**
+   * @param pool
+   *          the pool to run our work on. Defaults to the common fork join pool.
+   */
+  public void setPool(final ForkJoinPool pool) {
+    if (pool == null) {
+      throw new IllegalArgumentException("pool must not be null.");
+    }
+    _pool = pool;
+  }
+
+  public int getBatchSize() { return _batchSize; }
+
+  /**
+   * @param batchSize
+   *          the largest number of managers or meshes handled by a single task. Defaults to 4.
+   */
+  public void setBatchSize(final int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("batchSize must be at least 1.");
+    }
+    _batchSize = batchSize;
+  }
+
+  public boolean isParallelSkinning() { return _parallelSkinning; }
+
+  /**
+   * @param parallelSkinning
+   *          if true (the default), meshes skinned on the CPU are skinned in parallel after updating
+   *          poses. If false, they are skinned on the calling thread as their poses notify them.
+   */
+  public void setParallelSkinning(final boolean parallelSkinning) { _parallelSkinning = parallelSkinning; }
+
+  /**
+   * @return nanoseconds spent updating state machines and poses during our last update.
+   */
+  public long getLastUpdateNanos() { return _lastUpdateNanos; }
+
+  /**
+   * @return nanoseconds spent skinning on the CPU during our last update.
+   */
+  public long getLastSkinNanos() { return _lastSkinNanos; }
+
+  /**
+   * @return nanoseconds spent delivering callbacks and notifications during our last update.
+   */
+  public long getLastDeliverNanos() { return _lastDeliverNanos; }
+
+  /**
+   * @return the number of managers that were not paused, stopped or throttled during our last update.
+   */
+  public int getLastUpdatedCount() { return _lastUpdatedCount; }
+
+  /**
+   * @return the number of meshes skinned in parallel during our last update.
+   */
+  public int getLastSkinnedCount() { return _lastSkinnedCount; }
+}
@@ -0,0 +1,330 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+
+import com.ardor3d.bounding.BoundingVolume;
+import com.ardor3d.buffer.AbstractBufferData;
+import com.ardor3d.buffer.BufferUtils;
+import com.ardor3d.buffer.FloatBufferData;
+import com.ardor3d.extension.animation.skeletal.clip.BakedAnimationClip;
+import com.ardor3d.image.Texture2D;
+import com.ardor3d.math.Transform;
+import com.ardor3d.math.type.ReadOnlyTransform;
+import com.ardor3d.renderer.Renderer;
+import com.ardor3d.renderer.state.TextureState;
+import com.ardor3d.scenegraph.Mesh;
+import com.ardor3d.scenegraph.MeshData;
+import com.ardor3d.scenegraph.event.DirtyType;
+
+/**
+ * <p>
+ * Draws a crowd of copies of a skinned mesh, each playing one of a set of {@link BakedAnimationClip}s,
+ * in a single instanced draw with no CPU skinning or pose updates. The palettes of all clips are
+ * packed into one float texture, laid out as in {@link JointPaletteTexture}, and each instance carries
+ * just its transform and which clip it plays from when. The vertex shader picks and blends the two
+ * baked frames around the current time for each instance, as given by
+ * {@link BakedAnimationClip#samplePalette(double, float[])}.
+ * </p>
+ * <p>
+ * Per instance attributes are "instanceMatrix" (a mat4) and "instanceAnimation" (first palette slot,
+ * frame count, frames per second and start time of its clip). Use with a material whose skinning
+ * shader defines both PALETTE_TEXTURE and BAKED_ANIMATION, such as
+ * unlit/untextured/basic_skinmesh_baked.yaml. The current time is set with
+ * {@link #setPlaybackTime(double)}.
+ * </p>
+ * <p>
+ * Our model bound is the bind pose bound of the source mesh, placed at each instance. Clips that move
+ * far from the bind pose may need a larger model bound set on the source mesh before we are built.
+ * </p>
+ */
+public class BakedCrowdMesh extends Mesh {
+
+  /** Key of our per instance animation attribute. */
+  public static final String KEY_InstanceAnimation = "instanceAnimation";
+
+  /** Floats per instance matrix. */
+  private static final int MATRIX_SIZE = 16;
+
+  /** Floats per instance animation entry. */
+  private static final int ANIMATION_SIZE = 4;
+
+  /** The clips we can play. */
+  private final List<BakedAnimationClip> _clips;
+
+  /** First palette slot of each of our clips. */
+  private final int[] _clipSlots;
+
+  private final int _jointCount;
+
+  private final Texture2D _texture;
+
+  /** Our instance transforms, for bounds. */
+  private final List<Transform> _transforms = new ArrayList<>();
+
+  private FloatBuffer _instanceMatrices;
+  private FloatBuffer _instanceAnimations;
+
+  /** Bind pose bound of the source mesh, in its model space. */
+  private BoundingVolume _bindBound;
+
+  private boolean _instanceBoundsDirty = true;
+
+  private final double[] _matrix = new double[12];
+
+  /**
+   * Construct a new crowd mesh.
+   *
+   * @param name
+   *          the name of the mesh
+   * @param skin
+   *          the skinned mesh to draw copies of. Its bind pose data is shared, not copied.
+   * @param paletteUnit
+   *          the texture unit to bind our palette texture to.
+   * @param clips
+   *          the clips instances can play, all baked for the same skeleton as the skin uses.
+   */
+  public BakedCrowdMesh(final String name, final SkinnedMesh skin, final int paletteUnit,
+      final List<BakedAnimationClip> clips) {
+    super(name);
+    if (clips.isEmpty()) {
+      throw new IllegalArgumentException("at least one clip is needed.");
+    }
+    _clips = List.copyOf(clips);
+    _jointCount = _clips.get(0).getJointCount();
+
+    // pack the palettes of all our clips, frame after frame
+    _clipSlots = new int[_clips.size()];
+    int slots = 0;
+    for (int i = 0; i < _clipSlots.length; i++) {
+      final BakedAnimationClip clip = _clips.get(i);
+      if (clip.getJointCount() != _jointCount) {
+        throw new IllegalArgumentException("clip '" + clip.getName() + "' has " + clip.getJointCount()
+            + " joints, expected " + _jointCount + ".");
+      }
+      _clipSlots[i] = slots;
+      slots += clip.getFrameCount() * _jointCount;
+    }
+    final int slotsPerRow = JointPaletteTexture.JOINTS_PER_ROW;
+    final int rows = Math.max(1, (slots + slotsPerRow - 1) / slotsPerRow);
+    final ByteBuffer bytes =
+        BufferUtils.createByteBuffer(rows * slotsPerRow * JointPaletteTexture.FLOATS_PER_JOINT * Float.BYTES);
+    final FloatBuffer data = bytes.asFloatBuffer();
+    for (int i = 0; i < _clipSlots.length; i++) {
+      data.put(_clipSlots[i] * JointPaletteTexture.FLOATS_PER_JOINT, _clips.get(i).getPalettes());
+    }
+    _texture = JointPaletteTexture.createTexture();
+    _texture.setImage(JointPaletteTexture.createImage(bytes, rows));
+
+    final TextureState ts = new TextureState();
+    ts.setTexture(_texture, paletteUnit);
+    setRenderState(ts);
+    setProperty("jointPaletteTexture", paletteUnit);
+    setProperty("bakedJointCount", _jointCount);
+    setPlaybackTime(0);
+
+    shareBindPose(skin);
+    setInstanceBuffers(16);
+    setInstanceCount(0);
+  }
+
+  private void shareBindPose(final SkinnedMesh skin) {
+    final MeshData bind = skin.getBindPoseData();
+    if (!bind.containsKey("weights")) {
+      skin.recreateWeightAttributeBuffer();
+    }
+    if (!bind.containsKey("jointIds")) {
+      skin.recreateJointAttributeBuffer();
+    }
+    for (final Entry<String, AbstractBufferData<? extends Buffer>> item : bind.listDataItems()) {
+      _meshData.setCoords(item.getKey(), item.getValue());
+    }
+    _meshData.setIndices(bind.getIndices());
+    _meshData.setIndexModes(bind.getIndexModes());
+    _meshData.setIndexLengths(bind.getIndexLengths());
+    _meshData.updateVertexCount();
+
+    if (skin.getModelBound() != null) {
+      _bindBound = skin.getModelBound().clone(null);
+      _bindBound.computeFromPoints(bind.getVertexBuffer().duplicate());
+      setModelBound(_bindBound.clone(null));
+    }
+  }
+
+  /**
+   * Add an instance, playing one of our clips.
+   *
+   * @param transform
+   *          the placement of the instance.
+   * @param clip
+   *          the index of the clip to play.
+   * @param startTime
+   *          the playback time, in seconds, at which the clip starts. Use different start times to keep
+   *          instances playing the same clip out of step.
+   * @return the index of the new instance.
+   */
+  public int addInstance(final ReadOnlyTransform transform, final int clip, final double startTime) {
+    final int index = _transforms.size();
+    if ((index + 1) * MATRIX_SIZE > _instanceMatrices.capacity()) {
+      setInstanceBuffers(2 * (index + 1));
+    }
+    _transforms.add(new Transform());
+    setInstanceCount(index + 1);
+    setInstanceTransform(index, transform);
+    setInstanceClip(index, clip, startTime, 1);
+    return index;
+  }
+
+  /**
+   * @param index
+   *          the instance to move
+   * @param transform
+   *          the new placement of the instance.
+   */
+  public void setInstanceTransform(final int index, final ReadOnlyTransform transform) {
+    _transforms.get(index).set(transform);
+    SkeletonPose.getMatrix(transform, _matrix, 0);
+    // column major, as the shader reads it
+    final int offset = index * MATRIX_SIZE;
+    for (int column = 0; column < 4; column++) {
+      for (int row = 0; row < 3; row++) {
+        _instanceMatrices.put(offset + column * 4 + row, (float) _matrix[row * 4 + column]);
+      }
+      _instanceMatrices.put(offset + column * 4 + 3, column == 3 ? 1f : 0f);
+    }
+    _meshData.markBufferDirty(MeshData.KEY_InstanceMatrix);
+    _instanceBoundsDirty = true;
+  }
+
+  /**
+   * @param index
+   *          the instance to change
+   * @param clip
+   *          the index of the clip to play.
+   * @param startTime
+   *          the playback time, in seconds, at which the clip starts.
+   * @param speed
+   *          the playback speed of the clip, 1 for its baked speed. May be negative.
+   */
+  public void setInstanceClip(final int index, final int clip, final double startTime, final double speed) {
+    final BakedAnimationClip baked = _clips.get(clip);
+    final int offset = index * ANIMATION_SIZE;
+    _instanceAnimations.put(offset, _clipSlots[clip]);
+    _instanceAnimations.put(offset + 1, baked.getFrameCount());
+    _instanceAnimations.put(offset + 2, (float) (baked.getFramesPerSecond() * speed));
+    _instanceAnimations.put(offset + 3, (float) startTime);
+    _meshData.markBufferDirty(KEY_InstanceAnimation);
+  }
+
+  /**
+   * Remove all instances.
+   */
+  public void clearInstances() {
+    _transforms.clear();
+    setInstanceCount(0);
+    _instanceBoundsDirty = true;
+  }
+
+  /**
+   * @param time
+   *          the current playback time, in seconds, in the same timeline as instance start times. Kept
+   *          as a float on the card, so keep it within a few hours of 0 for smooth playback.
+   */
+  public void setPlaybackTime(final double time) {
+    setProperty("bakedTime", (float) time);
+  }
+
+  /**
+   * @return the clips our instances can play.
+   */
+  public List<BakedAnimationClip> getClips() { return _clips; }
+
+  /**
+   * @param clip
+   *          a clip index
+   * @return the first palette slot of the given clip in our texture.
+   */
+  public int getClipSlot(final int clip) {
+    return _clipSlots[clip];
+  }
+
+  /**
+   * @return our texture, holding the palettes of all of our clips.
+   */
+  public Texture2D getTexture() { return _texture; }
+
+  /**
+   * @return our per instance matrices, 16 floats each, column major. Do not modify.
+   */
+  public FloatBuffer getInstanceMatrices() { return _instanceMatrices.duplicate(); }
+
+  /**
+   * @return our per instance animation entries, 4 floats each. Do not modify.
+   */
+  public FloatBuffer getInstanceAnimations() { return _instanceAnimations.duplicate(); }
+
+  @Override
+  public boolean render(final Renderer renderer) {
+    if (getInstanceCount() == 0) {
+      return false;
+    }
+    return super.render(renderer);
+  }
+
+  @Override
+  public void updateModelBound() {
+    if (_modelBound == null || _bindBound == null) {
+      super.updateModelBound();
+      return;
+    }
+    if (_transforms.isEmpty()) {
+      _modelBound.computeFromPoints(_meshData.getVertexBuffer().duplicate());
+    }
+    BoundingVolume placed = null;
+    for (int i = 0, maxI = _transforms.size(); i < maxI; i++) {
+      placed = _bindBound.transform(_transforms.get(i), placed);
+      if (i == 0) {
+        _modelBound = placed.clone(_modelBound);
+      } else {
+        _modelBound.mergeLocal(placed);
+      }
+    }
+    _instanceBoundsDirty = false;
+    markDirty(DirtyType.Bounding);
+  }
+
+  @Override
+  public void updateWorldBound(final boolean recurse) {
+    if (_instanceBoundsDirty) {
+      updateModelBound();
+    }
+    super.updateWorldBound(recurse);
+  }
+
+  private void setInstanceBuffers(final int capacity) {
+    final FloatBuffer matrices = BufferUtils.createFloatBuffer(capacity * MATRIX_SIZE);
+    final FloatBuffer animations = BufferUtils.createFloatBuffer(capacity * ANIMATION_SIZE);
+    if (_instanceMatrices != null) {
+      matrices.put(0, _instanceMatrices, 0, _instanceMatrices.capacity());
+      animations.put(0, _instanceAnimations, 0, _instanceAnimations.capacity());
+    }
+    _instanceMatrices = matrices;
+    _instanceAnimations = animations;
+    _meshData.setCoords(MeshData.KEY_InstanceMatrix, new FloatBufferData(matrices, 4));
+    _meshData.setCoords(KEY_InstanceAnimation, new FloatBufferData(animations, ANIMATION_SIZE));
+  }
+}
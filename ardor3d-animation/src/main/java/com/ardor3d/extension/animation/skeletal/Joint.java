@@ -38,6 +38,9 @@ public class Joint implements Savable {
   /** Index of our parent Joint, or NO_PARENT if we are the root. */
   protected short _parentIndex;
 
+  /** Bumped when our parent or inverse bind pose changes, so skeletons can refresh their caches. */
+  private transient int _modCount;
+
   /**
    * Construct a new Joint object using the given name.
    *
@@ -55,6 +58,7 @@ public class Joint implements Savable {
 
   public void setInverseBindPose(final ReadOnlyTransform inverseBindPose) {
     _inverseBindPose.set(inverseBindPose);
+    _modCount++;
   }
 
   /**
@@ -68,7 +72,10 @@ public class Joint implements Savable {
    * @param parentIndex
    *          the index, or NO_PARENT if this Joint is root (has no parent)
    */
-  public void setParentIndex(final short parentIndex) { _parentIndex = parentIndex; }
+  public void setParentIndex(final short parentIndex) {
+    _parentIndex = parentIndex;
+    _modCount++;
+  }
 
   public short getParentIndex() { return _parentIndex; }
 
@@ -76,6 +83,11 @@ public class Joint implements Savable {
 
   public short getIndex() { return _index; }
 
+  /**
+   * @return a count bumped whenever our parent index or inverse bind pose is set.
+   */
+  int getModCount() { return _modCount; }
+
   @Override
   public String toString() {
     return "Joint: '" + getName() + "'";
@@ -0,0 +1,274 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import com.ardor3d.buffer.BufferUtils;
+import com.ardor3d.image.Image;
+import com.ardor3d.image.ImageDataFormat;
+import com.ardor3d.image.PixelDataType;
+import com.ardor3d.image.Texture.MagnificationFilter;
+import com.ardor3d.image.Texture.MinificationFilter;
+import com.ardor3d.image.Texture2D;
+import com.ardor3d.image.TextureStoreFormat;
+import com.ardor3d.renderer.ContextManager;
+import com.ardor3d.renderer.RenderContext;
+import com.ardor3d.renderer.Renderer;
+import com.ardor3d.util.TextureKey;
+
+/**
+ * <p>
+ * Holds the matrix palettes of many skeleton poses in a single float texture, for GPU skinning of
+ * skeletons of any size without a uniform per joint. Each pose added gets a run of consecutive
+ * palette slots, one per joint, and its meshes draw with the offset of that run (see
+ * {@link SkinnedMesh#setJointPaletteTexture(JointPaletteTexture, int)}). Meshes sharing a pose share
+ * its slots, so the palette is written once per pose update, however many meshes use it.
+ * </p>
+ * <p>
+ * Each slot is three RGBA texels holding the top three rows of the joint's matrix, as given by
+ * {@link SkeletonPose#getMatrixPaletteArray()}. Slot n is found at texel ((n mod
+ * {@link #JOINTS_PER_ROW}) * 3, n / {@link #JOINTS_PER_ROW}). The texture grows by whole rows as
+ * poses are added.
+ * </p>
+ * <p>
+ * Palettes are written by {@link #addPose(SkeletonPose)} and the changed rows are sent to the card by
+ * {@link #upload(Renderer)}, called from the render thread. Everything but the upload works without a
+ * graphics context. Poses keep their slots until {@link #clear()} is called.
+ * </p>
+ */
+public class JointPaletteTexture {
+
+  /** Number of palette slots per texture row. */
+  public static final int JOINTS_PER_ROW = 256;
+
+  /** Number of RGBA texels per palette slot. */
+  public static final int TEXELS_PER_JOINT = 3;
+
+  /** Number of floats per palette slot. */
+  static final int FLOATS_PER_JOINT = TEXELS_PER_JOINT * 4;
+
+  /** Texture width, in texels. */
+  private static final int WIDTH = JOINTS_PER_ROW * TEXELS_PER_JOINT;
+
+  /** Our palette slots, by pose. */
+  private final Map<SkeletonPose, Slot> _slots = new IdentityHashMap<>();
+
+  private final Texture2D _texture;
+
+  private ByteBuffer _bytes;
+  private FloatBuffer _data;
+  private int _rows;
+
+  /** Number of slots in use. */
+  private int _usedJoints;
+
+  /** Rows written since our last upload, or -1 if none. */
+  private int _dirtyFirstRow = -1, _dirtyLastRow = -1;
+
+  /**
+   * Construct a new palette texture with room for 256 joints.
+   */
+  public JointPaletteTexture() {
+    this(JOINTS_PER_ROW);
+  }
+
+  /**
+   * Construct a new palette texture.
+   *
+   * @param initialJoints
+   *          number of palette slots to make room for up front.
+   */
+  public JointPaletteTexture(final int initialJoints) {
+    _texture = createTexture();
+    setRows(Math.max(1, (initialJoints + JOINTS_PER_ROW - 1) / JOINTS_PER_ROW));
+  }
+
+  /**
+   * Write the current palette of the given pose to its slots, if it was updated since we last wrote
+   * it, giving the pose slots first if needed.
+   *
+   * @param pose
+   *          the pose to add
+   * @return the first palette slot of the pose - the offset to add to its joint indices.
+   */
+  public synchronized int addPose(final SkeletonPose pose) {
+    Slot slot = _slots.get(pose);
+    if (slot == null) {
+      final int joints = pose.getSkeleton().getJoints().length;
+      ensureCapacity(_usedJoints + joints);
+      slot = new Slot(_usedJoints, joints);
+      _usedJoints += joints;
+      _slots.put(pose, slot);
+    }
+
+    final long updateCount = pose.getUpdateCount();
+    if (slot.writtenUpdate != updateCount) {
+      _data.put(slot.offset * FLOATS_PER_JOINT, pose.getMatrixPaletteArray(), 0, slot.joints * FLOATS_PER_JOINT);
+      slot.writtenUpdate = updateCount;
+      markDirty(slot.offset / JOINTS_PER_ROW, (slot.offset + slot.joints - 1) / JOINTS_PER_ROW);
+    }
+    return slot.offset;
+  }
+
+  /**
+   * @param pose
+   *          a pose
+   * @return the first palette slot of the given pose, or -1 if it has not been added.
+   */
+  public synchronized int getOffset(final SkeletonPose pose) {
+    final Slot slot = _slots.get(pose);
+    return slot != null ? slot.offset : -1;
+  }
+
+  /**
+   * Drop all poses. Slots are handed out again from the start as poses are next added, so call this
+   * when the set of skinned meshes drawn with this texture changes.
+   */
+  public synchronized void clear() {
+    _slots.clear();
+    _usedJoints = 0;
+  }
+
+  /**
+   * Send the rows written since our last upload to the card. If the texture has not been created yet
+   * for the current context, or must be sent again in full anyway, nothing is sent here.
+   *
+   * @param renderer
+   *          the renderer to upload with
+   */
+  public synchronized void upload(final Renderer renderer) {
+    if (_dirtyFirstRow < 0) {
+      return;
+    }
+
+    final RenderContext context = ContextManager.getCurrentContext();
+    if (_texture.getTextureIdForContext(context) != 0 && !_texture.isDirty(context)) {
+      _bytes.rewind();
+      renderer.getTextureUtils().updateTexture2DSubImage(_texture, 0, _dirtyFirstRow, WIDTH,
+          _dirtyLastRow - _dirtyFirstRow + 1, _bytes, 0, _dirtyFirstRow, WIDTH);
+    }
+    _dirtyFirstRow = _dirtyLastRow = -1;
+  }
+
+  /**
+   * Forget the rows written since our last upload, without sending them.
+   */
+  public synchronized void clearPendingUpload() {
+    _dirtyFirstRow = _dirtyLastRow = -1;
+  }
+
+  /**
+   * @return true if palettes were written since our last upload.
+   */
+  public synchronized boolean isUploadPending() { return _dirtyFirstRow >= 0; }
+
+  /**
+   * @return the number of palette slots in use.
+   */
+  public synchronized int getUsedJoints() { return _usedJoints; }
+
+  /**
+   * @return the number of poses holding slots.
+   */
+  public synchronized int getPoseCount() { return _slots.size(); }
+
+  /**
+   * @return the number of palette slots the texture currently has room for.
+   */
+  public synchronized int getCapacity() { return _rows * JOINTS_PER_ROW; }
+
+  /**
+   * @return our texture. Its image is replaced when we grow.
+   */
+  public Texture2D getTexture() { return _texture; }
+
+  /**
+   * @return our palette data, 12 floats per slot. Do not modify.
+   */
+  public synchronized FloatBuffer getData() { return _data.duplicate(); }
+
+  private void ensureCapacity(final int joints) {
+    if (joints > _rows * JOINTS_PER_ROW) {
+      int rows = _rows;
+      while (rows * JOINTS_PER_ROW < joints) {
+        rows *= 2;
+      }
+      setRows(rows);
+    }
+  }
+
+  private void markDirty(final int firstRow, final int lastRow) {
+    _dirtyFirstRow = _dirtyFirstRow < 0 ? firstRow : Math.min(_dirtyFirstRow, firstRow);
+    _dirtyLastRow = Math.max(_dirtyLastRow, lastRow);
+  }
+
+  private void setRows(final int rows) {
+    final ByteBuffer bytes = BufferUtils.createByteBuffer(rows * WIDTH * 4 * Float.BYTES);
+    final FloatBuffer data = bytes.asFloatBuffer();
+    if (_data != null) {
+      data.put(0, _data, 0, _data.capacity());
+    }
+    _bytes = bytes;
+    _data = data;
+    _rows = rows;
+
+    _texture.setImage(createImage(bytes, rows));
+    // resend the whole image, at its new size
+    _texture.setDirty();
+  }
+
+  /**
+   * @return a new texture, with no image, set up for palette data - unfiltered RGBA32F.
+   */
+  static Texture2D createTexture() {
+    final Texture2D texture = new Texture2D();
+    texture.setMinificationFilter(MinificationFilter.NearestNeighborNoMipMaps);
+    texture.setMagnificationFilter(MagnificationFilter.NearestNeighbor);
+    texture.setTextureKey(TextureKey.getRTTKey(texture.getMinificationFilter()));
+    texture.setTextureStoreFormat(TextureStoreFormat.RGBA32F);
+    return texture;
+  }
+
+  /**
+   * @param bytes
+   *          palette data, {@link #FLOATS_PER_JOINT} floats per slot, for the given number of rows.
+   * @param rows
+   *          number of texture rows, each holding {@link #JOINTS_PER_ROW} slots.
+   * @return a new image over the given palette data.
+   */
+  static Image createImage(final ByteBuffer bytes, final int rows) {
+    final Image img = new Image();
+    img.setWidth(WIDTH);
+    img.setHeight(rows);
+    img.setDataFormat(ImageDataFormat.RGBA);
+    img.setDataType(PixelDataType.Float);
+    img.setData(bytes);
+    return img;
+  }
+
+  /**
+   * The palette slots of a pose.
+   */
+  private static final class Slot {
+    final int offset;
+    final int joints;
+    long writtenUpdate = -1;
+
+    Slot(final int offset, final int joints) {
+      this.offset = offset;
+      this.joints = joints;
+    }
+  }
+}
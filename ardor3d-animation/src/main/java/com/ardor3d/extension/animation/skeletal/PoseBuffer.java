@@ -0,0 +1,345 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.ardor3d.extension.animation.skeletal.blendtree.BinaryLERPSource;
+import com.ardor3d.extension.animation.skeletal.clip.JointData;
+import com.ardor3d.extension.animation.skeletal.clip.TransformData;
+import com.ardor3d.extension.animation.skeletal.clip.TriggerData;
+import com.ardor3d.math.Quaternion;
+import com.ardor3d.math.Transform;
+import com.ardor3d.math.Vector3;
+
+/**
+ * <p>
+ * Holds the local transforms of a skeleton's joints, indexed by joint, while a blend tree is being
+ * evaluated. This is the target of the "compiled" evaluation path of the animation system (see
+ * {@link AnimationManager#getCurrentSourcePose(PoseBuffer)}), which avoids building a map of channel
+ * name to data for every node of the tree on every update.
+ * </p>
+ * <p>
+ * Transforms are stored as structures of arrays - one array each for translations, rotations and
+ * scales - along with a flag per joint recording whether that joint has been written since the last
+ * {@link #clear()}. Joints that are not written are left alone when the buffer is applied to a pose,
+ * just like joints missing from the source data map. Armed triggers met during evaluation are
+ * collected too.
+ * </p>
+ * <p>
+ * Blend nodes evaluate their second input into a scratch buffer taken from {@link #pushScratch()}.
+ * Scratch buffers are kept and reused, so once a tree has been evaluated a first time, further
+ * evaluations do not allocate.
+ * </p>
+ */
+public class PoseBuffer {
+
+  /** Number of joints this buffer holds. */
+  private int _jointCount;
+
+  /** x, y, z per joint. */
+  private double[] _translations = new double[0];
+
+  /** x, y, z, w per joint. */
+  private double[] _rotations = new double[0];
+
+  /** x, y, z per joint. */
+  private double[] _scales = new double[0];
+
+  /** True for each joint written since our last clear. */
+  private boolean[] _written = new boolean[0];
+
+  /** Number of joints written since our last clear. */
+  private int _writtenCount;
+
+  /** Armed triggers found during evaluation. */
+  private final List<TriggerData> _triggers = new ArrayList<>();
+
+  /** Scratch buffers for blend nodes, reused between evaluations. */
+  private final List<PoseBuffer> _scratch = new ArrayList<>();
+
+  /** Number of scratch buffers currently in use. */
+  private int _scratchDepth;
+
+  private final Quaternion _compQuat1 = new Quaternion();
+  private final Quaternion _compQuat2 = new Quaternion();
+  private final Quaternion _compQuat3 = new Quaternion();
+  private final Vector3 _compVect = new Vector3();
+
+  /**
+   * Construct a new, empty pose buffer. {@link #setJointCount(int)} must be called before use.
+   */
+  public PoseBuffer() {}
+
+  /**
+   * Construct a new pose buffer.
+   *
+   * @param jointCount
+   *          the number of joints to hold.
+   */
+  public PoseBuffer(final int jointCount) {
+    setJointCount(jointCount);
+  }
+
+  /**
+   * Set the number of joints this buffer holds and clear it. Storage only grows, so switching back
+   * and forth between skeletons does not allocate once the largest has been seen.
+   *
+   * @param jointCount
+   *          the number of joints to hold.
+   */
+  public void setJointCount(final int jointCount) {
+    if (jointCount > _written.length) {
+      _translations = new double[jointCount * 3];
+      _rotations = new double[jointCount * 4];
+      _scales = new double[jointCount * 3];
+      _written = new boolean[jointCount];
+    }
+    _jointCount = jointCount;
+    clear();
+  }
+
+  public int getJointCount() { return _jointCount; }
+
+  /**
+   * Mark all joints as unwritten and forget any collected triggers.
+   */
+  public void clear() {
+    if (_writtenCount > 0) {
+      Arrays.fill(_written, 0, _jointCount, false);
+      _writtenCount = 0;
+    }
+    _triggers.clear();
+  }
+
+  /**
+   * @return true if no joints have been written and no triggers collected since our last clear.
+   */
+  public boolean isEmpty() { return _writtenCount == 0 && _triggers.isEmpty(); }
+
+  /**
+   * @param jointIndex
+   *          the joint to check
+   * @return true if the given joint has been written since our last clear.
+   */
+  public boolean isWritten(final int jointIndex) {
+    return jointIndex >= 0 && jointIndex < _jointCount && _written[jointIndex];
+  }
+
+  /**
+   * Write a joint transform. Joint indices outside of our joint count are ignored.
+   *
+   * @param jointIndex
+   *          the joint to write
+   * @param data
+   *          the transform to copy.
+   */
+  public void setJoint(final int jointIndex, final TransformData data) {
+    if (jointIndex < 0 || jointIndex >= _jointCount) {
+      return;
+    }
+    final Vector3 translation = data.getTranslation();
+    final Quaternion rotation = data.getRotation();
+    final Vector3 scale = data.getScale();
+    final int v = jointIndex * 3, q = jointIndex * 4;
+    _translations[v] = translation.getX();
+    _translations[v + 1] = translation.getY();
+    _translations[v + 2] = translation.getZ();
+    _rotations[q] = rotation.getX();
+    _rotations[q + 1] = rotation.getY();
+    _rotations[q + 2] = rotation.getZ();
+    _rotations[q + 3] = rotation.getW();
+    _scales[v] = scale.getX();
+    _scales[v + 1] = scale.getY();
+    _scales[v + 2] = scale.getZ();
+    markWritten(jointIndex);
+  }
+
+  /**
+   * Write a joint transform, using the joint index of the given data.
+   *
+   * @param data
+   *          the transform to copy.
+   */
+  public void setJoint(final JointData data) {
+    setJoint(data.getJointIndex(), data);
+  }
+
+  private void markWritten(final int jointIndex) {
+    if (!_written[jointIndex]) {
+      _written[jointIndex] = true;
+      _writtenCount++;
+    }
+  }
+
+  /**
+   * @param jointIndex
+   *          the joint to read
+   * @param store
+   *          the quaternion to store the rotation in.
+   * @return store
+   */
+  public Quaternion getRotation(final int jointIndex, final Quaternion store) {
+    final int q = jointIndex * 4;
+    return store.set(_rotations[q], _rotations[q + 1], _rotations[q + 2], _rotations[q + 3]);
+  }
+
+  /**
+   * @param jointIndex
+   *          the joint to read
+   * @param store
+   *          the vector to store the translation in.
+   * @return store
+   */
+  public Vector3 getTranslation(final int jointIndex, final Vector3 store) {
+    final int v = jointIndex * 3;
+    return store.set(_translations[v], _translations[v + 1], _translations[v + 2]);
+  }
+
+  /**
+   * @param jointIndex
+   *          the joint to read
+   * @param store
+   *          the vector to store the scale in.
+   * @return store
+   */
+  public Vector3 getScale(final int jointIndex, final Vector3 store) {
+    final int v = jointIndex * 3;
+    return store.set(_scales[v], _scales[v + 1], _scales[v + 2]);
+  }
+
+  /**
+   * Add an armed trigger to be fired when this buffer is applied. Triggers already present are not
+   * added again.
+   *
+   * @param trigger
+   *          the trigger data to add.
+   */
+  public void addTrigger(final TriggerData trigger) {
+    if (trigger.isArmed() && !_triggers.contains(trigger)) {
+      _triggers.add(trigger);
+    }
+  }
+
+  /**
+   * @return the armed triggers collected since our last clear.
+   */
+  public List<TriggerData> getTriggers() { return _triggers; }
+
+  /**
+   * Copy the joint and trigger data found in a source data map into this buffer. This is how blend
+   * tree nodes without a compiled path of their own feed into a pose buffer.
+   *
+   * @param sourceData
+   *          the source data to copy. May be null.
+   */
+  public void setSourceData(final Map<String, ? extends Object> sourceData) {
+    if (sourceData == null) {
+      return;
+    }
+    for (final Object value : sourceData.values()) {
+      if (value instanceof JointData jointData) {
+        setJoint(jointData);
+      } else if (value instanceof TriggerData triggerData) {
+        addTrigger(triggerData);
+      }
+    }
+  }
+
+  /**
+   * Blend another buffer into this one, the same way {@link BinaryLERPSource} blends source data:
+   * joints written in both buffers are interpolated, joints written in only one keep that buffer's
+   * value. Triggers from both buffers are kept.
+   *
+   * @param blendTo
+   *          the buffer to blend towards. Must have the same joint count as this one.
+   * @param blendWeight
+   *          our blend weight, 0 keeps our own values, 1 takes those of blendTo.
+   */
+  public void blend(final PoseBuffer blendTo, final double blendWeight) {
+    final double weight = 1 - blendWeight;
+    for (int i = 0; i < _jointCount; i++) {
+      if (!blendTo._written[i]) {
+        continue;
+      }
+      final int v = i * 3;
+      if (!_written[i]) {
+        System.arraycopy(blendTo._translations, v, _translations, v, 3);
+        System.arraycopy(blendTo._rotations, i * 4, _rotations, i * 4, 4);
+        System.arraycopy(blendTo._scales, v, _scales, v, 3);
+        markWritten(i);
+        continue;
+      }
+      for (int j = v; j < v + 3; j++) {
+        _translations[j] = _translations[j] * weight + blendTo._translations[j] * blendWeight;
+        _scales[j] = _scales[j] * weight + blendTo._scales[j] * blendWeight;
+      }
+      Quaternion.slerp(getRotation(i, _compQuat1), blendTo.getRotation(i, _compQuat2), blendWeight, _compQuat3);
+      final int q = i * 4;
+      _rotations[q] = _compQuat3.getX();
+      _rotations[q + 1] = _compQuat3.getY();
+      _rotations[q + 2] = _compQuat3.getZ();
+      _rotations[q + 3] = _compQuat3.getW();
+    }
+    for (int i = 0, maxI = blendTo._triggers.size(); i < maxI; i++) {
+      addTrigger(blendTo._triggers.get(i));
+    }
+  }
+
+  /**
+   * Copy the written joints of this buffer into the local transforms of the given pose. Does not
+   * update the pose's global transforms.
+   *
+   * @param pose
+   *          the pose to write to.
+   */
+  public void applyTo(final SkeletonPose pose) {
+    final Transform[] transforms = pose.getLocalJointTransforms();
+    final int count = Math.min(_jointCount, transforms.length);
+    for (int i = 0; i < count; i++) {
+      if (_written[i]) {
+        final Transform transform = transforms[i];
+        transform.setIdentity();
+        transform.setRotation(getRotation(i, _compQuat1));
+        transform.setScale(getScale(i, _compVect));
+        transform.setTranslation(getTranslation(i, _compVect));
+      }
+    }
+  }
+
+  /**
+   * Take a cleared scratch buffer with our joint count, for a blend node to evaluate a second input
+   * into. Must be matched by a call to {@link #popScratch()} once the node is done with it.
+   *
+   * @return the scratch buffer.
+   */
+  public PoseBuffer pushScratch() {
+    if (_scratchDepth == _scratch.size()) {
+      _scratch.add(new PoseBuffer());
+    }
+    final PoseBuffer scratch = _scratch.get(_scratchDepth++);
+    scratch.setJointCount(_jointCount);
+    return scratch;
+  }
+
+  /**
+   * Return the scratch buffer last taken with {@link #pushScratch()}.
+   */
+  public void popScratch() {
+    if (_scratchDepth == 0) {
+      throw new IllegalStateException("popScratch called without matching pushScratch.");
+    }
+    _scratchDepth--;
+  }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs work over a range of indices on a fork join pool, splitting the range in half until it is no
+ * larger than a given batch size.
+ */
+final class RangeTask extends RecursiveAction {
+  private static final long serialVersionUID = 1L;
+
+  /** Work for a range of indices, from inclusive to exclusive. */
+  interface RangeWork {
+    void run(int from, int to);
+  }
+
+  private final RangeWork _work;
+  private final int _from, _to, _batchSize;
+
+  RangeTask(final RangeWork work, final int from, final int to, final int batchSize) {
+    _work = work;
+    _from = from;
+    _to = to;
+    _batchSize = batchSize;
+  }
+
+  @Override
+  protected void compute() {
+    if (_to - _from <= _batchSize) {
+      _work.run(_from, _to);
+      return;
+    }
+    final int mid = (_from + _to) >>> 1;
+    invokeAll(new RangeTask(_work, _from, mid, _batchSize), new RangeTask(_work, mid, _to, _batchSize));
+  }
+
+  /**
+   * Run work over indices 0 to count - 1, returning once all is done. Small ranges are run directly
+   * on the calling thread. If the calling thread is already part of a fork join pool, that pool is
+   * used instead of the given one, so nested parallel work does not block a worker of one pool
+   * waiting on another.
+   *
+   * @param pool
+   *          the pool to use when not called from a fork join pool.
+   * @param count
+   *          the number of indices
+   * @param batchSize
+   *          the largest number of indices handled by a single task.
+   * @param work
+   *          the work to run.
+   */
+  static void run(final ForkJoinPool pool, final int count, final int batchSize, final RangeWork work) {
+    if (count <= 0) {
+      return;
+    }
+    if (count <= batchSize) {
+      work.run(0, count);
+    } else if (ForkJoinTask.inForkJoinPool()) {
+      new RangeTask(work, 0, count, batchSize).invoke();
+    } else {
+      pool.invoke(new RangeTask(work, 0, count, batchSize));
+    }
+  }
+}
@@ -34,6 +34,12 @@ public class Skeleton implements Savable {
   /** A name, for display or debugging purposes. */
   private String _name;
 
+  /** Joints to animate at each level of detail, finest first. Null entries animate all joints. */
+  private boolean[][] _lodJointMasks;
+
+  /** Joint order and inverse bind pose matrices, built on first use. Not saved to savable. */
+  private transient volatile JointCache _jointCache;
+
   /**
    * 
    * @param name
@@ -56,6 +62,143 @@ public class Skeleton implements Savable {
    */
   public Joint[] getJoints() { return _joints; }
 
+  /**
+   * @return the indices of our joints, ordered so that every joint comes after its parent. If our
+   *         joints array is already in that order, this is simply 0 to n - 1. Cached, and rebuilt when
+   *         the parent of any of our joints changes.
+   */
+  public int[] getJointOrder() { return getJointCache().order; }
+
+  /**
+   * @return the inverse bind poses of our joints as 3x4 matrices - the top three rows of each matrix,
+   *         row major, 12 values per joint. Cached, and rebuilt as a new array when the parent or
+   *         inverse bind pose of any of our joints changes. Should not be modified.
+   */
+  public double[] getInverseBindPoseArray() { return getJointCache().inverseBindPoses; }
+
+  private JointCache getJointCache() {
+    JointCache cache = _jointCache;
+    if (cache == null || !cache.isValid(_joints)) {
+      // safe to race: each thread builds an equivalent, immutable cache.
+      cache = new JointCache(_joints);
+      _jointCache = cache;
+    }
+    return cache;
+  }
+
+  /**
+   * Data derived from our joints, along with the joint mod counts it was built from.
+   */
+  private static final class JointCache {
+    final Joint[] joints;
+    final int[] modCounts;
+    final int[] order;
+    final double[] inverseBindPoses;
+
+    JointCache(final Joint[] joints) {
+      this.joints = joints;
+      final int count = joints.length;
+      modCounts = new int[count];
+      inverseBindPoses = new double[count * 12];
+      for (int i = 0; i < count; i++) {
+        modCounts[i] = joints[i].getModCount();
+        SkeletonPose.getMatrix(joints[i].getInverseBindPose(), inverseBindPoses, i * 12);
+      }
+      order = buildOrder(joints);
+    }
+
+    boolean isValid(final Joint[] current) {
+      if (current != joints) {
+        return false;
+      }
+      for (int i = 0; i < modCounts.length; i++) {
+        if (joints[i].getModCount() != modCounts[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private static int[] buildOrder(final Joint[] joints) {
+      final int count = joints.length;
+      final int[] depths = new int[count];
+      boolean sorted = true;
+      for (int i = 0; i < count; i++) {
+        int depth = 0;
+        // walk up to the root. Cap our walk in case of a cycle.
+        for (short parent = joints[i].getParentIndex(); parent != Joint.NO_PARENT
+            && depth < count; parent = joints[parent].getParentIndex()) {
+          depth++;
+        }
+        depths[i] = depth;
+        sorted &= joints[i].getParentIndex() < i;
+      }
+
+      final int[] order = new int[count];
+      if (sorted) {
+        for (int i = 0; i < count; i++) {
+          order[i] = i;
+        }
+        return order;
+      }
+      // stable sort by depth - a parent is always shallower than its children.
+      int next = 0;
+      for (int depth = 0; next < count; depth++) {
+        for (int i = 0; i < count; i++) {
+          if (depths[i] == depth) {
+            order[next++] = i;
+          }
+        }
+      }
+      return order;
+    }
+  }
+
+  /**
+   * @param level
+   *          a level of detail, 0 being the finest.
+   * @return a flag per joint, true for joints to animate at the given level of detail, or null to
+   *         animate all of them. Levels past those set use the mask of the last level set.
+   */
+  public boolean[] getLodJointMask(final int level) {
+    if (_lodJointMasks == null || _lodJointMasks.length == 0) {
+      return null;
+    }
+    return _lodJointMasks[Math.min(level, _lodJointMasks.length - 1)];
+  }
+
+  /**
+   * @return the joint masks of our levels of detail, finest first, or null if none are set.
+   */
+  public boolean[][] getLodJointMasks() { return _lodJointMasks; }
+
+  /**
+   * @param masks
+   *          the joints to animate at each level of detail, finest first, as a flag per joint. Null
+   *          entries animate all joints. Masks should keep the ancestors of every joint they include.
+   *          See {@link #createJointMask(int)}.
+   */
+  public void setLodJointMasks(final boolean[]... masks) { _lodJointMasks = masks; }
+
+  /**
+   * @param maxDepth
+   *          the deepest joints to include, roots being at depth 0.
+   * @return a joint mask including every joint at most maxDepth parents away from its root.
+   */
+  public boolean[] createJointMask(final int maxDepth) {
+    final boolean[] mask = new boolean[_joints.length];
+    for (int i = 0; i < _joints.length; i++) {
+      int depth = 0;
+      // walk up to the root. Cap our walk in case of a cycle.
+      for (short parent = _joints[i].getParentIndex(); parent != Joint.NO_PARENT
+          && depth <= maxDepth; parent = _joints[parent].getParentIndex()) {
+        depth++;
+      }
+      mask[i] = depth <= maxDepth;
+    }
+    return mask;
+  }
+
   /**
    * 
    * @param jointName
@@ -82,12 +225,15 @@ public class Skeleton implements Savable {
   public void write(final OutputCapsule capsule) throws IOException {
     capsule.write(_name, "name", null);
     capsule.write(_joints, "joints", null);
+    capsule.write(_lodJointMasks, "lodJointMasks", null);
   }
 
   @Override
   public void read(final InputCapsule capsule) throws IOException {
     _name = capsule.readString("name", null);
     _joints = CapsuleUtils.asArray(capsule.readSavableArray("joints", null), Joint.class);
+    _lodJointMasks = capsule.readBooleanArray2D("lodJointMasks", null);
+    _jointCache = null;
   }
 
   public static Skeleton initSavable() {
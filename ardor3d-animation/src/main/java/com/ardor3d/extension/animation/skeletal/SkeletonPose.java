@@ -12,11 +12,15 @@ package com.ardor3d.extension.animation.skeletal;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import com.ardor3d.annotation.SavableFactory;
 import com.ardor3d.math.Matrix4;
 import com.ardor3d.math.Transform;
+import com.ardor3d.math.type.ReadOnlyMatrix3;
+import com.ardor3d.math.type.ReadOnlyTransform;
+import com.ardor3d.math.type.ReadOnlyVector3;
 import com.ardor3d.util.export.CapsuleUtils;
 import com.ardor3d.util.export.InputCapsule;
 import com.ardor3d.util.export.OutputCapsule;
@@ -44,12 +48,48 @@ public class SkeletonPose implements Savable {
    */
   private transient Matrix4[] _matrixPalette;
 
+  /**
+   * The same palette as _matrixPalette, flattened to the top three rows of each matrix - 12 floats per
+   * joint, row major. Used by CPU skinning. Not saved to savable.
+   */
+  private transient float[] _matrixPaletteArray;
+
   /**
    * The list of elements interested in notification when this SkeletonPose updates. Not saved to
    * savable.
    */
   private transient final List<PoseListener> _poseListeners = new ArrayList<>(1);
 
+  /**
+   * Each joint's local transform as of our last update - matrix, scale and translation, 15 values per
+   * joint - used to skip joints that have not changed. Not saved to savable.
+   */
+  private transient double[] _lastLocals;
+
+  /** False until _lastLocals holds every joint. Not saved to savable. */
+  private transient boolean _lastLocalsValid;
+
+  /** The skeleton inverse bind poses used by our last update. Not saved to savable. */
+  private transient double[] _lastInverseBindPoses;
+
+  /** True for each joint whose global transform was recalculated in our last update. */
+  private transient boolean[] _jointUpdated;
+
+  /** If true, joints whose local transform and ancestors did not change are skipped when updating. */
+  private transient boolean _skipUnchangedJoints = true;
+
+  /** Scratch 3x4 global matrix used while updating. */
+  private transient final double[] _globalMatrix = new double[12];
+
+  /** Number of times our transforms have been updated. Not saved to savable. */
+  private transient long _updateCount;
+
+  /** If true, updateTransforms does not notify our listeners right away. Not saved to savable. */
+  private transient boolean _deferPoseUpdated;
+
+  /** True if an update happened while deferring notification. Not saved to savable. */
+  private transient boolean _poseUpdatedPending;
+
   /**
    * Construct a new SkeletonPose using the given Skeleton.
    *
@@ -79,6 +119,7 @@ public class SkeletonPose implements Savable {
     for (int i = 0; i < jointCount; i++) {
       _matrixPalette[i] = new Matrix4();
     }
+    _matrixPaletteArray = new float[jointCount * 12];
 
     // start off in bind pose.
     setToBindPose();
@@ -105,6 +146,13 @@ public class SkeletonPose implements Savable {
    */
   public Matrix4[] getMatrixPalette() { return _matrixPalette; }
 
+  /**
+   * @return our matrix palette as a flat array holding the top three rows of each palette matrix - 12
+   *         floats per joint, row major. The bottom row of a palette matrix is always (0, 0, 0, 1).
+   *         Updated along with {@link #getMatrixPalette()}; should not be modified.
+   */
+  public float[] getMatrixPaletteArray() { return _matrixPaletteArray; }
+
   /**
    * Register a PoseListener on this SkeletonPose.
    *
@@ -132,26 +180,72 @@ public class SkeletonPose implements Savable {
     _poseListeners.clear();
   }
 
+  /**
+   * @return an unmodifiable view of the PoseListeners registered on this SkeletonPose.
+   */
+  public List<PoseListener> getPoseListeners() { return Collections.unmodifiableList(_poseListeners); }
+
+  /**
+   * @return the number of times {@link #updateTransforms()} has been called on this pose. Listeners may
+   *         use this to tell whether they have already handled the current state of the pose.
+   */
+  public long getUpdateCount() { return _updateCount; }
+
+  public boolean isDeferPoseUpdated() { return _deferPoseUpdated; }
+
+  /**
+   * @param deferPoseUpdated
+   *          if true, {@link #updateTransforms()} does not notify our listeners, but remembers that it
+   *          should, until {@link #firePendingPoseUpdated()} is called. This lets a pose be updated on
+   *          one thread and its listeners notified on another. Defaults to false.
+   */
+  public void setDeferPoseUpdated(final boolean deferPoseUpdated) { _deferPoseUpdated = deferPoseUpdated; }
+
+  /**
+   * Notify our listeners if our transforms were updated while notification was deferred.
+   */
+  public void firePendingPoseUpdated() {
+    if (_poseUpdatedPending) {
+      firePoseUpdated();
+    }
+  }
+
   /**
    * Update the global and palette transforms of our posed joints based on the current local joint
-   * transforms.
+   * transforms. Joints are visited parents first (see {@link Skeleton#getJointOrder()}). Unless turned
+   * off with {@link #setSkipUnchangedJoints(boolean)}, joints whose local transform is exactly the
+   * same as at our last update, and whose ancestors did not change either, are skipped.
    */
   public void updateTransforms() {
-    final Transform temp = Transform.fetchTempInstance();
-    // we go in update array order, which ensures parent global transforms are updated before child.
-    // final int[] orders = _skeleton.getJointOrders();
-    final int nrJoints = _skeleton.getJoints().length;
-    // for (int i = 0; i < orders.length; i++) {
-    for (int i = 0; i < nrJoints; i++) {
+    final Joint[] joints = _skeleton.getJoints();
+    final int[] order = _skeleton.getJointOrder();
+    final double[] inverseBindPoses = _skeleton.getInverseBindPoseArray();
+    if (_jointUpdated == null || _jointUpdated.length != joints.length) {
+      _jointUpdated = new boolean[joints.length];
+      _lastLocals = new double[joints.length * 15];
+      _lastLocalsValid = false;
+    }
+    // skip nothing if the skeleton changed since last time
+    final boolean skip = _skipUnchangedJoints && _lastLocalsValid && inverseBindPoses == _lastInverseBindPoses;
+    _lastInverseBindPoses = inverseBindPoses;
+
+    for (int i = 0; i < order.length; i++) {
       // the joint index
-      final int index = i;
+      final int index = order[i];
 
       // find our parent
-      final short parentIndex = _skeleton.getJoints()[index].getParentIndex();
+      final short parentIndex = joints[index].getParentIndex();
+      final boolean parentUpdated = parentIndex != Joint.NO_PARENT && _jointUpdated[parentIndex];
+      final boolean localChanged = storeLocal(index);
+      if (skip && !parentUpdated && !localChanged) {
+        _jointUpdated[index] = false;
+        continue;
+      }
+      _jointUpdated[index] = true;
+
       if (parentIndex != Joint.NO_PARENT) {
         // we have a parent, so take us from local->parent->model space by multiplying by parent's
-        // local->model
-        // space transform.
+        // local->model space transform.
         _globalTransforms[parentIndex].multiply(_localTransforms[index], _globalTransforms[index]);
       } else {
         // no parent so just set global to the local transform
@@ -159,15 +253,147 @@ public class SkeletonPose implements Savable {
       }
 
       // at this point we have a local->model space transform for this joint, for skinning we multiply
-      // this by the
-      // joint's inverse bind pose (joint->model space, inverted). This gives us a transform that can take
-      // a
-      // vertex from bind pose (model space) to current pose (model space).
-      _globalTransforms[index].multiply(_skeleton.getJoints()[index].getInverseBindPose(), temp);
-      temp.getHomogeneousMatrix(_matrixPalette[index]);
+      // this by the joint's inverse bind pose (joint->model space, inverted). This gives us a transform
+      // that can take a vertex from bind pose (model space) to current pose (model space).
+      getMatrix(_globalTransforms[index], _globalMatrix, 0);
+      storePalette(index, _globalMatrix, inverseBindPoses, index * 12);
     }
-    Transform.releaseTempInstance(temp);
-    firePoseUpdated();
+    _lastLocalsValid = true;
+
+    _updateCount++;
+    if (_deferPoseUpdated) {
+      _poseUpdatedPending = true;
+    } else {
+      firePoseUpdated();
+    }
+  }
+
+  /**
+   * Snapshot the local transform of a joint.
+   *
+   * @return true if it differs from the previous snapshot.
+   */
+  private boolean storeLocal(final int index) {
+    final Transform local = _localTransforms[index];
+    final ReadOnlyMatrix3 m = local.getMatrix();
+    final ReadOnlyVector3 s = local.getScale(), t = local.getTranslation();
+    final double[] last = _lastLocals;
+    final int o = index * 15;
+    boolean changed = false;
+    changed |= store(last, o, m.getM00()) | store(last, o + 1, m.getM01()) | store(last, o + 2, m.getM02());
+    changed |= store(last, o + 3, m.getM10()) | store(last, o + 4, m.getM11()) | store(last, o + 5, m.getM12());
+    changed |= store(last, o + 6, m.getM20()) | store(last, o + 7, m.getM21()) | store(last, o + 8, m.getM22());
+    changed |= store(last, o + 9, s.getX()) | store(last, o + 10, s.getY()) | store(last, o + 11, s.getZ());
+    changed |= store(last, o + 12, t.getX()) | store(last, o + 13, t.getY()) | store(last, o + 14, t.getZ());
+    return changed;
+  }
+
+  private static boolean store(final double[] array, final int index, final double value) {
+    if (Double.doubleToLongBits(array[index]) == Double.doubleToLongBits(value)) {
+      return false;
+    }
+    array[index] = value;
+    return true;
+  }
+
+  /**
+   * Write the palette entry of a joint - global x inverse bind pose - to both our Matrix4 palette and
+   * our flat palette.
+   */
+  private void storePalette(final int index, final double[] g, final double[] b, final int bo) {
+    final double m00 = g[0] * b[bo] + g[1] * b[bo + 4] + g[2] * b[bo + 8];
+    final double m01 = g[0] * b[bo + 1] + g[1] * b[bo + 5] + g[2] * b[bo + 9];
+    final double m02 = g[0] * b[bo + 2] + g[1] * b[bo + 6] + g[2] * b[bo + 10];
+    final double m03 = g[0] * b[bo + 3] + g[1] * b[bo + 7] + g[2] * b[bo + 11] + g[3];
+    final double m10 = g[4] * b[bo] + g[5] * b[bo + 4] + g[6] * b[bo + 8];
+    final double m11 = g[4] * b[bo + 1] + g[5] * b[bo + 5] + g[6] * b[bo + 9];
+    final double m12 = g[4] * b[bo + 2] + g[5] * b[bo + 6] + g[6] * b[bo + 10];
+    final double m13 = g[4] * b[bo + 3] + g[5] * b[bo + 7] + g[6] * b[bo + 11] + g[7];
+    final double m20 = g[8] * b[bo] + g[9] * b[bo + 4] + g[10] * b[bo + 8];
+    final double m21 = g[8] * b[bo + 1] + g[9] * b[bo + 5] + g[10] * b[bo + 9];
+    final double m22 = g[8] * b[bo + 2] + g[9] * b[bo + 6] + g[10] * b[bo + 10];
+    final double m23 = g[8] * b[bo + 3] + g[9] * b[bo + 7] + g[10] * b[bo + 11] + g[11];
+
+    _matrixPalette[index].set(m00, m01, m02, m03, m10, m11, m12, m13, m20, m21, m22, m23, 0, 0, 0, 1);
+
+    final float[] p = _matrixPaletteArray;
+    final int o = index * 12;
+    p[o] = (float) m00;
+    p[o + 1] = (float) m01;
+    p[o + 2] = (float) m02;
+    p[o + 3] = (float) m03;
+    p[o + 4] = (float) m10;
+    p[o + 5] = (float) m11;
+    p[o + 6] = (float) m12;
+    p[o + 7] = (float) m13;
+    p[o + 8] = (float) m20;
+    p[o + 9] = (float) m21;
+    p[o + 10] = (float) m22;
+    p[o + 11] = (float) m23;
+  }
+
+  /**
+   * Write a transform as a 3x4 matrix - the top three rows of its homogeneous matrix, row major -
+   * such that transforming a point by the matrix gives the same result as
+   * {@link ReadOnlyTransform#applyForward(com.ardor3d.math.Vector3)}.
+   *
+   * @param transform
+   *          the transform to convert
+   * @param store
+   *          the array to write to
+   * @param offset
+   *          where in store to write the 12 values.
+   */
+  static void getMatrix(final ReadOnlyTransform transform, final double[] store, final int offset) {
+    final ReadOnlyMatrix3 m = transform.getMatrix();
+    double sx = 1, sy = 1, sz = 1;
+    if (transform.isRotationMatrix()) {
+      // scale is separate from the matrix, and applied first: R*S
+      final ReadOnlyVector3 scale = transform.getScale();
+      sx = scale.getX();
+      sy = scale.getY();
+      sz = scale.getZ();
+    }
+    final ReadOnlyVector3 t = transform.getTranslation();
+    store[offset] = m.getM00() * sx;
+    store[offset + 1] = m.getM01() * sy;
+    store[offset + 2] = m.getM02() * sz;
+    store[offset + 3] = t.getX();
+    store[offset + 4] = m.getM10() * sx;
+    store[offset + 5] = m.getM11() * sy;
+    store[offset + 6] = m.getM12() * sz;
+    store[offset + 7] = t.getY();
+    store[offset + 8] = m.getM20() * sx;
+    store[offset + 9] = m.getM21() * sy;
+    store[offset + 10] = m.getM22() * sz;
+    store[offset + 11] = t.getZ();
+  }
+
+  /**
+   * @param index
+   *          the joint to check
+   * @return true if the global transform and palette entry of the given joint were recalculated by our
+   *         last update, false if they were skipped as unchanged.
+   */
+  public boolean isJointUpdated(final int index) { return _jointUpdated != null && _jointUpdated[index]; }
+
+  public boolean isSkipUnchangedJoints() { return _skipUnchangedJoints; }
+
+  /**
+   * @param skipUnchangedJoints
+   *          if true (the default), joints whose local transform is exactly the same as at our last
+   *          update, and whose ancestors did not change, are skipped by {@link #updateTransforms()}.
+   */
+  public void setSkipUnchangedJoints(final boolean skipUnchangedJoints) {
+    _skipUnchangedJoints = skipUnchangedJoints;
+  }
+
+  /**
+   * Make our next {@link #updateTransforms()} recalculate every joint. Changes to our skeleton's
+   * joints are picked up without this.
+   */
+  public void invalidateTransforms() {
+    _lastLocalsValid = false;
   }
 
   /**
@@ -199,6 +425,7 @@ public class SkeletonPose implements Savable {
    * Notify any registered PoseListeners that this pose has been "updated".
    */
   public void firePoseUpdated() {
+    _poseUpdatedPending = false;
     for (int i = _poseListeners.size(); --i >= 0;) {
       // Pull out pose
       final PoseListener listener = _poseListeners.get(i);
@@ -223,6 +450,7 @@ public class SkeletonPose implements Savable {
     for (final Matrix4 m : _matrixPalette) {
       copy._matrixPalette[i++] = m.clone();
     }
+    System.arraycopy(_matrixPaletteArray, 0, copy._matrixPaletteArray, 0, _matrixPaletteArray.length);
 
     return copy;
   }
@@ -258,6 +486,7 @@ public class SkeletonPose implements Savable {
     for (int i = 0; i < jointCount; i++) {
       _matrixPalette[i] = new Matrix4();
     }
+    _matrixPaletteArray = new float[jointCount * 12];
 
     updateTransforms();
   }
@@ -271,5 +500,6 @@ public class SkeletonPose implements Savable {
     _localTransforms = null;
     _globalTransforms = null;
     _matrixPalette = null;
+    _matrixPaletteArray = null;
   }
 }
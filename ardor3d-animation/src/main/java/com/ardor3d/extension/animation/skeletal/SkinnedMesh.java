@@ -13,7 +13,9 @@ package com.ardor3d.extension.animation.skeletal;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.FloatBuffer;
+import java.util.Arrays;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
 
 import com.ardor3d.bounding.CollisionTreeManager;
 import com.ardor3d.buffer.BufferUtils;
@@ -23,6 +25,8 @@ import com.ardor3d.extension.animation.skeletal.util.SkinUtils;
 import com.ardor3d.math.Matrix4;
 import com.ardor3d.renderer.IndexMode;
 import com.ardor3d.renderer.Renderer;
+import com.ardor3d.renderer.state.RenderState.StateType;
+import com.ardor3d.renderer.state.TextureState;
 import com.ardor3d.scenegraph.Mesh;
 import com.ardor3d.scenegraph.MeshData;
 import com.ardor3d.util.export.InputCapsule;
@@ -97,6 +101,53 @@ public class SkinnedMesh extends Mesh implements PoseListener {
    */
   protected SkinPoseApplyLogic _customApplier = null;
 
+  /**
+   * The update count of our current pose when we last skinned on the CPU, so a pose update already
+   * skinned ahead of time (see {@link AnimationSystem}) is not skinned again. Not saved to savable.
+   */
+  protected transient long _skinnedPoseUpdate = -1;
+
+  /**
+   * If true, CPU skinning is done by {@link SkinningKernel} over primitive copies of our bind pose
+   * data, rather than vertex by vertex straight from the bind pose buffers.
+   */
+  protected boolean _fastCpuSkinning = true;
+
+  /**
+   * If true, bind pose tangents are skinned along with vertices and normals when skinning on the CPU.
+   * Only supported by fast CPU skinning.
+   */
+  protected boolean _skinTangents = false;
+
+  /**
+   * Vertex count from which fast CPU skinning is split into chunks run in parallel. 0 to never split.
+   */
+  protected int _parallelSkinningThreshold = 8192;
+
+  /**
+   * Largest number of weights per vertex used by fast CPU skinning, or 0 for all of them. Not saved to
+   * savable.
+   */
+  protected transient int _maxSkinningWeights = 0;
+
+  /** Primitive copies of our bind pose data, shared with copies of this mesh. Not saved to savable. */
+  private transient BindPoseArrays _bindPoseArrays;
+
+  /** Skinned vertices, normals and tangents before they are copied to our mesh data. */
+  private transient float[] _skinnedVerts, _skinnedNorms, _skinnedTangents;
+
+  /**
+   * Shared texture our palette is written to when skinning on the GPU, or null to send our palette as
+   * a uniform array. Not saved to savable.
+   */
+  protected transient JointPaletteTexture _jointPaletteTexture;
+
+  /** Texture unit our palette texture is bound to. */
+  protected transient int _jointPaletteUnit;
+
+  /** Largest number of vertices skinned by a single task when skinning in parallel. */
+  private static final int PARALLEL_SKINNING_BATCH = 2048;
+
   /**
    * Constructs a new SkinnedMesh.
    */
@@ -125,7 +176,10 @@ public class SkinnedMesh extends Mesh implements PoseListener {
    * @param poseData
    *          the new bind pose
    */
-  public void setBindPoseData(final MeshData poseData) { _bindPoseData = poseData; }
+  public void setBindPoseData(final MeshData poseData) {
+    _bindPoseData = poseData;
+    invalidateSkinningCache();
+  }
 
   /**
    * @return the number of weights and jointIndices this skin uses per vertex.
@@ -137,7 +191,10 @@ public class SkinnedMesh extends Mesh implements PoseListener {
    *          the number of weights and jointIndices this skin should use per vertex. Make sure this
    *          value matches up with the contents of jointIndices and weights.
    */
-  public void setWeightsPerVert(final int weightsPerVert) { _weightsPerVert = weightsPerVert; }
+  public void setWeightsPerVert(final int weightsPerVert) {
+    _weightsPerVert = weightsPerVert;
+    invalidateSkinningCache();
+  }
 
   /**
    * @return true if we should use a matrix to send joints and weights to a gpu shader.
@@ -179,6 +236,7 @@ public class SkinnedMesh extends Mesh implements PoseListener {
    */
   public void setJointIndices(final short[] jointIndices) {
     _jointIndices = jointIndices;
+    invalidateSkinningCache();
     if (_jointIndices != null && _bindPoseData.containsKey("jointIds")) {
       recreateJointAttributeBuffer();
     }
@@ -198,6 +256,7 @@ public class SkinnedMesh extends Mesh implements PoseListener {
    */
   public void setWeights(final float[] weights) {
     _weights = weights;
+    invalidateSkinningCache();
     if (_weights != null && _bindPoseData.containsKey("weights")) {
       recreateWeightAttributeBuffer();
     }
@@ -267,6 +326,107 @@ public class SkinnedMesh extends Mesh implements PoseListener {
    */
   public void setCustomApplier(final SkinPoseApplyLogic customApplier) { _customApplier = customApplier; }
 
+  /**
+   * @return the shared texture our palette is written to when skinning on the GPU, or null if our
+   *         palette is sent as a uniform array.
+   */
+  public JointPaletteTexture getJointPaletteTexture() { return _jointPaletteTexture; }
+
+  public int getJointPaletteUnit() { return _jointPaletteUnit; }
+
+  /**
+   * Have GPU skinning read our palette from a texture shared with other skins, rather than from a
+   * uniform array. Our pose's palette is written to the texture once per pose update and its offset
+   * there is set as our "jointPaletteOffset" property; the texture unit is set as our
+   * "jointPaletteTexture" property. Use with a material whose skinning shader defines
+   * PALETTE_TEXTURE, such as unlit/untextured/basic_skinmesh_palette.yaml.
+   *
+   * @param palette
+   *          the shared palette texture, or null to go back to the uniform array.
+   * @param unit
+   *          the texture unit to bind the palette texture to. The texture is added to our local
+   *          texture state, which is created if needed.
+   */
+  public void setJointPaletteTexture(final JointPaletteTexture palette, final int unit) {
+    if (_jointPaletteTexture != null) {
+      final TextureState ts = (TextureState) getLocalRenderState(StateType.Texture);
+      if (ts != null && ts.getTexture(_jointPaletteUnit) == _jointPaletteTexture.getTexture()) {
+        ts.setTexture(null, _jointPaletteUnit);
+      }
+    }
+
+    _jointPaletteTexture = palette;
+    _jointPaletteUnit = unit;
+    if (palette == null) {
+      removeProperty("jointPaletteTexture");
+      removeProperty("jointPaletteOffset");
+      return;
+    }
+
+    TextureState ts = (TextureState) getLocalRenderState(StateType.Texture);
+    if (ts == null) {
+      ts = new TextureState();
+      setRenderState(ts);
+    }
+    ts.setTexture(palette.getTexture(), unit);
+    setProperty("jointPaletteTexture", unit);
+    removeProperty("jointPalette");
+  }
+
+  public boolean isFastCpuSkinning() { return _fastCpuSkinning; }
+
+  /**
+   * @param fastCpuSkinning
+   *          if true (the default), CPU skinning is done by {@link SkinningKernel} over primitive copies
+   *          of our bind pose data, taken the first time we skin. If false, the bind pose buffers are
+   *          read vertex by vertex on every skinning.
+   */
+  public void setFastCpuSkinning(final boolean fastCpuSkinning) { _fastCpuSkinning = fastCpuSkinning; }
+
+  public boolean isSkinTangents() { return _skinTangents; }
+
+  /**
+   * @param skinTangents
+   *          if true, bind pose tangents are skinned along with vertices and normals when doing fast CPU
+   *          skinning. Defaults to false.
+   */
+  public void setSkinTangents(final boolean skinTangents) {
+    _skinTangents = skinTangents;
+    invalidateSkinningCache();
+  }
+
+  public int getParallelSkinningThreshold() { return _parallelSkinningThreshold; }
+
+  /**
+   * @param threshold
+   *          vertex count from which fast CPU skinning is split into chunks run in parallel on the
+   *          common fork join pool, or the current pool if already running on one. 0 to never split.
+   *          Defaults to 8192.
+   */
+  public void setParallelSkinningThreshold(final int threshold) { _parallelSkinningThreshold = threshold; }
+
+  public int getMaxSkinningWeights() { return _maxSkinningWeights; }
+
+  /**
+   * Skin with fewer weights per vertex, for example while far from the camera. Unlike
+   * {@link #constrainWeightCount(int)} this leaves our weights alone: the strongest weights of each
+   * vertex are picked and rebalanced into a copy, kept alongside our bind pose arrays, so going back
+   * to full detail is free. Only used by fast CPU skinning.
+   *
+   * @param maxWeights
+   *          the largest number of weights per vertex to skin with, or 0 (the default) for all.
+   */
+  public void setMaxSkinningWeights(final int maxWeights) { _maxSkinningWeights = Math.max(0, maxWeights); }
+
+  /**
+   * Drop the primitive copies of our bind pose data used by fast CPU skinning, so they are taken
+   * again on our next skinning. Setters of this class do this for us; call it after modifying the
+   * contents of our bind pose buffers, weights or joint indices in place.
+   */
+  public void invalidateSkinningCache() {
+    _bindPoseArrays = null;
+  }
+
   /**
    * Apply skinning values
    */
@@ -284,15 +444,101 @@ public class SkinnedMesh extends Mesh implements PoseListener {
         recreateJointAttributeBuffer();
       }
 
-      setProperty("jointPalette", _currentPose.getMatrixPalette());
+      if (_jointPaletteTexture != null) {
+        setProperty("jointPaletteOffset", _jointPaletteTexture.addPose(_currentPose));
+      } else {
+        setProperty("jointPalette", _currentPose.getMatrixPalette());
+      }
       return;
     }
 
     // Running skinning on the CPU
-    // Get a handle to the source and dest vertices buffers
+    if (_fastCpuSkinning) {
+      applyPoseFast();
+    } else {
+      applyPoseBuffers();
+    }
+    _skinnedPoseUpdate = _currentPose.getUpdateCount();
+  }
+
+  /**
+   * Skin on the CPU using {@link SkinningKernel}.
+   */
+  private void applyPoseFast() {
+    if (_bindPoseArrays == null || !_bindPoseArrays.isValidFor(this)) {
+      _bindPoseArrays = new BindPoseArrays(this);
+    }
+    final BindPoseArrays bind = _bindPoseArrays;
+
+    final int vertexCount = bind.vertexCount;
+    _skinnedVerts = ensureLength(_skinnedVerts, bind.verts.length);
+    if (bind.norms != null) {
+      _skinnedNorms = ensureLength(_skinnedNorms, bind.norms.length);
+    }
+    if (bind.tangents != null) {
+      _skinnedTangents = ensureLength(_skinnedTangents, bind.tangents.length);
+    }
+
+    final SkinWeights weights = bind.getWeights(_maxSkinningWeights);
+    final float[] palette = _currentPose.getMatrixPaletteArray();
+    if (_parallelSkinningThreshold > 0 && vertexCount >= _parallelSkinningThreshold) {
+      RangeTask.run(ForkJoinPool.commonPool(), vertexCount, SkinnedMesh.PARALLEL_SKINNING_BATCH,
+          (from, to) -> skinRange(bind, weights, palette, from, to));
+    } else {
+      skinRange(bind, weights, palette, 0, vertexCount);
+    }
+
+    // copy out to our mesh data
+    FloatBuffer storeVerts = _meshData.getVertexBuffer();
+    if (storeVerts == null || storeVerts.capacity() != bind.verts.length) {
+      storeVerts = BufferUtils.createFloatBuffer(bind.verts.length);
+      _meshData.setVertexBuffer(storeVerts);
+    }
+    storeVerts.put(0, _skinnedVerts, 0, bind.verts.length);
+    _meshData.markBufferDirty(MeshData.KEY_VertexCoords);
+
+    if (bind.norms != null) {
+      FloatBuffer storeNorms = _meshData.getNormalBuffer();
+      if (storeNorms == null || storeNorms.capacity() < bind.norms.length) {
+        storeNorms = BufferUtils.createFloatBuffer(bind.norms.length);
+        _meshData.setNormalBuffer(storeNorms);
+      }
+      storeNorms.put(0, _skinnedNorms, 0, bind.norms.length);
+      _meshData.markBufferDirty(MeshData.KEY_NormalCoords);
+    }
+
+    if (bind.tangents != null) {
+      final FloatBufferData tangentData = _meshData.getTangentCoords();
+      FloatBuffer storeTangents = tangentData != null ? tangentData.getBuffer() : null;
+      if (storeTangents == null || storeTangents.capacity() < bind.tangents.length
+          || tangentData.getValuesPerTuple() != bind.tangentSize
+          || storeTangents == _bindPoseData.getTangentBuffer()) {
+        storeTangents = BufferUtils.createFloatBuffer(bind.tangents.length);
+        _meshData.setTangentCoords(new FloatBufferData(storeTangents, bind.tangentSize));
+      }
+      storeTangents.put(0, _skinnedTangents, 0, bind.tangents.length);
+      _meshData.markBufferDirty(MeshData.KEY_TangentCoords);
+    }
+  }
+
+  private void skinRange(final BindPoseArrays bind, final SkinWeights weights, final float[] palette,
+      final int from, final int to) {
+    SkinningKernel.skin(palette, weights.joints, weights.weights, weights.weightsPerVert, bind.verts, bind.norms,
+        bind.tangents, bind.tangentSize, _skinnedVerts, _skinnedNorms, _skinnedTangents, from, to);
+  }
+
+  private static float[] ensureLength(final float[] array, final int length) {
+    return array != null && array.length >= length ? array : new float[length];
+  }
+
+  /**
+   * Skin on the CPU vertex by vertex, straight from our bind pose buffers.
+   */
+  private void applyPoseBuffers() {
+    // Get a handle to the source and dest vertices buffers. The bind pose buffers may be shared with
+    // copies of this mesh being skinned on other threads, so we only ever read them by absolute index.
     final FloatBuffer bindVerts = _bindPoseData.getVertexBuffer();
     FloatBuffer storeVerts = _meshData.getVertexBuffer();
-    bindVerts.rewind();
     if (storeVerts == null || storeVerts.capacity() != bindVerts.capacity()) {
       storeVerts = BufferUtils.createFloatBuffer(bindVerts.capacity());
       _meshData.setVertexBuffer(storeVerts);
@@ -304,8 +550,6 @@ public class SkinnedMesh extends Mesh implements PoseListener {
     final FloatBuffer bindNorms = _bindPoseData.getNormalBuffer();
     FloatBuffer storeNorms = _meshData.getNormalBuffer();
     if (bindNorms != null) {
-      bindNorms.rewind();
-
       if (storeNorms == null || storeNorms.capacity() < bindNorms.capacity()) {
         storeNorms = BufferUtils.createFloatBuffer(bindNorms.capacity());
         _meshData.setNormalBuffer(storeNorms);
@@ -331,9 +575,9 @@ public class SkinnedMesh extends Mesh implements PoseListener {
       vSumZ = 0;
 
       // Grab the bind pose vertex Vbp from _bindPoseData
-      bindVX = bindVerts.get();
-      bindVY = bindVerts.get();
-      bindVZ = bindVerts.get();
+      bindVX = bindVerts.get(i * 3);
+      bindVY = bindVerts.get(i * 3 + 1);
+      bindVZ = bindVerts.get(i * 3 + 2);
 
       // See if we should do the corresponding normal as well
       if (bindNorms != null) {
@@ -343,9 +587,9 @@ public class SkinnedMesh extends Mesh implements PoseListener {
         nSumZ = 0;
 
         // Grab the bind pose norm Nbp from _bindPoseData
-        bindNX = bindNorms.get();
-        bindNY = bindNorms.get();
-        bindNZ = bindNorms.get();
+        bindNX = bindNorms.get(i * 3);
+        bindNY = bindNorms.get(i * 3 + 1);
+        bindNZ = bindNorms.get(i * 3 + 2);
       }
 
       // for each joint where the weight != 0
@@ -405,7 +649,10 @@ public class SkinnedMesh extends Mesh implements PoseListener {
       // render as normal
       return super.render(renderer);
     } else {
-      // render using the bind pose.
+      // send any palettes written since the last draw, then render using the bind pose.
+      if (_jointPaletteTexture != null) {
+        _jointPaletteTexture.upload(renderer);
+      }
       return super.render(renderer, getBindPoseData());
     }
   }
@@ -422,8 +669,10 @@ public class SkinnedMesh extends Mesh implements PoseListener {
 
     // Just run our default behavior
     else {
-      // update our pose
-      applyPose();
+      // update our pose, unless this update was already skinned ahead of time
+      if (isUseGPU() || pose != _currentPose || _skinnedPoseUpdate != pose.getUpdateCount()) {
+        applyPose();
+      }
 
       // update our model bounds
       if (!isUseGPU() && isAutoUpdateSkinBounds()) {
@@ -473,6 +722,7 @@ public class SkinnedMesh extends Mesh implements PoseListener {
       skin._meshData = _meshData.makeCopy();
       // reuse
       skin._bindPoseData = _bindPoseData;
+      skin._bindPoseArrays = _bindPoseArrays;
     } else {
       skin._bindPoseData = _bindPoseData.makeCopy();
     }
@@ -483,6 +733,12 @@ public class SkinnedMesh extends Mesh implements PoseListener {
     skin._gpuAttributeSize = _gpuAttributeSize;
     skin._autoUpdateSkinBound = _autoUpdateSkinBound;
     skin._customApplier = _customApplier;
+    skin._fastCpuSkinning = _fastCpuSkinning;
+    skin._skinTangents = _skinTangents;
+    skin._parallelSkinningThreshold = _parallelSkinningThreshold;
+    skin._maxSkinningWeights = _maxSkinningWeights;
+    skin._jointPaletteTexture = _jointPaletteTexture;
+    skin._jointPaletteUnit = _jointPaletteUnit;
 
     // bring across arrays
     if (shareGeometricData) {
@@ -611,6 +867,9 @@ public class SkinnedMesh extends Mesh implements PoseListener {
     capsule.write(_gpuAttributeSize, "gpuAttributeSize", 4);
     capsule.write(_gpuUseMatrixAttribute, "gpuUseMatrixAttribute", false);
     capsule.write(_autoUpdateSkinBound, "autoUpdateSkinBound", false);
+    capsule.write(_fastCpuSkinning, "fastCpuSkinning", true);
+    capsule.write(_skinTangents, "skinTangents", false);
+    capsule.write(_parallelSkinningThreshold, "parallelSkinningThreshold", 8192);
     if (_customApplier instanceof Savable) {
       capsule.write((Savable) _customApplier, "customApplier", null);
     }
@@ -628,6 +887,10 @@ public class SkinnedMesh extends Mesh implements PoseListener {
     _gpuAttributeSize = capsule.readInt("gpuAttributeSize", 4);
     _gpuUseMatrixAttribute = capsule.readBoolean("gpuUseMatrixAttribute", false);
     _autoUpdateSkinBound = capsule.readBoolean("autoUpdateSkinBound", false);
+    _fastCpuSkinning = capsule.readBoolean("fastCpuSkinning", true);
+    _skinTangents = capsule.readBoolean("skinTangents", false);
+    _parallelSkinningThreshold = capsule.readInt("parallelSkinningThreshold", 8192);
+    invalidateSkinningCache();
     final SkinPoseApplyLogic customApplier = capsule.readSavable("customApplier", null);
     if (customApplier != null) {
       _customApplier = customApplier;
@@ -639,6 +902,129 @@ public class SkinnedMesh extends Mesh implements PoseListener {
     }
   }
 
+  /**
+   * Primitive copies of the bind pose data of a skin, as used by fast CPU skinning.
+   */
+  private static final class BindPoseArrays {
+    final FloatBuffer sourceVerts, sourceNorms, sourceTangents;
+    final float[] sourceWeights;
+    final short[] sourceJoints;
+
+    final int vertexCount, weightsPerVert, tangentSize;
+    final float[] verts, norms, tangents;
+    /** Our full weights, then reduced ones by weight count as they are asked for. */
+    private final SkinWeights[] skinWeights;
+
+    BindPoseArrays(final SkinnedMesh skin) {
+      final MeshData bindPose = skin._bindPoseData;
+      sourceVerts = bindPose.getVertexBuffer();
+      sourceNorms = bindPose.getNormalBuffer();
+      final FloatBufferData tangentData = skin._skinTangents ? bindPose.getTangentCoords() : null;
+      sourceTangents = tangentData != null ? tangentData.getBuffer() : null;
+      sourceWeights = skin._weights;
+      sourceJoints = skin._jointIndices;
+      weightsPerVert = skin._weightsPerVert;
+
+      vertexCount = bindPose.getVertexCount();
+      verts = new float[vertexCount * 3];
+      // absolute reads, as the bind pose may be shared with skins on other threads.
+      sourceVerts.get(0, verts);
+      if (sourceNorms != null) {
+        norms = new float[vertexCount * 3];
+        sourceNorms.get(0, norms);
+      } else {
+        norms = null;
+      }
+      if (sourceTangents != null) {
+        tangentSize = tangentData.getValuesPerTuple();
+        tangents = new float[vertexCount * tangentSize];
+        sourceTangents.get(0, tangents);
+      } else {
+        tangentSize = 0;
+        tangents = null;
+      }
+
+      final int[] joints = new int[vertexCount * weightsPerVert];
+      for (int i = 0; i < joints.length; i++) {
+        joints[i] = sourceWeights[i] != 0 ? sourceJoints[i] : 0;
+      }
+      skinWeights = new SkinWeights[weightsPerVert + 1];
+      skinWeights[weightsPerVert] = new SkinWeights(weightsPerVert, joints, sourceWeights);
+    }
+
+    /**
+     * @param maxWeights
+     *          largest number of weights per vertex, or 0 for all.
+     * @return our weights, reduced to the given count if needed. Reductions are built on first use.
+     */
+    synchronized SkinWeights getWeights(final int maxWeights) {
+      final int count = maxWeights <= 0 || maxWeights > weightsPerVert ? weightsPerVert : maxWeights;
+      if (skinWeights[count] == null) {
+        skinWeights[count] = skinWeights[weightsPerVert].reduce(count);
+      }
+      return skinWeights[count];
+    }
+
+    boolean isValidFor(final SkinnedMesh skin) {
+      final MeshData bindPose = skin._bindPoseData;
+      final FloatBufferData tangentData = skin._skinTangents ? bindPose.getTangentCoords() : null;
+      return sourceVerts == bindPose.getVertexBuffer() && sourceNorms == bindPose.getNormalBuffer()
+          && sourceTangents == (tangentData != null ? tangentData.getBuffer() : null)
+          && sourceWeights == skin._weights && sourceJoints == skin._jointIndices
+          && weightsPerVert == skin._weightsPerVert;
+    }
+  }
+
+  /**
+   * Joint indices and weights, weightsPerVert per vertex, as used by {@link SkinningKernel}.
+   */
+  private static final class SkinWeights {
+    final int weightsPerVert;
+    /** Joint indices, with those of zero weights pointing at joint 0 so they are always valid. */
+    final int[] joints;
+    final float[] weights;
+
+    SkinWeights(final int weightsPerVert, final int[] joints, final float[] weights) {
+      this.weightsPerVert = weightsPerVert;
+      this.joints = joints;
+      this.weights = weights;
+    }
+
+    /**
+     * @return a copy keeping the maxCount strongest weights of each vertex, rebalanced to total 1.
+     */
+    SkinWeights reduce(final int maxCount) {
+      final int vertexCount = joints.length / weightsPerVert;
+      final int[] newJoints = new int[vertexCount * maxCount];
+      final float[] newWeights = new float[vertexCount * maxCount];
+      final boolean[] taken = new boolean[weightsPerVert];
+      for (int v = 0; v < vertexCount; v++) {
+        final int src = v * weightsPerVert, dst = v * maxCount;
+        Arrays.fill(taken, false);
+        float total = 0;
+        for (int k = 0; k < maxCount; k++) {
+          // pick the strongest weight not yet taken, first one wins ties.
+          int best = -1;
+          for (int j = 0; j < weightsPerVert; j++) {
+            if (!taken[j] && (best < 0 || weights[src + j] > weights[src + best])) {
+              best = j;
+            }
+          }
+          taken[best] = true;
+          newJoints[dst + k] = joints[src + best];
+          newWeights[dst + k] = weights[src + best];
+          total += weights[src + best];
+        }
+        if (total > 0) {
+          for (int k = 0; k < maxCount; k++) {
+            newWeights[dst + k] /= total;
+          }
+        }
+      }
+      return new SkinWeights(maxCount, newJoints, newWeights);
+    }
+  }
+
   class JointWeight implements Comparable<JointWeight> {
     short joint;
     float weight;
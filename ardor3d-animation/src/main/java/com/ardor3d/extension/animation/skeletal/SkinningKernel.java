@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal;
+
+/**
+ * <p>
+ * Linear blend skinning over primitive arrays, as used by the CPU path of {@link SkinnedMesh}. For
+ * each vertex, the palette matrices affecting it are blended by weight into a single 3x4 matrix,
+ * which then transforms the vertex's position, normal and tangent. There are dedicated loops for 1, 2
+ * and 4 weights per vertex.
+ * </p>
+ * <p>
+ * Palettes hold the top three rows of each matrix, row major - 12 floats per joint, see
+ * {@link SkeletonPose#getMatrixPaletteArray()}. Skinning works on vertex ranges so that large meshes
+ * may be skinned in parallel chunks; different ranges never touch the same output.
+ * </p>
+ */
+public final class SkinningKernel {
+
+  private SkinningKernel() {}
+
+  /**
+   * Skin a range of vertices.
+   *
+   * @param palette
+   *          12 floats per joint
+   * @param joints
+   *          weightsPerVert joint indices per vertex. Indices with a weight of 0 must still be valid.
+   * @param weights
+   *          weightsPerVert weights per vertex
+   * @param weightsPerVert
+   *          number of weights per vertex
+   * @param verts
+   *          bind pose positions, 3 floats per vertex
+   * @param norms
+   *          bind pose normals, 3 floats per vertex, or null
+   * @param tangents
+   *          bind pose tangents, tangentSize floats per vertex, or null
+   * @param tangentSize
+   *          number of floats per tangent, at least 3. Components past the third, such as handedness,
+   *          are copied as is.
+   * @param vertStore
+   *          receives the skinned positions
+   * @param normStore
+   *          receives the skinned normals, if norms is not null
+   * @param tangentStore
+   *          receives the skinned tangents, if tangents is not null
+   * @param from
+   *          first vertex, inclusive
+   * @param to
+   *          last vertex, exclusive
+   */
+  public static void skin(final float[] palette, final int[] joints, final float[] weights, final int weightsPerVert,
+      final float[] verts, final float[] norms, final float[] tangents, final int tangentSize,
+      final float[] vertStore, final float[] normStore, final float[] tangentStore, final int from, final int to) {
+    // blended matrix of the current vertex
+    final float[] m = new float[12];
+    switch (weightsPerVert) {
+      case 1:
+        for (int v = from; v < to; v++) {
+          final int j0 = joints[v] * 12;
+          final float w0 = weights[v];
+          for (int k = 0; k < 12; k++) {
+            m[k] = palette[j0 + k] * w0;
+          }
+          transform(m, v, verts, norms, tangents, tangentSize, vertStore, normStore, tangentStore);
+        }
+        break;
+      case 2:
+        for (int v = from; v < to; v++) {
+          final int i = v * 2;
+          final int j0 = joints[i] * 12, j1 = joints[i + 1] * 12;
+          final float w0 = weights[i], w1 = weights[i + 1];
+          for (int k = 0; k < 12; k++) {
+            m[k] = palette[j0 + k] * w0 + palette[j1 + k] * w1;
+          }
+          transform(m, v, verts, norms, tangents, tangentSize, vertStore, normStore, tangentStore);
+        }
+        break;
+      case 4:
+        for (int v = from; v < to; v++) {
+          final int i = v * 4;
+          final int j0 = joints[i] * 12, j1 = joints[i + 1] * 12, j2 = joints[i + 2] * 12, j3 = joints[i + 3] * 12;
+          final float w0 = weights[i], w1 = weights[i + 1], w2 = weights[i + 2], w3 = weights[i + 3];
+          for (int k = 0; k < 12; k++) {
+            m[k] = palette[j0 + k] * w0 + palette[j1 + k] * w1 + palette[j2 + k] * w2 + palette[j3 + k] * w3;
+          }
+          transform(m, v, verts, norms, tangents, tangentSize, vertStore, normStore, tangentStore);
+        }
+        break;
+      default:
+        for (int v = from; v < to; v++) {
+          for (int k = 0; k < 12; k++) {
+            m[k] = 0;
+          }
+          for (int i = v * weightsPerVert, maxI = i + weightsPerVert; i < maxI; i++) {
+            final int j = joints[i] * 12;
+            final float w = weights[i];
+            for (int k = 0; k < 12; k++) {
+              m[k] += palette[j + k] * w;
+            }
+          }
+          transform(m, v, verts, norms, tangents, tangentSize, vertStore, normStore, tangentStore);
+        }
+        break;
+    }
+  }
+
+  private static void transform(final float[] m, final int v, final float[] verts, final float[] norms,
+      final float[] tangents, final int tangentSize, final float[] vertStore, final float[] normStore,
+      final float[] tangentStore) {
+    int s = v * 3;
+    float x = verts[s], y = verts[s + 1], z = verts[s + 2];
+    vertStore[s] = m[0] * x + m[1] * y + m[2] * z + m[3];
+    vertStore[s + 1] = m[4] * x + m[5] * y + m[6] * z + m[7];
+    vertStore[s + 2] = m[8] * x + m[9] * y + m[10] * z + m[11];
+
+    if (norms != null) {
+      x = norms[s];
+      y = norms[s + 1];
+      z = norms[s + 2];
+      normStore[s] = m[0] * x + m[1] * y + m[2] * z;
+      normStore[s + 1] = m[4] * x + m[5] * y + m[6] * z;
+      normStore[s + 2] = m[8] * x + m[9] * y + m[10] * z;
+    }
+
+    if (tangents != null) {
+      s = v * tangentSize;
+      x = tangents[s];
+      y = tangents[s + 1];
+      z = tangents[s + 2];
+      tangentStore[s] = m[0] * x + m[1] * y + m[2] * z;
+      tangentStore[s + 1] = m[4] * x + m[5] * y + m[6] * z;
+      tangentStore[s + 2] = m[8] * x + m[9] * y + m[10] * z;
+      for (int k = 3; k < tangentSize; k++) {
+        tangentStore[s + k] = tangents[s + k];
+      }
+    }
+  }
+}
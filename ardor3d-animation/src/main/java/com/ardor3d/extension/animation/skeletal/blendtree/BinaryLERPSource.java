@@ -15,6 +15,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 import com.ardor3d.extension.animation.skeletal.AnimationManager;
+import com.ardor3d.extension.animation.skeletal.PoseBuffer;
 import com.ardor3d.extension.animation.skeletal.clip.TransformData;
 import com.ardor3d.math.util.MathUtils;
 
@@ -58,6 +59,27 @@ public class BinaryLERPSource extends AbstractTwoPartSource {
     return BinaryLERPSource.combineSourceData(sourceAData, sourceBData, manager.getValuesStore().get(getBlendKey()));
   }
 
+  /**
+   * Pose buffer counterpart of {@link #getSourceData(AnimationManager)}: evaluates source A into the
+   * given store, source B into a scratch buffer, then blends B into the store.
+   */
+  @Override
+  public void getSourcePose(final AnimationManager manager, final PoseBuffer store) {
+    if (getSourceA() != null) {
+      getSourceA().getSourcePose(manager, store);
+    }
+    if (getSourceB() != null) {
+      final PoseBuffer scratch = store.pushScratch();
+      try {
+        getSourceB().getSourcePose(manager, scratch);
+        final Double blendWeight = manager.getValuesStore().get(getBlendKey());
+        store.blend(scratch, blendWeight != null ? blendWeight.doubleValue() : 0.0);
+      } finally {
+        store.popScratch();
+      }
+    }
+  }
+
   @Override
   public boolean setTime(final double globalTime, final AnimationManager manager) {
     // set our time on the two sub sources
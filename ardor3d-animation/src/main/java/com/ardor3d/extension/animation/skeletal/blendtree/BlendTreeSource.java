@@ -13,6 +13,7 @@ package com.ardor3d.extension.animation.skeletal.blendtree;
 import java.util.Map;
 
 import com.ardor3d.extension.animation.skeletal.AnimationManager;
+import com.ardor3d.extension.animation.skeletal.PoseBuffer;
 
 /**
  * Represents a node in a blend tree.
@@ -26,6 +27,22 @@ public interface BlendTreeSource {
    */
   Map<String, ? extends Object> getSourceData(AnimationManager manager);
 
+  /**
+   * Write the joint transforms and armed triggers of this blend tree node into the given pose buffer.
+   * This is the compiled counterpart of {@link #getSourceData(AnimationManager)}, used when the
+   * manager's applier evaluates into a {@link PoseBuffer}. The default implementation copies the
+   * result of getSourceData into the buffer; nodes on the per frame path override this to write
+   * directly by joint index without allocating.
+   * 
+   * @param manager
+   *          the manager this is being called from.
+   * @param store
+   *          the buffer to write to. Cleared by the caller.
+   */
+  default void getSourcePose(final AnimationManager manager, final PoseBuffer store) {
+    store.setSourceData(getSourceData(manager));
+  }
+
   /**
    * Move any clips or animation information to the given global time.
    * 
@@ -13,8 +13,11 @@ package com.ardor3d.extension.animation.skeletal.blendtree;
 import java.util.Map;
 
 import com.ardor3d.extension.animation.skeletal.AnimationManager;
+import com.ardor3d.extension.animation.skeletal.PoseBuffer;
 import com.ardor3d.extension.animation.skeletal.clip.AnimationClip;
 import com.ardor3d.extension.animation.skeletal.clip.AnimationClipInstance;
+import com.ardor3d.extension.animation.skeletal.clip.JointData;
+import com.ardor3d.extension.animation.skeletal.clip.TriggerData;
 import com.ardor3d.math.util.MathUtils;
 
 /**
@@ -25,6 +28,13 @@ public class ClipSource implements BlendTreeSource {
   /** Our clip to sample from. This may be shared with other clip sources, etc. */
   protected AnimationClip _clip;
 
+  /** Which channels of our clip are used by {@link #getSourcePose(AnimationManager, PoseBuffer)}. */
+  private boolean[] _channelMask;
+
+  /** The clip and channels version our channel mask was built for. */
+  private AnimationClip _channelMaskClip;
+  private int _channelMaskVersion;
+
   /**
    * Construct a new ClipSource. Clip and Manager must be set separately before use.
    */
@@ -54,6 +64,59 @@ public class ClipSource implements BlendTreeSource {
     return manager.getClipInstance(getClip()).getChannelData();
   }
 
+  @Override
+  public void getSourcePose(final AnimationManager manager, final PoseBuffer store) {
+    final Object[] states = manager.getClipInstance(_clip).getChannelStates(_clip);
+    final boolean[] mask = getChannelMask();
+    for (int i = 0; i < states.length; i++) {
+      if (!mask[i]) {
+        continue;
+      }
+      final Object state = states[i];
+      if (state instanceof JointData jointData) {
+        store.setJoint(jointData);
+      } else if (state instanceof TriggerData triggerData) {
+        store.addTrigger(triggerData);
+      }
+    }
+  }
+
+  /**
+   * @return a flag per channel of our clip, true if that channel should be used. Rebuilt only when our
+   *         clip, its channels or our channel filter change.
+   */
+  private boolean[] getChannelMask() {
+    if (_channelMask == null || _channelMaskClip != _clip || _channelMaskVersion != _clip.getChannelsVersion()) {
+      final boolean[] mask = new boolean[_clip.getChannelCount()];
+      for (int i = 0; i < mask.length; i++) {
+        mask[i] = isChannelIncluded(_clip.getChannel(i).getChannelName());
+      }
+      _channelMask = mask;
+      _channelMaskClip = _clip;
+      _channelMaskVersion = _clip.getChannelsVersion();
+    }
+    return _channelMask;
+  }
+
+  /**
+   * Subclasses that filter channels override this, and call {@link #clearChannelMask()} when their
+   * filter changes.
+   * 
+   * @param channelName
+   *          the name of a channel of our clip.
+   * @return true if data from the given channel should be part of our source data.
+   */
+  protected boolean isChannelIncluded(final String channelName) {
+    return true;
+  }
+
+  /**
+   * Forget which channels are included, so it is worked out again on next use.
+   */
+  protected void clearChannelMask() {
+    _channelMask = null;
+  }
+
   /**
    * Sets the current time on our AnimationClip instance, accounting for looping and time scaling.
    */
@@ -84,7 +147,7 @@ public class ClipSource implements BlendTreeSource {
       if (clockTime > maxTime || clockTime < 0) {
         clockTime = MathUtils.clamp(clockTime, 0, maxTime);
         // signal to any listeners that we have ended our animation.
-        instance.fireAnimationFinished();
+        manager.runCallback(instance::fireAnimationFinished);
         // deactivate this instance of the clip
         instance.setActive(false);
       }
@@ -48,6 +48,7 @@ public class ExclusiveClipSource extends ClipSource {
    */
   public void clearDisabled() {
     _disabledChannels.clear();
+    clearChannelMask();
   }
 
   /**
@@ -60,6 +61,7 @@ public class ExclusiveClipSource extends ClipSource {
         _disabledChannels.add(channelName);
       }
     }
+    clearChannelMask();
   }
 
   /**
@@ -74,6 +76,7 @@ public class ExclusiveClipSource extends ClipSource {
         _disabledChannels.add(channelName);
       }
     }
+    clearChannelMask();
   }
 
   /**
@@ -81,6 +84,11 @@ public class ExclusiveClipSource extends ClipSource {
    */
   public List<String> getDisabledChannels() { return Collections.unmodifiableList(_disabledChannels); }
 
+  @Override
+  protected boolean isChannelIncluded(final String channelName) {
+    return !_disabledChannels.contains(channelName);
+  }
+
   @Override
   public Map<String, ? extends Object> getSourceData(final AnimationManager manager) {
     final Map<String, ? extends Object> orig = super.getSourceData(manager);
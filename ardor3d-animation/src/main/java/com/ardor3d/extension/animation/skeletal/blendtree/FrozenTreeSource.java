@@ -13,6 +13,7 @@ package com.ardor3d.extension.animation.skeletal.blendtree;
 import java.util.Map;
 
 import com.ardor3d.extension.animation.skeletal.AnimationManager;
+import com.ardor3d.extension.animation.skeletal.PoseBuffer;
 
 /**
  * A blend tree node that does not update any clips or sources below it in the blend tree. This is
@@ -37,6 +38,11 @@ public class FrozenTreeSource implements BlendTreeSource {
     return _source.getSourceData(manager);
   }
 
+  @Override
+  public void getSourcePose(final AnimationManager manager, final PoseBuffer store) {
+    _source.getSourcePose(manager, store);
+  }
+
   /**
    * Ignores the command to reset our subtree.
    */
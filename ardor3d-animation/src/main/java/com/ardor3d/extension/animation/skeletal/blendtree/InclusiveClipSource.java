@@ -48,6 +48,7 @@ public class InclusiveClipSource extends ClipSource {
    */
   public void clearEnabled() {
     _enabledChannels.clear();
+    clearChannelMask();
   }
 
   /**
@@ -60,6 +61,7 @@ public class InclusiveClipSource extends ClipSource {
         _enabledChannels.add(channelName);
       }
     }
+    clearChannelMask();
   }
 
   /**
@@ -74,6 +76,7 @@ public class InclusiveClipSource extends ClipSource {
         _enabledChannels.add(channelName);
       }
     }
+    clearChannelMask();
   }
 
   /**
@@ -81,6 +84,11 @@ public class InclusiveClipSource extends ClipSource {
    */
   public List<String> getEnabledChannels() { return Collections.unmodifiableList(_enabledChannels); }
 
+  @Override
+  protected boolean isChannelIncluded(final String channelName) {
+    return _enabledChannels.contains(channelName);
+  }
+
   @Override
   public Map<String, ? extends Object> getSourceData(final AnimationManager manager) {
     final Map<String, ? extends Object> orig = super.getSourceData(manager);
@@ -10,11 +10,14 @@
 
 package com.ardor3d.extension.animation.skeletal.blendtree;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import com.ardor3d.extension.animation.skeletal.AnimationManager;
+import com.ardor3d.extension.animation.skeletal.PoseBuffer;
 import com.ardor3d.extension.animation.skeletal.SkeletonPose;
 import com.ardor3d.extension.animation.skeletal.clip.AnimationClip;
 import com.ardor3d.extension.animation.skeletal.clip.JointChannel;
@@ -32,6 +35,9 @@ public class ManagedTransformSource implements BlendTreeSource {
   /** Our local source data. */
   private final Map<String, JointData> data = new HashMap<>();
 
+  /** The values of our local source data, in the order they were added. */
+  private final List<JointData> dataList = new ArrayList<>();
+
   /** optional: name of source we were initialized from, if given. */
   private String sourceName;
 
@@ -47,7 +53,9 @@ public class ManagedTransformSource implements BlendTreeSource {
     final String key = JointChannel.JOINT_CHANNEL_NAME + jointIndex;
     // reuse TransformData object
     if (!data.containsKey(key)) {
-      data.put(key, new JointData(jointData));
+      final JointData tData = new JointData(jointData);
+      data.put(key, tData);
+      dataList.add(tData);
     } else {
       final JointData old = data.get(key);
       old.set(jointData);
@@ -68,6 +76,7 @@ public class ManagedTransformSource implements BlendTreeSource {
     if (tData == null) {
       tData = new JointData(jointIndex);
       data.put(key, tData);
+      dataList.add(tData);
     }
 
     tData.setTranslation(translation);
@@ -87,6 +96,7 @@ public class ManagedTransformSource implements BlendTreeSource {
     if (tData == null) {
       tData = new JointData(jointIndex);
       data.put(key, tData);
+      dataList.add(tData);
     }
 
     tData.setScale(scale);
@@ -106,6 +116,7 @@ public class ManagedTransformSource implements BlendTreeSource {
     if (tData == null) {
       tData = new JointData(jointIndex);
       data.put(key, tData);
+      dataList.add(tData);
     }
 
     tData.setRotation(rotation);
@@ -119,6 +130,13 @@ public class ManagedTransformSource implements BlendTreeSource {
     return Collections.unmodifiableMap(data);
   }
 
+  @Override
+  public void getSourcePose(final AnimationManager manager, final PoseBuffer store) {
+    for (int i = 0, maxI = dataList.size(); i < maxI; i++) {
+      store.setJoint(dataList.get(i));
+    }
+  }
+
   /**
    * Does nothing.
    */
@@ -10,11 +10,13 @@
 
 package com.ardor3d.extension.animation.skeletal.blendtree;
 
+import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
 
 import com.ardor3d.extension.animation.skeletal.AnimationApplier;
 import com.ardor3d.extension.animation.skeletal.AnimationManager;
+import com.ardor3d.extension.animation.skeletal.PoseBuffer;
 import com.ardor3d.extension.animation.skeletal.SkeletonPose;
 import com.ardor3d.extension.animation.skeletal.clip.JointData;
 import com.ardor3d.extension.animation.skeletal.clip.TransformData;
@@ -26,8 +28,17 @@ import com.ardor3d.util.collection.Multimap;
 import com.ardor3d.util.collection.SimpleMultimap;
 
 /**
+ * <p>
  * Very simple applier. Just applies joint transform data, calls any callbacks and updates the
  * pose's global transforms.
+ * </p>
+ * <p>
+ * If set to compiled (see {@link #setCompiled(boolean)}), joint data for poses is evaluated into a
+ * reused {@link PoseBuffer} via {@link AnimationManager#getCurrentSourcePose(PoseBuffer)} rather
+ * than gathered in channel name keyed maps. Blend trees made of the stock sources then update a pose
+ * without allocating. In this mode, armed triggers from both sides of a blend are fired, where the map
+ * based path only fires the first side's trigger if both have a trigger channel of the same name.
+ * </p>
  */
 public class SimpleAnimationApplier implements AnimationApplier {
 
@@ -35,6 +46,12 @@ public class SimpleAnimationApplier implements AnimationApplier {
 
   private final Map<String, Spatial> _spatialCache = new WeakHashMap<>();
 
+  /** If true, poses are updated from a pose buffer rather than from source data maps. */
+  private boolean _compiled = false;
+
+  /** Buffer used to evaluate poses in compiled mode. */
+  private final PoseBuffer _poseBuffer = new PoseBuffer();
+
   @Override
   public void apply(final Spatial root, final AnimationManager manager) {
     if (root == null) {
@@ -76,6 +93,11 @@ public class SimpleAnimationApplier implements AnimationApplier {
 
   @Override
   public void applyTo(final SkeletonPose applyToPose, final AnimationManager manager) {
+    if (_compiled) {
+      applyCompiled(applyToPose, manager);
+      return;
+    }
+
     final Map<String, ?> data = manager.getCurrentSourceData();
 
     // cycle through, pulling out and applying those we know about
@@ -86,18 +108,7 @@ public class SimpleAnimationApplier implements AnimationApplier {
             jointData.applyTo(applyToPose.getLocalJointTransforms()[jointData.getJointIndex()]);
           }
         } else if (value instanceof TriggerData trigger) {
-          if (trigger.isArmed()) {
-            try {
-              // pull callback(s) for the current trigger key, if exists, and call.
-              for (final String curTrig : trigger.getCurrentTriggers()) {
-                for (final TriggerCallback cb : _triggerCallbacks.values(curTrig)) {
-                  cb.doTrigger(applyToPose, manager);
-                }
-              }
-            } finally {
-              trigger.setArmed(false);
-            }
-          }
+          fireTrigger(trigger, applyToPose, manager);
         }
       }
 
@@ -105,6 +116,47 @@ public class SimpleAnimationApplier implements AnimationApplier {
     }
   }
 
+  private void applyCompiled(final SkeletonPose applyToPose, final AnimationManager manager) {
+    _poseBuffer.setJointCount(applyToPose.getSkeleton().getJoints().length);
+    manager.getCurrentSourcePose(_poseBuffer);
+    if (_poseBuffer.isEmpty()) {
+      return;
+    }
+
+    _poseBuffer.applyTo(applyToPose);
+    final List<TriggerData> triggers = _poseBuffer.getTriggers();
+    for (int i = 0, maxI = triggers.size(); i < maxI; i++) {
+      fireTrigger(triggers.get(i), applyToPose, manager);
+    }
+
+    applyToPose.updateTransforms();
+  }
+
+  private void fireTrigger(final TriggerData trigger, final SkeletonPose applyToPose, final AnimationManager manager) {
+    if (trigger.isArmed()) {
+      try {
+        // pull callback(s) for the current trigger key, if exists, and call.
+        final List<String> currentTriggers = trigger.getCurrentTriggers();
+        for (int i = 0, maxI = currentTriggers.size(); i < maxI; i++) {
+          for (final TriggerCallback cb : _triggerCallbacks.values(currentTriggers.get(i))) {
+            manager.runCallback(() -> cb.doTrigger(applyToPose, manager));
+          }
+        }
+      } finally {
+        trigger.setArmed(false);
+      }
+    }
+  }
+
+  public boolean isCompiled() { return _compiled; }
+
+  /**
+   * @param compiled
+   *          if true, poses are updated by evaluating the animation manager into a reused pose buffer
+   *          rather than from source data maps. Defaults to false.
+   */
+  public void setCompiled(final boolean compiled) { _compiled = compiled; }
+
   public void clearSpatialCache() {
     _spatialCache.clear();
   }
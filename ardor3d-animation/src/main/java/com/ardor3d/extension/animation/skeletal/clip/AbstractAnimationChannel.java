@@ -23,6 +23,9 @@ import com.ardor3d.util.export.Savable;
  */
 public abstract class AbstractAnimationChannel implements Savable {
 
+  /** Samples to step through from a cursor before giving up and doing a binary search. */
+  private static final int CURSOR_STEPS = 4;
+
   /** The name of this channel. */
   protected String _channelName;
 
@@ -59,6 +62,8 @@ public abstract class AbstractAnimationChannel implements Savable {
 
   /**
    * Update the given applyTo object with information from this channel at the given time position.
+   * If applyTo is a {@link SampleCursor}, the search for the current sample starts from the sample it
+   * last played.
    * 
    * @param clockTime
    *          the current local clip time (where 0 == start of clip)
@@ -77,12 +82,13 @@ public abstract class AbstractAnimationChannel implements Savable {
     } else if (clockTime >= _times[lastFrame]) {
       setCurrentSample(lastFrame, 0.0, applyTo);
     } else {
-      int startFrame = 0;
-
-      for (int i = 0; i < _times.length - 1; i++) {
-        if (_times[i] < clockTime) {
-          startFrame = i;
-        }
+      final int startFrame;
+      if (applyTo instanceof SampleCursor) {
+        final SampleCursor cursor = (SampleCursor) applyTo;
+        startFrame = findSample(clockTime, cursor.getSampleCursor());
+        cursor.setSampleCursor(startFrame);
+      } else {
+        startFrame = findSample(clockTime, 0, lastFrame - 1);
       }
       final double progressPercent = (clockTime - _times[startFrame]) / (_times[startFrame + 1] - _times[startFrame]);
 
@@ -90,6 +96,61 @@ public abstract class AbstractAnimationChannel implements Savable {
     }
   }
 
+  /**
+   * Find the sample to play from at the given time, starting the search at the given sample. Times
+   * close to the previous one - regular playback in either direction - are found by stepping a few
+   * samples from there. Anything further away, such as a seek or a loop back to the start, falls back
+   * to a binary search.
+   * 
+   * @param clockTime
+   *          the current local clip time. Must be in [0, getMaxTime()).
+   * @param fromSample
+   *          the sample to start searching from, usually the one found on the previous update.
+   * @return the last sample, not counting the final one, with a time before clockTime - or 0 if there
+   *         is none.
+   */
+  public int findSample(final double clockTime, final int fromSample) {
+    final int lastStart = _times.length - 2;
+    int frame = fromSample < 0 ? 0 : Math.min(fromSample, lastStart);
+    if (_times[frame] < clockTime) {
+      for (int i = 0; i < CURSOR_STEPS; i++) {
+        if (frame == lastStart || _times[frame + 1] >= clockTime) {
+          return frame;
+        }
+        frame++;
+      }
+      return findSample(clockTime, frame, lastStart);
+    }
+
+    for (int i = 0; i < CURSOR_STEPS && frame > 0; i++) {
+      frame--;
+      if (_times[frame] < clockTime) {
+        return frame;
+      }
+    }
+    return frame == 0 ? 0 : findSample(clockTime, 0, frame - 1);
+  }
+
+  /**
+   * Binary search for the last sample in [low, high] with a time before clockTime.
+   * 
+   * @return the sample found, or low if there is none.
+   */
+  private int findSample(final double clockTime, final int low, final int high) {
+    int result = low;
+    int min = low, max = high;
+    while (min <= max) {
+      final int mid = min + max >>> 1;
+      if (_times[mid] < clockTime) {
+        result = mid;
+        min = mid + 1;
+      } else {
+        max = mid - 1;
+      }
+    }
+    return result;
+  }
+
   /**
    * Sets data on the given applyTo Object for the given sampleIndex and a percent progress towards
    * the sample following it.
@@ -183,6 +244,20 @@ public abstract class AbstractAnimationChannel implements Savable {
     }
   }
 
+  /**
+   * @return the approximate number of bytes of heap used by the samples of this channel.
+   */
+  public long getMemoryUsage() {
+    return 16 + (_times != null ? arrayBytes(_times.length, Float.BYTES) : 0);
+  }
+
+  /**
+   * @return the approximate heap size of an array, in bytes.
+   */
+  static long arrayBytes(final int length, final int elementSize) {
+    return 16 + (long) length * elementSize;
+  }
+
   // /////////////////
   // Methods for Savable
   // /////////////////
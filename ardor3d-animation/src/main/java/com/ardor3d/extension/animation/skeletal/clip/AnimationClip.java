@@ -34,6 +34,12 @@ public class AnimationClip implements Savable {
   /** A max time value for this clip, pulled from our managed channels. */
   private transient float _maxTime = 0;
 
+  /** Incremented each time our list of channels changes. */
+  private transient int _channelsVersion = 0;
+
+  /** Joint index of each of our channels, built on first use after our channels change. */
+  private transient volatile ChannelJoints _channelJoints;
+
   /**
    * Construct a new animation clip with no channels.
    */
@@ -69,11 +75,36 @@ public class AnimationClip implements Savable {
    */
   public void update(final double clockTime, final AnimationClipInstance instance) {
     // Go through each channel and update clipState
+    final Object[] states = instance.getChannelStates(this);
+    final boolean[] jointMask = instance.getJointMask();
+    if (jointMask == null) {
+      for (int i = 0; i < _channels.size(); ++i) {
+        _channels.get(i).updateSample(clockTime, states[i]);
+      }
+      return;
+    }
+
+    // skip joints outside of the mask, once they have a value
+    final int[] joints = getChannelJoints();
+    final boolean[] sampled = instance.getChannelSampled(joints.length);
     for (int i = 0; i < _channels.size(); ++i) {
-      final AbstractAnimationChannel channel = _channels.get(i);
-      final Object applyTo = instance.getApplyTo(channel);
-      channel.updateSample(clockTime, applyTo);
+      final int joint = joints[i];
+      if (sampled[i] && joint >= 0 && joint < jointMask.length && !jointMask[joint]) {
+        continue;
+      }
+      _channels.get(i).updateSample(clockTime, states[i]);
+      sampled[i] = true;
+    }
+  }
+
+  private int[] getChannelJoints() {
+    ChannelJoints cache = _channelJoints;
+    if (cache == null || cache.version != _channelsVersion) {
+      // safe to race: clips may be shared by managers updating in parallel, and each builds the same.
+      cache = new ChannelJoints(_channels, _channelsVersion);
+      _channelJoints = cache;
     }
+    return cache.joints;
   }
 
   /**
@@ -122,15 +153,47 @@ public class AnimationClip implements Savable {
    */
   public List<AbstractAnimationChannel> getChannels() { return List.copyOf(_channels); }
 
+  /**
+   * @return the number of channels in this clip.
+   */
+  public int getChannelCount() { return _channels.size(); }
+
+  /**
+   * @param index
+   *          the index of the channel to return, in the order channels were added.
+   * @return the channel at the given index.
+   */
+  public AbstractAnimationChannel getChannel(final int index) {
+    return _channels.get(index);
+  }
+
+  /**
+   * @return a value that changes each time channels are added to or removed from this clip.
+   */
+  public int getChannelsVersion() { return _channelsVersion; }
+
   /**
    * @return the maximum (local) time value of this clip, as described by the channels it manages.
    */
   public float getMaxTimeIndex() { return _maxTime; }
 
   /**
-   * Update our max time value to match the max time in our managed animation channels.
+   * @return the approximate number of bytes of heap used by the samples of our channels.
+   */
+  public long getMemoryUsage() {
+    long bytes = 0;
+    for (final AbstractAnimationChannel channel : _channels) {
+      bytes += channel.getMemoryUsage();
+    }
+    return bytes;
+  }
+
+  /**
+   * Update our max time value to match the max time in our managed animation channels. Called whenever
+   * our channels change.
    */
   private void updateMaxTimeIndex() {
+    _channelsVersion++;
     _maxTime = 0;
     float max;
     for (final AbstractAnimationChannel channel : _channels) {
@@ -178,4 +241,20 @@ public class AnimationClip implements Savable {
   private AnimationClip() {
     this(null);
   }
+
+  /**
+   * The joint index of each channel, or -1 for channels not animating a joint.
+   */
+  private static final class ChannelJoints {
+    final int version;
+    final int[] joints;
+
+    ChannelJoints(final List<AbstractAnimationChannel> channels, final int version) {
+      this.version = version;
+      joints = new int[channels.size()];
+      for (int i = 0; i < joints.length; i++) {
+        joints[i] = channels.get(i) instanceof final JointChannel channel ? channel.getJointIndex() : -1;
+      }
+    }
+  }
 }
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal.clip;
+
+import java.util.logging.Logger;
+
+import com.ardor3d.extension.animation.skeletal.Skeleton;
+import com.ardor3d.extension.animation.skeletal.SkeletonPose;
+import com.ardor3d.math.Transform;
+
+/**
+ * Bakes animation clips into {@link BakedAnimationClip}s - the matrix palette of a skeleton, sampled at
+ * a fixed frame rate over one loop of the clip. Joints the clip does not animate keep their bind pose
+ * transforms. Trigger and other non-joint channels are not baked.
+ */
+public class AnimationClipBaker {
+  private static final Logger logger = Logger.getLogger(AnimationClipBaker.class.getName());
+
+  private double _framesPerSecond = 30;
+
+  /**
+   * @param clip
+   *          the clip to bake. Not modified.
+   * @param skeleton
+   *          the skeleton the clip animates.
+   * @return a new baked clip holding one palette per frame, from time 0 up to (but not including) the
+   *         end of the clip, which loops back to the first frame.
+   */
+  public BakedAnimationClip bake(final AnimationClip clip, final Skeleton skeleton) {
+    final int jointCount = skeleton.getJoints().length;
+    final int frameCount = Math.max(1, (int) Math.round(clip.getMaxTimeIndex() * _framesPerSecond));
+    final int frameSize = jointCount * BakedAnimationClip.FLOATS_PER_JOINT;
+    final float[] palettes = new float[frameCount * frameSize];
+
+    final SkeletonPose pose = new SkeletonPose(skeleton);
+    final Transform[] locals = pose.getLocalJointTransforms();
+    final AnimationClipInstance instance = new AnimationClipInstance();
+    final Object[] states = instance.getChannelStates(clip);
+    for (int frame = 0; frame < frameCount; frame++) {
+      clip.update(frame / _framesPerSecond, instance);
+      for (final Object state : states) {
+        if (state instanceof final JointData jointData) {
+          final int index = jointData.getJointIndex();
+          if (index >= 0 && index < jointCount) {
+            jointData.applyTo(locals[index]);
+          }
+        }
+      }
+      pose.updateTransforms();
+      System.arraycopy(pose.getMatrixPaletteArray(), 0, palettes, frame * frameSize, frameSize);
+    }
+
+    final BakedAnimationClip baked =
+        new BakedAnimationClip(clip.getName(), jointCount, (float) _framesPerSecond, palettes);
+    AnimationClipBaker.logger.fine(() -> "Baked clip '" + clip.getName() + "' into " + frameCount + " frames of "
+        + baked.getMemoryUsage() + " bytes.");
+    return baked;
+  }
+
+  public double getFramesPerSecond() { return _framesPerSecond; }
+
+  /**
+   * @param framesPerSecond
+   *          the rate to sample clips at. Playback blends between frames, so this can usually be well
+   *          below the display rate. Defaults to 30.
+   */
+  public void setFramesPerSecond(final double framesPerSecond) {
+    if (framesPerSecond <= 0) {
+      throw new IllegalArgumentException("framesPerSecond must be positive.");
+    }
+    _framesPerSecond = framesPerSecond;
+  }
+}
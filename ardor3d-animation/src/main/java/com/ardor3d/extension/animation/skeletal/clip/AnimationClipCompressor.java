@@ -0,0 +1,252 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal.clip;
+
+import java.util.logging.Logger;
+
+import com.ardor3d.math.Quaternion;
+import com.ardor3d.math.Vector3;
+
+/**
+ * Builds smaller copies of animation clips. The transform channels of a clip (including joint
+ * channels) are rebuilt with:
+ * <ul>
+ * <li>quantized tracks - 48 bits per rotation and 16 bits per translation or scale component, see
+ * {@link QuaternionTrack} and {@link Vector3Track}.</li>
+ * <li>optionally, key reduction - keys that can be rebuilt by interpolating their neighbours to within
+ * the given tolerances are dropped, and tracks that stay within tolerance of their first key are made
+ * constant.</li>
+ * </ul>
+ * Other channels are shared with the source clip as is. Compressed channels are ordinary
+ * {@link TransformChannel}s and {@link JointChannel}s, so the result can be used anywhere the source
+ * clip could, and saves and loads through the usual Savable path.
+ */
+public class AnimationClipCompressor {
+  private static final Logger logger = Logger.getLogger(AnimationClipCompressor.class.getName());
+
+  private boolean _quantize = true;
+  private boolean _reduceKeys = false;
+
+  /** Largest rotation error allowed by key reduction, in radians. */
+  private double _rotationTolerance = 0.001;
+
+  /** Largest translation error allowed by key reduction, per component. */
+  private double _translationTolerance = 0.001;
+
+  /** Largest scale error allowed by key reduction, per component. */
+  private double _scaleTolerance = 0.001;
+
+  /**
+   * @param clip
+   *          the clip to compress. Not modified.
+   * @return a new clip with the same name and compressed copies of the source clip's transform
+   *         channels.
+   */
+  public AnimationClip compress(final AnimationClip clip) {
+    final AnimationClip result = new AnimationClip(clip.getName());
+    for (final AbstractAnimationChannel channel : clip.getChannels()) {
+      result.addChannel(channel instanceof TransformChannel ? compress((TransformChannel) channel) : channel);
+    }
+    AnimationClipCompressor.logger.fine(() -> "Compressed clip '" + clip.getName() + "' from "
+        + clip.getMemoryUsage() + " to " + result.getMemoryUsage() + " bytes.");
+    return result;
+  }
+
+  /**
+   * @param channel
+   *          the channel to compress. Not modified.
+   * @return a compressed copy of the given channel, of the same class.
+   */
+  public TransformChannel compress(final TransformChannel channel) {
+    float[] times = channel.getTimes();
+    float[] rotations = channel.getRotationTrack().toArray();
+    float[] translations = channel.getTranslationTrack().toArray();
+    float[] scales = channel.getScaleTrack().toArray();
+
+    if (_reduceKeys && times.length > 2) {
+      snapRotations(rotations);
+      snapVectors(translations, _translationTolerance);
+      snapVectors(scales, _scaleTolerance);
+
+      final boolean[] keep = findKeysToKeep(times, rotations, translations, scales);
+      times = filter(times, keep, 1);
+      rotations = filter(rotations, keep, 4);
+      translations = filter(translations, keep, 3);
+      scales = filter(scales, keep, 3);
+    }
+
+    return channel.newChannel(channel.getChannelName(), times, QuaternionTrack.create(rotations, _quantize),
+        Vector3Track.create(translations, _quantize), Vector3Track.create(scales, _quantize));
+  }
+
+  /**
+   * Walk the keys, keeping the first and last and, between them, only those needed to stay within our
+   * tolerances when interpolating from the previous kept key.
+   */
+  private boolean[] findKeysToKeep(final float[] times, final float[] rotations, final float[] translations,
+      final float[] scales) {
+    final boolean constantRotation = QuaternionTrack.isConstant(rotations, 4);
+    final boolean constantTranslation = QuaternionTrack.isConstant(translations, 3);
+    final boolean constantScale = QuaternionTrack.isConstant(scales, 3);
+
+    final boolean[] keep = new boolean[times.length];
+    keep[0] = true;
+    keep[times.length - 1] = true;
+    if (constantRotation && constantTranslation && constantScale) {
+      return keep;
+    }
+
+    final Quaternion start = new Quaternion(), end = new Quaternion(), key = new Quaternion();
+    final Quaternion interpolated = new Quaternion();
+    final Vector3 vStart = new Vector3(), vEnd = new Vector3(), vKey = new Vector3();
+
+    int first = 0;
+    for (int last = 2; last < times.length; last++) {
+      boolean fits = true;
+      for (int k = first + 1; k < last && fits; k++) {
+        final double amount = (times[k] - times[first]) / (times[last] - times[first]);
+        if (!constantRotation) {
+          getQuaternion(rotations, first, start);
+          getQuaternion(rotations, last, end);
+          getQuaternion(rotations, k, key);
+          interpolated.slerpLocal(start, end, amount, end);
+          fits = angle(interpolated, key) <= _rotationTolerance;
+        }
+        if (fits && !constantTranslation) {
+          fits = vectorError(translations, first, last, k, amount, vStart, vEnd, vKey) <= _translationTolerance;
+        }
+        if (fits && !constantScale) {
+          fits = vectorError(scales, first, last, k, amount, vStart, vEnd, vKey) <= _scaleTolerance;
+        }
+      }
+      if (!fits) {
+        keep[last - 1] = true;
+        first = last - 1;
+      }
+    }
+    return keep;
+  }
+
+  private static double vectorError(final float[] values, final int first, final int last, final int k,
+      final double amount, final Vector3 start, final Vector3 end, final Vector3 key) {
+    getVector(values, first, start);
+    getVector(values, last, end);
+    getVector(values, k, key);
+    final Vector3 interpolated = start.lerpLocal(end, amount);
+    return Math.max(Math.abs(interpolated.getX() - key.getX()),
+        Math.max(Math.abs(interpolated.getY() - key.getY()), Math.abs(interpolated.getZ() - key.getZ())));
+  }
+
+  /**
+   * Make a rotation track constant if every key is within tolerance of the first.
+   */
+  private void snapRotations(final float[] rotations) {
+    final Quaternion first = getQuaternion(rotations, 0, new Quaternion());
+    final Quaternion key = new Quaternion();
+    final int keys = rotations.length / 4;
+    for (int i = 1; i < keys; i++) {
+      if (angle(first, getQuaternion(rotations, i, key)) > _rotationTolerance) {
+        return;
+      }
+    }
+    for (int i = 4; i < rotations.length; i++) {
+      rotations[i] = rotations[i % 4];
+    }
+  }
+
+  /**
+   * Make a vector track constant if every component of every key is within tolerance of the first.
+   */
+  private static void snapVectors(final float[] values, final double tolerance) {
+    for (int i = 3; i < values.length; i++) {
+      if (Math.abs(values[i] - values[i % 3]) > tolerance) {
+        return;
+      }
+    }
+    for (int i = 3; i < values.length; i++) {
+      values[i] = values[i % 3];
+    }
+  }
+
+  /**
+   * @return the angle of the rotation taking a to b, in radians.
+   */
+  private static double angle(final Quaternion a, final Quaternion b) {
+    final double dot = Math.abs(a.dot(b)) / Math.sqrt(a.magnitudeSquared() * b.magnitudeSquared());
+    return 2.0 * Math.acos(Math.min(1.0, dot));
+  }
+
+  private static Quaternion getQuaternion(final float[] values, final int key, final Quaternion store) {
+    return store.set(values[key * 4], values[key * 4 + 1], values[key * 4 + 2], values[key * 4 + 3]);
+  }
+
+  private static Vector3 getVector(final float[] values, final int key, final Vector3 store) {
+    return store.set(values[key * 3], values[key * 3 + 1], values[key * 3 + 2]);
+  }
+
+  private static float[] filter(final float[] values, final boolean[] keep, final int stride) {
+    int count = 0;
+    for (final boolean k : keep) {
+      count += k ? 1 : 0;
+    }
+    final float[] result = new float[count * stride];
+    for (int i = 0, j = 0; i < keep.length; i++) {
+      if (keep[i]) {
+        System.arraycopy(values, i * stride, result, j, stride);
+        j += stride;
+      }
+    }
+    return result;
+  }
+
+  public boolean isQuantize() { return _quantize; }
+
+  /**
+   * @param quantize
+   *          if true (the default), compressed tracks are quantized.
+   */
+  public void setQuantize(final boolean quantize) { _quantize = quantize; }
+
+  public boolean isReduceKeys() { return _reduceKeys; }
+
+  /**
+   * @param reduceKeys
+   *          if true, keys that can be rebuilt from their neighbours within our tolerances are removed.
+   *          Off by default.
+   */
+  public void setReduceKeys(final boolean reduceKeys) { _reduceKeys = reduceKeys; }
+
+  public double getRotationTolerance() { return _rotationTolerance; }
+
+  /**
+   * @param rotationTolerance
+   *          largest rotation error allowed by key reduction, in radians. Defaults to 0.001.
+   */
+  public void setRotationTolerance(final double rotationTolerance) { _rotationTolerance = rotationTolerance; }
+
+  public double getTranslationTolerance() { return _translationTolerance; }
+
+  /**
+   * @param translationTolerance
+   *          largest translation error allowed by key reduction, per component. Defaults to 0.001.
+   */
+  public void setTranslationTolerance(final double translationTolerance) {
+    _translationTolerance = translationTolerance;
+  }
+
+  public double getScaleTolerance() { return _scaleTolerance; }
+
+  /**
+   * @param scaleTolerance
+   *          largest scale error allowed by key reduction, per component. Defaults to 0.001.
+   */
+  public void setScaleTolerance(final double scaleTolerance) { _scaleTolerance = scaleTolerance; }
+}
@@ -41,9 +41,21 @@ public class AnimationClipInstance {
   /** Map of channel name -> state tracking objects. */
   private final Map<String, Object> _clipStateObjects = new HashMap<>();
 
+  /** Our channel state objects in clip channel order, resolved from _clipStateObjects. */
+  private Object[] _channelStates = new Object[0];
+
+  /** Channels version of the clip our channel states were resolved for. */
+  private int _channelStatesVersion = -1;
+
   /** List of callbacks for animation events. */
   private List<AnimationListener> animationListeners = null;
 
+  /** Flag per joint, true if channels of that joint should be sampled. Null to sample all joints. */
+  private boolean[] _jointMask;
+
+  /** Flag per channel, true once that channel has been sampled with a joint mask in place. */
+  private boolean[] _channelSampled = new boolean[0];
+
   /**
    * Add an animation listener to our callback list.
    * 
@@ -113,6 +125,50 @@ public class AnimationClipInstance {
 
   public Map<String, Object> getChannelData() { return _clipStateObjects; }
 
+  public boolean[] getJointMask() { return _jointMask; }
+
+  /**
+   * @param jointMask
+   *          a flag per joint index, true if channels animating that joint should be sampled on update.
+   *          Channels of masked out joints keep their last sampled value - though each is sampled at
+   *          least once. Joints past the end of the mask are sampled. Null (the default) samples all
+   *          channels.
+   */
+  public void setJointMask(final boolean[] jointMask) { _jointMask = jointMask; }
+
+  /**
+   * @param channelCount
+   *          the number of channels of our clip.
+   * @return a flag per channel, true once that channel has been sampled while a joint mask was set.
+   */
+  boolean[] getChannelSampled(final int channelCount) {
+    if (_channelSampled.length != channelCount) {
+      _channelSampled = new boolean[channelCount];
+    }
+    return _channelSampled;
+  }
+
+  /**
+   * Resolve the state objects of all channels of the given clip, in the clip's channel order. The
+   * result is kept and only rebuilt when the clip's channels change, so per update work can index into
+   * it instead of looking each channel up by name.
+   * 
+   * @param clip
+   *          the clip this is an instance of.
+   * @return our state objects, one per channel of the clip. Not to be modified.
+   */
+  public Object[] getChannelStates(final AnimationClip clip) {
+    if (_channelStatesVersion != clip.getChannelsVersion() || _channelStates.length != clip.getChannelCount()) {
+      final Object[] states = new Object[clip.getChannelCount()];
+      for (int i = 0; i < states.length; i++) {
+        states[i] = getApplyTo(clip.getChannel(i));
+      }
+      _channelStates = states;
+      _channelStatesVersion = clip.getChannelsVersion();
+    }
+    return _channelStates;
+  }
+
   /**
    * Tell any animation listeners on this instance that the associated clip has finished playing.
    */
@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal.clip;
+
+import java.io.IOException;
+
+import com.ardor3d.annotation.SavableFactory;
+import com.ardor3d.util.export.InputCapsule;
+import com.ardor3d.util.export.OutputCapsule;
+import com.ardor3d.util.export.Savable;
+
+/**
+ * <p>
+ * An animation clip sampled ahead of time into the matrix palettes of a skeleton, one palette per
+ * frame at a fixed frame rate. Playing a baked clip needs no channel sampling or pose update - just a
+ * lookup of the two frames around the play time - so many characters can play it on the GPU from a
+ * shared palette texture with only a start time each (see
+ * {@link com.ardor3d.extension.animation.skeletal.BakedCrowdMesh}).
+ * </p>
+ * <p>
+ * Palettes are stored as given by
+ * {@link com.ardor3d.extension.animation.skeletal.SkeletonPose#getMatrixPaletteArray()} - 12 floats
+ * per joint - frame after frame. Playback loops, blending the last frame into the first. Built by
+ * {@link AnimationClipBaker}.
+ * </p>
+ */
+@SavableFactory(factoryMethod = "initSavable")
+public class BakedAnimationClip implements Savable {
+
+  /** Number of floats per joint, per frame. */
+  public static final int FLOATS_PER_JOINT = 12;
+
+  /** The name of the clip we were baked from. */
+  private String _name;
+
+  private int _jointCount;
+
+  private int _frameCount;
+
+  private float _framesPerSecond;
+
+  /** Our palettes, frame after frame. */
+  private float[] _palettes;
+
+  /**
+   * Construct a new baked clip.
+   *
+   * @param name
+   *          the name of the clip baked from.
+   * @param jointCount
+   *          the number of joints per palette.
+   * @param framesPerSecond
+   *          the rate frames were sampled at.
+   * @param palettes
+   *          the palettes, {@link #FLOATS_PER_JOINT} floats per joint, frame after frame. Not copied.
+   */
+  public BakedAnimationClip(final String name, final int jointCount, final float framesPerSecond,
+      final float[] palettes) {
+    if (jointCount <= 0 || palettes.length == 0 || palettes.length % (jointCount * FLOATS_PER_JOINT) != 0) {
+      throw new IllegalArgumentException("palettes must hold whole frames of " + jointCount + " joints.");
+    }
+    if (framesPerSecond <= 0) {
+      throw new IllegalArgumentException("framesPerSecond must be positive.");
+    }
+    _name = name;
+    _jointCount = jointCount;
+    _framesPerSecond = framesPerSecond;
+    _palettes = palettes;
+    _frameCount = palettes.length / (jointCount * FLOATS_PER_JOINT);
+  }
+
+  /**
+   * Only used for Savable.
+   */
+  protected BakedAnimationClip() {}
+
+  public String getName() { return _name; }
+
+  public int getJointCount() { return _jointCount; }
+
+  public int getFrameCount() { return _frameCount; }
+
+  public float getFramesPerSecond() { return _framesPerSecond; }
+
+  /**
+   * @return the length of one loop of the clip, in seconds.
+   */
+  public double getDuration() { return _frameCount / (double) _framesPerSecond; }
+
+  /**
+   * @return our palettes, {@link #FLOATS_PER_JOINT} floats per joint, frame after frame. Do not modify.
+   */
+  public float[] getPalettes() { return _palettes; }
+
+  /**
+   * @param frame
+   *          a frame index
+   * @return the index in {@link #getPalettes()} of the first float of the given frame.
+   */
+  public int getFrameOffset(final int frame) {
+    return frame * _jointCount * FLOATS_PER_JOINT;
+  }
+
+  /**
+   * Blend the two frames around the given time into a single palette, as our GPU playback does.
+   *
+   * @param time
+   *          the play time, in seconds. Wrapped to our duration.
+   * @param store
+   *          the palette to store in, with room for {@link #getJointCount()} joints. If null, a new
+   *          array is created.
+   * @return the palette at the given time.
+   */
+  public float[] samplePalette(final double time, final float[] store) {
+    final int size = _jointCount * FLOATS_PER_JOINT;
+    final float[] result = store != null ? store : new float[size];
+
+    final double frame = time * _framesPerSecond;
+    final double wrapped = frame - _frameCount * Math.floor(frame / _frameCount);
+    final int frame0 = Math.min((int) wrapped, _frameCount - 1);
+    final float blend = (float) (wrapped - frame0);
+    final int offset0 = getFrameOffset(frame0);
+    final int offset1 = getFrameOffset((frame0 + 1) % _frameCount);
+    for (int i = 0; i < size; i++) {
+      result[i] = _palettes[offset0 + i] * (1f - blend) + _palettes[offset1 + i] * blend;
+    }
+    return result;
+  }
+
+  /**
+   * @return the number of bytes of heap used by our palettes.
+   */
+  public long getMemoryUsage() { return (long) _palettes.length * Float.BYTES; }
+
+  // /////////////////
+  // Methods for Savable
+  // /////////////////
+
+  @Override
+  public Class<? extends BakedAnimationClip> getClassTag() { return this.getClass(); }
+
+  @Override
+  public void write(final OutputCapsule capsule) throws IOException {
+    capsule.write(_name, "name", null);
+    capsule.write(_jointCount, "jointCount", 0);
+    capsule.write(_framesPerSecond, "framesPerSecond", 0f);
+    capsule.write(_palettes, "palettes", null);
+  }
+
+  @Override
+  public void read(final InputCapsule capsule) throws IOException {
+    _name = capsule.readString("name", null);
+    _jointCount = capsule.readInt("jointCount", 0);
+    _framesPerSecond = capsule.readFloat("framesPerSecond", 0f);
+    _palettes = capsule.readFloatArray("palettes", null);
+    _frameCount = _palettes != null && _jointCount > 0 ? _palettes.length / (_jointCount * FLOATS_PER_JOINT) : 0;
+  }
+
+  public static BakedAnimationClip initSavable() {
+    return new BakedAnimationClip();
+  }
+}
@@ -129,6 +129,11 @@ public class InterpolatedDoubleChannel extends AbstractAnimationChannel {
     return new InterpolatedDoubleChannel(name, timesArray, values);
   }
 
+  @Override
+  public long getMemoryUsage() {
+    return super.getMemoryUsage() + (_values != null ? arrayBytes(_values.length, Double.BYTES) : 0);
+  }
+
   // /////////////////
   // Methods for Savable
   // /////////////////
@@ -128,6 +128,11 @@ public class InterpolatedFloatChannel extends AbstractAnimationChannel {
     return new InterpolatedFloatChannel(name, timesArray, values);
   }
 
+  @Override
+  public long getMemoryUsage() {
+    return super.getMemoryUsage() + (_values != null ? arrayBytes(_values.length, Float.BYTES) : 0);
+  }
+
   // /////////////////
   // Methods for Savable
   // /////////////////
@@ -80,6 +80,29 @@ public class JointChannel extends TransformChannel {
     _jointIndex = jointIndex;
   }
 
+  /**
+   * Construct a new JointChannel from prepared tracks.
+   * 
+   * @param jointName
+   *          the human readable name of the joint
+   * @param jointIndex
+   *          the index of the joint.
+   * @param times
+   *          our time offset values.
+   * @param rotations
+   *          our rotation keys.
+   * @param translations
+   *          our translation keys.
+   * @param scales
+   *          our scale keys.
+   */
+  public JointChannel(final String jointName, final int jointIndex, final float[] times,
+    final QuaternionTrack rotations, final Vector3Track translations, final Vector3Track scales) {
+    super(JointChannel.JOINT_CHANNEL_NAME + jointIndex, times, rotations, translations, scales);
+    _jointName = jointName;
+    _jointIndex = jointIndex;
+  }
+
   /**
    * Construct a new JointChannel.
    * 
@@ -112,6 +135,12 @@ public class JointChannel extends TransformChannel {
     return new JointChannel(_jointName, _jointIndex, times, rotations, translations, scales);
   }
 
+  @Override
+  protected JointChannel newChannel(final String name, final float[] times, final QuaternionTrack rotations,
+      final Vector3Track translations, final Vector3Track scales) {
+    return new JointChannel(_jointName, _jointIndex, times, rotations, translations, scales);
+  }
+
   @Override
   public void setCurrentSample(final int sampleIndex, final double progressPercent, final Object applyTo) {
     super.setCurrentSample(sampleIndex, progressPercent, applyTo);
@@ -0,0 +1,271 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal.clip;
+
+import java.io.IOException;
+
+import com.ardor3d.math.Quaternion;
+import com.ardor3d.math.type.ReadOnlyQuaternion;
+import com.ardor3d.util.export.InputCapsule;
+import com.ardor3d.util.export.OutputCapsule;
+
+/**
+ * The rotation keys of a {@link TransformChannel}, held in a single flat array rather than one object
+ * per key. A track whose keys are all the same stores that key only once.
+ * <p>
+ * Keys may optionally be quantized to 48 bits each using the "smallest three" encoding: the largest
+ * component of the normalized quaternion is dropped (and recovered on read, since the quaternion has
+ * unit length), the other three are stored in 15 bits each and the remaining bits record which
+ * component was dropped. This is accurate to roughly 1e-4 radians.
+ * </p>
+ * <p>
+ * Tracks are immutable.
+ * </p>
+ */
+public final class QuaternionTrack {
+
+  /** Largest magnitude possible for any but the largest component of a unit quaternion. */
+  private static final double SMALLEST_THREE_RANGE = Math.sqrt(0.5);
+  private static final int SMALLEST_THREE_MAX = 0x7fff;
+
+  /** Number of keys in this track. */
+  private final int _keyCount;
+
+  /** x, y, z, w per stored key. Null if quantized. */
+  private final float[] _values;
+
+  /** Three shorts per stored key, in smallest three encoding. Null if not quantized. */
+  private final short[] _packed;
+
+  private QuaternionTrack(final int keyCount, final float[] values, final short[] packed) {
+    _keyCount = keyCount;
+    _values = values;
+    _packed = packed;
+  }
+
+  /**
+   * Create a new track.
+   *
+   * @param xyzw
+   *          four values per key. Not kept by the track.
+   * @param quantize
+   *          if true, keys are stored in 48 bit smallest three form.
+   * @return the new track.
+   */
+  public static QuaternionTrack create(final float[] xyzw, final boolean quantize) {
+    final int keyCount = xyzw.length / 4;
+    final int stored = keyCount > 1 && isConstant(xyzw, 4) ? 1 : keyCount;
+    if (!quantize) {
+      final float[] values = new float[stored * 4];
+      System.arraycopy(xyzw, 0, values, 0, values.length);
+      return new QuaternionTrack(keyCount, values, null);
+    }
+
+    final short[] packed = new short[stored * 3];
+    for (int i = 0; i < stored; i++) {
+      pack(xyzw[i * 4], xyzw[i * 4 + 1], xyzw[i * 4 + 2], xyzw[i * 4 + 3], packed, i * 3);
+    }
+    return new QuaternionTrack(keyCount, null, packed);
+  }
+
+  /**
+   * @param rotations
+   *          the rotation keys
+   * @return a new, unquantized track holding the given keys.
+   */
+  public static QuaternionTrack create(final ReadOnlyQuaternion[] rotations) {
+    final float[] xyzw = new float[rotations.length * 4];
+    for (int i = 0; i < rotations.length; i++) {
+      final ReadOnlyQuaternion q = rotations[i];
+      xyzw[i * 4] = q.getXf();
+      xyzw[i * 4 + 1] = q.getYf();
+      xyzw[i * 4 + 2] = q.getZf();
+      xyzw[i * 4 + 3] = q.getWf();
+    }
+    return create(xyzw, false);
+  }
+
+  /**
+   * @param index
+   *          the key to read
+   * @param store
+   *          the quaternion to store the key in.
+   * @return store
+   */
+  public Quaternion get(final int index, final Quaternion store) {
+    final int key = isConstant() ? 0 : index;
+    if (_packed != null) {
+      return unpack(_packed, key * 3, store);
+    }
+    final int offset = key * 4;
+    return store.set(_values[offset], _values[offset + 1], _values[offset + 2], _values[offset + 3]);
+  }
+
+  /**
+   * @return all keys of this track, four values per key.
+   */
+  public float[] toArray() {
+    final float[] xyzw = new float[_keyCount * 4];
+    final Quaternion q = new Quaternion();
+    for (int i = 0; i < _keyCount; i++) {
+      get(i, q);
+      xyzw[i * 4] = q.getXf();
+      xyzw[i * 4 + 1] = q.getYf();
+      xyzw[i * 4 + 2] = q.getZf();
+      xyzw[i * 4 + 3] = q.getWf();
+    }
+    return xyzw;
+  }
+
+  /**
+   * @param startKey
+   *          first key to keep, inclusive
+   * @param endKey
+   *          last key to keep, inclusive
+   * @return a track holding only the given range of our keys, stored the same way we are.
+   */
+  public QuaternionTrack subTrack(final int startKey, final int endKey) {
+    final int keyCount = endKey - startKey + 1;
+    if (isConstant()) {
+      return new QuaternionTrack(keyCount, _values, _packed);
+    }
+    if (_packed != null) {
+      final short[] packed = new short[keyCount * 3];
+      System.arraycopy(_packed, startKey * 3, packed, 0, packed.length);
+      return new QuaternionTrack(keyCount, null, packed);
+    }
+    final float[] values = new float[keyCount * 4];
+    System.arraycopy(_values, startKey * 4, values, 0, values.length);
+    return new QuaternionTrack(keyCount, values, null);
+  }
+
+  public int getKeyCount() { return _keyCount; }
+
+  /**
+   * @return true if every key of this track is the same.
+   */
+  public boolean isConstant() { return _keyCount > 1 && getStoredKeyCount() == 1; }
+
+  public boolean isQuantized() { return _packed != null; }
+
+  private int getStoredKeyCount() { return _packed != null ? _packed.length / 3 : _values.length / 4; }
+
+  /**
+   * @return the approximate number of bytes used by this track.
+   */
+  public long getMemoryUsage() {
+    return 16 + (_values != null ? AbstractAnimationChannel.arrayBytes(_values.length, Float.BYTES) : 0)
+        + (_packed != null ? AbstractAnimationChannel.arrayBytes(_packed.length, Short.BYTES) : 0);
+  }
+
+  /**
+   * Encode a quaternion in smallest three form. The quaternion is normalized first.
+   *
+   * @param store
+   *          array to receive three shorts
+   * @param offset
+   *          index of the first short to write
+   */
+  public static void pack(final double x, final double y, final double z, final double w, final short[] store,
+      final int offset) {
+    final double[] q = {x, y, z, w};
+    int largest = 0;
+    double lengthSquared = 0;
+    for (int i = 0; i < 4; i++) {
+      lengthSquared += q[i] * q[i];
+      if (Math.abs(q[i]) > Math.abs(q[largest])) {
+        largest = i;
+      }
+    }
+    // q and -q are the same rotation, so flip to make the dropped component positive.
+    final double scale = (q[largest] < 0 ? -1.0 : 1.0) / Math.sqrt(lengthSquared);
+
+    final int[] small = new int[3];
+    for (int i = 0, j = 0; i < 4; i++) {
+      if (i != largest) {
+        small[j++] = quantize(q[i] * scale);
+      }
+    }
+    store[offset] = (short) (largest >> 1 << 15 | small[0]);
+    store[offset + 1] = (short) ((largest & 1) << 15 | small[1]);
+    store[offset + 2] = (short) small[2];
+  }
+
+  /**
+   * Decode a quaternion stored with {@link #pack(double, double, double, double, short[], int)}.
+   *
+   * @param packed
+   *          array holding three shorts
+   * @param offset
+   *          index of the first short to read
+   * @param store
+   *          the quaternion to store the result in.
+   * @return store
+   */
+  public static Quaternion unpack(final short[] packed, final int offset, final Quaternion store) {
+    final int s0 = packed[offset] & 0xffff;
+    final int s1 = packed[offset + 1] & 0xffff;
+    final double a = dequantize(s0 & SMALLEST_THREE_MAX);
+    final double b = dequantize(s1 & SMALLEST_THREE_MAX);
+    final double c = dequantize(packed[offset + 2] & SMALLEST_THREE_MAX);
+    final double d = Math.sqrt(Math.max(0.0, 1.0 - a * a - b * b - c * c));
+    switch ((s0 >> 15) << 1 | s1 >> 15) {
+      case 0:
+        return store.set(d, a, b, c);
+      case 1:
+        return store.set(a, d, b, c);
+      case 2:
+        return store.set(a, b, d, c);
+      default:
+        return store.set(a, b, c, d);
+    }
+  }
+
+  private static int quantize(final double value) {
+    final long q = Math.round((value + SMALLEST_THREE_RANGE) / (2 * SMALLEST_THREE_RANGE) * SMALLEST_THREE_MAX);
+    return (int) Math.max(0, Math.min(SMALLEST_THREE_MAX, q));
+  }
+
+  private static double dequantize(final int value) {
+    return value * (2 * SMALLEST_THREE_RANGE) / SMALLEST_THREE_MAX - SMALLEST_THREE_RANGE;
+  }
+
+  static boolean isConstant(final float[] values, final int stride) {
+    for (int i = stride; i < values.length; i++) {
+      if (values[i] != values[i % stride]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // /////////////////
+  // Capsule helpers
+  // /////////////////
+
+  void write(final OutputCapsule capsule, final String name) throws IOException {
+    capsule.write(_keyCount, name + "Keys", 0);
+    capsule.write(_values, name + "Values", null);
+    capsule.write(_packed, name + "Packed", null);
+  }
+
+  /**
+   * @return the track written under the given name, or null if there is none.
+   */
+  static QuaternionTrack read(final InputCapsule capsule, final String name) throws IOException {
+    final float[] values = capsule.readFloatArray(name + "Values", null);
+    final short[] packed = capsule.readShortArray(name + "Packed", null);
+    if (values == null && packed == null) {
+      return null;
+    }
+    return new QuaternionTrack(capsule.readInt(name + "Keys", 0), values, packed);
+  }
+}
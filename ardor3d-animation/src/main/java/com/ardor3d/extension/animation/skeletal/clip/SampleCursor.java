@@ -0,0 +1,31 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal.clip;
+
+/**
+ * Implemented by channel state data objects that remember which sample their channel last played.
+ * {@link AbstractAnimationChannel#updateSample(double, Object)} starts looking for the current sample
+ * from there, so normal playback only has to look at a key or two per update no matter how long the
+ * channel is.
+ */
+public interface SampleCursor {
+
+  /**
+   * @return the sample index last found for this state, or a negative value if none yet.
+   */
+  int getSampleCursor();
+
+  /**
+   * @param sampleIndex
+   *          the sample index just found for this state.
+   */
+  void setSampleCursor(int sampleIndex);
+}
@@ -27,29 +27,25 @@ import com.ardor3d.util.export.OutputCapsule;
 
 /**
  * An animation channel consisting of a series of transforms interpolated over time.
+ * <p>
+ * Rotation, translation and scale keys are each held in a flat track ({@link QuaternionTrack},
+ * {@link Vector3Track}) rather than one object per key. Tracks that do not change over the channel
+ * store a single key. See {@link AnimationClipCompressor} for quantized tracks and key reduction.
+ * </p>
  */
 @SavableFactory(factoryMethod = "initSavable")
 public class TransformChannel extends AbstractAnimationChannel {
 
   private static final Logger logger = Logger.getLogger(TransformChannel.class.getName());
 
-  // XXX: Perhaps we could optimize memory by reusing sample objects that are the same from one index
-  // to the next.
-  // XXX: Could then also optimize execution time by checking object equality (==) and skipping
-  // (s)lerps.
-
   /** Our rotation samples. */
-  private ReadOnlyQuaternion[] _rotations;
+  private QuaternionTrack _rotations;
 
   /** Our translation samples. */
-  private ReadOnlyVector3[] _translations;
+  private Vector3Track _translations;
 
   /** Our scale samples. */
-  private ReadOnlyVector3[] _scales;
-
-  private final Quaternion _compQuat1 = new Quaternion();
-  private final Quaternion _compQuat2 = new Quaternion();
-  private final Vector3 _compVect1 = new Vector3();
+  private Vector3Track _scales;
 
   /**
    * Construct a new TransformChannel.
@@ -74,21 +70,37 @@ public class TransformChannel extends AbstractAnimationChannel {
     }
 
     // Construct our data
-    _rotations = new ReadOnlyQuaternion[rotations.length];
-    int i = 0;
-    for (final ReadOnlyQuaternion q : rotations) {
-      _rotations[i++] = new Quaternion(q);
-    }
-    _translations = new ReadOnlyVector3[translations.length];
-    i = 0;
-    for (final ReadOnlyVector3 v : translations) {
-      _translations[i++] = new Vector3(v);
-    }
-    _scales = new ReadOnlyVector3[scales.length];
-    i = 0;
-    for (final ReadOnlyVector3 v : scales) {
-      _scales[i++] = new Vector3(v);
+    _rotations = QuaternionTrack.create(rotations);
+    _translations = Vector3Track.create(translations);
+    _scales = Vector3Track.create(scales);
+  }
+
+  /**
+   * Construct a new TransformChannel from prepared tracks.
+   * 
+   * @param channelName
+   *          our name.
+   * @param times
+   *          our time offset values.
+   * @param rotations
+   *          our rotation keys. Tracks are immutable, so this is not copied.
+   * @param translations
+   *          our translation keys.
+   * @param scales
+   *          our scale keys.
+   */
+  public TransformChannel(final String channelName, final float[] times, final QuaternionTrack rotations,
+    final Vector3Track translations, final Vector3Track scales) {
+    super(channelName, times);
+
+    if (rotations.getKeyCount() != times.length || translations.getKeyCount() != times.length
+        || scales.getKeyCount() != times.length) {
+      throw new IllegalArgumentException("All provided tracks must be the same length! Channel: " + channelName);
     }
+
+    _rotations = rotations;
+    _translations = translations;
+    _scales = scales;
   }
 
   /**
@@ -108,9 +120,9 @@ public class TransformChannel extends AbstractAnimationChannel {
     super(channelName, times);
 
     // Construct our data
-    _rotations = new ReadOnlyQuaternion[transforms.length];
-    _translations = new ReadOnlyVector3[transforms.length];
-    _scales = new ReadOnlyVector3[transforms.length];
+    final ReadOnlyQuaternion[] rotations = new ReadOnlyQuaternion[transforms.length];
+    final ReadOnlyVector3[] translations = new ReadOnlyVector3[transforms.length];
+    final ReadOnlyVector3[] scales = new ReadOnlyVector3[transforms.length];
 
     for (int i = 0; i < transforms.length; i++) {
       final ReadOnlyTransform transform = transforms[i];
@@ -118,10 +130,14 @@ public class TransformChannel extends AbstractAnimationChannel {
         TransformChannel.logger.warning("TransformChannel '" + channelName
             + "' supplied transform with non-rotational matrices.  May have unexpected results.");
       }
-      _rotations[i] = new Quaternion().fromRotationMatrix(transform.getMatrix()).normalizeLocal();
-      _translations[i] = new Vector3(transform.getTranslation());
-      _scales[i] = new Vector3(transform.getScale());
+      rotations[i] = new Quaternion().fromRotationMatrix(transform.getMatrix()).normalizeLocal();
+      translations[i] = transform.getTranslation();
+      scales[i] = transform.getScale();
     }
+
+    _rotations = QuaternionTrack.create(rotations);
+    _translations = Vector3Track.create(translations);
+    _scales = Vector3Track.create(scales);
   }
 
   @Override
@@ -129,26 +145,37 @@ public class TransformChannel extends AbstractAnimationChannel {
     final TransformData transformData = (TransformData) applyTo;
 
     // shortcut if we are fully on one sample or the next
-    if (progressPercent == 0.0f) {
-      transformData.setRotation(_rotations[sampleIndex]);
-      transformData.setTranslation(_translations[sampleIndex]);
-      transformData.setScale(_scales[sampleIndex]);
-      return;
-    } else if (progressPercent == 1.0f) {
-      transformData.setRotation(_rotations[sampleIndex + 1]);
-      transformData.setTranslation(_translations[sampleIndex + 1]);
-      transformData.setScale(_scales[sampleIndex + 1]);
+    if (progressPercent == 0.0f || progressPercent == 1.0f) {
+      getTransformData(progressPercent == 0.0f ? sampleIndex : sampleIndex + 1, transformData);
       return;
     }
 
-    // Apply (s)lerp and set in transform
-    _compQuat1.slerpLocal(_rotations[sampleIndex], _rotations[sampleIndex + 1], progressPercent, _compQuat2);
-    transformData.setRotation(_compQuat1);
+    // Apply (s)lerp and set in transform. Constant tracks need no blending. Channels are often shared
+    // by clips playing on several threads, so we work in the target and pooled temps only.
+    if (_rotations.isConstant()) {
+      _rotations.get(0, transformData.getRotation());
+    } else {
+      final Quaternion start = _rotations.get(sampleIndex, Quaternion.fetchTempInstance());
+      final Quaternion end = _rotations.get(sampleIndex + 1, Quaternion.fetchTempInstance());
+      transformData.getRotation().slerpLocal(start, end, progressPercent, end);
+      Quaternion.releaseTempInstance(start);
+      Quaternion.releaseTempInstance(end);
+    }
+
+    interpolate(_translations, sampleIndex, progressPercent, transformData.getTranslation());
+    interpolate(_scales, sampleIndex, progressPercent, transformData.getScale());
+  }
 
-    _compVect1.lerpLocal(_translations[sampleIndex], _translations[sampleIndex + 1], progressPercent);
-    transformData.setTranslation(_compVect1);
-    _compVect1.lerpLocal(_scales[sampleIndex], _scales[sampleIndex + 1], progressPercent);
-    transformData.setScale(_compVect1);
+  private static void interpolate(final Vector3Track track, final int sampleIndex, final double progressPercent,
+      final Vector3 store) {
+    if (track.isConstant()) {
+      track.get(0, store);
+      return;
+    }
+    track.get(sampleIndex, store);
+    final Vector3 end = track.get(sampleIndex + 1, Vector3.fetchTempInstance());
+    store.lerpLocal(end, progressPercent);
+    Vector3.releaseTempInstance(end);
   }
 
   /**
@@ -165,9 +192,9 @@ public class TransformChannel extends AbstractAnimationChannel {
     if (rVal == null) {
       rVal = new TransformData();
     }
-    rVal.setRotation(_rotations[index]);
-    rVal.setScale(_scales[index]);
-    rVal.setTranslation(_translations[index]);
+    _rotations.get(index, rVal.getRotation());
+    _scales.get(index, rVal.getScale());
+    _translations.get(index, rVal.getTranslation());
     return rVal;
   }
 
@@ -180,20 +207,11 @@ public class TransformChannel extends AbstractAnimationChannel {
       throw new IllegalArgumentException("endSample >= getSampleCount()");
     }
 
-    final int samples = endSample - startSample + 1;
-    final float[] times = new float[samples];
-    final ReadOnlyQuaternion[] rotations = new ReadOnlyQuaternion[samples];
-    final ReadOnlyVector3[] translations = new ReadOnlyVector3[samples];
-    final ReadOnlyVector3[] scales = new ReadOnlyVector3[samples];
-
-    for (int i = 0; i < samples; i++) {
-      times[i] = _times[i + startSample];
-      rotations[i] = _rotations[i + startSample];
-      translations[i] = _translations[i + startSample];
-      scales[i] = _scales[i + startSample];
-    }
+    final float[] times = new float[endSample - startSample + 1];
+    System.arraycopy(_times, startSample, times, 0, times.length);
 
-    return newChannel(name, times, rotations, translations, scales);
+    return newChannel(name, times, _rotations.subTrack(startSample, endSample),
+        _translations.subTrack(startSample, endSample), _scales.subTrack(startSample, endSample));
   }
 
   @Override
@@ -211,18 +229,18 @@ public class TransformChannel extends AbstractAnimationChannel {
     // Add start sample
     updateSample(startTime, tData);
     times.add(0f);
-    rotations.add(tData.getRotation());
-    translations.add(tData.getTranslation());
-    scales.add(tData.getScale());
+    rotations.add(new Quaternion(tData.getRotation()));
+    translations.add(new Vector3(tData.getTranslation()));
+    scales.add(new Vector3(tData.getScale()));
 
     // Add mid samples
     for (int i = 0; i < getSampleCount(); i++) {
       final float time = _times[i];
       if (time > startTime && time < endTime) {
         times.add(time - startTime);
-        rotations.add(_rotations[i]);
-        translations.add(_translations[i]);
-        scales.add(_scales[i]);
+        rotations.add(_rotations.get(i, new Quaternion()));
+        translations.add(_translations.get(i, new Vector3()));
+        scales.add(_scales.get(i, new Vector3()));
       }
     }
 
@@ -247,23 +265,54 @@ public class TransformChannel extends AbstractAnimationChannel {
   /**
    * @return an unmodifiable copy of our translations list.
    */
-  public List<ReadOnlyVector3> getTranslations() { return List.of(_translations); }
+  public List<ReadOnlyVector3> getTranslations() { return toList(_translations); }
 
   /**
    * @return an unmodifiable copy of our scales list.
    */
-  public List<ReadOnlyVector3> getScales() { return List.of(_scales); }
+  public List<ReadOnlyVector3> getScales() { return toList(_scales); }
 
   /**
    * @return an unmodifiable copy of our rotations list.
    */
-  public List<ReadOnlyQuaternion> getRotations() { return List.of(_rotations); }
+  public List<ReadOnlyQuaternion> getRotations() {
+    final ReadOnlyQuaternion[] rotations = new ReadOnlyQuaternion[getSampleCount()];
+    for (int i = 0; i < rotations.length; i++) {
+      rotations[i] = _rotations.get(i, new Quaternion());
+    }
+    return List.of(rotations);
+  }
+
+  private List<ReadOnlyVector3> toList(final Vector3Track track) {
+    final ReadOnlyVector3[] vectors = new ReadOnlyVector3[getSampleCount()];
+    for (int i = 0; i < vectors.length; i++) {
+      vectors[i] = track.get(i, new Vector3());
+    }
+    return List.of(vectors);
+  }
+
+  public QuaternionTrack getRotationTrack() { return _rotations; }
+
+  public Vector3Track getTranslationTrack() { return _translations; }
+
+  public Vector3Track getScaleTrack() { return _scales; }
+
+  @Override
+  public long getMemoryUsage() {
+    return super.getMemoryUsage() + _rotations.getMemoryUsage() + _translations.getMemoryUsage()
+        + _scales.getMemoryUsage();
+  }
 
   protected TransformChannel newChannel(final String name, final float[] times, final ReadOnlyQuaternion[] rotations,
       final ReadOnlyVector3[] translations, final ReadOnlyVector3[] scales) {
     return new TransformChannel(name, times, rotations, translations, scales);
   }
 
+  protected TransformChannel newChannel(final String name, final float[] times, final QuaternionTrack rotations,
+      final Vector3Track translations, final Vector3Track scales) {
+    return new TransformChannel(name, times, rotations, translations, scales);
+  }
+
   @Override
   public TransformData createStateDataObject(final AnimationClipInstance instance) {
     return new TransformData();
@@ -279,17 +328,31 @@ public class TransformChannel extends AbstractAnimationChannel {
   @Override
   public void write(final OutputCapsule capsule) throws IOException {
     super.write(capsule);
-    capsule.write(CapsuleUtils.asSavableArray(_rotations), "rotations", null);
-    capsule.write(CapsuleUtils.asSavableArray(_scales), "scales", null);
-    capsule.write(CapsuleUtils.asSavableArray(_translations), "translations", null);
+    _rotations.write(capsule, "rotationTrack");
+    _scales.write(capsule, "scaleTrack");
+    _translations.write(capsule, "translationTrack");
   }
 
   @Override
   public void read(final InputCapsule capsule) throws IOException {
     super.read(capsule);
-    _rotations = CapsuleUtils.asArray(capsule.readSavableArray("rotations", null), ReadOnlyQuaternion.class);
-    _scales = CapsuleUtils.asArray(capsule.readSavableArray("scales", null), ReadOnlyVector3.class);
-    _translations = CapsuleUtils.asArray(capsule.readSavableArray("translations", null), ReadOnlyVector3.class);
+    _rotations = QuaternionTrack.read(capsule, "rotationTrack");
+    _scales = Vector3Track.read(capsule, "scaleTrack");
+    _translations = Vector3Track.read(capsule, "translationTrack");
+
+    // data saved before tracks were introduced holds one savable per key
+    if (_rotations == null) {
+      _rotations = QuaternionTrack
+          .create(CapsuleUtils.asArray(capsule.readSavableArray("rotations", null), ReadOnlyQuaternion.class));
+    }
+    if (_scales == null) {
+      _scales =
+          Vector3Track.create(CapsuleUtils.asArray(capsule.readSavableArray("scales", null), ReadOnlyVector3.class));
+    }
+    if (_translations == null) {
+      _translations = Vector3Track
+          .create(CapsuleUtils.asArray(capsule.readSavableArray("translations", null), ReadOnlyVector3.class));
+    }
   }
 
   public static TransformChannel initSavable() {
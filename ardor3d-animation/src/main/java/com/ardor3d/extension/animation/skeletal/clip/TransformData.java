@@ -26,7 +26,7 @@ import com.ardor3d.util.export.Savable;
  * Describes a relative transform as a Quaternion-Vector-Vector tuple. We use QVV to make it simpler
  * to do LERP blending.
  */
-public class TransformData implements Savable {
+public class TransformData implements Savable, SampleCursor {
 
   /** Our rotation. */
   private final Quaternion _rotation = new Quaternion(Quaternion.IDENTITY);
@@ -37,6 +37,9 @@ public class TransformData implements Savable {
   /** Our translation. */
   private final Vector3 _translation = new Vector3(Vector3.ZERO);
 
+  /** Sample our channel last played. Playback state only, so not copied or saved. */
+  private int _sampleCursor = -1;
+
   /**
    * Construct a new, identity transform data object.
    */
@@ -68,6 +71,12 @@ public class TransformData implements Savable {
     _translation.set(source.getTranslation());
   }
 
+  @Override
+  public int getSampleCursor() { return _sampleCursor; }
+
+  @Override
+  public void setSampleCursor(final int sampleIndex) { _sampleCursor = sampleIndex; }
+
   public Quaternion getRotation() { return _rotation; }
 
   public void setRotation(final ReadOnlyQuaternion rotation) {
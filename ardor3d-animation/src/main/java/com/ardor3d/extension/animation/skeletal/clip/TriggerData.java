@@ -17,7 +17,7 @@ import java.util.List;
 /**
  * Transient class that maintains the current triggers and armed status for a TriggerChannel.
  */
-public class TriggerData {
+public class TriggerData implements SampleCursor {
 
   /** The current trigger name. */
   private final List<String> _currentTriggers = new ArrayList<>();
@@ -28,6 +28,9 @@ public class TriggerData {
    */
   private int _currentIndex = -1;
 
+  /** Sample our channel last played, used to speed up finding the next one. */
+  private int _sampleCursor = -1;
+
   /** If true, we are armed - we have had a trigger set and have not executed it. */
   private boolean _armed = false;
 
@@ -39,10 +42,34 @@ public class TriggerData {
 
   public int getCurrentIndex() { return _currentIndex; }
 
+  @Override
+  public int getSampleCursor() { return _sampleCursor; }
+
+  @Override
+  public void setSampleCursor(final int sampleIndex) { _sampleCursor = sampleIndex; }
+
   public void setArmed(final boolean armed) { _armed = armed; }
 
   public boolean isArmed() { return _armed; }
 
+  /**
+   * Try to set a single trigger/index as armed. Same as {@link #arm(int, String...)} with one trigger,
+   * without creating an array on each call.
+   * 
+   * @param index
+   *          our sample index
+   * @param trigger
+   *          our trigger name
+   */
+  public synchronized void arm(final int index, final String trigger) {
+    if (index != _currentIndex) {
+      _currentTriggers.clear();
+      _currentTriggers.add(trigger);
+      _armed = true;
+    }
+    _currentIndex = index;
+  }
+
   /**
    * Try to set a given trigger/index as armed. If we already have this trigger and index set, we
    * don't change the state of armed.
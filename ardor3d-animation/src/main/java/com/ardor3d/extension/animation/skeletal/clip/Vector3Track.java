@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal.clip;
+
+import java.io.IOException;
+
+import com.ardor3d.math.Vector3;
+import com.ardor3d.math.type.ReadOnlyVector3;
+import com.ardor3d.util.export.InputCapsule;
+import com.ardor3d.util.export.OutputCapsule;
+
+/**
+ * The translation or scale keys of a {@link TransformChannel}, held in a single flat array rather than
+ * one object per key. A track whose keys are all the same stores that key only once.
+ * <p>
+ * Keys may optionally be quantized to 16 bits per component, relative to the range of values the
+ * track covers on each axis. The error is at most 1/131070 of that range.
+ * </p>
+ * <p>
+ * Tracks are immutable.
+ * </p>
+ */
+public final class Vector3Track {
+
+  private static final int QUANTIZED_MAX = 0xffff;
+
+  /** Number of keys in this track. */
+  private final int _keyCount;
+
+  /** x, y, z per stored key. Null if quantized. */
+  private final float[] _values;
+
+  /** Three shorts per stored key. Null if not quantized. */
+  private final short[] _packed;
+
+  /** Minimum x, y, z followed by the extent along x, y, z. Null if not quantized. */
+  private final float[] _range;
+
+  private Vector3Track(final int keyCount, final float[] values, final short[] packed, final float[] range) {
+    _keyCount = keyCount;
+    _values = values;
+    _packed = packed;
+    _range = range;
+  }
+
+  /**
+   * Create a new track.
+   *
+   * @param xyz
+   *          three values per key. Not kept by the track.
+   * @param quantize
+   *          if true, keys are stored as 16 bit values relative to the track range. Constant tracks are
+   *          never quantized.
+   * @return the new track.
+   */
+  public static Vector3Track create(final float[] xyz, final boolean quantize) {
+    final int keyCount = xyz.length / 3;
+    final boolean constant = keyCount > 1 && QuaternionTrack.isConstant(xyz, 3);
+    if (constant || !quantize || keyCount < 2) {
+      final float[] values = new float[(constant ? 1 : keyCount) * 3];
+      System.arraycopy(xyz, 0, values, 0, values.length);
+      return new Vector3Track(keyCount, values, null, null);
+    }
+
+    final float[] range = new float[6];
+    for (int axis = 0; axis < 3; axis++) {
+      float min = Float.POSITIVE_INFINITY, max = Float.NEGATIVE_INFINITY;
+      for (int i = axis; i < xyz.length; i += 3) {
+        min = Math.min(min, xyz[i]);
+        max = Math.max(max, xyz[i]);
+      }
+      range[axis] = min;
+      range[axis + 3] = max - min;
+    }
+
+    final short[] packed = new short[xyz.length];
+    for (int i = 0; i < xyz.length; i++) {
+      final float extent = range[i % 3 + 3];
+      if (extent > 0) {
+        final long q = Math.round((xyz[i] - range[i % 3]) / extent * QUANTIZED_MAX);
+        packed[i] = (short) Math.max(0, Math.min(QUANTIZED_MAX, q));
+      }
+    }
+    return new Vector3Track(keyCount, null, packed, range);
+  }
+
+  /**
+   * @param vectors
+   *          the keys
+   * @return a new, unquantized track holding the given keys.
+   */
+  public static Vector3Track create(final ReadOnlyVector3[] vectors) {
+    final float[] xyz = new float[vectors.length * 3];
+    for (int i = 0; i < vectors.length; i++) {
+      final ReadOnlyVector3 v = vectors[i];
+      xyz[i * 3] = v.getXf();
+      xyz[i * 3 + 1] = v.getYf();
+      xyz[i * 3 + 2] = v.getZf();
+    }
+    return create(xyz, false);
+  }
+
+  /**
+   * @param index
+   *          the key to read
+   * @param store
+   *          the vector to store the key in.
+   * @return store
+   */
+  public Vector3 get(final int index, final Vector3 store) {
+    final int offset = isConstant() ? 0 : index * 3;
+    if (_packed != null) {
+      return store.set(dequantize(offset, 0), dequantize(offset + 1, 1), dequantize(offset + 2, 2));
+    }
+    return store.set(_values[offset], _values[offset + 1], _values[offset + 2]);
+  }
+
+  private double dequantize(final int index, final int axis) {
+    return _range[axis] + (_packed[index] & QUANTIZED_MAX) * (double) _range[axis + 3] / QUANTIZED_MAX;
+  }
+
+  /**
+   * @return all keys of this track, three values per key.
+   */
+  public float[] toArray() {
+    final float[] xyz = new float[_keyCount * 3];
+    final Vector3 v = new Vector3();
+    for (int i = 0; i < _keyCount; i++) {
+      get(i, v);
+      xyz[i * 3] = v.getXf();
+      xyz[i * 3 + 1] = v.getYf();
+      xyz[i * 3 + 2] = v.getZf();
+    }
+    return xyz;
+  }
+
+  /**
+   * @param startKey
+   *          first key to keep, inclusive
+   * @param endKey
+   *          last key to keep, inclusive
+   * @return a track holding only the given range of our keys, stored the same way we are. Quantized
+   *         tracks keep their full range.
+   */
+  public Vector3Track subTrack(final int startKey, final int endKey) {
+    final int keyCount = endKey - startKey + 1;
+    if (isConstant()) {
+      return new Vector3Track(keyCount, _values, null, null);
+    }
+    if (_packed != null) {
+      final short[] packed = new short[keyCount * 3];
+      System.arraycopy(_packed, startKey * 3, packed, 0, packed.length);
+      return new Vector3Track(keyCount, null, packed, _range);
+    }
+    final float[] values = new float[keyCount * 3];
+    System.arraycopy(_values, startKey * 3, values, 0, values.length);
+    return new Vector3Track(keyCount, values, null, null);
+  }
+
+  public int getKeyCount() { return _keyCount; }
+
+  /**
+   * @return true if every key of this track is the same.
+   */
+  public boolean isConstant() { return _keyCount > 1 && _values != null && _values.length == 3; }
+
+  public boolean isQuantized() { return _packed != null; }
+
+  /**
+   * @return the approximate number of bytes used by this track.
+   */
+  public long getMemoryUsage() {
+    return 16 + (_values != null ? AbstractAnimationChannel.arrayBytes(_values.length, Float.BYTES) : 0)
+        + (_packed != null ? AbstractAnimationChannel.arrayBytes(_packed.length, Short.BYTES) : 0)
+        + (_range != null ? AbstractAnimationChannel.arrayBytes(_range.length, Float.BYTES) : 0);
+  }
+
+  // /////////////////
+  // Capsule helpers
+  // /////////////////
+
+  void write(final OutputCapsule capsule, final String name) throws IOException {
+    capsule.write(_keyCount, name + "Keys", 0);
+    capsule.write(_values, name + "Values", null);
+    capsule.write(_packed, name + "Packed", null);
+    capsule.write(_range, name + "Range", null);
+  }
+
+  /**
+   * @return the track written under the given name, or null if there is none.
+   */
+  static Vector3Track read(final InputCapsule capsule, final String name) throws IOException {
+    final float[] values = capsule.readFloatArray(name + "Values", null);
+    final short[] packed = capsule.readShortArray(name + "Packed", null);
+    if (values == null && packed == null) {
+      return null;
+    }
+    return new Vector3Track(capsule.readInt(name + "Keys", 0), values, packed,
+        capsule.readFloatArray(name + "Range", null));
+  }
+}
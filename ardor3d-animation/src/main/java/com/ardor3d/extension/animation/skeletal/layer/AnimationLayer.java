@@ -16,6 +16,7 @@ import java.util.Set;
 import java.util.logging.Logger;
 
 import com.ardor3d.extension.animation.skeletal.AnimationManager;
+import com.ardor3d.extension.animation.skeletal.PoseBuffer;
 import com.ardor3d.extension.animation.skeletal.state.AbstractFiniteState;
 import com.ardor3d.extension.animation.skeletal.state.AbstractTransitionState;
 import com.ardor3d.extension.animation.skeletal.state.StateOwner;
@@ -241,6 +242,25 @@ public class AnimationLayer implements StateOwner {
     }
   }
 
+  /**
+   * Write the joint transforms and armed triggers of the current state/transition of this layer,
+   * blended with previous layers if we have a layer blender, into the given pose buffer.
+   * 
+   * @param store
+   *          the buffer to write to. Cleared by the caller.
+   */
+  public void getCurrentSourcePose(final PoseBuffer store) {
+    if (getLayerBlender() != null) {
+      getLayerBlender().getBlendedSourcePose(getManager(), store);
+      return;
+    }
+
+    final AbstractFiniteState state = getCurrentState();
+    if (state != null) {
+      state.getCurrentSourcePose(getManager(), store);
+    }
+  }
+
   /**
    * Update the layer blender in this animation layer to properly point to the previous layer.
    * 
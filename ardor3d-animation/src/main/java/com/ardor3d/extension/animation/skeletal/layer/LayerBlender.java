@@ -13,6 +13,7 @@ package com.ardor3d.extension.animation.skeletal.layer;
 import java.util.Map;
 
 import com.ardor3d.extension.animation.skeletal.AnimationManager;
+import com.ardor3d.extension.animation.skeletal.PoseBuffer;
 
 /**
  * Describes a class capable of blending together two AnimationLayers in some way.
@@ -49,4 +50,18 @@ public interface LayerBlender {
    */
   Map<String, ? extends Object> getBlendedSourceData(AnimationManager manager);
 
+  /**
+   * Write the blended joint transforms and armed triggers of both animation layers into the given pose
+   * buffer. The default implementation copies the result of
+   * {@link #getBlendedSourceData(AnimationManager)}.
+   * 
+   * @param manager
+   *          the manager this is being called from
+   * @param store
+   *          the buffer to write to. Cleared by the caller.
+   */
+  default void getBlendedSourcePose(final AnimationManager manager, final PoseBuffer store) {
+    store.setSourceData(getBlendedSourceData(manager));
+  }
+
 }
@@ -13,6 +13,7 @@ package com.ardor3d.extension.animation.skeletal.layer;
 import java.util.Map;
 
 import com.ardor3d.extension.animation.skeletal.AnimationManager;
+import com.ardor3d.extension.animation.skeletal.PoseBuffer;
 import com.ardor3d.extension.animation.skeletal.blendtree.BinaryLERPSource;
 
 /**
@@ -59,4 +60,19 @@ public class LayerLERPBlender implements LayerBlender {
 
     return BinaryLERPSource.combineSourceData(sourceAData, sourceBData, manager.getValuesStore().get(_blendKey));
   }
+
+  @Override
+  public void getBlendedSourcePose(final AnimationManager manager, final PoseBuffer store) {
+    getLayerA().getCurrentSourcePose(store);
+    if (getLayerB().getCurrentState() != null) {
+      final PoseBuffer scratch = store.pushScratch();
+      try {
+        getLayerB().getCurrentState().getCurrentSourcePose(manager, scratch);
+        final Double blendWeight = manager.getValuesStore().get(_blendKey);
+        store.blend(scratch, blendWeight != null ? blendWeight.doubleValue() : 0.0);
+      } finally {
+        store.popScratch();
+      }
+    }
+  }
 }
@@ -13,6 +13,7 @@ package com.ardor3d.extension.animation.skeletal.state;
 import java.util.Map;
 
 import com.ardor3d.extension.animation.skeletal.AnimationManager;
+import com.ardor3d.extension.animation.skeletal.PoseBuffer;
 import com.ardor3d.extension.animation.skeletal.layer.AnimationLayer;
 
 /**
@@ -79,6 +80,19 @@ public abstract class AbstractFiniteState {
    */
   public abstract Map<String, ? extends Object> getCurrentSourceData(AnimationManager manager);
 
+  /**
+   * Write the current joint transforms and armed triggers of this state into the given pose buffer.
+   * The default implementation copies the result of {@link #getCurrentSourceData(AnimationManager)}.
+   * 
+   * @param manager
+   *          the manager this is being called from.
+   * @param store
+   *          the buffer to write to. Cleared by the caller.
+   */
+  public void getCurrentSourcePose(final AnimationManager manager, final PoseBuffer store) {
+    store.setSourceData(getCurrentSourceData(manager));
+  }
+
   /**
    * @param owner
    *          the last holder of this state. Used when we are transitioning and need to ask someone to
@@ -14,6 +14,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import com.ardor3d.extension.animation.skeletal.AnimationManager;
+import com.ardor3d.extension.animation.skeletal.PoseBuffer;
 import com.ardor3d.extension.animation.skeletal.blendtree.BinaryLERPSource;
 import com.ardor3d.extension.animation.skeletal.layer.AnimationLayer;
 import com.ardor3d.math.util.MathUtils;
@@ -184,6 +185,22 @@ public abstract class AbstractTwoStateLerpTransition extends AbstractTransitionS
     return BinaryLERPSource.combineSourceData(sourceAData, sourceBData, getPercent(), _sourceData);
   }
 
+  @Override
+  public void getCurrentSourcePose(final AnimationManager manager, final PoseBuffer store) {
+    if (getStateA() != null) {
+      getStateA().getCurrentSourcePose(manager, store);
+    }
+    if (getStateB() != null) {
+      final PoseBuffer scratch = store.pushScratch();
+      try {
+        getStateB().getCurrentSourcePose(manager, scratch);
+        store.blend(scratch, getPercent());
+      } finally {
+        store.popScratch();
+      }
+    }
+  }
+
   @Override
   public void replaceState(final AbstractFiniteState currentState, final AbstractFiniteState newState) {
     if (newState != null) {
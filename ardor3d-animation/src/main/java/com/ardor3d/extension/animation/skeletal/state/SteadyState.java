@@ -15,6 +15,7 @@ import java.util.Map;
 import java.util.Set;
 
 import com.ardor3d.extension.animation.skeletal.AnimationManager;
+import com.ardor3d.extension.animation.skeletal.PoseBuffer;
 import com.ardor3d.extension.animation.skeletal.blendtree.BlendTreeSource;
 import com.ardor3d.extension.animation.skeletal.layer.AnimationLayer;
 
@@ -205,6 +206,11 @@ public class SteadyState extends AbstractFiniteState {
     return getSourceTree().getSourceData(manager);
   }
 
+  @Override
+  public void getCurrentSourcePose(final AnimationManager manager, final PoseBuffer store) {
+    getSourceTree().getSourcePose(manager, store);
+  }
+
   @Override
   public void resetClips(final AnimationManager manager, final double globalStartTime) {
     super.resetClips(manager, globalStartTime);
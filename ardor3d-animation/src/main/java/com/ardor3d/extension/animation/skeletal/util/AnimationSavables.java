@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal.util;
+
+import com.ardor3d.extension.animation.skeletal.Joint;
+import com.ardor3d.extension.animation.skeletal.Skeleton;
+import com.ardor3d.extension.animation.skeletal.SkeletonPose;
+import com.ardor3d.extension.animation.skeletal.SkinnedMesh;
+import com.ardor3d.extension.animation.skeletal.clip.AnimationClip;
+import com.ardor3d.extension.animation.skeletal.clip.BakedAnimationClip;
+import com.ardor3d.extension.animation.skeletal.clip.GuaranteedTriggerChannel;
+import com.ardor3d.extension.animation.skeletal.clip.InterpolatedDoubleChannel;
+import com.ardor3d.extension.animation.skeletal.clip.InterpolatedFloatChannel;
+import com.ardor3d.extension.animation.skeletal.clip.JointChannel;
+import com.ardor3d.extension.animation.skeletal.clip.TransformChannel;
+import com.ardor3d.extension.animation.skeletal.clip.TransformData;
+import com.ardor3d.extension.animation.skeletal.clip.TriggerChannel;
+import com.ardor3d.util.export.SavableFactories;
+
+/**
+ * Registers factories for the Savable types of the animation system with {@link SavableFactories},
+ * so importing skeletons, skins and clips needs no reflection.
+ */
+public final class AnimationSavables {
+
+  private AnimationSavables() {}
+
+  public static void registerFactories() {
+    SavableFactories.register(Joint.class, Joint::initSavable);
+    SavableFactories.register(Skeleton.class, Skeleton::initSavable);
+    SavableFactories.register(SkeletonPose.class, SkeletonPose::initSavable);
+    SavableFactories.register(SkinnedMesh.class, SkinnedMesh::new);
+    SavableFactories.register(AnimationClip.class, AnimationClip::initSavable);
+    SavableFactories.register(BakedAnimationClip.class, BakedAnimationClip::initSavable);
+    SavableFactories.register(TransformChannel.class, TransformChannel::initSavable);
+    SavableFactories.register(JointChannel.class, JointChannel::initSavable);
+    SavableFactories.register(InterpolatedFloatChannel.class, InterpolatedFloatChannel::initSavable);
+    SavableFactories.register(InterpolatedDoubleChannel.class, InterpolatedDoubleChannel::initSavable);
+    SavableFactories.register(TriggerChannel.class, TriggerChannel::initSavable);
+    SavableFactories.register(GuaranteedTriggerChannel.class, GuaranteedTriggerChannel::initSavable);
+    SavableFactories.register(TransformData.class, TransformData::new);
+  }
+}
@@ -23,8 +23,62 @@ uniform mat4 projection;
 uniform mat3 normalMat;
 uniform vec4 defaultColor;
 
+#ifdef PALETTE_TEXTURE
+// 3 texels per joint - the top three rows of its matrix - 256 joints per texture row
+uniform sampler2D jointPaletteTexture;
+
+mat4 fetchJointMatrix(int slot)
+{
+    ivec2 texel = ivec2((slot % 256) * 3, slot / 256);
+    vec4 row0 = texelFetch(jointPaletteTexture, texel, 0);
+    vec4 row1 = texelFetch(jointPaletteTexture, texel + ivec2(1, 0), 0);
+    vec4 row2 = texelFetch(jointPaletteTexture, texel + ivec2(2, 0), 0);
+    return transpose(mat4(row0, row1, row2, vec4(0.0, 0.0, 0.0, 1.0)));
+}
+
+#ifdef BAKED_ANIMATION
+// per instance: first palette slot, frame count, frames per second and start time of its baked clip
+in mat4 instanceMatrix;
+in vec4 instanceAnimation;
+uniform float bakedTime;
+uniform int bakedJointCount;
+
+// first palette slots of the two baked frames around the current time, and the blend between them
+int frameSlot0;
+int frameSlot1;
+float frameBlend;
+
+void selectFrames()
+{
+    int frameCount = int(instanceAnimation.y);
+    float frame = mod((bakedTime - instanceAnimation.w) * instanceAnimation.z, float(frameCount));
+    int frame0 = min(int(frame), frameCount - 1);
+    frameBlend = frame - float(frame0);
+    frameSlot0 = int(instanceAnimation.x) + frame0 * bakedJointCount;
+    frameSlot1 = int(instanceAnimation.x) + ((frame0 + 1) % frameCount) * bakedJointCount;
+}
+
+mat4 getJointMatrix(int joint)
+{
+    return fetchJointMatrix(frameSlot0 + joint) * (1.0 - frameBlend) + fetchJointMatrix(frameSlot1 + joint) * frameBlend;
+}
+#else
+uniform int jointPaletteOffset;
+
+mat4 getJointMatrix(int joint)
+{
+    return fetchJointMatrix(jointPaletteOffset + joint);
+}
+#endif
+#else
 uniform mat4 jointPalette[50];
 
+mat4 getJointMatrix(int joint)
+{
+    return jointPalette[joint];
+}
+#endif
+
 // ----------------------------------------------------------------------------
 mat4 calculateWeightMatrix()
 {
@@ -35,14 +89,14 @@ mat4 calculateWeightMatrix()
         vec4 w = weights[i];
         vec4 d = jointIds[i];
         for (int j = 0; j < 4; j++) {
-            mat += jointPalette[int(d[j])] * w[j];
+            mat += getJointMatrix(int(d[j])) * w[j];
         }
     }
 #else
-    mat += jointPalette[int(jointIds[0])] * weights[0];
-    mat += jointPalette[int(jointIds[1])] * weights[1];
-    mat += jointPalette[int(jointIds[2])] * weights[2];
-    mat += jointPalette[int(jointIds[3])] * weights[3];
+    mat += getJointMatrix(int(jointIds[0])) * weights[0];
+    mat += getJointMatrix(int(jointIds[1])) * weights[1];
+    mat += getJointMatrix(int(jointIds[2])) * weights[2];
+    mat += getJointMatrix(int(jointIds[3])) * weights[3];
 #endif
 	
 	return mat;
@@ -50,10 +104,18 @@ mat4 calculateWeightMatrix()
 // ----------------------------------------------------------------------------
 void main()
 {
+#ifdef BAKED_ANIMATION
+    selectFrames();
+    mat4 modelMat = model * instanceMatrix;
+    mat3 modelNormalMat = mat3(transpose(inverse(modelMat)));
+#else
+    mat4 modelMat = model;
+    mat3 modelNormalMat = normalMat;
+#endif
     mat4 weightMat = calculateWeightMatrix();
 
-    WorldPos = vec3(model * weightMat * vec4(vertex, 1.0));
-    Normal = normalMat * (mat3(weightMat[0].xyz, weightMat[1].xyz, weightMat[2].xyz) * normal);
+    WorldPos = vec3(modelMat * weightMat * vec4(vertex, 1.0));
+    Normal = modelNormalMat * (mat3(weightMat[0].xyz, weightMat[1].xyz, weightMat[2].xyz) * normal);
     DiffuseColor = defaultColor;
     TexCoords0 = uv0;
 
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal;
+
+import com.ardor3d.extension.animation.skeletal.blendtree.ClipSource;
+import com.ardor3d.extension.animation.skeletal.blendtree.SimpleAnimationApplier;
+import com.ardor3d.extension.animation.skeletal.clip.AnimationClip;
+import com.ardor3d.extension.animation.skeletal.clip.JointChannel;
+import com.ardor3d.extension.animation.skeletal.state.SteadyState;
+import com.ardor3d.math.Quaternion;
+import com.ardor3d.math.Vector3;
+import com.ardor3d.math.type.ReadOnlyQuaternion;
+import com.ardor3d.math.type.ReadOnlyVector3;
+import com.ardor3d.util.ReadOnlyTimer;
+
+/**
+ * Skeletons, clips and managers shared by the animation tests.
+ */
+public final class AnimationFixtures {
+
+  /** Number of joints in our skeletons. */
+  public static final int JOINTS = 4;
+
+  private AnimationFixtures() {}
+
+  /**
+   * @return a skeleton of {@link #JOINTS} joints, each the child of the one before.
+   */
+  public static Skeleton createSkeleton() {
+    final Joint[] joints = new Joint[JOINTS];
+    for (int i = 0; i < JOINTS; i++) {
+      joints[i] = new Joint("j" + i);
+      joints[i].setIndex((short) i);
+      joints[i].setParentIndex(i == 0 ? Joint.NO_PARENT : (short) (i - 1));
+    }
+    return new Skeleton("skeleton", joints);
+  }
+
+  /**
+   * @param name
+   *          the clip name
+   * @param seed
+   *          varies the motion, so clips made with different seeds differ.
+   * @return a one second clip moving every joint of our skeletons, keyed at 30 frames per second.
+   */
+  public static AnimationClip createClip(final String name, final int seed) {
+    final AnimationClip clip = new AnimationClip(name);
+    final int keys = 31;
+    for (int joint = 0; joint < JOINTS; joint++) {
+      final float[] times = new float[keys];
+      final ReadOnlyQuaternion[] rotations = new ReadOnlyQuaternion[keys];
+      final ReadOnlyVector3[] translations = new ReadOnlyVector3[keys];
+      final ReadOnlyVector3[] scales = new ReadOnlyVector3[keys];
+      for (int i = 0; i < keys; i++) {
+        times[i] = i / 30f;
+        final double phase = i * 0.2 + joint + seed;
+        rotations[i] = new Quaternion().fromAngleAxis(Math.sin(phase) * 1.5,
+            new Vector3(seed, 1, joint).normalizeLocal());
+        translations[i] = new Vector3(Math.cos(phase), joint, seed * Math.sin(phase));
+        scales[i] = new Vector3(1, 1 + 0.1 * Math.sin(phase), 1);
+      }
+      clip.addChannel(new JointChannel("j" + joint, joint, times, rotations, translations, scales));
+    }
+    return clip;
+  }
+
+  /**
+   * @return a manager playing the given clip on a loop, through a {@link SimpleAnimationApplier},
+   *         updating every frame.
+   */
+  public static AnimationManager createManager(final ReadOnlyTimer timer, final Skeleton skeleton,
+      final AnimationClip clip) {
+    final AnimationManager manager = new AnimationManager(timer, new SkeletonPose(skeleton));
+    manager.setApplier(new SimpleAnimationApplier());
+    manager.setUpdateRate(0);
+    manager.getClipInstance(clip).setLoopCount(Integer.MAX_VALUE);
+
+    final SteadyState state = new SteadyState("play");
+    state.setSourceTree(new ClipSource(clip, manager));
+    manager.getBaseAnimationLayer().addSteadyState(state);
+    manager.getBaseAnimationLayer().setCurrentState("play", true);
+    return manager;
+  }
+
+  /**
+   * A timer whose time is set by hand.
+   */
+  public static class ManualTimer implements ReadOnlyTimer {
+    private double _time;
+
+    public void setTime(final double time) { _time = time; }
+
+    @Override
+    public double getTimeInSeconds() { return _time; }
+
+    @Override
+    public long getTime() { return (long) (_time * getResolution()); }
+
+    @Override
+    public long getResolution() { return 1_000_000_000L; }
+
+    @Override
+    public double getFrameRate() { return 30; }
+
+    @Override
+    public double getTimePerFrame() { return 1 / 30.0; }
+
+    @Override
+    public long getPreviousFrameTime() { return getTime(); }
+  }
+}
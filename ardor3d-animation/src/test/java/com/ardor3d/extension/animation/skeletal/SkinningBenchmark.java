@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal;
+
+import java.nio.FloatBuffer;
+import java.util.Random;
+
+import com.ardor3d.buffer.BufferUtils;
+import com.ardor3d.math.Quaternion;
+import com.ardor3d.math.Vector3;
+
+/**
+ * Compares the cost of CPU skinning a mesh per vertex straight from the bind pose buffers with fast
+ * CPU skinning through {@link SkinningKernel}, serial and parallel, for meshes of increasing size and
+ * weight count. Run as a plain java application.
+ */
+public class SkinningBenchmark {
+
+  private static final int JOINTS = 64;
+  private static final int VERTICES_PER_ROUND = 20_000_000;
+
+  public static void main(final String[] args) {
+    System.out.println("vertices\tweights\tns/vertex (buffers)\tns/vertex (fast)\tns/vertex (fast, parallel)");
+    for (final int weightsPerVert : new int[] {1, 2, 4}) {
+      for (final int vertices : new int[] {1_000, 10_000, 100_000}) {
+        final SkeletonPose pose = createPose();
+        final SkinnedMesh skin = createSkin(vertices, weightsPerVert, pose);
+
+        // warm up, then measure
+        run(skin, false, 0);
+        run(skin, true, 0);
+        run(skin, true, 1);
+        final double buffers = run(skin, false, 0);
+        final double fast = run(skin, true, 0);
+        final double parallel = run(skin, true, 1);
+        System.out.printf("%d\t%d\t%.2f\t%.2f\t%.2f%n", vertices, weightsPerVert, buffers, fast, parallel);
+      }
+    }
+  }
+
+  private static double run(final SkinnedMesh skin, final boolean fast, final int parallelThreshold) {
+    skin.setFastCpuSkinning(fast);
+    skin.setParallelSkinningThreshold(parallelThreshold);
+    final int vertices = skin.getBindPoseData().getVertexCount();
+    final int rounds = Math.max(1, VERTICES_PER_ROUND / vertices);
+    final long start = System.nanoTime();
+    for (int i = 0; i < rounds; i++) {
+      skin.applyPose();
+    }
+    return (System.nanoTime() - start) / ((double) rounds * vertices);
+  }
+
+  private static SkeletonPose createPose() {
+    final Joint[] joints = new Joint[JOINTS];
+    for (int i = 0; i < JOINTS; i++) {
+      joints[i] = new Joint("j" + i);
+      joints[i].setIndex((short) i);
+      joints[i].setParentIndex(i == 0 ? Joint.NO_PARENT : (short) (i - 1));
+    }
+    final SkeletonPose pose = new SkeletonPose(new Skeleton("skeleton", joints));
+    for (int i = 0; i < JOINTS; i++) {
+      pose.getLocalJointTransforms()[i].setRotation(new Quaternion().fromAngleAxis(0.05 * i, Vector3.UNIT_Z));
+      pose.getLocalJointTransforms()[i].setTranslation(0, 1, 0);
+    }
+    pose.updateTransforms();
+    return pose;
+  }
+
+  private static SkinnedMesh createSkin(final int vertices, final int weightsPerVert, final SkeletonPose pose) {
+    final Random rand = new Random(vertices);
+    final FloatBuffer verts = BufferUtils.createFloatBuffer(vertices * 3);
+    final FloatBuffer norms = BufferUtils.createFloatBuffer(vertices * 3);
+    final short[] joints = new short[vertices * weightsPerVert];
+    final float[] weights = new float[vertices * weightsPerVert];
+    for (int i = 0; i < vertices; i++) {
+      verts.put(rand.nextFloat()).put(rand.nextFloat() * JOINTS).put(rand.nextFloat());
+      norms.put(0).put(0).put(1);
+      for (int j = 0; j < weightsPerVert; j++) {
+        joints[i * weightsPerVert + j] = (short) rand.nextInt(JOINTS);
+        weights[i * weightsPerVert + j] = 1f / weightsPerVert;
+      }
+    }
+
+    final SkinnedMesh skin = new SkinnedMesh("bench");
+    skin.getBindPoseData().setVertexBuffer(verts);
+    skin.getBindPoseData().setNormalBuffer(norms);
+    skin.setWeightsPerVert(weightsPerVert);
+    skin.setJointIndices(joints);
+    skin.setWeights(weights);
+    skin.setCurrentPose(pose);
+    return skin;
+  }
+}
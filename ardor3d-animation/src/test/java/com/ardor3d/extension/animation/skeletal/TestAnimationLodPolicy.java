@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.ardor3d.bounding.BoundingSphere;
+import com.ardor3d.buffer.BufferUtils;
+import com.ardor3d.extension.animation.skeletal.AnimationFixtures.ManualTimer;
+import com.ardor3d.extension.animation.skeletal.clip.AnimationClip;
+import com.ardor3d.math.Transform;
+import com.ardor3d.math.Vector3;
+import com.ardor3d.renderer.Camera;
+import com.ardor3d.scenegraph.Mesh;
+
+public class TestAnimationLodPolicy {
+
+  private static final int JOINTS = AnimationFixtures.JOINTS;
+
+  @Test
+  public void testLevelSelection() {
+    final AnimationLodPolicy policy = createPolicy();
+    // from scratch, no hysteresis
+    assertEquals(0, policy.selectLevel(0.6, -1));
+    assertEquals(1, policy.selectLevel(0.45, -1));
+    assertEquals(2, policy.selectLevel(0.01, -1));
+
+    // just below the level 0 threshold, stay at 0 until clearly below
+    assertEquals(0, policy.selectLevel(0.48, 0));
+    assertEquals(1, policy.selectLevel(0.44, 0));
+    // just above it, stay at 1 until clearly above
+    assertEquals(1, policy.selectLevel(0.52, 1));
+    assertEquals(0, policy.selectLevel(0.56, 1));
+    // big jumps go straight to the right level
+    assertEquals(2, policy.selectLevel(0.01, 0));
+    assertEquals(0, policy.selectLevel(5, 2));
+  }
+
+  @Test
+  public void testScreenSize() {
+    final Camera camera = new Camera(800, 600);
+    camera.setFrustumPerspective(45, 800 / 600.0, 1, 1000);
+    camera.setLocation(0, 0, 10);
+    camera.lookAt(Vector3.ZERO, Vector3.UNIT_Y);
+
+    final BoundingSphere bound = new BoundingSphere(1, Vector3.ZERO);
+    final double near = AnimationLodPolicy.getScreenSize(camera, bound);
+    // a sphere of diameter 2 seen from 10 away with a 45 degree field of view
+    assertEquals(2 / (2 * 10 * Math.tan(Math.toRadians(22.5))), near, 1e-6);
+    camera.setLocation(0, 0, 20);
+    assertEquals(near / 2, AnimationLodPolicy.getScreenSize(camera, bound), 1e-6);
+    camera.setLocation(0, 0, 0.5);
+    assertTrue(Double.isInfinite(AnimationLodPolicy.getScreenSize(camera, bound)));
+  }
+
+  @Test
+  public void testLevelsAreApplied() {
+    final ManualTimer timer = new ManualTimer();
+    final Skeleton skeleton = AnimationFixtures.createSkeleton();
+    skeleton.setLodJointMasks(null, skeleton.createJointMask(1));
+    final AnimationClip clip = AnimationFixtures.createClip("walk", 0);
+    final AnimationManager manager = AnimationFixtures.createManager(timer, skeleton, clip);
+    final SkinnedMesh skin = createSkin(manager.getSkeletonPose(0));
+
+    final Mesh bounds = new Mesh("bounds");
+    bounds.getMeshData().setVertexBuffer(BufferUtils.createFloatBuffer(-1, -1, -1, 1, 1, 1));
+    bounds.setModelBound(new BoundingSphere());
+    bounds.updateGeometricState(0);
+
+    final Camera camera = new Camera(800, 600);
+    camera.setFrustumPerspective(45, 800 / 600.0, 1, 1000);
+    camera.setLocation(0, 0, 3);
+    camera.lookAt(Vector3.ZERO, Vector3.UNIT_Y);
+
+    final AnimationLodPolicy policy = createPolicy();
+    policy.addManager(manager, bounds);
+    policy.update(camera);
+    assertEquals(0, policy.getLevel(manager));
+    assertEquals(1, policy.getLevelCount(0));
+    assertEquals(1, policy.getLastSwitchCount());
+    assertEquals(0, manager.getUpdateRate(), 0);
+    assertNull(manager.getJointMask());
+    assertEquals(0, skin.getMaxSkinningWeights());
+
+    // move away - level 1 animates joints 0 and 1 only, and skins with a single weight
+    camera.setLocation(0, 0, 12);
+    policy.update(camera);
+    assertEquals(1, policy.getLevel(manager));
+    assertEquals(1, policy.getLevelCount(1));
+    assertEquals(0.05, manager.getUpdateRate(), 0);
+    assertTrue(Arrays.equals(new boolean[] {true, true, false, false}, manager.getJointMask()));
+    assertEquals(1, skin.getMaxSkinningWeights());
+
+    final Transform[] locals = manager.getSkeletonPose(0).getLocalJointTransforms();
+    timer.setTime(10);
+    manager.update();
+    final Transform[] before = new Transform[JOINTS];
+    for (int i = 0; i < JOINTS; i++) {
+      before[i] = new Transform(locals[i]);
+    }
+    timer.setTime(10.5);
+    manager.update();
+    assertFalse(before[0].strictEquals(locals[0]));
+    assertFalse(before[1].strictEquals(locals[1]));
+    assertTrue(before[2].strictEquals(locals[2]));
+    assertTrue(before[3].strictEquals(locals[3]));
+
+    // the reduced skin matches a skin whose weights were constrained for good
+    final SkinnedMesh constrained = createSkin(manager.getSkeletonPose(0));
+    constrained.constrainWeightCount(1);
+    manager.getSkeletonPose(0).updateTransforms();
+    final FloatBuffer expected = constrained.getMeshData().getVertexBuffer();
+    final FloatBuffer actual = skin.getMeshData().getVertexBuffer();
+    for (int i = 0; i < expected.capacity(); i++) {
+      assertEquals(expected.get(i), actual.get(i), 1e-5f);
+    }
+
+    // back to full detail once removed
+    assertTrue(policy.removeManager(manager));
+    assertEquals(0, manager.getUpdateRate(), 0);
+    assertNull(manager.getJointMask());
+    assertEquals(0, skin.getMaxSkinningWeights());
+  }
+
+  @Test
+  public void testStaggeredUpdates() {
+    final ManualTimer timer = new ManualTimer();
+    final Skeleton skeleton = AnimationFixtures.createSkeleton();
+    final AnimationClip clip = AnimationFixtures.createClip("walk", 0);
+    final AnimationLodPolicy policy = new AnimationLodPolicy();
+    policy.addLevel(new AnimationLodPolicy.Level(0, 0.1, 0));
+
+    final int crowd = 8;
+    final int[] updates = new int[crowd];
+    final AnimationManager[] managers = new AnimationManager[crowd];
+    final Mesh bounds = new Mesh("bounds");
+    for (int i = 0; i < crowd; i++) {
+      managers[i] = AnimationFixtures.createManager(timer, skeleton, clip);
+      final int index = i;
+      managers[i].getSkeletonPose(0).addPoseListener(pose -> updates[index]++);
+      policy.addManager(managers[i], bounds);
+    }
+    policy.update(new Camera(800, 600));
+
+    // 4 frames per update period - each frame should carry about a quarter of the crowd
+    final int frames = 40;
+    for (int frame = 1; frame <= frames; frame++) {
+      timer.setTime(frame * 0.025);
+      int updated = 0;
+      for (int i = 0; i < crowd; i++) {
+        final int before = updates[i];
+        managers[i].update();
+        updated += updates[i] - before;
+      }
+      assertTrue("frame " + frame + ": " + updated, updated >= 1 && updated <= 3);
+    }
+    for (int i = 0; i < crowd; i++) {
+      assertTrue("manager " + i + ": " + updates[i], Math.abs(updates[i] - 10) <= 1);
+    }
+
+    // removing from the middle keeps the others
+    assertTrue(policy.removeManager(managers[2]));
+    assertFalse(policy.removeManager(managers[2]));
+    assertEquals(-1, policy.getLevel(managers[2]));
+    assertEquals(0, policy.getLevel(managers[crowd - 1]));
+    policy.update(new Camera(800, 600));
+    assertEquals(crowd - 1, policy.getLevelCount(0));
+  }
+
+  private static AnimationLodPolicy createPolicy() {
+    final AnimationLodPolicy policy = new AnimationLodPolicy();
+    policy.addLevel(new AnimationLodPolicy.Level(0.5, 0, 0));
+    policy.addLevel(new AnimationLodPolicy.Level(0.1, 0.05, 1));
+    policy.addLevel(new AnimationLodPolicy.Level(0, 0.2, 1));
+    return policy;
+  }
+
+  private static SkinnedMesh createSkin(final SkeletonPose pose) {
+    final SkinnedMesh skin = new SkinnedMesh("skin");
+    final int vertices = 16;
+    final FloatBuffer verts = BufferUtils.createFloatBuffer(vertices * 3);
+    final short[] joints = new short[vertices * 2];
+    final float[] weights = new float[vertices * 2];
+    for (int i = 0; i < vertices; i++) {
+      verts.put(i).put(i * 0.5f).put(-i);
+      joints[i * 2] = (short) (i % JOINTS);
+      joints[i * 2 + 1] = (short) ((i + 1) % JOINTS);
+      weights[i * 2] = i % 3 == 0 ? 0.25f : 0.75f;
+      weights[i * 2 + 1] = i % 3 == 0 ? 0.75f : 0.25f;
+    }
+    skin.getBindPoseData().setVertexBuffer(verts);
+    skin.setWeightsPerVert(2);
+    skin.setJointIndices(joints);
+    skin.setWeights(weights);
+    skin.setCurrentPose(pose);
+    return skin;
+  }
+}
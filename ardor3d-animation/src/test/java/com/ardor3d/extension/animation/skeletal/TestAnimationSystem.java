@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.ardor3d.buffer.BufferUtils;
+import com.ardor3d.extension.animation.skeletal.AnimationFixtures.ManualTimer;
+import com.ardor3d.extension.animation.skeletal.blendtree.SimpleAnimationApplier;
+import com.ardor3d.extension.animation.skeletal.clip.AnimationClip;
+import com.ardor3d.extension.animation.skeletal.clip.TriggerChannel;
+import com.ardor3d.util.ReadOnlyTimer;
+
+public class TestAnimationSystem {
+
+  private static final int JOINTS = AnimationFixtures.JOINTS;
+  private static final int CROWD = 24;
+
+  @Test
+  public void testMatchesSequentialUpdate() {
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      final ManualTimer timer = new ManualTimer();
+      final Skeleton skeleton = AnimationFixtures.createSkeleton();
+      final AnimationClip[] clips = {createClip("walk", 1), createClip("run", 2), createClip("jump", 3)};
+      final SkinnedMesh prototype = createSkin();
+
+      final AnimationSystem system = new AnimationSystem(pool);
+      system.setBatchSize(1);
+      final List<AnimationManager> sequential = new ArrayList<>();
+      final List<String> systemEvents = new ArrayList<>();
+      final List<String> sequentialEvents = new ArrayList<>();
+      final List<SkinnedMesh> systemSkins = new ArrayList<>();
+      final List<SkinnedMesh> sequentialSkins = new ArrayList<>();
+      final Thread caller = Thread.currentThread();
+      for (int i = 0; i < CROWD; i++) {
+        final AnimationClip clip = clips[i % clips.length];
+        final AnimationManager parallel = createManager(timer, skeleton, clip, i, systemEvents, caller);
+        system.addManager(parallel);
+        systemSkins.add(attachSkin(prototype, parallel.getSkeletonPose(0)));
+        final AnimationManager reference = createManager(timer, skeleton, clip, i, sequentialEvents, caller);
+        sequential.add(reference);
+        sequentialSkins.add(attachSkin(prototype, reference.getSkeletonPose(0)));
+      }
+      assertEquals(CROWD, system.getManagers().size());
+
+      for (int frame = 0; frame < 90; frame++) {
+        timer.setTime(frame / 30.0);
+        system.update();
+        for (final AnimationManager manager : sequential) {
+          manager.update();
+        }
+        assertEquals(CROWD, system.getLastUpdatedCount());
+        assertEquals(CROWD, system.getLastSkinnedCount());
+
+        for (int i = 0; i < CROWD; i++) {
+          final SkeletonPose a = system.getManagers().get(i).getSkeletonPose(0);
+          final SkeletonPose b = sequential.get(i).getSkeletonPose(0);
+          for (int j = 0; j < JOINTS; j++) {
+            assertTrue(a.getGlobalJointTransforms()[j].strictEquals(b.getGlobalJointTransforms()[j]));
+          }
+          assertEquals(sequentialSkins.get(i).getMeshData().getVertexBuffer().rewind(),
+              systemSkins.get(i).getMeshData().getVertexBuffer().rewind());
+        }
+      }
+
+      // same callbacks, in the same order, all on the calling thread
+      assertFalse(systemEvents.isEmpty());
+      assertEquals(sequentialEvents, systemEvents);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testSkippedManagers() {
+    final ManualTimer timer = new ManualTimer();
+    final Skeleton skeleton = AnimationFixtures.createSkeleton();
+    final AnimationClip clip = createClip("walk", 1);
+    final List<String> events = new ArrayList<>();
+    final AnimationSystem system = new AnimationSystem();
+    final AnimationManager playing = createManager(timer, skeleton, clip, 0, events, Thread.currentThread());
+    final AnimationManager paused = createManager(timer, skeleton, clip, 1, events, Thread.currentThread());
+    paused.pause();
+    system.addManager(playing);
+    system.addManager(paused);
+    system.addManager(playing);
+    assertEquals(2, system.getManagers().size());
+
+    final int[] updates = new int[2];
+    playing.getSkeletonPose(0).addPoseListener(pose -> updates[0]++);
+    paused.getSkeletonPose(0).addPoseListener(pose -> updates[1]++);
+    system.update();
+    assertEquals(1, system.getLastUpdatedCount());
+    assertEquals(1, updates[0]);
+    assertEquals(0, updates[1]);
+
+    // flags are restored once the update is done
+    assertFalse(playing.isDeferCallbacks());
+    assertFalse(playing.getSkeletonPose(0).isDeferPoseUpdated());
+
+    assertTrue(system.removeManager(paused));
+    assertSame(playing, system.getManagers().get(0));
+  }
+
+  private static AnimationManager createManager(final ReadOnlyTimer timer, final Skeleton skeleton,
+      final AnimationClip clip, final int id, final List<String> events, final Thread caller) {
+    final AnimationManager manager = AnimationFixtures.createManager(timer, skeleton, clip);
+    ((SimpleAnimationApplier) manager.getApplier()).addTriggerCallback("step", (pose, mgr) -> {
+      assertSame(caller, Thread.currentThread());
+      events.add(id + " step");
+    });
+
+    manager.getClipInstance(clip).setLoopCount(id % 2 == 0 ? 2 : Integer.MAX_VALUE);
+    manager.getClipInstance(clip).setTimeScale(1 + id * 0.05);
+    manager.getClipInstance(clip).addAnimationListener(instance -> {
+      assertSame(caller, Thread.currentThread());
+      events.add(id + " finished");
+    });
+    return manager;
+  }
+
+  private static SkinnedMesh createSkin() {
+    final SkinnedMesh skin = new SkinnedMesh("skin");
+    final int vertices = 16;
+    final FloatBuffer verts = BufferUtils.createFloatBuffer(vertices * 3);
+    final FloatBuffer norms = BufferUtils.createFloatBuffer(vertices * 3);
+    final short[] joints = new short[vertices * 2];
+    final float[] weights = new float[vertices * 2];
+    for (int i = 0; i < vertices; i++) {
+      verts.put(i).put(i * 0.5f).put(-i);
+      norms.put(0).put(1).put(0);
+      joints[i * 2] = (short) (i % JOINTS);
+      joints[i * 2 + 1] = (short) ((i + 1) % JOINTS);
+      weights[i * 2] = 0.75f;
+      weights[i * 2 + 1] = 0.25f;
+    }
+    skin.getBindPoseData().setVertexBuffer(verts);
+    skin.getBindPoseData().setNormalBuffer(norms);
+    skin.setWeightsPerVert(2);
+    skin.setJointIndices(joints);
+    skin.setWeights(weights);
+    return skin;
+  }
+
+  /**
+   * @return a copy of the prototype sharing its bind pose, skinned by the given pose.
+   */
+  private static SkinnedMesh attachSkin(final SkinnedMesh prototype, final SkeletonPose pose) {
+    final SkinnedMesh skin = prototype.makeCopy(true);
+    skin.setCurrentPose(pose);
+    return skin;
+  }
+
+  private static AnimationClip createClip(final String name, final int seed) {
+    final AnimationClip clip = AnimationFixtures.createClip(name, seed);
+    clip.addChannel(new TriggerChannel(name + "Steps", new float[] {0, 0.5f, 1}, new String[] {"step", "step", null}));
+    return clip;
+  }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.FloatBuffer;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.ardor3d.bounding.BoundingBox;
+import com.ardor3d.buffer.BufferUtils;
+import com.ardor3d.extension.animation.skeletal.clip.BakedAnimationClip;
+import com.ardor3d.math.Matrix4;
+import com.ardor3d.math.Quaternion;
+import com.ardor3d.math.Transform;
+import com.ardor3d.math.Vector3;
+import com.ardor3d.math.Vector4;
+import com.ardor3d.renderer.state.RenderState.StateType;
+import com.ardor3d.renderer.state.TextureState;
+import com.ardor3d.scenegraph.MeshData;
+
+public class TestBakedCrowdMesh {
+
+  private static final int JOINTS = 3;
+
+  @Test
+  public void testClipsArePacked() {
+    final BakedAnimationClip walk = createClip("walk", 4, 1f);
+    final BakedAnimationClip run = createClip("run", 100, 2f);
+    final BakedCrowdMesh crowd = new BakedCrowdMesh("crowd", createSkin(), 2, List.of(walk, run));
+
+    assertEquals(0, crowd.getClipSlot(0));
+    assertEquals(4 * JOINTS, crowd.getClipSlot(1));
+    // 312 slots, 256 to a row
+    assertEquals(2, crowd.getTexture().getImage().getHeight());
+    final FloatBuffer data = crowd.getTexture().getImage().getData(0).asFloatBuffer();
+    final int runOffset = crowd.getClipSlot(1) * BakedAnimationClip.FLOATS_PER_JOINT;
+    for (int i = 0; i < run.getPalettes().length; i++) {
+      assertEquals(run.getPalettes()[i], data.get(runOffset + i), 0f);
+    }
+
+    final TextureState ts = (TextureState) crowd.getLocalRenderState(StateType.Texture);
+    assertSame(crowd.getTexture(), ts.getTexture(2));
+    assertEquals(2, crowd.getProperty("jointPaletteTexture", -1).intValue());
+    assertEquals(JOINTS, crowd.getProperty("bakedJointCount", -1).intValue());
+    crowd.setPlaybackTime(1.5);
+    assertEquals(1.5f, crowd.getProperty("bakedTime", 0f).floatValue(), 0f);
+  }
+
+  @Test
+  public void testInstances() {
+    final SkinnedMesh skin = createSkin();
+    final BakedCrowdMesh crowd =
+        new BakedCrowdMesh("crowd", skin, 1, List.of(createClip("walk", 4, 1f), createClip("run", 6, 2f)));
+    assertEquals(0, crowd.getInstanceCount());
+    // the bind pose is shared, with skinning attributes built for it
+    assertSame(skin.getBindPoseData().getVertexCoords(), crowd.getMeshData().getVertexCoords());
+    assertSame(skin.getBindPoseData().getCoords("weights"), crowd.getMeshData().getCoords("weights"));
+
+    final Transform[] transforms = new Transform[40];
+    for (int i = 0; i < transforms.length; i++) {
+      transforms[i] = new Transform();
+      transforms[i].setTranslation(i * 10, 0, -i);
+      transforms[i].setRotation(new Quaternion().fromAngleAxis(i * 0.3, Vector3.UNIT_Y));
+      transforms[i].setScale(1 + i * 0.01);
+      assertEquals(i, crowd.addInstance(transforms[i], i % 2, i * 0.1));
+    }
+    crowd.setInstanceClip(5, 1, 2.0, -0.5);
+    assertEquals(transforms.length, crowd.getInstanceCount());
+    assertTrue(crowd.getMeshData().containsKey(MeshData.KEY_InstanceMatrix));
+    assertTrue(crowd.getMeshData().containsKey(BakedCrowdMesh.KEY_InstanceAnimation));
+
+    // matrices place the bind pose as the transforms do, read as column major
+    final FloatBuffer matrices = crowd.getInstanceMatrices();
+    final Matrix4 matrix = new Matrix4();
+    final Vector4 actual = new Vector4();
+    final Vector3 expected = new Vector3();
+    for (int i = 0; i < transforms.length; i++) {
+      matrix.fromFloatBuffer(matrices.position(i * 16), false);
+      matrix.applyPost(new Vector4(1, 2, 3, 1), actual);
+      transforms[i].applyForward(new Vector3(1, 2, 3), expected);
+      assertEquals(expected.getX(), actual.getX(), 1e-4);
+      assertEquals(expected.getY(), actual.getY(), 1e-4);
+      assertEquals(expected.getZ(), actual.getZ(), 1e-4);
+      assertEquals(1, actual.getW(), 1e-6);
+    }
+
+    final FloatBuffer animations = crowd.getInstanceAnimations();
+    assertEquals(crowd.getClipSlot(1), animations.get(4), 0f);
+    assertEquals(6, animations.get(5), 0f);
+    assertEquals(2, animations.get(6), 0f);
+    assertEquals(0.1f, animations.get(7), 0f);
+    assertEquals(-1, animations.get(5 * 4 + 2), 0f);
+    assertEquals(2, animations.get(5 * 4 + 3), 0f);
+
+    // the bound covers every instance
+    crowd.updateGeometricState(0);
+    final BoundingBox bound = (BoundingBox) crowd.getWorldBound();
+    for (final Transform transform : transforms) {
+      assertTrue(bound.contains(transform.applyForward(new Vector3(0.9, 0.9, 0.9), null)));
+    }
+
+    crowd.clearInstances();
+    assertEquals(0, crowd.getInstanceCount());
+  }
+
+  private static BakedAnimationClip createClip(final String name, final int frames, final float fps) {
+    final float[] palettes = new float[frames * JOINTS * BakedAnimationClip.FLOATS_PER_JOINT];
+    for (int i = 0; i < palettes.length; i++) {
+      palettes[i] = name.length() + i * 0.5f;
+    }
+    return new BakedAnimationClip(name, JOINTS, fps, palettes);
+  }
+
+  private static SkinnedMesh createSkin() {
+    final SkinnedMesh skin = new SkinnedMesh("skin");
+    skin.getBindPoseData().setVertexBuffer(BufferUtils.createFloatBuffer(-1, -1, -1, 1, 1, 1, 0, 1, 0));
+    skin.setWeightsPerVert(1);
+    skin.setJointIndices(new short[] {0, 1, 2});
+    skin.setWeights(new float[] {1, 1, 1});
+    skin.setModelBound(new BoundingBox());
+    return skin;
+  }
+}
@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.ardor3d.buffer.BufferUtils;
+import com.ardor3d.image.PixelDataType;
+import com.ardor3d.image.Texture2D;
+import com.ardor3d.image.util.ImageUtils;
+import com.ardor3d.math.Quaternion;
+import com.ardor3d.math.Vector3;
+import com.ardor3d.renderer.ContextManager;
+import com.ardor3d.renderer.RenderContext;
+import com.ardor3d.renderer.Renderer;
+import com.ardor3d.renderer.texture.ITextureUtils;
+import com.ardor3d.renderer.state.RenderState.StateType;
+import com.ardor3d.renderer.state.TextureState;
+
+public class TestJointPaletteTexture {
+
+  @Test
+  public void testPosesArePackedOnce() {
+    final JointPaletteTexture palette = new JointPaletteTexture();
+    final SkeletonPose a = createPose(5, 0.1);
+    final SkeletonPose b = createPose(7, 0.2);
+
+    assertEquals(0, palette.addPose(a));
+    assertEquals(5, palette.addPose(b));
+    // added again, same slots
+    assertEquals(0, palette.addPose(a));
+    assertEquals(2, palette.getPoseCount());
+    assertEquals(12, palette.getUsedJoints());
+    assertTrue(palette.isUploadPending());
+    comparePalette(palette, a);
+    comparePalette(palette, b);
+
+    // unchanged poses are not written again
+    palette.clearPendingUpload();
+    assertFalse(palette.isUploadPending());
+    palette.addPose(a);
+    assertFalse(palette.isUploadPending());
+
+    // updated poses are
+    a.getLocalJointTransforms()[2].setTranslation(3, 2, 1);
+    a.updateTransforms();
+    palette.addPose(a);
+    assertTrue(palette.isUploadPending());
+    comparePalette(palette, a);
+    comparePalette(palette, b);
+
+    palette.clear();
+    assertEquals(-1, palette.getOffset(a));
+    assertEquals(0, palette.addPose(b));
+  }
+
+  @Test
+  public void testGrowth() {
+    final JointPaletteTexture palette = new JointPaletteTexture(10);
+    assertEquals(JointPaletteTexture.JOINTS_PER_ROW, palette.getCapacity());
+    final SkeletonPose[] poses = new SkeletonPose[8];
+    for (int i = 0; i < poses.length; i++) {
+      poses[i] = createPose(100, 0.01 * i);
+      assertEquals(i * 100, palette.addPose(poses[i]));
+    }
+    assertTrue(palette.getCapacity() >= 800);
+    assertEquals(palette.getCapacity() / JointPaletteTexture.JOINTS_PER_ROW,
+        palette.getTexture().getImage().getHeight());
+    for (final SkeletonPose pose : poses) {
+      comparePalette(palette, pose);
+    }
+  }
+
+  @Test
+  public void testSkinsSharePalette() {
+    final JointPaletteTexture palette = new JointPaletteTexture();
+    final SkeletonPose pose = createPose(4, 0.3);
+    final SkinnedMesh first = createSkin(pose);
+    first.setJointPaletteTexture(palette, 1);
+    final SkinnedMesh second = first.makeCopy(true);
+
+    pose.updateTransforms();
+    assertEquals(1, palette.getPoseCount());
+    assertEquals(0, first.getProperty("jointPaletteOffset", -1).intValue());
+    assertEquals(0, second.getProperty("jointPaletteOffset", -1).intValue());
+    assertEquals(1, first.getProperty("jointPaletteTexture", -1).intValue());
+    assertNull(first.getProperty("jointPalette", null));
+    final TextureState ts = (TextureState) first.getLocalRenderState(StateType.Texture);
+    assertSame(palette.getTexture(), ts.getTexture(1));
+
+    // back to the uniform array
+    first.setJointPaletteTexture(null, 0);
+    assertNull(ts.getTexture(1));
+    pose.updateTransforms();
+    assertSame(pose.getMatrixPalette(), first.getProperty("jointPalette", null));
+  }
+
+  @Test
+  public void testUploadSendsFloatRows() {
+    final Object contextKey = new Object();
+    ContextManager.addContext(contextKey, new RenderContext(contextKey));
+    try {
+      final RenderContext context = ContextManager.switchContext(contextKey);
+      final JointPaletteTexture palette = new JointPaletteTexture(2 * JointPaletteTexture.JOINTS_PER_ROW);
+      final Texture2D texture = palette.getTexture();
+      texture.setTextureIdForContext(context, 1);
+      texture.getTextureKey().markClean(context);
+      final SkeletonPose first = createPose(JointPaletteTexture.JOINTS_PER_ROW, 0.1);
+      final SkeletonPose second = createPose(3, 0.2);
+      palette.addPose(first);
+      palette.addPose(second);
+      palette.clearPendingUpload();
+      second.getLocalJointTransforms()[1].setTranslation(3, 2, 1);
+      second.updateTransforms();
+      palette.addPose(second);
+
+      // record the sub-image calls the palette makes
+      final List<Object[]> calls = new ArrayList<>();
+      final ITextureUtils textureUtils = (ITextureUtils) Proxy.newProxyInstance(getClass().getClassLoader(),
+          new Class<?>[] {ITextureUtils.class}, (proxy, method, args) -> {
+            if ("updateTexture2DSubImage".equals(method.getName())) {
+              calls.add(args);
+            }
+            return null;
+          });
+      final Renderer renderer = (Renderer) Proxy.newProxyInstance(getClass().getClassLoader(),
+          new Class<?>[] {Renderer.class},
+          (proxy, method, args) -> "getTextureUtils".equals(method.getName()) ? textureUtils : null);
+      palette.upload(renderer);
+
+      // only the second row changed
+      assertEquals(1, calls.size());
+      final Object[] args = calls.get(0);
+      assertSame(texture, args[0]);
+      // the renderer sends the source as the texture's data type, so it must be floats rather than bytes
+      assertEquals(PixelDataType.Float, ImageUtils.getPixelDataType(texture));
+      assertEquals(1, args[2]);
+      assertEquals(1, args[4]);
+      assertEquals(1, args[7]);
+
+      final FloatBuffer source = ((ByteBuffer) args[5]).duplicate().order(ByteOrder.nativeOrder()).asFloatBuffer();
+      final float[] expected = second.getMatrixPaletteArray();
+      final int offset = palette.getOffset(second) * 12;
+      for (int i = 0; i < expected.length; i++) {
+        assertEquals(expected[i], source.get(offset + i), 0f);
+      }
+      assertFalse(palette.isUploadPending());
+    } finally {
+      ContextManager.removeContext(contextKey);
+    }
+  }
+
+  private static void comparePalette(final JointPaletteTexture palette, final SkeletonPose pose) {
+    final FloatBuffer data = palette.getData();
+    final float[] expected = pose.getMatrixPaletteArray();
+    final int offset = palette.getOffset(pose) * 12;
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i], data.get(offset + i), 0f);
+    }
+  }
+
+  private static SkeletonPose createPose(final int jointCount, final double angle) {
+    final Joint[] joints = new Joint[jointCount];
+    for (int i = 0; i < jointCount; i++) {
+      joints[i] = new Joint("j" + i);
+      joints[i].setIndex((short) i);
+      joints[i].setParentIndex(i == 0 ? Joint.NO_PARENT : (short) (i - 1));
+    }
+    final SkeletonPose pose = new SkeletonPose(new Skeleton("skeleton", joints));
+    for (int i = 0; i < jointCount; i++) {
+      pose.getLocalJointTransforms()[i].setRotation(new Quaternion().fromAngleAxis(angle * i, Vector3.UNIT_Z));
+      pose.getLocalJointTransforms()[i].setTranslation(0, 1, 0);
+    }
+    pose.updateTransforms();
+    return pose;
+  }
+
+  private static SkinnedMesh createSkin(final SkeletonPose pose) {
+    final SkinnedMesh skin = new SkinnedMesh("skin");
+    skin.getBindPoseData().setVertexBuffer(BufferUtils.createFloatBuffer(0, 0, 0, 1, 1, 1));
+    skin.setWeightsPerVert(1);
+    skin.setJointIndices(new short[] {0, 1});
+    skin.setWeights(new float[] {1, 1});
+    skin.setUseGPU(true);
+    skin.setCurrentPose(pose);
+    return skin;
+  }
+}
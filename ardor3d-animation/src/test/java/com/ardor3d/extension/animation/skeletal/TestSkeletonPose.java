@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.ardor3d.math.Matrix4;
+import com.ardor3d.math.Quaternion;
+import com.ardor3d.math.Transform;
+import com.ardor3d.math.Vector3;
+import com.ardor3d.math.Vector4;
+
+public class TestSkeletonPose {
+
+  /**
+   * Parents of our test skeleton. Joint 2 comes before its parent, 5.
+   */
+  private static final short[] PARENTS = {Joint.NO_PARENT, 0, 5, 1, 0, 4, 2, 1};
+
+  @Test
+  public void testJointOrder() {
+    final Skeleton skeleton = createSkeleton();
+    final int[] order = skeleton.getJointOrder();
+    assertEquals(PARENTS.length, order.length);
+    final boolean[] seen = new boolean[PARENTS.length];
+    for (final int index : order) {
+      final short parent = PARENTS[index];
+      assertTrue(parent == Joint.NO_PARENT || seen[parent]);
+      seen[index] = true;
+    }
+
+    // already parent first, so kept as is
+    final Joint[] joints = new Joint[3];
+    for (int i = 0; i < 3; i++) {
+      joints[i] = new Joint("j" + i);
+      joints[i].setParentIndex(i == 0 ? Joint.NO_PARENT : (short) (i - 1));
+    }
+    assertArrayEquals(new int[] {0, 1, 2}, new Skeleton("chain", joints).getJointOrder());
+  }
+
+  @Test
+  public void testPaletteMatchesReference() {
+    final Random rand = new Random(7);
+    final SkeletonPose pose = new SkeletonPose(createSkeleton());
+    for (int frame = 0; frame < 20; frame++) {
+      for (final Transform local : pose.getLocalJointTransforms()) {
+        randomize(local, rand, true);
+      }
+      pose.updateTransforms();
+      compareToReference(pose);
+    }
+  }
+
+  @Test
+  public void testUnchangedJointsAreSkipped() {
+    final Random rand = new Random(11);
+    final SkeletonPose pose = new SkeletonPose(createSkeleton());
+    for (final Transform local : pose.getLocalJointTransforms()) {
+      randomize(local, rand, true);
+    }
+    pose.updateTransforms();
+    for (int i = 0; i < PARENTS.length; i++) {
+      assertTrue(pose.isJointUpdated(i));
+    }
+
+    // nothing changed
+    pose.updateTransforms();
+    for (int i = 0; i < PARENTS.length; i++) {
+      assertFalse(pose.isJointUpdated(i));
+    }
+
+    // move joint 5 - only it and its descendants, 2 and 6, are updated
+    randomize(pose.getLocalJointTransforms()[5], rand, true);
+    pose.updateTransforms();
+    for (int i = 0; i < PARENTS.length; i++) {
+      assertEquals("joint " + i, i == 5 || i == 2 || i == 6, pose.isJointUpdated(i));
+    }
+    compareToReference(pose);
+
+    // a new inverse bind pose updates everything
+    final Transform bind = new Transform();
+    randomize(bind, rand, true);
+    pose.getSkeleton().getJoints()[3].setInverseBindPose(bind);
+    pose.updateTransforms();
+    for (int i = 0; i < PARENTS.length; i++) {
+      assertTrue(pose.isJointUpdated(i));
+    }
+    compareToReference(pose);
+
+    // or everything, every time
+    pose.setSkipUnchangedJoints(false);
+    pose.updateTransforms();
+    assertTrue(pose.isJointUpdated(0));
+  }
+
+  @Test
+  public void testNonUniformScale() {
+    final Random rand = new Random(13);
+    final SkeletonPose pose = new SkeletonPose(createSkeleton());
+    for (final Transform local : pose.getLocalJointTransforms()) {
+      randomize(local, rand, false);
+    }
+    pose.updateTransforms();
+
+    // a palette entry moves points the same way its transforms do
+    final Transform combined = new Transform();
+    final Vector3 expected = new Vector3();
+    final Vector4 actual = new Vector4();
+    for (int i = 0; i < PARENTS.length; i++) {
+      pose.getGlobalJointTransforms()[i].multiply(pose.getSkeleton().getJoints()[i].getInverseBindPose(), combined);
+      combined.applyForward(new Vector3(1, 2, 3), expected);
+      pose.getMatrixPalette()[i].applyPost(new Vector4(1, 2, 3, 1), actual);
+      assertEquals(expected.getX(), actual.getX(), 1e-9);
+      assertEquals(expected.getY(), actual.getY(), 1e-9);
+      assertEquals(expected.getZ(), actual.getZ(), 1e-9);
+    }
+  }
+
+  /**
+   * Compare a pose's palettes with those given by the original, Transform based, pose update.
+   */
+  private static void compareToReference(final SkeletonPose pose) {
+    final Joint[] joints = pose.getSkeleton().getJoints();
+    final Transform[] globals = new Transform[joints.length];
+    final Transform temp = new Transform();
+    final Matrix4 expected = new Matrix4();
+    for (int i = 0; i < joints.length; i++) {
+      computeGlobal(i, pose.getLocalJointTransforms(), joints, globals);
+      assertTrue(globals[i].strictEquals(pose.getGlobalJointTransforms()[i]));
+
+      globals[i].multiply(joints[i].getInverseBindPose(), temp);
+      temp.getHomogeneousMatrix(expected);
+      final Matrix4 actual = pose.getMatrixPalette()[i];
+      final float[] flat = pose.getMatrixPaletteArray();
+      for (int row = 0; row < 4; row++) {
+        for (int col = 0; col < 4; col++) {
+          assertEquals(expected.getValue(row, col), actual.getValue(row, col), 1e-9);
+          if (row < 3) {
+            assertEquals(expected.getValue(row, col), flat[i * 12 + row * 4 + col], 1e-5);
+          }
+        }
+      }
+    }
+  }
+
+  private static Transform computeGlobal(final int index, final Transform[] locals, final Joint[] joints,
+      final Transform[] store) {
+    if (store[index] == null) {
+      final short parent = joints[index].getParentIndex();
+      store[index] = parent == Joint.NO_PARENT ? new Transform(locals[index])
+          : computeGlobal(parent, locals, joints, store).multiply(locals[index], null);
+    }
+    return store[index];
+  }
+
+  private static void randomize(final Transform transform, final Random rand, final boolean uniformScale) {
+    transform.setRotation(new Quaternion().fromAngleAxis(rand.nextDouble() * 3,
+        new Vector3(rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian()).normalizeLocal()));
+    transform.setTranslation(rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian());
+    if (uniformScale) {
+      transform.setScale(0.5 + rand.nextDouble());
+    } else {
+      transform.setScale(0.5 + rand.nextDouble(), 0.5 + rand.nextDouble(), 0.5 + rand.nextDouble());
+    }
+  }
+
+  private static Skeleton createSkeleton() {
+    final Random rand = new Random(3);
+    final Joint[] joints = new Joint[PARENTS.length];
+    for (int i = 0; i < joints.length; i++) {
+      joints[i] = new Joint("j" + i);
+      joints[i].setIndex((short) i);
+      joints[i].setParentIndex(PARENTS[i]);
+      final Transform bind = new Transform();
+      randomize(bind, rand, true);
+      joints[i].setInverseBindPose(bind);
+    }
+    return new Skeleton("skeleton", joints);
+  }
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.FloatBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.ardor3d.buffer.BufferUtils;
+import com.ardor3d.buffer.FloatBufferData;
+import com.ardor3d.math.Quaternion;
+import com.ardor3d.math.Transform;
+import com.ardor3d.math.Vector3;
+
+public class TestSkinnedMesh {
+
+  private static final int JOINTS = 6;
+
+  @Test
+  public void testFastSkinningMatchesBufferSkinning() {
+    for (final int weightsPerVert : new int[] {1, 2, 3, 4}) {
+      final SkeletonPose pose = createPose();
+      final SkinnedMesh fast = createSkin(500, weightsPerVert, pose);
+      final SkinnedMesh reference = fast.makeCopy(true);
+      reference.setFastCpuSkinning(false);
+
+      for (int frame = 0; frame < 5; frame++) {
+        movePose(pose, frame);
+        compare(reference.getMeshData().getVertexBuffer(), fast.getMeshData().getVertexBuffer());
+        compare(reference.getMeshData().getNormalBuffer(), fast.getMeshData().getNormalBuffer());
+      }
+    }
+  }
+
+  @Test
+  public void testParallelSkinning() {
+    final SkeletonPose pose = createPose();
+    final SkinnedMesh parallel = createSkin(20000, 4, pose);
+    parallel.setParallelSkinningThreshold(1000);
+    final SkinnedMesh serial = parallel.makeCopy(true);
+    serial.setParallelSkinningThreshold(0);
+
+    movePose(pose, 3);
+    final FloatBuffer a = parallel.getMeshData().getVertexBuffer();
+    final FloatBuffer b = serial.getMeshData().getVertexBuffer();
+    for (int i = 0; i < a.capacity(); i++) {
+      assertEquals(b.get(i), a.get(i), 0f);
+    }
+  }
+
+  @Test
+  public void testTangentSkinning() {
+    final SkeletonPose pose = createPose();
+    final SkinnedMesh skin = createSkin(100, 2, pose);
+    final FloatBuffer bindTangents = BufferUtils.createFloatBuffer(100 * 4);
+    for (int i = 0; i < 100; i++) {
+      bindTangents.put(1).put(0).put(0).put(i % 2 == 0 ? 1 : -1);
+    }
+    skin.getBindPoseData().setTangentCoords(new FloatBufferData(bindTangents, 4));
+    skin.getMeshData().setTangentCoords(skin.getBindPoseData().getTangentCoords());
+    skin.setSkinTangents(true);
+
+    movePose(pose, 2);
+    final FloatBufferData tangents = skin.getMeshData().getTangentCoords();
+    // the bind pose tangents are left alone
+    assertNotSame(bindTangents, tangents.getBuffer());
+    assertEquals(1f, bindTangents.get(0), 0f);
+    assertEquals(4, tangents.getValuesPerTuple());
+
+    // tangents are skinned like normals, keeping their handedness
+    final SkinnedMesh normals = createSkin(100, 2, pose);
+    final FloatBuffer bindNormals = normals.getBindPoseData().getNormalBuffer();
+    for (int i = 0; i < 100; i++) {
+      bindNormals.put(i * 3, 1).put(i * 3 + 1, 0).put(i * 3 + 2, 0);
+    }
+    normals.invalidateSkinningCache();
+    pose.updateTransforms();
+    final FloatBuffer normalOut = normals.getMeshData().getNormalBuffer();
+    for (int i = 0; i < 100; i++) {
+      for (int k = 0; k < 3; k++) {
+        assertEquals(normalOut.get(i * 3 + k), tangents.getBuffer().get(i * 4 + k), 1e-6f);
+      }
+      assertEquals(i % 2 == 0 ? 1f : -1f, tangents.getBuffer().get(i * 4 + 3), 0f);
+    }
+  }
+
+  private static void compare(final FloatBuffer expected, final FloatBuffer actual) {
+    assertEquals(expected.capacity(), actual.capacity());
+    for (int i = 0; i < expected.capacity(); i++) {
+      final float e = expected.get(i);
+      assertTrue(e + " != " + actual.get(i), Math.abs(e - actual.get(i)) <= 1e-4f * Math.max(1f, Math.abs(e)));
+    }
+  }
+
+  private static SkeletonPose createPose() {
+    final Joint[] joints = new Joint[JOINTS];
+    for (int i = 0; i < JOINTS; i++) {
+      joints[i] = new Joint("j" + i);
+      joints[i].setIndex((short) i);
+      joints[i].setParentIndex(i == 0 ? Joint.NO_PARENT : (short) (i - 1));
+      final Transform bind = new Transform().setTranslation(0, i, 0);
+      joints[i].setInverseBindPose(bind.invert(null));
+    }
+    return new SkeletonPose(new Skeleton("skeleton", joints));
+  }
+
+  private static void movePose(final SkeletonPose pose, final int frame) {
+    for (int i = 0; i < JOINTS; i++) {
+      final Transform local = pose.getLocalJointTransforms()[i];
+      local.setRotation(new Quaternion().fromAngleAxis(0.1 * (frame + i), new Vector3(1, 1, i).normalizeLocal()));
+      local.setTranslation(i == 0 ? frame : 0, 1, 0.1 * frame);
+      local.setScale(1 + 0.05 * i);
+    }
+    pose.updateTransforms();
+  }
+
+  private static SkinnedMesh createSkin(final int vertices, final int weightsPerVert, final SkeletonPose pose) {
+    final Random rand = new Random(vertices + weightsPerVert);
+    final FloatBuffer verts = BufferUtils.createFloatBuffer(vertices * 3);
+    final FloatBuffer norms = BufferUtils.createFloatBuffer(vertices * 3);
+    final short[] joints = new short[vertices * weightsPerVert];
+    final float[] weights = new float[vertices * weightsPerVert];
+    for (int i = 0; i < vertices; i++) {
+      verts.put(rand.nextFloat() * 2 - 1).put(rand.nextFloat() * JOINTS).put(rand.nextFloat() * 2 - 1);
+      final Vector3 normal =
+          new Vector3(rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian()).normalizeLocal();
+      norms.put(normal.getXf()).put(normal.getYf()).put(normal.getZf());
+      float total = 0;
+      for (int j = 0; j < weightsPerVert; j++) {
+        final int index = i * weightsPerVert + j;
+        joints[index] = (short) rand.nextInt(JOINTS);
+        // leave some weights empty, with a joint index that must not be used
+        weights[index] = j > 0 && rand.nextInt(3) == 0 ? 0 : rand.nextFloat();
+        if (weights[index] == 0) {
+          joints[index] = -1;
+        }
+        total += weights[index];
+      }
+      for (int j = 0; j < weightsPerVert; j++) {
+        weights[i * weightsPerVert + j] /= total;
+      }
+    }
+
+    final SkinnedMesh skin = new SkinnedMesh("skin");
+    skin.getBindPoseData().setVertexBuffer(verts);
+    skin.getBindPoseData().setNormalBuffer(norms);
+    skin.setWeightsPerVert(weightsPerVert);
+    skin.setJointIndices(joints);
+    skin.setWeights(weights);
+    skin.setCurrentPose(pose);
+    return skin;
+  }
+}
@@ -0,0 +1,269 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal.blendtree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.ardor3d.extension.animation.skeletal.AnimationManager;
+import com.ardor3d.extension.animation.skeletal.Joint;
+import com.ardor3d.extension.animation.skeletal.PoseBuffer;
+import com.ardor3d.extension.animation.skeletal.Skeleton;
+import com.ardor3d.extension.animation.skeletal.SkeletonPose;
+import com.ardor3d.extension.animation.skeletal.clip.AnimationClip;
+import com.ardor3d.extension.animation.skeletal.clip.JointChannel;
+import com.ardor3d.extension.animation.skeletal.clip.TriggerChannel;
+import com.ardor3d.extension.animation.skeletal.layer.AnimationLayer;
+import com.ardor3d.extension.animation.skeletal.layer.LayerLERPBlender;
+import com.ardor3d.extension.animation.skeletal.state.AbstractTwoStateLerpTransition.BlendType;
+import com.ardor3d.extension.animation.skeletal.state.FadeTransitionState;
+import com.ardor3d.extension.animation.skeletal.state.SteadyState;
+import com.ardor3d.math.Quaternion;
+import com.ardor3d.math.Transform;
+import com.ardor3d.math.Vector3;
+import com.ardor3d.math.type.ReadOnlyQuaternion;
+import com.ardor3d.math.type.ReadOnlyVector3;
+import com.ardor3d.util.ReadOnlyTimer;
+
+public class TestCompiledBlendTree {
+
+  private static final int JOINTS = 4;
+
+  @Test
+  public void testCompiledMatchesSourceData() {
+    final Skeleton skeleton = createSkeleton();
+    final ManualTimer timer = new ManualTimer();
+    final SimpleAnimationApplier applier = new SimpleAnimationApplier();
+    final SkeletonPose mapPose = new SkeletonPose(skeleton);
+    final SkeletonPose compiledPose = new SkeletonPose(skeleton);
+    final AnimationManager manager = createManager(timer, mapPose, applier);
+
+    final List<String> triggers = new ArrayList<>();
+    applier.addTriggerCallback("step", (pose, mgr) -> triggers.add("step"));
+
+    boolean faded = false;
+    for (int frame = 0; frame < 120; frame++) {
+      timer._time = frame / 30.0;
+      if (frame == 40) {
+        // cross fade the base layer to its second state
+        assertTrue(manager.getBaseAnimationLayer().doTransition("run"));
+      }
+      faded |= manager.getBaseAnimationLayer().getCurrentState() instanceof FadeTransitionState;
+
+      applier.setCompiled(false);
+      manager.update();
+      final int mapTriggers = triggers.size();
+      applier.setCompiled(true);
+      applier.applyTo(compiledPose, manager);
+      // triggers were disarmed by the map path, so none fire again
+      assertEquals(mapTriggers, triggers.size());
+
+      for (int i = 0; i < JOINTS; i++) {
+        assertSame(mapPose.getLocalJointTransforms()[i], compiledPose.getLocalJointTransforms()[i]);
+        assertSame(mapPose.getGlobalJointTransforms()[i], compiledPose.getGlobalJointTransforms()[i]);
+      }
+    }
+    assertTrue(faded);
+    assertFalse(triggers.isEmpty());
+  }
+
+  @Test
+  public void testCompiledFiresTriggers() {
+    final ManualTimer timer = new ManualTimer();
+    final SimpleAnimationApplier applier = new SimpleAnimationApplier();
+    applier.setCompiled(true);
+    final AnimationManager manager = createManager(timer, new SkeletonPose(createSkeleton()), applier);
+
+    final List<String> triggers = new ArrayList<>();
+    applier.addTriggerCallback("step", (pose, mgr) -> triggers.add("step"));
+    for (int frame = 0; frame < 60; frame++) {
+      timer._time = frame / 30.0;
+      manager.update();
+    }
+    // one step per half second from each of the two blended clips
+    assertEquals(8, triggers.size());
+  }
+
+  @Test
+  public void testPoseBufferBlend() {
+    final PoseBuffer a = new PoseBuffer(3);
+    final PoseBuffer b = a.pushScratch();
+    final JointChannel channel = createChannel(0, 0);
+    a.setJoint(channel.getJointData(0, null));
+    a.setJoint(1, channel.getJointData(1, null));
+    b.setJoint(1, channel.getJointData(3, null));
+    b.setJoint(2, channel.getJointData(2, null));
+    a.blend(b, 0.25);
+    a.popScratch();
+
+    assertTrue(a.isWritten(0) && a.isWritten(1) && a.isWritten(2));
+    final Vector3 store = new Vector3();
+    final Vector3 expected = channel.getJointData(1, null).getTranslation()
+        .lerp(channel.getJointData(3, null).getTranslation(), 0.25, null);
+    assertEquals(expected, a.getTranslation(1, store));
+    assertEquals(channel.getJointData(2, null).getTranslation(), a.getTranslation(2, store));
+
+    a.clear();
+    assertTrue(a.isEmpty());
+    assertFalse(a.isWritten(1));
+  }
+
+  @Test
+  public void testCompiledUpdateDoesNotAllocate() {
+    Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+    final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    Assume.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+    final ManualTimer timer = new ManualTimer();
+    final SimpleAnimationApplier applier = new SimpleAnimationApplier();
+    applier.setCompiled(true);
+    final AnimationManager manager = createManager(timer, new SkeletonPose(createSkeleton()), applier);
+
+    int frame = 0;
+    for (; frame < 2000; frame++) {
+      timer._time = frame / 30.0;
+      manager.update();
+    }
+
+    final long threadId = Thread.currentThread().getId();
+    final long before = threads.getThreadAllocatedBytes(threadId);
+    for (; frame < 4000; frame++) {
+      timer._time = frame / 30.0;
+      manager.update();
+    }
+    final long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+    // allow for the odd allocation made by the measuring itself
+    assertTrue("allocated " + allocated + " bytes", allocated < 1024);
+  }
+
+  /**
+   * Builds a manager with two layers: a base layer blending two clips (one with a joint disabled),
+   * able to fade to a second clip, and a layer driving one joint from a managed source.
+   */
+  private static AnimationManager createManager(final ReadOnlyTimer timer, final SkeletonPose pose,
+      final SimpleAnimationApplier applier) {
+    final AnimationManager manager = new AnimationManager(timer, pose);
+    manager.setApplier(applier);
+    manager.setUpdateRate(0);
+
+    final AnimationClip walk = createClip("walk", 1);
+    final AnimationClip lean = createClip("lean", 2);
+    final AnimationClip run = createClip("run", 3);
+    manager.getClipInstance(walk).setLoopCount(Integer.MAX_VALUE);
+    manager.getClipInstance(lean).setLoopCount(Integer.MAX_VALUE);
+    manager.getClipInstance(run).setLoopCount(Integer.MAX_VALUE);
+
+    final ExclusiveClipSource leanSource = new ExclusiveClipSource(lean, manager);
+    leanSource.addDisabledJoints(1);
+    final BinaryLERPSource walkTree = new BinaryLERPSource(new ClipSource(walk, manager), leanSource);
+    walkTree.setBlendKey("lean");
+    manager.getValuesStore().put("lean", 0.3);
+
+    final SteadyState walkState = new SteadyState("walk");
+    walkState.setSourceTree(walkTree);
+    walkState.addTransition("run", new FadeTransitionState("run", 1.0, BlendType.SCurve3));
+    final SteadyState runState = new SteadyState("run");
+    runState.setSourceTree(new ClipSource(run, manager));
+
+    final AnimationLayer base = manager.getBaseAnimationLayer();
+    base.addSteadyState(walkState);
+    base.addSteadyState(runState);
+    base.setCurrentState("walk", true);
+
+    final ManagedTransformSource managed = new ManagedTransformSource();
+    managed.setJointRotation(2, new Quaternion().fromAngleAxis(0.7, Vector3.UNIT_Z));
+    managed.setJointTranslation(2, new Vector3(0, 2, 0));
+    final SteadyState lookState = new SteadyState("look");
+    lookState.setSourceTree(managed);
+    final AnimationLayer look = new AnimationLayer("look");
+    look.addSteadyState(lookState);
+    final LayerLERPBlender blender = new LayerLERPBlender();
+    blender.setBlendKey("look");
+    look.setLayerBlender(blender);
+    manager.addAnimationLayer(look);
+    look.setCurrentState("look", true);
+    manager.getValuesStore().put("look", 0.6);
+
+    return manager;
+  }
+
+  private static Skeleton createSkeleton() {
+    final Joint[] joints = new Joint[JOINTS];
+    for (int i = 0; i < JOINTS; i++) {
+      joints[i] = new Joint("j" + i);
+      joints[i].setIndex((short) i);
+      joints[i].setParentIndex(i == 0 ? Joint.NO_PARENT : (short) (i == 3 ? 0 : i - 1));
+    }
+    return new Skeleton("skeleton", joints);
+  }
+
+  private static AnimationClip createClip(final String name, final int seed) {
+    final AnimationClip clip = new AnimationClip(name);
+    for (int i = 0; i < JOINTS; i++) {
+      clip.addChannel(createChannel(i, seed));
+    }
+    // trigger channels are named per clip, as the map based path only fires one of two same named channels
+    clip.addChannel(new TriggerChannel(name + "Steps", new float[] {0, 0.5f, 1}, new String[] {"step", "step", null}));
+    return clip;
+  }
+
+  private static JointChannel createChannel(final int joint, final int seed) {
+    final int keys = 31;
+    final float[] times = new float[keys];
+    final ReadOnlyQuaternion[] rotations = new ReadOnlyQuaternion[keys];
+    final ReadOnlyVector3[] translations = new ReadOnlyVector3[keys];
+    final ReadOnlyVector3[] scales = new ReadOnlyVector3[keys];
+    for (int i = 0; i < keys; i++) {
+      times[i] = i / 30f;
+      final double phase = i * 0.2 + joint + seed;
+      rotations[i] = new Quaternion().fromAngleAxis(Math.sin(phase) * 1.5,
+          new Vector3(seed, 1, joint).normalizeLocal());
+      translations[i] = new Vector3(Math.cos(phase), joint, seed * Math.sin(phase));
+      scales[i] = new Vector3(1, 1 + 0.1 * Math.sin(phase), 1);
+    }
+    return new JointChannel("j" + joint, joint, times, rotations, translations, scales);
+  }
+
+  private static void assertSame(final Transform expected, final Transform actual) {
+    assertTrue(expected + " != " + actual, expected.strictEquals(actual));
+  }
+
+  private static class ManualTimer implements ReadOnlyTimer {
+    private double _time;
+
+    @Override
+    public double getTimeInSeconds() { return _time; }
+
+    @Override
+    public long getTime() { return (long) (_time * getResolution()); }
+
+    @Override
+    public long getResolution() { return 1_000_000_000L; }
+
+    @Override
+    public double getFrameRate() { return 30; }
+
+    @Override
+    public double getTimePerFrame() { return 1 / 30.0; }
+
+    @Override
+    public long getPreviousFrameTime() { return getTime(); }
+  }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal.clip;
+
+import com.ardor3d.math.Quaternion;
+import com.ardor3d.math.Vector3;
+import com.ardor3d.math.type.ReadOnlyQuaternion;
+import com.ardor3d.math.type.ReadOnlyVector3;
+
+/**
+ * Measures the cost of a single {@link TransformChannel#updateSample(double, Object)} call during
+ * regular playback for channels of increasing length. With sample cursors the cost per update should
+ * stay flat as the number of keys grows. Run as a plain java application.
+ */
+public class ChannelUpdateBenchmark {
+
+  private static final double FRAME_RATE = 30.0;
+  private static final int UPDATES = 2_000_000;
+
+  public static void main(final String[] args) {
+    System.out.println("keys\tns/update (cursor)\tns/update (no cursor)");
+    for (final int keys : new int[] {10, 100, 1_000, 10_000, 100_000}) {
+      final TransformChannel channel = createChannel(keys);
+      // warm up, then measure
+      run(channel, new TransformData());
+      run(channel, new NoCursorData());
+      final double cursor = run(channel, new TransformData());
+      final double noCursor = run(channel, new NoCursorData());
+      System.out.printf("%d\t%.1f\t%.1f%n", keys, cursor, noCursor);
+    }
+  }
+
+  private static double run(final TransformChannel channel, final Object state) {
+    final double maxTime = channel.getMaxTime();
+    final double step = 1.0 / 60.0;
+    double time = 0;
+    final long start = System.nanoTime();
+    for (int i = 0; i < UPDATES; i++) {
+      channel.updateSample(time, state);
+      time += step;
+      if (time >= maxTime) {
+        time -= maxTime;
+      }
+    }
+    return (System.nanoTime() - start) / (double) UPDATES;
+  }
+
+  private static TransformChannel createChannel(final int keys) {
+    final float[] times = new float[keys];
+    final ReadOnlyQuaternion[] rotations = new ReadOnlyQuaternion[keys];
+    final ReadOnlyVector3[] translations = new ReadOnlyVector3[keys];
+    final ReadOnlyVector3[] scales = new ReadOnlyVector3[keys];
+    for (int i = 0; i < keys; i++) {
+      times[i] = (float) (i / FRAME_RATE);
+      rotations[i] = new Quaternion().fromAngleAxis(i * 0.01, Vector3.UNIT_Y);
+      translations[i] = new Vector3(i, 0, 0);
+      scales[i] = Vector3.ONE;
+    }
+    return new TransformChannel("bench", times, rotations, translations, scales);
+  }
+
+  /** State holder that does not keep a cursor, forcing a binary search on every update. */
+  private static class NoCursorData extends TransformData {
+    @Override
+    public void setSampleCursor(final int sampleIndex) {}
+  }
+}
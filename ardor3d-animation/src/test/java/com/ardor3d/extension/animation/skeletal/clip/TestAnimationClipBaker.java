@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal.clip;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Test;
+
+import com.ardor3d.extension.animation.skeletal.AnimationFixtures;
+import com.ardor3d.extension.animation.skeletal.Skeleton;
+import com.ardor3d.extension.animation.skeletal.SkeletonPose;
+import com.ardor3d.util.export.binary.BinaryExporter;
+import com.ardor3d.util.export.binary.BinaryImporter;
+
+public class TestAnimationClipBaker {
+
+  private static final int JOINTS = AnimationFixtures.JOINTS;
+
+  @Test
+  public void testFramesMatchLivePose() {
+    final Skeleton skeleton = AnimationFixtures.createSkeleton();
+    final AnimationClip clip = AnimationFixtures.createClip("walk", 0);
+    final AnimationClipBaker baker = new AnimationClipBaker();
+    baker.setFramesPerSecond(20);
+    final BakedAnimationClip baked = baker.bake(clip, skeleton);
+
+    assertEquals("walk", baked.getName());
+    assertEquals(JOINTS, baked.getJointCount());
+    // one second long, the end looping back to the start
+    assertEquals(20, baked.getFrameCount());
+    assertEquals(1.0, baked.getDuration(), 1e-9);
+
+    for (final int frame : new int[] {0, 7, 19}) {
+      final float[] expected = evaluate(clip, skeleton, frame / 20.0);
+      final float[] palettes = baked.getPalettes();
+      final int offset = baked.getFrameOffset(frame);
+      for (int i = 0; i < expected.length; i++) {
+        assertEquals(expected[i], palettes[offset + i], 1e-6f);
+      }
+      // sampling right on a frame gives that frame
+      final float[] sampled = baked.samplePalette(frame / 20.0, null);
+      for (int i = 0; i < expected.length; i++) {
+        assertEquals(expected[i], sampled[i], 1e-5f);
+      }
+    }
+
+    // between frames, a blend of the two - wrapping around the end
+    final float[] sampled = baked.samplePalette(3 + 19.25 / 20.0, null);
+    final float[] palettes = baked.getPalettes();
+    for (int i = 0; i < JOINTS * BakedAnimationClip.FLOATS_PER_JOINT; i++) {
+      final float expected = palettes[baked.getFrameOffset(19) + i] * 0.75f + palettes[i] * 0.25f;
+      assertEquals(expected, sampled[i], 1e-4f);
+    }
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    final BakedAnimationClip baked =
+        new AnimationClipBaker().bake(AnimationFixtures.createClip("walk", 0), AnimationFixtures.createSkeleton());
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new BinaryExporter().save(baked, out);
+    final BakedAnimationClip loaded =
+        (BakedAnimationClip) new BinaryImporter().load(new ByteArrayInputStream(out.toByteArray()));
+
+    assertEquals(baked.getName(), loaded.getName());
+    assertEquals(baked.getJointCount(), loaded.getJointCount());
+    assertEquals(baked.getFrameCount(), loaded.getFrameCount());
+    assertEquals(baked.getFramesPerSecond(), loaded.getFramesPerSecond(), 0f);
+    for (int i = 0; i < baked.getPalettes().length; i++) {
+      assertEquals(baked.getPalettes()[i], loaded.getPalettes()[i], 0f);
+    }
+  }
+
+  private static float[] evaluate(final AnimationClip clip, final Skeleton skeleton, final double time) {
+    final SkeletonPose pose = new SkeletonPose(skeleton);
+    final AnimationClipInstance instance = new AnimationClipInstance();
+    clip.update(time, instance);
+    for (final Object state : instance.getChannelStates(clip)) {
+      final JointData data = (JointData) state;
+      data.applyTo(pose.getLocalJointTransforms()[data.getJointIndex()]);
+    }
+    pose.updateTransforms();
+    return pose.getMatrixPaletteArray().clone();
+  }
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal.clip;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.ardor3d.math.Quaternion;
+import com.ardor3d.math.Vector3;
+import com.ardor3d.math.type.ReadOnlyQuaternion;
+import com.ardor3d.math.type.ReadOnlyVector3;
+import com.ardor3d.util.export.binary.BinaryExporter;
+import com.ardor3d.util.export.binary.BinaryImporter;
+
+public class TestAnimationClipCompressor {
+
+  private static final int KEYS = 300;
+
+  @Test
+  public void testSmallestThreeRoundTrip() {
+    final Random rand = new Random(3);
+    final short[] packed = new short[3];
+    final Quaternion q = new Quaternion();
+    final Quaternion result = new Quaternion();
+    for (int i = 0; i < 10000; i++) {
+      q.set(rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian()).normalizeLocal();
+      QuaternionTrack.pack(q.getX(), q.getY(), q.getZ(), q.getW(), packed, 0);
+      QuaternionTrack.unpack(packed, 0, result);
+      assertTrue(angle(q, result) < 2e-4);
+    }
+  }
+
+  @Test
+  public void testQuantizedPlaybackMatchesSource() {
+    final JointChannel source = createChannel();
+    final AnimationClipCompressor compressor = new AnimationClipCompressor();
+    final TransformChannel compressed = compressor.compress(source);
+
+    assertTrue(compressed instanceof JointChannel);
+    assertEquals(3, ((JointChannel) compressed).getJointIndex());
+    assertTrue(compressed.getRotationTrack().isQuantized());
+    // scale never changes
+    assertTrue(compressed.getScaleTrack().isConstant());
+    // 6 bytes per rotation key instead of 16
+    assertTrue(compressed.getRotationTrack().getMemoryUsage() * 2 < source.getRotationTrack().getMemoryUsage());
+    assertTrue(compressed.getMemoryUsage() < source.getMemoryUsage());
+
+    // translations span 30 units, so quantization error stays under 30 / 131070 per axis
+    comparePlayback(source, compressed, 2e-4, 30.0 / 131070 + 1e-5);
+  }
+
+  @Test
+  public void testKeyReduction() {
+    final JointChannel source = createChannel();
+    final AnimationClipCompressor compressor = new AnimationClipCompressor();
+    compressor.setQuantize(false);
+    compressor.setReduceKeys(true);
+    compressor.setRotationTolerance(0.002);
+    compressor.setTranslationTolerance(0.01);
+    final TransformChannel reduced = compressor.compress(source);
+
+    assertTrue(reduced.getSampleCount() < KEYS / 3);
+    assertEquals(source.getMaxTime(), reduced.getMaxTime(), 0f);
+    comparePlayback(source, reduced, 0.002 + 1e-6, 0.01 + 1e-6);
+
+    // a channel that never moves keeps just its end points
+    final JointChannel still = new JointChannel("still", 4, new float[] {0, 1, 2, 3},
+        new ReadOnlyQuaternion[] {Quaternion.IDENTITY, Quaternion.IDENTITY, Quaternion.IDENTITY,
+            Quaternion.IDENTITY},
+        new ReadOnlyVector3[] {Vector3.ZERO, Vector3.ZERO, Vector3.ZERO, Vector3.ZERO},
+        new ReadOnlyVector3[] {Vector3.ONE, Vector3.ONE, Vector3.ONE, Vector3.ONE});
+    assertEquals(2, compressor.compress(still).getSampleCount());
+  }
+
+  @Test
+  public void testCompressedClipRoundTrip() throws Exception {
+    final AnimationClip clip = new AnimationClip("walk");
+    clip.addChannel(createChannel());
+    clip.addChannel(new TriggerChannel("steps", new float[] {0, 1}, new String[] {"left", "right"}));
+
+    final AnimationClip compressed = new AnimationClipCompressor().compress(clip);
+    assertTrue(compressed.getMemoryUsage() < clip.getMemoryUsage());
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new BinaryExporter().save(compressed, out);
+    final AnimationClip loaded =
+        (AnimationClip) new BinaryImporter().load(new ByteArrayInputStream(out.toByteArray()));
+
+    assertEquals(2, loaded.getChannels().size());
+    final JointChannel channel = (JointChannel) loaded.findChannelByName(JointChannel.JOINT_CHANNEL_NAME + 3);
+    assertTrue(channel.getRotationTrack().isQuantized());
+    comparePlayback((TransformChannel) compressed.getChannels().get(0), channel, 0, 0);
+  }
+
+  private static JointChannel createChannel() {
+    final float[] times = new float[KEYS];
+    final ReadOnlyQuaternion[] rotations = new ReadOnlyQuaternion[KEYS];
+    final ReadOnlyVector3[] translations = new ReadOnlyVector3[KEYS];
+    final ReadOnlyVector3[] scales = new ReadOnlyVector3[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      times[i] = i / 30f;
+      // smooth swing with a slow drift, like a walk cycle
+      rotations[i] =
+          new Quaternion().fromAngleAxis(Math.sin(i * 0.05) * 0.8, new Vector3(0.3, 1, 0.1).normalizeLocal());
+      translations[i] = new Vector3(i * 0.1, Math.sin(i * 0.1), 0);
+      scales[i] = Vector3.ONE;
+    }
+    return new JointChannel("hip", 3, times, rotations, translations, scales);
+  }
+
+  private static void comparePlayback(final TransformChannel expected, final TransformChannel actual,
+      final double rotationError, final double translationError) {
+    final JointData a = new JointData();
+    final JointData b = new JointData();
+    for (double time = -0.1; time < expected.getMaxTime() + 0.1; time += 1 / 97.0) {
+      expected.updateSample(time, a);
+      actual.updateSample(time, b);
+      assertTrue("rotation at " + time, angle(a.getRotation(), b.getRotation()) <= rotationError + 1e-6);
+      assertEquals(a.getTranslation().getX(), b.getTranslation().getX(), translationError);
+      assertEquals(a.getTranslation().getY(), b.getTranslation().getY(), translationError);
+      assertEquals(a.getTranslation().getZ(), b.getTranslation().getZ(), translationError);
+      assertEquals(a.getScale(), b.getScale());
+    }
+  }
+
+  private static double angle(final ReadOnlyQuaternion a, final ReadOnlyQuaternion b) {
+    // interpolated rotations are not quite unit length, so normalize the dot product
+    final double dot = Math.abs(a.dot(b)) / Math.sqrt(a.magnitudeSquared() * b.magnitudeSquared());
+    return 2.0 * Math.acos(Math.min(1.0, dot));
+  }
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.animation.skeletal.clip;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks that cursor based sample lookup in {@link AbstractAnimationChannel#updateSample(double, Object)}
+ * finds the same samples as a plain scan of the time array, whatever order times arrive in.
+ */
+public class TestSampleCursor {
+
+  private static final float[] TIMES = new float[200];
+  static {
+    final Random rand = new Random(7);
+    float time = 0;
+    for (int i = 0; i < TIMES.length; i++) {
+      TIMES[i] = time;
+      time += 0.01f + rand.nextFloat() * 0.1f;
+    }
+  }
+
+  @Test
+  public void testForwardPlayback() {
+    final double[] clock = new double[2000];
+    for (int i = 0; i < clock.length; i++) {
+      clock[i] = i / 60.0 * 0.3;
+    }
+    checkSequence(clock);
+  }
+
+  @Test
+  public void testReversePlaybackAndLoops() {
+    final double max = TIMES[TIMES.length - 1];
+    final double[] clock = new double[3000];
+    for (int i = 0; i < clock.length; i++) {
+      // three loops backwards, then three loops forward at a faster rate
+      clock[i] = i < 1500 ? max - (i / 60.0 * 0.5) % max : (i / 60.0 * 1.7) % max;
+    }
+    checkSequence(clock);
+  }
+
+  @Test
+  public void testSeeksAndExactKeyTimes() {
+    final Random rand = new Random(11);
+    final double[] clock = new double[2000];
+    for (int i = 0; i < clock.length; i++) {
+      clock[i] = i % 3 == 0 ? TIMES[rand.nextInt(TIMES.length)] : rand.nextDouble() * 25 - 2;
+    }
+    checkSequence(clock);
+  }
+
+  private void checkSequence(final double[] clock) {
+    final RecordingChannel channel = new RecordingChannel(TIMES);
+    final TriggerData cursor = new TriggerData();
+    final Object plain = new Object();
+    for (final double time : clock) {
+      channel.updateSample(time, cursor);
+      final int cursorSample = channel.sample;
+      final double cursorProgress = channel.progress;
+
+      channel.updateSample(time, plain);
+      assertEquals("time " + time, expectedSample(time), cursorSample);
+      assertEquals("time " + time, expectedSample(time), channel.sample);
+      assertEquals(channel.progress, cursorProgress, 0.0);
+    }
+  }
+
+  /** The lookup done by updateSample before cursors were added. */
+  private static int expectedSample(final double clockTime) {
+    final int lastFrame = TIMES.length - 1;
+    if (clockTime < 0) {
+      return 0;
+    } else if (clockTime >= TIMES[lastFrame]) {
+      return lastFrame;
+    }
+    int startFrame = 0;
+    for (int i = 0; i < lastFrame; i++) {
+      if (TIMES[i] < clockTime) {
+        startFrame = i;
+      }
+    }
+    return startFrame;
+  }
+
+  static class RecordingChannel extends AbstractAnimationChannel {
+    int sample;
+    double progress;
+
+    RecordingChannel(final float[] times) {
+      super("recording", times);
+    }
+
+    @Override
+    public void setCurrentSample(final int sampleIndex, final double progressPercent, final Object applyTo) {
+      sample = sampleIndex;
+      progress = progressPercent;
+    }
+
+    @Override
+    public Class<? extends RecordingChannel> getClassTag() { return getClass(); }
+
+    @Override
+    public Object createStateDataObject(final AnimationClipInstance instance) {
+      return new TriggerData();
+    }
+
+    @Override
+    public AbstractAnimationChannel getSubchannelBySample(final String name, final int startSample,
+        final int endSample) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public AbstractAnimationChannel getSubchannelByTime(final String name, final float startTime,
+        final float endTime) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
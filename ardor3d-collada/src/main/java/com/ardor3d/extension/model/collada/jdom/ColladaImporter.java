@@ -11,6 +11,7 @@
 package com.ardor3d.extension.model.collada.jdom;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.FloatBuffer;
 import java.util.*;
 import java.util.logging.Logger;
@@ -34,6 +35,7 @@ import com.ardor3d.extension.model.collada.jdom.data.DataCache;
 import com.ardor3d.extension.model.collada.jdom.plugin.ColladaExtraPlugin;
 import com.ardor3d.scenegraph.MeshData;
 import com.ardor3d.scenegraph.Node;
+import com.ardor3d.util.ImportCache;
 import com.ardor3d.util.geom.GeometryTool.MatchCondition;
 import com.ardor3d.util.resource.RelativeResourceLocator;
 import com.ardor3d.util.resource.ResourceLocator;
@@ -57,6 +59,8 @@ public class ColladaImporter {
   private boolean _compressTextures = false;
   private boolean _optimizeMeshes = false;
   private boolean _orthonormalizeTransforms = false;
+  private boolean _streamingParse = false;
+  private ImportCache _importCache;
   private final EnumSet<MatchCondition> _optimizeSettings =
       EnumSet.of(MatchCondition.UVs, MatchCondition.Normal, MatchCondition.Color);
   private Map<String, Joint> _externalJointMapping;
@@ -147,6 +151,36 @@ public class ColladaImporter {
     return this;
   }
 
+  public boolean isStreamingParse() { return _streamingParse; }
+
+  /**
+   * @param streamingParse
+   *          if true, documents are read with a StAX pull parser that scans numeric arrays straight into
+   *          primitive arrays, never holding their text. This takes much less memory and time for large
+   *          files. The resulting element tree is the same.
+   * @return this importer, for chaining.
+   */
+  public ColladaImporter setStreamingParse(final boolean streamingParse) {
+    _streamingParse = streamingParse;
+    return this;
+  }
+
+  public ImportCache getImportCache() { return _importCache; }
+
+  /**
+   * @param importCache
+   *          if not null, loads are looked up in and stored to this cache. Entries are keyed by the
+   *          source and the settings of this importer that change the result. Loads using extra plugins
+   *          or external joints are not cached, as their effects reach outside the returned storage.
+   *          Storage read from the cache holds what {@link ColladaStorage} saves: the scene, asset data,
+   *          skins and joint channels.
+   * @return this importer, for chaining.
+   */
+  public ColladaImporter setImportCache(final ImportCache importCache) {
+    _importCache = importCache;
+    return this;
+  }
+
   public Set<MatchCondition> getOptimizeSettings() { return Set.copyOf(_optimizeSettings); }
 
   public void setOptimizeSettings(final MatchCondition... optimizeSettings) {
@@ -189,6 +223,22 @@ public class ColladaImporter {
    *           if the resource can not be loaded for some reason.
    */
   public ColladaStorage load(final ResourceSource resource) throws IOException {
+    if (_importCache != null && _extraPlugins.isEmpty() && _externalJointMapping == null) {
+      return _importCache.load(resource, getCacheSettings(), ColladaStorage.class, this::importResource);
+    }
+    return importResource(resource);
+  }
+
+  /**
+   * @return the settings that change the result of an import, for keying cache entries.
+   */
+  private String getCacheSettings() {
+    return "collada loadTextures=" + _loadTextures + " flipTransparency=" + _flipTransparency + " loadAnimations="
+        + _loadAnimations + " compressTextures=" + _compressTextures + " optimizeMeshes=" + _optimizeMeshes
+        + " optimizeSettings=" + _optimizeSettings + " orthonormalizeTransforms=" + _orthonormalizeTransforms;
+  }
+
+  private ColladaStorage importResource(final ResourceSource resource) throws IOException {
     final ColladaStorage colladaStorage = new ColladaStorage();
     final DataCache dataCache = new DataCache();
     if (_externalJointMapping != null) {
@@ -205,7 +255,8 @@ public class ColladaImporter {
 
     try {
       // Pull in the DOM tree of the Collada resource.
-      final Element collada = readCollada(resource, dataCache);
+      final Element collada =
+          _streamingParse ? readColladaStreaming(resource, dataCache) : readCollada(resource, dataCache);
 
       // if we don't specify a texture locator, add a temporary texture locator at the location of this
       // model
@@ -302,6 +353,22 @@ public class ColladaImporter {
     }
   }
 
+  /**
+   * Reads the Collada DOM tree from the given resource with a {@link ColladaStaxReader}, preparsing
+   * arrays and hashing elements by id/sid as {@link #readCollada(ResourceSource, DataCache)} does.
+   *
+   * @param resource
+   *          the ResourceSource to read the resource from
+   * @return the Collada root element
+   */
+  private Element readColladaStreaming(final ResourceSource resource, final DataCache dataCache) {
+    try (InputStream is = resource.openStream()) {
+      return new ColladaStaxReader(dataCache).read(is);
+    } catch (final Exception e) {
+      throw new RuntimeException("Unable to load collada resource from source: " + resource, e);
+    }
+  }
+
   private enum BufferType {
     None, Float, Double, Int, String, P
   }
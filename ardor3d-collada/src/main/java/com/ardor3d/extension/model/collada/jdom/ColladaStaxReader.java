@@ -0,0 +1,440 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.model.collada.jdom;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jdom2.Element;
+import org.jdom2.Text;
+
+import com.ardor3d.extension.model.collada.jdom.data.DataCache;
+
+/**
+ * Reads a Collada document with a StAX pull parser into the same element tree and {@link DataCache}
+ * contents the SAX based reader of {@link ColladaImporter} builds. The contents of float_array,
+ * double_array, int_array and p elements are scanned straight from the parser's character buffer into
+ * primitive arrays, so - unlike the SAX path - their text is never held as strings, which is most of
+ * the memory a large document needs.
+ */
+final class ColladaStaxReader {
+  private static final Logger logger = Logger.getLogger(ColladaStaxReader.class.getName());
+
+  private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+  private static final float[] FLOAT_POWERS_OF_TEN =
+      {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+
+  private final DataCache _dataCache;
+
+  ColladaStaxReader(final DataCache dataCache) {
+    _dataCache = dataCache;
+  }
+
+  /**
+   * @param is
+   *          the stream to read the document from. Not closed by this method.
+   * @return the root element of the document.
+   * @throws XMLStreamException
+   *           if the document is malformed or declares a DOCTYPE.
+   */
+  Element read(final InputStream is) throws XMLStreamException {
+    final XMLInputFactory factory = XMLInputFactory.newFactory();
+    // Collada is an XSD-schema format and never legitimately uses a DOCTYPE, see readCollada
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+    final XMLStreamReader reader = factory.createXMLStreamReader(is);
+    try {
+      Element root = null;
+      Element current = null;
+      ArrayScanner scanner = null;
+      final StringBuilder text = new StringBuilder();
+      while (reader.hasNext()) {
+        switch (reader.next()) {
+          case XMLStreamConstants.DTD:
+            throw new XMLStreamException("DOCTYPE is disallowed in Collada documents.", reader.getLocation());
+          case XMLStreamConstants.START_ELEMENT: {
+            flushText(current, text);
+            final Element element = startElement(reader);
+            if (current == null) {
+              root = element;
+            } else {
+              current.addContent(element);
+            }
+            current = element;
+            scanner = createScanner(element);
+            break;
+          }
+          case XMLStreamConstants.CHARACTERS:
+          case XMLStreamConstants.CDATA:
+          case XMLStreamConstants.SPACE:
+            if (scanner != null) {
+              scanner.scan(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+            } else if (current != null) {
+              text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+            }
+            break;
+          case XMLStreamConstants.END_ELEMENT:
+            if (scanner != null) {
+              scanner.finish(current);
+              scanner = null;
+            } else {
+              flushText(current, text);
+            }
+            current = current.getParentElement();
+            break;
+          default:
+            break;
+        }
+      }
+      return root;
+    } finally {
+      reader.close();
+    }
+  }
+
+  private Element startElement(final XMLStreamReader reader) {
+    // namespaces are dropped, as in the SAX path, so our XPath expressions need no prefixes
+    final Element element = new Element(reader.getLocalName());
+    for (int i = 0, maxI = reader.getAttributeCount(); i < maxI; i++) {
+      final String name = reader.getAttributeLocalName(i);
+      final String value = reader.getAttributeValue(i);
+      if ("id".equals(name)) {
+        if (_dataCache.getIdCache().containsKey(value)) {
+          logger.warning("id already exists in id cache: " + value);
+        }
+        _dataCache.getIdCache().put(value, element);
+      } else if ("sid".equals(name)) {
+        _dataCache.getSidCache().put(value, element);
+      }
+      element.setAttribute(name, value);
+    }
+    return element;
+  }
+
+  private static void flushText(final Element element, final StringBuilder text) {
+    if (element != null && text.length() > 0) {
+      final String normalized = Text.normalizeString(text.toString());
+      if (!normalized.isEmpty()) {
+        element.addContent(new Text(normalized));
+      }
+    }
+    text.setLength(0);
+  }
+
+  private ArrayScanner createScanner(final Element element) {
+    final int count = parseCount(element.getAttributeValue("count"));
+    switch (element.getName()) {
+      case "float_array":
+        return new FloatScanner(count);
+      case "double_array":
+        return new DoubleScanner(count);
+      case "int_array":
+        return new IntScanner(count);
+      case "p":
+        return new IntScanner(-1);
+      default:
+        return null;
+    }
+  }
+
+  private static int parseCount(final String count) {
+    if (count == null) {
+      return -1;
+    }
+    try {
+      return Integer.parseInt(count.trim());
+    } catch (final NumberFormatException e) {
+      logger.warning("Invalid count attribute: " + count);
+      return -1;
+    }
+  }
+
+  /**
+   * Splits text, which may arrive in many pieces, into whitespace separated tokens and converts each to
+   * a value, keeping the token being read in a reused buffer rather than in strings.
+   */
+  private abstract class ArrayScanner {
+    // the number of values expected, or -1 if unknown
+    protected final int _count;
+    protected int _size;
+    private char[] _token = new char[32];
+    private int _tokenLength;
+
+    ArrayScanner(final int count) {
+      _count = count;
+    }
+
+    void scan(final char[] chars, final int start, final int length) {
+      for (int i = start, end = start + length; i < end; i++) {
+        final char c = chars[i];
+        if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+          endToken();
+        } else {
+          if (_tokenLength == _token.length) {
+            _token = Arrays.copyOf(_token, _tokenLength * 2);
+          }
+          _token[_tokenLength++] = c;
+        }
+      }
+    }
+
+    void finish(final Element element) {
+      endToken();
+      if (_size == 0) {
+        // as in the SAX path, an empty array stores nothing
+        return;
+      }
+      if (_count >= 0 && _size < _count && !padsShortArrays()) {
+        throw new ColladaException("Number of values in collada array does not match its count attribute: " + _count,
+            element);
+      }
+      store(element);
+    }
+
+    /** @return true if an array with fewer values than its count is padded with zeros, rather than rejected. */
+    protected boolean padsShortArrays() {
+      return false;
+    }
+
+    /** @return the capacity to grow to, for arrays of unknown length. */
+    protected int grow(final int current) {
+      return Math.max(16, current + (current >> 1));
+    }
+
+    private void endToken() {
+      if (_tokenLength > 0) {
+        value(_token, _tokenLength);
+        _tokenLength = 0;
+      }
+    }
+
+    protected abstract void value(char[] token, int length);
+
+    protected abstract void store(Element element);
+  }
+
+  private final class FloatScanner extends ArrayScanner {
+    private float[] _values;
+
+    FloatScanner(final int count) {
+      super(count);
+      _values = new float[Math.max(0, count)];
+    }
+
+    @Override
+    protected void value(final char[] token, final int length) {
+      if (_size == _values.length) {
+        if (_count >= 0) {
+          // as in the SAX path, values past the count are ignored
+          return;
+        }
+        _values = Arrays.copyOf(_values, grow(_size));
+      }
+      _values[_size++] = parseFloat(token, length);
+    }
+
+    @Override
+    protected void store(final Element element) {
+      _dataCache.getFloatArrays().put(element, _size == _values.length ? _values : Arrays.copyOf(_values, _size));
+    }
+  }
+
+  private final class DoubleScanner extends ArrayScanner {
+    private double[] _values;
+
+    DoubleScanner(final int count) {
+      super(count);
+      _values = new double[Math.max(0, count)];
+    }
+
+    @Override
+    protected void value(final char[] token, final int length) {
+      if (_size == _values.length) {
+        if (_count >= 0) {
+          return;
+        }
+        _values = Arrays.copyOf(_values, grow(_size));
+      }
+      _values[_size++] = parseDouble(token, length);
+    }
+
+    @Override
+    protected void store(final Element element) {
+      _dataCache.getDoubleArrays().put(element, _size == _values.length ? _values : Arrays.copyOf(_values, _size));
+    }
+  }
+
+  private final class IntScanner extends ArrayScanner {
+    private int[] _values;
+
+    IntScanner(final int count) {
+      super(count);
+      _values = new int[Math.max(0, count)];
+    }
+
+    @Override
+    protected void value(final char[] token, final int length) {
+      if (_size == _values.length) {
+        if (_count >= 0) {
+          throw new ColladaException("Number of values in collada array does not match its count attribute: " + _count,
+              null);
+        }
+        _values = Arrays.copyOf(_values, grow(_size));
+      }
+      _values[_size++] = parseInt(token, length);
+    }
+
+    @Override
+    protected boolean padsShortArrays() {
+      // as in the SAX path, which fills an array of count values
+      return true;
+    }
+
+    @Override
+    protected void store(final Element element) {
+      // with a count, our values are already that long and zero past what was read
+      _dataCache.getIntArrays().put(element,
+          _count >= 0 || _size == _values.length ? _values : Arrays.copyOf(_values, _size));
+    }
+  }
+
+  /**
+   * Parse a float without creating a string, for the plain decimals that make up nearly all Collada
+   * data. Anything else - long mantissas, large exponents, INF, NaN - falls back to
+   * {@link ColladaImporter#parseFloat(String)}.
+   */
+  static float parseFloat(final char[] token, final int length) {
+    final long decimal = scanDecimal(token, length, 7);
+    if (decimal != NOT_SIMPLE) {
+      final long mantissa = decimal >> 16;
+      final int exponent = (short) decimal;
+      // both the mantissa and the power of ten are exact in a float, so one operation rounds correctly
+      if (exponent >= 0 && exponent < FLOAT_POWERS_OF_TEN.length) {
+        return mantissa * FLOAT_POWERS_OF_TEN[exponent];
+      } else if (exponent < 0 && -exponent < FLOAT_POWERS_OF_TEN.length) {
+        return mantissa / FLOAT_POWERS_OF_TEN[-exponent];
+      }
+    }
+    return ColladaImporter.parseFloat(new String(token, 0, length));
+  }
+
+  /**
+   * Parse a double without creating a string, falling back to {@link Double#parseDouble(String)} for
+   * anything but plain decimals.
+   */
+  static double parseDouble(final char[] token, final int length) {
+    final long decimal = scanDecimal(token, length, 14);
+    if (decimal != NOT_SIMPLE) {
+      final long mantissa = decimal >> 16;
+      final int exponent = (short) decimal;
+      if (exponent >= 0 && exponent < POWERS_OF_TEN.length) {
+        return mantissa * POWERS_OF_TEN[exponent];
+      } else if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+        return mantissa / POWERS_OF_TEN[-exponent];
+      }
+    }
+    return Double.parseDouble(new String(token, 0, length).replace(",", "."));
+  }
+
+  static int parseInt(final char[] token, final int length) {
+    int i = 0;
+    final boolean negative = token[0] == '-';
+    if (negative || token[0] == '+') {
+      i++;
+    }
+    long value = 0;
+    // at most 10 digits, so the value can not overflow a long before we check it
+    if (i < length && length - i <= 10) {
+      for (; i < length; i++) {
+        final int digit = token[i] - '0';
+        if (digit < 0 || digit > 9) {
+          break;
+        }
+        value = value * 10 + digit;
+      }
+      if (i == length) {
+        value = negative ? -value : value;
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+          return (int) value;
+        }
+      }
+    }
+    // let the JDK report what is wrong with it
+    return Integer.parseInt(new String(token, 0, length));
+  }
+
+  private static final long NOT_SIMPLE = Long.MIN_VALUE;
+
+  /**
+   * @return the token as a signed mantissa in the upper 48 bits and a power of ten in the lower 16, or
+   *         {@link #NOT_SIMPLE} if the token is not a plain decimal with at most the given number of
+   *         significant digits. 14 digits is the most that fits the mantissa bits.
+   */
+  private static long scanDecimal(final char[] token, final int length, final int maxDigits) {
+    int i = 0;
+    final boolean negative = token[0] == '-';
+    if (negative || token[0] == '+') {
+      i++;
+    }
+    long mantissa = 0;
+    int digits = 0;
+    int exponent = 0;
+    boolean anyDigits = false;
+    for (; i < length && token[i] >= '0' && token[i] <= '9'; i++) {
+      mantissa = mantissa * 10 + token[i] - '0';
+      digits += mantissa != 0 ? 1 : 0;
+      anyDigits = true;
+    }
+    if (i < length && (token[i] == '.' || token[i] == ',')) {
+      for (i++; i < length && token[i] >= '0' && token[i] <= '9'; i++) {
+        mantissa = mantissa * 10 + token[i] - '0';
+        digits += mantissa != 0 ? 1 : 0;
+        exponent--;
+        anyDigits = true;
+      }
+    }
+    if (!anyDigits || digits > maxDigits) {
+      return NOT_SIMPLE;
+    }
+    if (i < length && (token[i] == 'e' || token[i] == 'E')) {
+      i++;
+      final boolean negativeExponent = i < length && token[i] == '-';
+      if (i < length && (token[i] == '-' || token[i] == '+')) {
+        i++;
+      }
+      if (i == length || length - i > 3) {
+        return NOT_SIMPLE;
+      }
+      int value = 0;
+      for (; i < length && token[i] >= '0' && token[i] <= '9'; i++) {
+        value = value * 10 + token[i] - '0';
+      }
+      exponent += negativeExponent ? -value : value;
+    }
+    if (i != length || exponent < -1000 || exponent > 1000) {
+      return NOT_SIMPLE;
+    }
+    if (mantissa == 0) {
+      // keep the sign of zero
+      return negative ? NOT_SIMPLE : 0;
+    }
+    return (negative ? -mantissa : mantissa) << 16 | exponent & 0xFFFF;
+  }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.model.collada.jdom;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.Random;
+
+import com.ardor3d.util.resource.URLResourceSource;
+
+/**
+ * Compares time and peak heap of the SAX and streaming Collada parsers on a large generated grid mesh.
+ * Run as a plain java application, optionally passing the grid size; each parser is best run in its
+ * own JVM, by also passing "sax" or "stax", so one does not inherit the other's heap.
+ */
+public class ColladaParseBenchmark {
+
+  public static void main(final String[] args) throws Exception {
+    final int size = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+    final File file = File.createTempFile("grid", ".dae");
+    file.deleteOnExit();
+    try (Writer writer = new BufferedWriter(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))) {
+      writeGrid(writer, size);
+    }
+    System.out.printf("%d x %d grid, %.1f MB%n", size, size, file.length() / (1024.0 * 1024.0));
+
+    final URL url = file.toURI().toURL();
+    if (args.length < 2 || "sax".equals(args[1])) {
+      run("sax", false, url);
+    }
+    if (args.length < 2 || "stax".equals(args[1])) {
+      run("stax", true, url);
+    }
+  }
+
+  private static void run(final String name, final boolean streaming, final URL url) throws IOException {
+    System.gc();
+    for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      pool.resetPeakUsage();
+    }
+    final long start = System.nanoTime();
+    final ColladaImporter importer = new ColladaImporter().setLoadTextures(false).setLoadAnimations(false);
+    importer.setStreamingParse(streaming).load(new URLResourceSource(url));
+    final long time = System.nanoTime() - start;
+
+    long peak = 0;
+    for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        peak += pool.getPeakUsage().getUsed();
+      }
+    }
+    System.out.printf("%s\t%.0f ms\tpeak heap %.0f MB%n", name, time / 1e6, peak / (1024.0 * 1024.0));
+  }
+
+  /**
+   * Write a Collada document holding one size x size grid of vertices with positions and normals, as
+   * triangles.
+   */
+  static void writeGrid(final Writer writer, final int size) throws IOException {
+    final Random random = new Random(17);
+    final int vertices = size * size;
+    final int triangles = (size - 1) * (size - 1) * 2;
+
+    writer.write("<?xml version=\"1.0\"?>\n<COLLADA xmlns=\"http://www.collada.org/2005/11/COLLADASchema\" "
+        + "version=\"1.4.1\">\n<asset><unit meter=\"1\"/><up_axis>Y_UP</up_axis></asset>\n");
+    writer.write("<library_geometries><geometry id=\"grid\" name=\"grid\"><mesh>\n");
+
+    writer.write("<source id=\"grid-pos\"><float_array id=\"grid-pos-array\" count=\"" + vertices * 3 + "\">");
+    for (int i = 0; i < vertices; i++) {
+      writer.write(String.format(Locale.ROOT, "%.6f %.6f %.6f\n", (double) (i % size), random.nextGaussian(),
+          (double) (i / size)));
+    }
+    writer.write("</float_array>");
+    writeAccessor(writer, "#grid-pos-array", vertices);
+    writer.write("</source>\n");
+
+    writer.write("<source id=\"grid-norm\"><float_array id=\"grid-norm-array\" count=\"" + vertices * 3 + "\">");
+    for (int i = 0; i < vertices; i++) {
+      writer.write(String.format(Locale.ROOT, "%.5e %.5e %.5e\n", random.nextFloat() * 0.1, 1.0,
+          -random.nextFloat() * 0.1));
+    }
+    writer.write("</float_array>");
+    writeAccessor(writer, "#grid-norm-array", vertices);
+    writer.write("</source>\n");
+
+    writer.write("<vertices id=\"grid-verts\"><input semantic=\"POSITION\" source=\"#grid-pos\"/></vertices>\n");
+    writer.write("<triangles count=\"" + triangles + "\"><input semantic=\"VERTEX\" source=\"#grid-verts\" "
+        + "offset=\"0\"/><input semantic=\"NORMAL\" source=\"#grid-norm\" offset=\"1\"/>\n<p>");
+    for (int z = 0; z < size - 1; z++) {
+      for (int x = 0; x < size - 1; x++) {
+        final int i = z * size + x;
+        final int[] corners = {i, i + size, i + 1, i + 1, i + size, i + size + 1};
+        for (final int corner : corners) {
+          writer.write(corner + " " + corner + " ");
+        }
+      }
+      writer.write('\n');
+    }
+    writer.write("</p></triangles>\n</mesh></geometry></library_geometries>\n");
+
+    writer.write("<library_visual_scenes><visual_scene id=\"scene\"><node id=\"grid-node\" name=\"grid-node\">"
+        + "<instance_geometry url=\"#grid\"/></node></visual_scene></library_visual_scenes>\n"
+        + "<scene><instance_visual_scene url=\"#scene\"/></scene>\n</COLLADA>\n");
+  }
+
+  private static void writeAccessor(final Writer writer, final String source, final int count) throws IOException {
+    writer.write("<technique_common><accessor source=\"" + source + "\" count=\"" + count + "\" stride=\"3\">"
+        + "<param name=\"X\" type=\"float\"/><param name=\"Y\" type=\"float\"/><param name=\"Z\" type=\"float\"/>"
+        + "</accessor></technique_common>");
+  }
+}
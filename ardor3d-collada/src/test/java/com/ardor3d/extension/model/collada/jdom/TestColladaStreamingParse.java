@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.model.collada.jdom;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.ardor3d.extension.model.collada.jdom.data.ColladaStorage;
+import com.ardor3d.extension.model.collada.jdom.data.DataCache;
+import com.ardor3d.scenegraph.Mesh;
+import com.ardor3d.scenegraph.MeshData;
+import com.ardor3d.scenegraph.Spatial;
+import com.ardor3d.util.resource.StringResourceSource;
+
+/**
+ * The streaming parser must give the same scene as the SAX one, and parse numbers exactly as the JDK
+ * does.
+ */
+public class TestColladaStreamingParse {
+
+  @Test
+  public void streamingMatchesSaxParse() throws Exception {
+    final StringWriter dae = new StringWriter();
+    ColladaParseBenchmark.writeGrid(dae, 12);
+
+    final MeshData sax = loadMesh(dae.toString(), false);
+    final MeshData stax = loadMesh(dae.toString(), true);
+    assertEquals(sax.getVertexCount(), stax.getVertexCount());
+    assertEquals(sax.getVertexBuffer().rewind(), stax.getVertexBuffer().rewind());
+    assertEquals(sax.getNormalBuffer().rewind(), stax.getNormalBuffer().rewind());
+    // triangles are expanded to unindexed vertices, so equal buffers also show the p lists matched
+    assertEquals(sax.getIndices(), stax.getIndices());
+  }
+
+  @Test
+  public void doctypeIsRejected() {
+    final String xxe = "<?xml version=\"1.0\"?>\n" //
+        + "<!DOCTYPE COLLADA [ <!ENTITY xxe SYSTEM \"file:///nonexistent-ardor3d-xxe-probe\"> ]>\n" //
+        + "<COLLADA version=\"1.4.1\"><asset><contributor><author>&xxe;</author></contributor></asset></COLLADA>";
+    try {
+      new ColladaImporter().setStreamingParse(true).load(new StringResourceSource(xxe, ".dae"));
+      fail("Expected the load to fail: a DOCTYPE declaration should be disallowed.");
+    } catch (final Exception e) {
+      Throwable t = e;
+      while (t.getCause() != null) {
+        t = t.getCause();
+      }
+      assertTrue(t.getMessage(), t.getMessage().contains("DOCTYPE"));
+    }
+  }
+
+  @Test
+  public void shortArrayFails() {
+    final String dae = "<COLLADA version=\"1.4.1\"><library_geometries><geometry><mesh><source>"
+        + "<float_array id=\"a\" count=\"4\">1 2 3</float_array></source></mesh></geometry></library_geometries>"
+        + "</COLLADA>";
+    try {
+      new ColladaImporter().setStreamingParse(true).load(new StringResourceSource(dae, ".dae"));
+      fail("count says there are more values");
+    } catch (final Exception expected) {}
+  }
+
+  @Test
+  public void shortIntArrayIsPadded() throws Exception {
+    final String dae = "<COLLADA version=\"1.4.1\"><library_controllers><controller><skin><vertex_weights>"
+        + "<int_array id=\"a\" count=\"5\">1 2 3</int_array></vertex_weights></skin></controller>"
+        + "</library_controllers></COLLADA>";
+    final DataCache dataCache = new DataCache();
+    new ColladaStaxReader(dataCache).read(new ByteArrayInputStream(dae.getBytes(StandardCharsets.UTF_8)));
+    // the SAX path zero pads int arrays to their count, so we do too
+    assertArrayEquals(new int[] {1, 2, 3, 0, 0}, dataCache.getIntArrays().get(dataCache.getIdCache().get("a")));
+  }
+
+  @Test
+  public void numbersParseAsTheJdkDoes() {
+    final Random random = new Random(3);
+    for (int i = 0; i < 100_000; i++) {
+      final double value = random.nextGaussian() * Math.pow(10, random.nextInt(12) - 6);
+      for (final String format : new String[] {"%.3f", "%.6f", "%.7f", "%.9f", "%.4e", "%.8e", "%.16e", "%s"}) {
+        final String s = String.format(Locale.ROOT, format, value);
+        assertEquals(s, Float.parseFloat(s), ColladaStaxReader.parseFloat(s.toCharArray(), s.length()), 0f);
+        assertEquals(s, Double.parseDouble(s), ColladaStaxReader.parseDouble(s.toCharArray(), s.length()), 0.0);
+      }
+      final String s = Integer.toString(random.nextInt());
+      assertEquals(Integer.parseInt(s), ColladaStaxReader.parseInt(s.toCharArray(), s.length()));
+    }
+
+    assertEquals(1.5f, parseFloat("1,5"), 0f);
+    assertEquals(-0.0f, parseFloat("-0.0"), 0f);
+    assertTrue(1 / parseFloat("-0.0") < 0);
+    assertEquals(Float.NEGATIVE_INFINITY, parseFloat("-INF"), 0f);
+    assertTrue(Float.isNaN(parseFloat("NaN")));
+    assertEquals(1e-45f, parseFloat("1e-45"), 0f);
+    assertEquals(12f, parseFloat("+12."), 0f);
+    assertEquals(0.5f, parseFloat(".5"), 0f);
+    assertEquals(Integer.MIN_VALUE, ColladaStaxReader.parseInt("-2147483648".toCharArray(), 11));
+    try {
+      ColladaStaxReader.parseInt("2147483648".toCharArray(), 10);
+      fail("out of range");
+    } catch (final NumberFormatException expected) {}
+  }
+
+  private static float parseFloat(final String s) {
+    return ColladaStaxReader.parseFloat(s.toCharArray(), s.length());
+  }
+
+  private static MeshData loadMesh(final String dae, final boolean streaming) throws Exception {
+    final ColladaStorage storage = new ColladaImporter().setLoadAnimations(false).setStreamingParse(streaming)
+        .load(new StringResourceSource(dae, ".dae"));
+    final Mesh[] mesh = new Mesh[1];
+    storage.getScene().acceptVisitor((final Spatial spatial) -> {
+      if (spatial instanceof Mesh found) {
+        mesh[0] = found;
+      }
+    }, true);
+    assertNotNull(mesh[0]);
+    return mesh[0].getMeshData();
+  }
+}
@@ -259,6 +259,38 @@ public class CollisionTree implements Serializable {
     _right.createTree(_section, (_start + _end) / 2, _end, doSort);
   }
 
+  /**
+   * Create a tree for the given mesh with the structure of this one, without building it anew. The
+   * primitive order and local bounds are shared; world bounds are the copy's own. The mesh must have
+   * the same mesh data as the one this tree was built for.
+   *
+   * @param mesh
+   *          the mesh the copy should represent.
+   * @return the copy.
+   */
+  public CollisionTree makeCopy(final Mesh mesh) {
+    return makeCopy(makeRef(mesh));
+  }
+
+  private CollisionTree makeCopy(final WeakReference<Mesh> mesh) {
+    final CollisionTree copy = new CollisionTree(_type);
+    copy._mesh = mesh;
+    copy._section = _section;
+    copy._start = _start;
+    copy._end = _end;
+    copy._primitiveIndices = _primitiveIndices;
+    // rebuilding a tree makes new bounds rather than changing these, so they can be shared
+    copy._bounds = _bounds;
+    copy._worldBounds = _bounds != null ? _bounds.clone(null) : null;
+    if (_left != null) {
+      copy._left = _left.makeCopy(mesh);
+    }
+    if (_right != null) {
+      copy._right = _right.makeCopy(mesh);
+    }
+    return copy;
+  }
+
   /**
    * Tests if the world bounds of the node at this level intersects a provided bounding volume. If an
    * intersection occurs, true is returned, otherwise false is returned. If the provided volume is
@@ -139,6 +139,35 @@ public enum CollisionTreeManager {
     }
   }
 
+  /**
+   * gives a mesh a tree with the structure of the tree of another mesh using the same mesh data,
+   * rather than building one for it. The source mesh's tree is obtained as by getCollisionTree. The
+   * new tree is placed in the cache and is subject to the CollisionTreeController like any other.
+   * Nothing is remembered between calls, so a later getCollisionTree for a mesh whose tree was removed
+   * builds it anew from the mesh's current data.
+   * 
+   * @param source
+   *          the mesh whose tree to copy.
+   * @param mesh
+   *          the mesh to give the copy to.
+   * @return the new tree, or null if the source has no tree and generateTrees is false.
+   * @throws IllegalArgumentException
+   *           if the meshes do not use the same mesh data.
+   */
+  public synchronized CollisionTree shareCollisionTree(final Mesh source, final Mesh mesh) {
+    if (source.getMeshData() != mesh.getMeshData()) {
+      throw new IllegalArgumentException("Meshes must share mesh data to share a collision tree.");
+    }
+    final CollisionTree tree = getCollisionTree(source);
+    if (tree == null) {
+      return null;
+    }
+    final CollisionTree copy = tree.makeCopy(mesh);
+    cachePut(mesh, copy);
+    cleanCache();
+    return copy;
+  }
+
   /**
    * creates a new collision tree for the provided spatial. If the spatial is a node, it recursively
    * calls generateCollisionTree for each child. If it is a Mesh, a call to generateCollisionTree is
@@ -214,6 +243,10 @@ public enum CollisionTreeManager {
       setProtected(mesh);
     }
 
+    cleanCache();
+  }
+
+  private void cleanCache() {
     // Are we over our max? Test
     if (_cache.size() > _maxElements && _treeRemover != null) {
       _treeRemover.clean(_cache, _protectedList, _maxElements);
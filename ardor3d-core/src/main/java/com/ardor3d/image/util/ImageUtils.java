@@ -16,6 +16,7 @@ import com.ardor3d.buffer.BufferUtils;
 import com.ardor3d.image.Image;
 import com.ardor3d.image.ImageDataFormat;
 import com.ardor3d.image.PixelDataType;
+import com.ardor3d.image.Texture;
 import com.ardor3d.image.TextureStoreFormat;
 import com.ardor3d.math.Vector2;
 import com.ardor3d.math.type.ReadOnlyVector2;
@@ -27,6 +28,24 @@ public abstract class ImageUtils {
     return type.getBytesPerPixel(format.getComponents());
   }
 
+  /**
+   * @param texture
+   *          the texture being updated.
+   * @return the type of the pixel data to send when updating part of the given texture: that of its
+   *         image, or for a texture without one, the float type matching a floating point store format
+   *         and unsigned bytes otherwise.
+   */
+  public static PixelDataType getPixelDataType(final Texture texture) {
+    if (texture.getImage() != null) {
+      return texture.getImage().getDataType();
+    }
+    return switch (texture.getTextureStoreFormat()) {
+      case R16F, RG16F, RGB16F, RGBA16F -> PixelDataType.HalfFloat;
+      case R32F, RG32F, RGB32F, RGBA32F, Depth32F -> PixelDataType.Float;
+      default -> PixelDataType.UnsignedByte;
+    };
+  }
+
   public static TextureStoreFormat getTextureStoreFormat(final TextureStoreFormat format, final Image image) {
     if (format != TextureStoreFormat.GuessCompressedFormat && format != TextureStoreFormat.GuessNoCompressedFormat) {
       return format;
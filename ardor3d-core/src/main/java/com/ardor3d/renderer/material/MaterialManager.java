@@ -16,10 +16,10 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringReader;
 import java.nio.CharBuffer;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -42,7 +42,7 @@ public enum MaterialManager {
 
   private RenderMaterial _defaultMaterial = null;
   private RenderMaterial _defaultOccluderMaterial = null;
-  private final Map<ResourceSource, RenderMaterial> _materialCache = new HashMap<>();
+  private final Map<ResourceSource, RenderMaterial> _materialCache = new ConcurrentHashMap<>();
 
   public void setDefaultMaterial(final RenderMaterial material) { _defaultMaterial = material; }
 
@@ -0,0 +1,389 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.scenegraph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import com.ardor3d.bounding.CollisionTreeManager;
+import com.ardor3d.renderer.state.RenderState;
+import com.ardor3d.renderer.state.RenderState.StateType;
+import com.ardor3d.scenegraph.controller.SpatialController;
+import com.ardor3d.scenegraph.event.DirtyType;
+import com.ardor3d.util.Ardor3dException;
+import com.ardor3d.util.export.SavableFactories;
+import com.ardor3d.util.export.binary.BinaryCloner;
+
+/**
+ * A template for stamping out many copies of one model cheaply. Instances are like those of
+ * {@link Spatial#makeCopy(boolean) makeCopy(true)}: they share the prototype's mesh data, render
+ * states, materials and controllers, and get their own hierarchy, transforms and bounds. The
+ * prototype's hierarchy is walked once, up front, so each instance is built without reflection,
+ * without recomputing mesh bounds from vertices and without the checks of attachChild.
+ * <p>
+ * Instances that are no longer needed may be handed back with {@link #release(Spatial)}. Later calls
+ * to {@link #instantiate()} reset and reuse them - their spatials, transforms and child lists - rather
+ * than allocating new ones, and {@link #preallocate(int)} fills this pool ahead of time.
+ * <p>
+ * Shared data is copy on write: an instance that needs to change its mesh data or a render state
+ * asks for it through {@link #editMeshData(Mesh)} or {@link #editRenderState(Spatial, StateType)},
+ * which give it a copy of its own the first time.
+ * <p>
+ * Spatials whose class overrides makeCopy, for extra state of its own, are copied with makeCopy,
+ * along with everything below them. A prefab is not thread safe.
+ */
+public class Prefab {
+
+  // the prototype's hierarchy in depth first order
+  private final Spatial[] _prototypes;
+  private final int[] _parents;
+  private final int[] _childCounts;
+  // null where the subtree is copied with makeCopy
+  private final List<Supplier<? extends Spatial>> _factories;
+
+  private final Set<MeshData> _sharedData = Collections.newSetFromMap(new IdentityHashMap<>());
+  private final Set<RenderState> _sharedStates = Collections.newSetFromMap(new IdentityHashMap<>());
+
+  // the spatials of released instances, each in the order of _prototypes
+  private final Deque<Spatial[]> _pool = new ArrayDeque<>();
+
+  private boolean _shareCollisionTrees;
+
+  /**
+   * @param prototype
+   *          the model to copy. Later changes to its hierarchy are not seen by this prefab; changes to
+   *          its shared data are seen by all instances.
+   */
+  public Prefab(final Spatial prototype) {
+    final List<Spatial> prototypes = new ArrayList<>();
+    final List<Integer> parents = new ArrayList<>();
+    flatten(prototype, -1, prototypes, parents);
+
+    _prototypes = prototypes.toArray(new Spatial[0]);
+    _parents = new int[_prototypes.length];
+    _childCounts = new int[_prototypes.length];
+    _factories = new ArrayList<>(_prototypes.length);
+    for (int i = 0; i < _prototypes.length; i++) {
+      _parents[i] = parents.get(i);
+      if (_parents[i] >= 0) {
+        _childCounts[_parents[i]]++;
+      }
+      _factories.add(getFactory(_prototypes[i]));
+      _sharedStates.addAll(_prototypes[i]._renderStateList.values());
+      if (_prototypes[i] instanceof Mesh mesh) {
+        _sharedData.add(mesh.getMeshData());
+      }
+    }
+  }
+
+  private static void flatten(final Spatial spatial, final int parent, final List<Spatial> prototypes,
+      final List<Integer> parents) {
+    final int index = prototypes.size();
+    prototypes.add(spatial);
+    parents.add(parent);
+    if (spatial instanceof Node node && Prefab.getFactory(spatial) != null) {
+      for (final Spatial child : node.getChildren()) {
+        flatten(child, index, prototypes, parents);
+      }
+    }
+  }
+
+  /**
+   * @return a factory for the spatial's class if we can copy it ourselves, or null if it has its own
+   *         makeCopy.
+   */
+  private static Supplier<? extends Spatial> getFactory(final Spatial spatial) {
+    final Class<? extends Spatial> type = spatial.getClass();
+    if (type == Node.class) {
+      return Node::new;
+    } else if (type == Mesh.class) {
+      return Mesh::new;
+    }
+    try {
+      final Class<?> declaring = type.getMethod("makeCopy", boolean.class).getDeclaringClass();
+      if (declaring != Node.class && declaring != Mesh.class && declaring != Spatial.class) {
+        return null;
+      }
+      final Supplier<?> factory = SavableFactories.getFactory(type.getName());
+      return () -> (Spatial) factory.get();
+    } catch (final ReflectiveOperationException e) {
+      throw new Ardor3dException("Unable to create instances of " + type.getName(), e);
+    }
+  }
+
+  /**
+   * @return the number of spatials in each instance we copy ourselves, rather than with makeCopy.
+   */
+  public int getSpatialCount() { return _prototypes.length; }
+
+  /**
+   * @return true if the meshes of new instances are given a copy of the structure of their
+   *         prototype's collision tree.
+   */
+  public boolean isShareCollisionTrees() { return _shareCollisionTrees; }
+
+  /**
+   * @param shareCollisionTrees
+   *          true to give the meshes of new instances a copy of the structure of their prototype's
+   *          collision tree, through {@link CollisionTreeManager#shareCollisionTree(Mesh, Mesh)}, rather
+   *          than have one built for them when first needed. Defaults to false.
+   */
+  public void setShareCollisionTrees(final boolean shareCollisionTrees) { _shareCollisionTrees = shareCollisionTrees; }
+
+  /**
+   * @return a new instance of the prototype, not attached to any parent. Reuses a released instance if
+   *         there is one.
+   */
+  public Spatial instantiate() {
+    final Spatial[] spatials = _pool.poll();
+    if (spatials != null) {
+      return reset(spatials);
+    }
+    return build()[0];
+  }
+
+  /**
+   * Fill the given array with new instances of the prototype.
+   *
+   * @param store
+   *          the array to fill.
+   * @return the given array.
+   */
+  public Spatial[] instantiate(final Spatial[] store) {
+    for (int i = 0; i < store.length; i++) {
+      store[i] = instantiate();
+    }
+    return store;
+  }
+
+  /**
+   * Build instances ahead of time, for later calls to {@link #instantiate()} to hand out.
+   *
+   * @param count
+   *          the number of instances to add to the pool.
+   */
+  public void preallocate(final int count) {
+    for (int i = 0; i < count; i++) {
+      _pool.push(build());
+    }
+  }
+
+  /**
+   * Hand back an instance that is no longer used, detaching it from its parent, so a later call to
+   * {@link #instantiate()} may reuse it. Its transforms, render states, hints, controllers, material,
+   * properties, bounds and mesh data are reset to the prototype's at that time. The instance should not
+   * be used by the caller after this.
+   *
+   * @param instance
+   *          an instance made by this prefab.
+   * @return true if the instance was taken into the pool, false if its hierarchy no longer matches the
+   *         prototype's and it was left alone.
+   */
+  public boolean release(final Spatial instance) {
+    final Spatial[] spatials = new Spatial[_prototypes.length];
+    if (collect(instance, 0, spatials) != spatials.length) {
+      return false;
+    }
+    instance.removeFromParent();
+    _pool.push(spatials);
+    return true;
+  }
+
+  /**
+   * @return the number of released or preallocated instances waiting to be reused.
+   */
+  public int getPooledCount() { return _pool.size(); }
+
+  /**
+   * Gather the spatials of an instance in the order of our prototypes.
+   *
+   * @return the index after the spatial's subtree, or -1 if it does not match the prototype's.
+   */
+  private int collect(final Spatial spatial, final int index, final Spatial[] store) {
+    if (index >= store.length || spatial.getClass() != _prototypes[index].getClass()) {
+      return -1;
+    }
+    store[index] = spatial;
+    int next = index + 1;
+    if (_factories.get(index) != null && spatial instanceof Node node) {
+      if (node.getNumberOfChildren() != _childCounts[index]) {
+        return -1;
+      }
+      for (final Spatial child : node.getChildren()) {
+        next = collect(child, next, store);
+        if (next < 0) {
+          return -1;
+        }
+      }
+    }
+    return next;
+  }
+
+  private Spatial[] build() {
+    final Spatial[] copies = new Spatial[_prototypes.length];
+    for (int i = 0; i < _prototypes.length; i++) {
+      final Spatial copy = copy(i);
+      copies[i] = copy;
+      if (_parents[i] >= 0) {
+        // the hierarchy is new and acyclic, so attachChild's checks and dirty marking can be skipped
+        final Node parent = (Node) copies[_parents[i]];
+        copy._parent = parent;
+        parent._children.add(copy);
+      }
+    }
+    return copies;
+  }
+
+  private Spatial copy(final int index) {
+    final Spatial prototype = _prototypes[index];
+    if (_factories.get(index) == null) {
+      return prototype.makeCopy(true);
+    }
+
+    final Spatial copy;
+    if (prototype.getClass() == Node.class) {
+      // sized for our children, as the default list holds one
+      copy = new Node(prototype.getName(), Collections.synchronizedList(new ArrayList<>(_childCounts[index])));
+    } else {
+      copy = _factories.get(index).get();
+      copy.setName(prototype.getName());
+    }
+    copy.getSceneHints().set(prototype._sceneHints);
+    copy.setTransform(prototype._localTransform);
+    // a new spatial is already marked as having dirty render states
+    copy._renderStateList.putAll(prototype._renderStateList);
+    if (prototype._controllers != null) {
+      for (final SpatialController<?> controller : prototype._controllers) {
+        copy.addController(controller);
+      }
+    }
+    copy.setRenderMaterial(prototype._material);
+    if (!prototype._properties.isEmpty()) {
+      copy._properties.putAll(prototype._properties);
+    }
+
+    if (prototype instanceof Mesh mesh) {
+      final Mesh meshCopy = (Mesh) copy;
+      // set directly, as a new mesh has no collision tree to drop
+      meshCopy._meshData = mesh._meshData;
+      // the shared data has not changed, so the prototype's bound still fits it
+      meshCopy.setModelBound(mesh._modelBound, false);
+      meshCopy.setVisible(mesh._isVisible);
+      meshCopy.setOccluderMaterial(mesh._occluderMaterial);
+      if (_shareCollisionTrees) {
+        CollisionTreeManager.getInstance().shareCollisionTree(mesh, meshCopy);
+      }
+    }
+    return copy;
+  }
+
+  /**
+   * Return the spatials of a released instance to the prototype's state, keeping their hierarchy.
+   *
+   * @return the root of the instance.
+   */
+  private Spatial reset(final Spatial[] spatials) {
+    for (int i = 0; i < _prototypes.length; i++) {
+      final Spatial prototype = _prototypes[i];
+      final Spatial spatial = spatials[i];
+      if (_factories.get(i) == null) {
+        // we can not reset what we did not copy ourselves, so put a new copy in its place
+        final Spatial copy = prototype.makeCopy(true);
+        if (_parents[i] >= 0) {
+          final Node parent = (Node) spatials[_parents[i]];
+          parent._children.set(parent._children.indexOf(spatial), copy);
+          copy._parent = parent;
+          spatial._parent = null;
+        }
+        spatials[i] = copy;
+        continue;
+      }
+
+      spatial.setName(prototype.getName());
+      spatial.getSceneHints().set(prototype._sceneHints);
+      spatial._localTransform.set(prototype._localTransform);
+      spatial._renderStateList.clear();
+      spatial._renderStateList.putAll(prototype._renderStateList);
+      spatial.clearControllers();
+      if (prototype._controllers != null) {
+        for (final SpatialController<?> controller : prototype._controllers) {
+          spatial.addController(controller);
+        }
+      }
+      spatial.setRenderMaterial(prototype._material);
+      spatial._properties.clear();
+      spatial._properties.putAll(prototype._properties);
+
+      if (prototype instanceof Mesh mesh) {
+        final Mesh meshCopy = (Mesh) spatial;
+        if (meshCopy._meshData != mesh._meshData) {
+          // this drops any collision tree made for the mesh's own data
+          meshCopy.setMeshData(mesh._meshData);
+        }
+        meshCopy.setModelBound(mesh._modelBound, false);
+        meshCopy.setVisible(mesh._isVisible);
+        meshCopy.setOccluderMaterial(mesh._occluderMaterial);
+        if (_shareCollisionTrees) {
+          CollisionTreeManager.getInstance().shareCollisionTree(mesh, meshCopy);
+        }
+      }
+    }
+
+    // as for a new instance, everything below the root needs its world state and render states updated
+    final Spatial root = spatials[0];
+    root.markDirty(DirtyType.Transform);
+    root.markDirty(DirtyType.RenderState);
+    return root;
+  }
+
+  /**
+   * Get the mesh data of an instance's mesh for changing, giving the mesh its own copy first if it
+   * still shares the prototype's.
+   *
+   * @param mesh
+   *          a mesh of an instance.
+   * @return mesh data that only the given mesh uses.
+   */
+  public MeshData editMeshData(final Mesh mesh) {
+    MeshData data = mesh.getMeshData();
+    if (_sharedData.contains(data)) {
+      data = data.makeCopy();
+      mesh.setMeshData(data);
+    }
+    return data;
+  }
+
+  /**
+   * Get a render state of an instance's spatial for changing, giving the spatial its own copy first
+   * if it still shares the prototype's.
+   *
+   * @param spatial
+   *          a spatial of an instance.
+   * @param type
+   *          the type of state.
+   * @return the spatial's local state of the given type, or null if it has none.
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends RenderState> T editRenderState(final Spatial spatial, final StateType type) {
+    RenderState state = spatial.getLocalRenderState(type);
+    if (state != null && _sharedStates.contains(state)) {
+      state = new BinaryCloner().copy(state);
+      spatial.setRenderState(state);
+    }
+    return (T) state;
+  }
+}
@@ -0,0 +1,372 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.util;
+
+import java.util.Comparator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ardor3d.image.Texture;
+import com.ardor3d.image.TextureStoreFormat;
+import com.ardor3d.renderer.Renderer;
+import com.ardor3d.renderer.RendererCallable;
+import com.ardor3d.renderer.material.MaterialManager;
+import com.ardor3d.renderer.material.RenderMaterial;
+import com.ardor3d.renderer.state.TextureState;
+import com.ardor3d.scenegraph.Spatial;
+import com.ardor3d.util.resource.ResourceLocatorTool;
+import com.ardor3d.util.resource.ResourceSource;
+
+/**
+ * Loads assets in the background. Decoding and parsing run on a pool of worker threads, highest
+ * priority first, and concurrent requests for the same asset share one load. Work that needs the GL
+ * context, such as sending a texture to the card, is then handed to the render queue of the
+ * {@link GameTaskQueueManager} for our context and done a few items per frame, within a time budget,
+ * so a burst of finished loads does not stall a frame.
+ * <p>
+ * Models are loaded through the generic {@link #load(Object, Priority, Callable)}, for example:
+ *
+ * <pre>
+ * loader.load(source, Priority.Normal, () -&gt; new ColladaImporter().load(source))
+ *     .thenAccept(storage -&gt; ...);
+ * </pre>
+ */
+public class AssetLoader {
+  private static final Logger logger = Logger.getLogger(AssetLoader.class.getName());
+
+  /**
+   * The order in which waiting requests are worked on. Requests of the same priority are worked on in
+   * the order they were made.
+   */
+  public enum Priority {
+    /** Needed now, such as what is in front of the camera. */
+    High,
+    /** The default. */
+    Normal,
+    /** Needed eventually, such as prefetching. */
+    Low
+  }
+
+  /** The default upload time budget per frame: 2ms. */
+  public static final long DEFAULT_UPLOAD_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+  private static final Comparator<Request<?>> REQUEST_ORDER =
+      Comparator.comparing((final Request<?> r) -> r._priority).thenComparingLong(r -> r._sequence);
+
+  private final Object _queueKey;
+  private final ThreadPoolExecutor _executor;
+  private final ConcurrentMap<Object, Request<?>> _pending = new ConcurrentHashMap<>();
+  private final AtomicLong _sequence = new AtomicLong();
+
+  private final BlockingQueue<Request<?>> _uploads = new PriorityBlockingQueue<>(16, AssetLoader.REQUEST_ORDER);
+  private final AtomicBoolean _uploadScheduled = new AtomicBoolean();
+  private volatile long _uploadBudgetNanos = AssetLoader.DEFAULT_UPLOAD_BUDGET_NANOS;
+
+  /**
+   * Create a loader with one worker thread per processor, less one for the render thread.
+   *
+   * @param queueKey
+   *          the key of the {@link GameTaskQueueManager} whose queues GL work and scene changes are
+   *          handed to - usually the RenderContext the assets are drawn in.
+   */
+  public AssetLoader(final Object queueKey) {
+    this(queueKey, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+  }
+
+  /**
+   * @param queueKey
+   *          the key of the {@link GameTaskQueueManager} whose queues GL work and scene changes are
+   *          handed to - usually the RenderContext the assets are drawn in.
+   * @param threads
+   *          the number of worker threads.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public AssetLoader(final Object queueKey, final int threads) {
+    _queueKey = queueKey;
+    _executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        (BlockingQueue) new PriorityBlockingQueue<>(16, AssetLoader.REQUEST_ORDER), new ThreadFactory() {
+          private final AtomicInteger _threadNumber = new AtomicInteger(1);
+          private final ThreadFactory _defaultFactory = Executors.defaultThreadFactory();
+
+          @Override
+          public Thread newThread(final Runnable r) {
+            final Thread thread = _defaultFactory.newThread(r);
+            thread.setName("AssetLoaderThread-" + _threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+          }
+        });
+  }
+
+  public long getUploadBudgetNanos() { return _uploadBudgetNanos; }
+
+  /**
+   * @param nanos
+   *          how long uploads may run per frame. The upload that crosses the budget is finished, so at
+   *          least one upload is done each frame.
+   */
+  public void setUploadBudgetNanos(final long nanos) { _uploadBudgetNanos = nanos; }
+
+  /**
+   * Load an asset on a worker thread.
+   *
+   * @param key
+   *          identifies the asset. A request made while another with an equal key is waiting or
+   *          running shares its result, and raises its priority if higher.
+   * @param priority
+   *          the priority of the request.
+   * @param loader
+   *          does the load, off the render thread.
+   * @return a future completed with the loaded asset on the worker thread.
+   */
+  public <T> CompletableFuture<T> load(final Object key, final Priority priority, final Callable<T> loader) {
+    return load(key, priority, loader, null);
+  }
+
+  /**
+   * Load an asset on a worker thread, then finish it on the render thread.
+   *
+   * @param key
+   *          identifies the asset. A request made while another with an equal key is waiting or
+   *          running shares its result, and raises its priority if higher.
+   * @param priority
+   *          the priority of the request, for both the load and the upload.
+   * @param loader
+   *          does the load, off the render thread.
+   * @param upload
+   *          if not null, called on the render thread with the renderer and the loaded asset, within
+   *          our upload budget.
+   * @return a future completed with the loaded asset after the upload, on the render thread.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> CompletableFuture<T> load(final Object key, final Priority priority, final Callable<T> loader,
+      final BiConsumer<Renderer, T> upload) {
+    final boolean[] created = new boolean[1];
+    final Request<T> request = (Request<T>) _pending.computeIfAbsent(key, k -> {
+      created[0] = true;
+      return new Request<>(k, priority, loader, upload);
+    });
+    if (created[0]) {
+      _executor.execute(request);
+    } else {
+      request.raisePriority(priority);
+    }
+    // a copy, so one caller can not cancel the load for everyone sharing it
+    return request._future.copy();
+  }
+
+  /**
+   * Load a texture on a worker thread and send it to the card on the render thread.
+   *
+   * @return a future completed with the texture once it is on the card, on the render thread. Like
+   *         {@link TextureManager#load(ResourceSource, Texture.MinificationFilter, TextureStoreFormat, boolean)},
+   *         gives the default texture if the image can not be loaded.
+   */
+  public CompletableFuture<Texture> loadTexture(final ResourceSource source,
+      final Texture.MinificationFilter minFilter, final TextureStoreFormat format, final boolean flipVertically,
+      final Priority priority) {
+    if (source == null) {
+      logger.warning("Could not load image...  source was null. defaultTexture used.");
+      return CompletableFuture.completedFuture(TextureState.getDefaultTexture());
+    }
+    final TextureKey tkey = TextureKey.getKey(source, flipVertically, format, minFilter);
+    return load(tkey, priority, () -> TextureManager.loadFromKey(tkey, null, null), (renderer, texture) -> {
+      if (renderer != null) {
+        renderer.getTextureUtils().loadTexture(texture, 0);
+      }
+    });
+  }
+
+  /**
+   * Request a texture that shows the default texture until the image is loaded and on the card. The
+   * returned texture is then filled in on the render thread, before the frame is drawn.
+   *
+   * @return a clone of the default texture, to be filled in later.
+   */
+  public Texture requestTexture(final ResourceSource source, final Texture.MinificationFilter minFilter,
+      final TextureStoreFormat format, final boolean flipVertically, final Priority priority) {
+    final Texture placeholder = TextureState.getDefaultTexture();
+    loadTexture(source, minFilter, format, flipVertically, priority).thenAccept(texture -> {
+      if (texture.getClass() == placeholder.getClass()) {
+        texture.createSimpleClone(placeholder);
+      } else {
+        logger.warning("Can not show a " + texture.getClass().getSimpleName() + " in place of a "
+            + placeholder.getClass().getSimpleName() + ": " + source);
+      }
+    });
+    return placeholder;
+  }
+
+  /**
+   * Load a material on a worker thread, through {@link MaterialManager#findMaterial(String)} and its
+   * cache.
+   *
+   * @return a future completed with the material, or null if it could not be read, on the worker
+   *         thread.
+   */
+  public CompletableFuture<RenderMaterial> loadMaterial(final String materialUrl, final Priority priority) {
+    final ResourceSource source = ResourceLocatorTool.locateResource(ResourceLocatorTool.TYPE_MATERIAL, materialUrl);
+    if (source == null) {
+      logger.warning("Unable to locate material: " + materialUrl);
+      return CompletableFuture.completedFuture(null);
+    }
+    return load(new MaterialKey(source), priority, () -> MaterialManager.INSTANCE.findMaterial(materialUrl));
+  }
+
+  /**
+   * Load a material on a worker thread and set it on the given spatial on the update thread. Until
+   * then the spatial keeps the material it has, or is drawn with the default material if it has none.
+   */
+  public void requestMaterial(final Spatial target, final String materialUrl, final Priority priority) {
+    loadMaterial(materialUrl, priority).thenAccept(material -> {
+      if (material != null) {
+        GameTaskQueueManager.getManager(_queueKey).update(() -> {
+          target.setRenderMaterial(material);
+          return null;
+        }, GameTaskQueue.Priority.Normal, this);
+      }
+    });
+  }
+
+  /**
+   * @return the number of requests waiting for or running on a worker thread, or waiting for upload.
+   */
+  public int getPendingCount() { return _pending.size(); }
+
+  /**
+   * Stop the worker threads. Requests not yet started are dropped and their futures never complete.
+   */
+  public void shutdown() {
+    _executor.shutdownNow();
+  }
+
+  private void scheduleUploads() {
+    if (_uploadScheduled.compareAndSet(false, true)) {
+      GameTaskQueueManager.getManager(_queueKey).render(new RendererCallable<Void>() {
+        @Override
+        public Void call() {
+          doUploads(getRenderer());
+          return null;
+        }
+      }, GameTaskQueue.Priority.Normal, this);
+    }
+  }
+
+  /**
+   * Run waiting uploads, highest priority first, until the budget is spent. If any are left, another
+   * round is queued for the next frame. If the render queue is set to execute multiple tasks, that
+   * round may run in the same frame, bounded by the queue's own execution time.
+   */
+  void doUploads(final Renderer renderer) {
+    // cleared first, so uploads added while we run queue another round
+    _uploadScheduled.set(false);
+    final long end = System.nanoTime() + _uploadBudgetNanos;
+    Request<?> request;
+    while ((request = _uploads.poll()) != null) {
+      request.upload(renderer);
+      if (System.nanoTime() - end >= 0) {
+        break;
+      }
+    }
+    if (!_uploads.isEmpty()) {
+      scheduleUploads();
+    }
+  }
+
+  private record MaterialKey(ResourceSource source) {}
+
+  private final class Request<T> implements Runnable {
+    private final Object _key;
+    private final Callable<T> _loader;
+    private final BiConsumer<Renderer, T> _upload;
+    private final long _sequence = AssetLoader.this._sequence.getAndIncrement();
+    private final CompletableFuture<T> _future = new CompletableFuture<>();
+    private volatile Priority _priority;
+    private T _result;
+
+    Request(final Object key, final Priority priority, final Callable<T> loader,
+      final BiConsumer<Renderer, T> upload) {
+      _key = key;
+      _priority = priority;
+      _loader = loader;
+      _upload = upload;
+    }
+
+    @Override
+    public void run() {
+      try {
+        _result = _loader.call();
+      } catch (final Exception e) {
+        logger.log(Level.WARNING, "Unable to load " + _key, e);
+        complete(e);
+        return;
+      }
+      if (_upload == null) {
+        complete(null);
+      } else {
+        _uploads.add(this);
+        scheduleUploads();
+      }
+    }
+
+    void upload(final Renderer renderer) {
+      try {
+        _upload.accept(renderer, _result);
+      } catch (final Exception e) {
+        logger.log(Level.WARNING, "Unable to upload " + _key, e);
+        complete(e);
+        return;
+      }
+      complete(null);
+    }
+
+    private void complete(final Exception failure) {
+      // removed first, so a request made from a callback loads anew
+      _pending.remove(_key, this);
+      if (failure != null) {
+        _future.completeExceptionally(failure);
+      } else {
+        _future.complete(_result);
+      }
+    }
+
+    /**
+     * Move this request ahead in whichever queue it waits in. The priority only changes while we are
+     * out of the queue, so the queue's order stays valid.
+     */
+    synchronized void raisePriority(final Priority priority) {
+      if (priority.compareTo(_priority) >= 0) {
+        return;
+      }
+      if (_executor.getQueue().remove(this)) {
+        _priority = priority;
+        _executor.execute(this);
+      } else if (_uploads.remove(this)) {
+        _priority = priority;
+        _uploads.add(this);
+      }
+    }
+  }
+}
@@ -10,13 +10,21 @@
 
 package com.ardor3d.util;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.ardor3d.renderer.Renderer;
 import com.ardor3d.renderer.RendererCallable;
@@ -26,6 +34,12 @@ import com.ardor3d.renderer.RendererCallable;
  * accomplished in a specific thread or phase of the application execution (for example, the OpenGL
  * rendering thread.) Upon sending in a task, the caller gets back a Future object useful for
  * retrieving a return from the Callable that was passed in.
+ * <p>
+ * Tasks are run highest {@link Priority} first. Within a priority, tasks enqueued for different
+ * producers take turns, so one producer flooding the queue does not hold back the others; tasks of
+ * one producer run in the order they were enqueued. When running several tasks per execute, the
+ * queue keeps a moving average of the cost of each kind of task (by the class of its Callable) and
+ * leaves a task for the next execute if it is expected to overrun the time budget.
  *
  * @see Future
  * @see Callable
@@ -36,18 +50,47 @@ public class GameTaskQueue {
     void executionException(ExecutionException e);
   }
 
+  /**
+   * The order in which tasks are run: all waiting High tasks before any Normal, and so on.
+   */
+  public enum Priority {
+    High, Normal, Low
+  }
+
   public static final String RENDER = "render";
   public static final String UPDATE = "update";
 
-  private final ConcurrentLinkedQueue<GameTask<?>> _queue = new ConcurrentLinkedQueue<>();
+  private final Object _lock = new Object();
+  // per priority, the producers with waiting tasks in turn order, and the same lanes by producer
+  private final Map<Priority, ArrayDeque<Lane>> _turns = new EnumMap<>(Priority.class);
+  private final Map<Priority, Map<Object, Lane>> _lanes = new EnumMap<>(Priority.class);
+  private int _size;
+
   private final AtomicBoolean _executeMultiple = new AtomicBoolean();
 
   // Default execution time is 0, which means only 1 task will be executed at a time.
   private long _executionTime = 0;
+  private volatile long _executionBudgetNanos = 0;
+
+  // moving average of the run time of tasks, by the class of their callable
+  private final ConcurrentMap<Class<?>, Long> _taskCosts = new ConcurrentHashMap<>();
+
+  private final AtomicLong _executedCount = new AtomicLong();
+  private final AtomicLong _overrunCount = new AtomicLong();
+  private final AtomicLong _totalLatencyNanos = new AtomicLong();
+  private final AtomicLong _maxLatencyNanos = new AtomicLong();
+  private volatile long _lastExecuteNanos;
 
   private final List<ExecutionExceptionListener> _executionExceptionListeners =
       new LinkedList<>();
 
+  public GameTaskQueue() {
+    for (final Priority priority : Priority.values()) {
+      _turns.put(priority, new ArrayDeque<>());
+      _lanes.put(priority, new HashMap<>());
+    }
+  }
+
   public void addExecutionExceptionListener(final ExecutionExceptionListener l) {
     _executionExceptionListeners.add(l);
   }
@@ -74,6 +117,7 @@ public class GameTaskQueue {
     _executeMultiple.set(executeMultiple);
     if (executeMultiple) {
       _executionTime = Integer.MAX_VALUE;
+      _executionBudgetNanos = Long.MAX_VALUE;
     }
   }
 
@@ -84,11 +128,12 @@ public class GameTaskQueue {
    * the following frame.
    * 
    * @param msecs
-   *          the maximum number of milliseconds to start tasks. Note that this does not guarantee the
-   *          tasks will finish under this time, only start.
+   *          the maximum number of milliseconds to run tasks.
+   * @see #setExecutionBudgetNanos(long)
    */
   public void setExecutionTime(final int msecs) {
     _executionTime = msecs;
+    _executionBudgetNanos = TimeUnit.MILLISECONDS.toNanos(msecs);
     _executeMultiple.set(true);
   }
 
@@ -104,6 +149,31 @@ public class GameTaskQueue {
     return _executionTime;
   }
 
+  /**
+   * Sets the time the queue may spend running tasks per execute, with nanosecond precision. As with
+   * {@link #setExecutionTime(int)}, executeMultiple is set to true. A task expected to overrun the
+   * budget, going by the cost of earlier tasks with the same kind of Callable, is left for the next
+   * execute - unless it is the first task of that execute, so every execute makes progress.
+   * 
+   * @param nanos
+   *          the budget per execute, in nanoseconds.
+   */
+  public void setExecutionBudgetNanos(final long nanos) {
+    _executionBudgetNanos = nanos;
+    _executionTime = TimeUnit.NANOSECONDS.toMillis(nanos);
+    _executeMultiple.set(true);
+  }
+
+  /**
+   * @return -1 if executeAll is false, else the time budget per execute, in nanoseconds.
+   */
+  public long getExecutionBudgetNanos() {
+    if (!_executeMultiple.get()) {
+      return -1;
+    }
+    return _executionBudgetNanos;
+  }
+
   /**
    * Adds the Callable to the internal queue to invoked and returns a Future that wraps the return.
    * This is useful for checking the status of the task as well as being able to retrieve the return
@@ -114,8 +184,25 @@ public class GameTaskQueue {
    * @return
    */
   public <V> Future<V> enqueue(final Callable<V> callable) {
+    return enqueue(callable, Priority.Normal, null);
+  }
+
+  /**
+   * Adds the Callable to the internal queue to be invoked with the given priority.
+   * 
+   * @param callable
+   *          the task to run.
+   * @param priority
+   *          the priority of the task.
+   * @param producer
+   *          the source of the task, such as the subsystem enqueueing it. Producers with tasks of the
+   *          same priority take turns. May be null, which is the producer of tasks enqueued without
+   *          one.
+   * @return a Future that wraps the return of the Callable.
+   */
+  public <V> Future<V> enqueue(final Callable<V> callable, final Priority priority, final Object producer) {
     final GameTask<V> task = new GameTask<>(callable);
-    _queue.add(task);
+    enqueue(task, priority, producer);
     return task;
   }
 
@@ -126,7 +213,16 @@ public class GameTaskQueue {
    * @param task
    */
   public <V> void enqueue(final GameTask<V> task) {
-    _queue.add(task);
+    enqueue(task, Priority.Normal, null);
+  }
+
+  /**
+   * Adds the given task to the internal queue to be invoked later with the given priority.
+   * 
+   * @see #enqueue(Callable, Priority, Object)
+   */
+  public <V> void enqueue(final GameTask<V> task, final Priority priority, final Object producer) {
+    add(new Entry(task, priority, producer, System.nanoTime()), false);
   }
 
   /**
@@ -144,12 +240,24 @@ public class GameTaskQueue {
    * a GL context.)
    */
   public void execute(final Renderer renderer) {
-    final long beginTime = System.currentTimeMillis();
-    long elapsedTime;
-    GameTask<?> task = _queue.poll();
-    do {
-      if (task == null) {
-        return;
+    final long beginTime = System.nanoTime();
+    final boolean multiple = _executeMultiple.get();
+    final long budget = multiple ? _executionBudgetNanos : 0;
+    boolean ranAny = false;
+    long elapsedTime = 0;
+    Entry entry;
+    while ((entry = poll()) != null) {
+      final GameTask<?> task = entry.task();
+      if (task.isCancelled()) {
+        continue;
+      }
+
+      final Class<?> kind = task.getCallable() != null ? task.getCallable().getClass() : task.getClass();
+      final Long cost = _taskCosts.get(kind);
+      if (ranAny && cost != null && elapsedTime + cost > budget) {
+        // would overrun: leave it at the head of the queue for the next execute
+        add(entry, true);
+        break;
       }
 
       // Inject the Renderer if correct type of Callable.
@@ -157,13 +265,14 @@ public class GameTaskQueue {
         ((RendererCallable<?>) task.getCallable()).setRenderer(renderer);
       }
 
-      while (task.isCancelled()) {
-        task = _queue.poll();
-        if (task == null) {
-          return;
-        }
-      }
+      final long startTime = System.nanoTime();
+      recordLatency(startTime - entry.enqueueNanos());
       task.invoke();
+      final long endTime = System.nanoTime();
+      final long taskCost = endTime - startTime;
+      _taskCosts.merge(kind, taskCost, (average, latest) -> average + (latest - average) / 4);
+      _executedCount.incrementAndGet();
+      ranAny = true;
 
       final ExecutionException e = task.getExecutionException();
       if (e != null) {
@@ -172,15 +281,80 @@ public class GameTaskQueue {
         }
       }
 
-      elapsedTime = System.currentTimeMillis() - beginTime;
-    } while ((_executeMultiple.get()) && (elapsedTime < _executionTime) && ((task = _queue.poll()) != null));
+      elapsedTime = endTime - beginTime;
+      if (!multiple || elapsedTime >= budget) {
+        break;
+      }
+    }
+
+    if (multiple && ranAny && elapsedTime > budget) {
+      _overrunCount.incrementAndGet();
+    }
+    _lastExecuteNanos = elapsedTime;
+  }
+
+  private void recordLatency(final long latency) {
+    _totalLatencyNanos.addAndGet(latency);
+    _maxLatencyNanos.accumulateAndGet(latency, Math::max);
+  }
+
+  private void add(final Entry entry, final boolean first) {
+    synchronized (_lock) {
+      final Map<Object, Lane> lanes = _lanes.get(entry.priority());
+      final ArrayDeque<Lane> turns = _turns.get(entry.priority());
+      Lane lane = lanes.get(entry.producer());
+      if (lane == null) {
+        lane = new Lane(entry.producer());
+        lanes.put(entry.producer(), lane);
+        if (first) {
+          turns.addFirst(lane);
+        } else {
+          turns.addLast(lane);
+        }
+      } else if (first) {
+        turns.remove(lane);
+        turns.addFirst(lane);
+      }
+      if (first) {
+        lane.entries.addFirst(entry);
+      } else {
+        lane.entries.addLast(entry);
+      }
+      _size++;
+    }
+  }
+
+  private Entry poll() {
+    synchronized (_lock) {
+      for (final Priority priority : Priority.values()) {
+        final ArrayDeque<Lane> turns = _turns.get(priority);
+        final Lane lane = turns.pollFirst();
+        if (lane != null) {
+          final Entry entry = lane.entries.pollFirst();
+          if (lane.entries.isEmpty()) {
+            _lanes.get(priority).remove(lane.producer);
+          } else {
+            turns.addLast(lane);
+          }
+          _size--;
+          return entry;
+        }
+      }
+      return null;
+    }
   }
 
   /**
    * Remove all tasks from this queue without executing them.
    */
   public void clear() {
-    _queue.clear();
+    synchronized (_lock) {
+      for (final Priority priority : Priority.values()) {
+        _turns.get(priority).clear();
+        _lanes.get(priority).clear();
+      }
+      _size = 0;
+    }
   }
 
   /**
@@ -189,14 +363,98 @@ public class GameTaskQueue {
    * @param gameTaskQueue
    */
   public void enqueueAll(final GameTaskQueue queue) {
-    _queue.addAll(queue._queue);
-    queue._queue.clear();
+    final List<Entry> entries = new ArrayList<>();
+    Entry entry;
+    while ((entry = queue.poll()) != null) {
+      entries.add(entry);
+    }
+    for (final Entry moved : entries) {
+      add(moved, false);
+    }
   }
 
   /**
    * @return count of tasks in queue.
    */
   public int size() {
-    return _queue.size();
+    synchronized (_lock) {
+      return _size;
+    }
+  }
+
+  /**
+   * @return count of tasks of the given priority in queue.
+   */
+  public int size(final Priority priority) {
+    synchronized (_lock) {
+      int size = 0;
+      for (final Lane lane : _turns.get(priority)) {
+        size += lane.entries.size();
+      }
+      return size;
+    }
+  }
+
+  // /////////////////
+  // Metrics, since creation or the last reset
+  // /////////////////
+
+  /**
+   * @return the number of tasks run.
+   */
+  public long getExecutedCount() { return _executedCount.get(); }
+
+  /**
+   * @return the number of executes that ran past the time budget.
+   */
+  public long getOverrunCount() { return _overrunCount.get(); }
+
+  /**
+   * @return the average time tasks waited from enqueue to the start of their run, in nanoseconds.
+   */
+  public long getAverageLatencyNanos() {
+    final long count = _executedCount.get();
+    return count != 0 ? _totalLatencyNanos.get() / count : 0;
+  }
+
+  /**
+   * @return the longest time a task waited from enqueue to the start of its run, in nanoseconds.
+   */
+  public long getMaxLatencyNanos() { return _maxLatencyNanos.get(); }
+
+  /**
+   * @return the time spent running tasks in the last execute, in nanoseconds.
+   */
+  public long getLastExecuteNanos() { return _lastExecuteNanos; }
+
+  /**
+   * @return the moving average run time of tasks with the given class of Callable, in nanoseconds,
+   *         or -1 if none has run yet.
+   */
+  public long getAverageTaskNanos(final Class<?> callableClass) {
+    final Long cost = _taskCosts.get(callableClass);
+    return cost != null ? cost : -1;
+  }
+
+  /**
+   * Reset the metrics. Task cost history is kept.
+   */
+  public void resetMetrics() {
+    _executedCount.set(0);
+    _overrunCount.set(0);
+    _totalLatencyNanos.set(0);
+    _maxLatencyNanos.set(0);
+    _lastExecuteNanos = 0;
+  }
+
+  private record Entry(GameTask<?> task, Priority priority, Object producer, long enqueueNanos) {}
+
+  private static final class Lane {
+    private final Object producer;
+    private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+
+    Lane(final Object producer) {
+      this.producer = producer;
+    }
   }
 }
@@ -11,6 +11,7 @@
 package com.ardor3d.util;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.WeakHashMap;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
@@ -58,6 +59,12 @@ public final class GameTaskQueueManager {
     return _managedQueues.get(name);
   }
 
+  /**
+   * @return the names of our queues, such as {@link GameTaskQueue#RENDER}, for example to read their
+   *         metrics.
+   */
+  public Set<String> getQueueNames() { return Set.copyOf(_managedQueues.keySet()); }
+
   public void moveTasksTo(final GameTaskQueueManager manager) {
     for (final String key : _managedQueues.keySet()) {
       final GameTaskQueue q = manager.getQueue(key);
@@ -102,4 +109,26 @@ public final class GameTaskQueueManager {
   public <V> Future<V> render(final Callable<V> callable) {
     return getQueue(GameTaskQueue.RENDER).enqueue(callable);
   }
+
+  /**
+   * This method adds <code>callable</code> to the queue to be invoked in the update() method, with the
+   * given priority.
+   * 
+   * @see GameTaskQueue#enqueue(Callable, GameTaskQueue.Priority, Object)
+   */
+  public <V> Future<V> update(final Callable<V> callable, final GameTaskQueue.Priority priority,
+      final Object producer) {
+    return getQueue(GameTaskQueue.UPDATE).enqueue(callable, priority, producer);
+  }
+
+  /**
+   * This method adds <code>callable</code> to the queue to be invoked in the render() method, with the
+   * given priority.
+   * 
+   * @see GameTaskQueue#enqueue(Callable, GameTaskQueue.Priority, Object)
+   */
+  public <V> Future<V> render(final Callable<V> callable, final GameTaskQueue.Priority priority,
+      final Object producer) {
+    return getQueue(GameTaskQueue.RENDER).enqueue(callable, priority, producer);
+  }
 }
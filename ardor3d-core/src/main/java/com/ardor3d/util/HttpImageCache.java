@@ -36,7 +36,10 @@ import com.ardor3d.image.Image;
 import com.ardor3d.image.loader.ImageLoaderUtil;
 import com.ardor3d.renderer.state.TextureState;
 import com.ardor3d.util.concurrent.StripedLocks;
+import com.ardor3d.util.export.binary.BinaryCodec;
+import com.ardor3d.util.export.binary.BinaryCodecs;
 import com.ardor3d.util.export.binary.BinaryExporter;
+import com.ardor3d.util.export.binary.ChunkedBinaryExporter;
 import com.ardor3d.util.resource.ResourceSource;
 import com.ardor3d.util.resource.URLResourceSource;
 
@@ -52,6 +55,7 @@ public enum HttpImageCache {
   long minModCheckSeconds = 24 * 60 * 60;
 
   File cacheDir = new File(System.getProperty("user.dir") + "/cache/image/");
+  BinaryCodec cacheCodec = BinaryCodecs.DEFLATE_FAST;
 
   /**
    * @return the directory where we will store copies of downloaded images, in .ABI format. If null,
@@ -67,6 +71,20 @@ public enum HttpImageCache {
    */
   public void setCacheDir(final File cacheDir) { this.cacheDir = cacheDir; }
 
+  /**
+   * @return the codec used to compress the images we store in our cache directory. Defaults to
+   *         {@link BinaryCodecs#DEFLATE_FAST}.
+   */
+  public BinaryCodec getCacheCodec() { return cacheCodec; }
+
+  /**
+   * @param cacheCodec
+   *          the codec used to compress the images we store in our cache directory, such as
+   *          {@link BinaryCodecs#NONE} to trade disk space for speed. Must be registered with
+   *          {@link BinaryCodecs} to be read back.
+   */
+  public void setCacheCodec(final BinaryCodec cacheCodec) { this.cacheCodec = cacheCodec; }
+
   /**
    * @return true if we should ask if a file we have cached locally has been recently modified. This
    *         action is taken if only if we find we already have the image and have not check in
@@ -270,7 +288,7 @@ public enum HttpImageCache {
 
       // Now cache to file system
       final File temp = new File(cacheDir, cacheItem.id + ".part");
-      final BinaryExporter exp = new BinaryExporter();
+      final BinaryExporter exp = new ChunkedBinaryExporter(cacheCodec);
       exp.save(cacheItem.value, temp);
 
       // Delete old file if it exists
@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.locks.Lock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ardor3d.util.concurrent.StripedLocks;
+import com.ardor3d.util.export.Savable;
+import com.ardor3d.util.export.binary.BinaryCodec;
+import com.ardor3d.util.export.binary.BinaryCodecs;
+import com.ardor3d.util.export.binary.BinaryImporter;
+import com.ardor3d.util.export.binary.ChunkedBinaryExporter;
+import com.ardor3d.util.resource.ResourceSource;
+
+/**
+ * Keeps the results of model importers in a local directory, in the binary format, so later loads of
+ * the same source skip parsing and mesh optimization. Entries are keyed by a hash of the source's name
+ * and content and of a string describing the importer settings, so a changed source or setting simply
+ * misses and is imported anew. Only the source's own bytes are hashed: resources it refers to, such as
+ * material libraries or textures, are not. When the directory grows past its size limit, the least
+ * recently used entries are deleted.
+ */
+public class ImportCache {
+  private static final Logger logger = Logger.getLogger(ImportCache.class.getName());
+
+  /** Suffix of the entry files in the cache directory. */
+  public static final String SUFFIX = ".a3dcache";
+
+  /** Bump to drop entries written by earlier versions of the cache or of the binary format. */
+  private static final String KEY_VERSION = "ImportCache1";
+
+  /**
+   * Imports a resource on a cache miss.
+   */
+  @FunctionalInterface
+  public interface Importer<T extends Savable> {
+    T load(ResourceSource source) throws IOException;
+  }
+
+  private final File _cacheDir;
+  private final long _maxCacheSize;
+  private final StripedLocks _locks = new StripedLocks(16);
+  private BinaryCodec _cacheCodec = BinaryCodecs.DEFLATE_FAST;
+
+  /**
+   * @param cacheDir
+   *          the directory to keep entries in. Created when first needed.
+   * @param maxCacheSize
+   *          the total size, in bytes, the entries may take before the least recently used are
+   *          deleted.
+   */
+  public ImportCache(final File cacheDir, final long maxCacheSize) {
+    _cacheDir = cacheDir;
+    _maxCacheSize = maxCacheSize;
+  }
+
+  public File getCacheDir() { return _cacheDir; }
+
+  public long getMaxCacheSize() { return _maxCacheSize; }
+
+  /**
+   * @return the codec used to compress our entries. Defaults to {@link BinaryCodecs#DEFLATE_FAST}.
+   */
+  public BinaryCodec getCacheCodec() { return _cacheCodec; }
+
+  /**
+   * @param cacheCodec
+   *          the codec used to compress our entries, such as {@link BinaryCodecs#NONE} to trade disk
+   *          space for speed. Must be registered with {@link BinaryCodecs} to be read back.
+   */
+  public void setCacheCodec(final BinaryCodec cacheCodec) { _cacheCodec = cacheCodec; }
+
+  /**
+   * Return the cached import of the given source, or import it and cache the result. Failing to read
+   * or write an entry is logged and otherwise ignored - the import is done as if there were no cache.
+   *
+   * @param source
+   *          the resource to import.
+   * @param settings
+   *          a description of every importer setting that affects the result.
+   * @param type
+   *          the type of the import result.
+   * @param importer
+   *          does the import on a miss.
+   * @return the imported object, read back from the cache on a hit.
+   * @throws IOException
+   *           if the source can not be read or the import fails.
+   */
+  public <T extends Savable> T load(final ResourceSource source, final String settings, final Class<T> type,
+      final Importer<T> importer) throws IOException {
+    final String key = computeKey(source, settings);
+    final File entry = new File(_cacheDir, key + ImportCache.SUFFIX);
+
+    // one import per entry at a time, so concurrent loads of the same source share the work
+    final Lock lock = _locks.getLock(key);
+    lock.lock();
+    try {
+      if (entry.isFile()) {
+        try {
+          final Savable cached = new BinaryImporter().load(entry);
+          if (type.isInstance(cached)) {
+            entry.setLastModified(System.currentTimeMillis());
+            return type.cast(cached);
+          }
+          logger.warning("Cache entry " + entry + " holds a " + cached.getClass().getName() + ", not a "
+              + type.getName());
+        } catch (final IOException | RuntimeException e) {
+          logger.log(Level.WARNING, "Unable to read cache entry " + entry, e);
+        }
+        entry.delete();
+      }
+
+      final T result = importer.load(source);
+      store(result, entry);
+      return result;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Delete every entry in our directory.
+   */
+  public void clear() {
+    for (final File entry : listEntries()) {
+      entry.delete();
+    }
+  }
+
+  private void store(final Savable result, final File entry) {
+    try {
+      Files.createDirectories(_cacheDir.toPath());
+      // written aside and moved in place, so other loads never see a partial entry
+      final File temp = File.createTempFile(entry.getName(), ".part", _cacheDir);
+      try {
+        new ChunkedBinaryExporter(_cacheCodec).save(result, temp);
+        try {
+          Files.move(temp.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING,
+              StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException e) {
+          Files.move(temp.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+      } finally {
+        temp.delete();
+      }
+    } catch (final IOException | RuntimeException e) {
+      logger.log(Level.WARNING, "Unable to write cache entry " + entry, e);
+      return;
+    }
+    cleanup();
+  }
+
+  /**
+   * Delete the least recently used entries until the rest fit in our size limit.
+   */
+  synchronized void cleanup() {
+    final File[] entries = listEntries();
+    long total = 0;
+    for (final File entry : entries) {
+      total += entry.length();
+    }
+    if (total <= _maxCacheSize) {
+      return;
+    }
+
+    Arrays.sort(entries, Comparator.comparingLong(File::lastModified));
+    for (int i = 0; i < entries.length && total > _maxCacheSize; i++) {
+      final long length = entries[i].length();
+      if (entries[i].delete()) {
+        total -= length;
+      }
+    }
+  }
+
+  private File[] listEntries() {
+    final File[] entries = _cacheDir.listFiles((dir, name) -> name.endsWith(ImportCache.SUFFIX));
+    return entries != null ? entries : new File[0];
+  }
+
+  private static String computeKey(final ResourceSource source, final String settings) throws IOException {
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IOException(e);
+    }
+    // zero bytes keep the strings from running into each other
+    digest.update((ImportCache.KEY_VERSION + '\0' + source.getName() + '\0' + source.getType() + '\0' + settings
+        + '\0').getBytes(StandardCharsets.UTF_8));
+    try (InputStream stream = source.openStream()) {
+      final byte[] buffer = new byte[64 * 1024];
+      for (int read; (read = stream.read(buffer)) >= 0;) {
+        digest.update(buffer, 0, read);
+      }
+    }
+    return HttpImageCache.bytesToHex(digest.digest());
+  }
+}
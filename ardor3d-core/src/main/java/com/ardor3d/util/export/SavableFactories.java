@@ -0,0 +1,206 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.util.export;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.ardor3d.annotation.SavableFactory;
+import com.ardor3d.bounding.BoundingBox;
+import com.ardor3d.bounding.BoundingSphere;
+import com.ardor3d.bounding.OrientedBoundingBox;
+import com.ardor3d.buffer.ByteBufferData;
+import com.ardor3d.buffer.FloatBufferData;
+import com.ardor3d.buffer.IntBufferData;
+import com.ardor3d.buffer.ShortBufferData;
+import com.ardor3d.image.Image;
+import com.ardor3d.image.Texture2D;
+import com.ardor3d.math.ColorRGBA;
+import com.ardor3d.math.Matrix3;
+import com.ardor3d.math.Matrix4;
+import com.ardor3d.math.Plane;
+import com.ardor3d.math.Quaternion;
+import com.ardor3d.math.Transform;
+import com.ardor3d.math.Vector2;
+import com.ardor3d.math.Vector3;
+import com.ardor3d.math.Vector4;
+import com.ardor3d.renderer.state.BlendState;
+import com.ardor3d.renderer.state.CullState;
+import com.ardor3d.renderer.state.TextureState;
+import com.ardor3d.renderer.state.ZBufferState;
+import com.ardor3d.scenegraph.Line;
+import com.ardor3d.scenegraph.Mesh;
+import com.ardor3d.scenegraph.MeshData;
+import com.ardor3d.scenegraph.Node;
+import com.ardor3d.scenegraph.Point;
+import com.ardor3d.util.Ardor3dException;
+import com.ardor3d.util.TextureKey;
+
+/**
+ * Creates the Savables read back by our importers. Factories registered here, by class name, build
+ * instances directly. Other classes fall back to reflection - their no-arg constructor, or the method
+ * named by a {@link SavableFactory} annotation - resolved once and then cached across loads. Modules
+ * may register factories for their own types, which saves the reflective lookup and keeps those types
+ * working where reflection is unavailable, such as in ahead-of-time compiled builds.
+ */
+public final class SavableFactories {
+
+  private static final Map<String, Supplier<? extends Savable>> _factories = new ConcurrentHashMap<>();
+
+  static {
+    // the types most common in saved scenes
+    register(Vector2.class, Vector2::new);
+    register(Vector3.class, Vector3::new);
+    register(Vector4.class, Vector4::new);
+    register(Quaternion.class, Quaternion::new);
+    register(Matrix3.class, Matrix3::new);
+    register(Matrix4.class, Matrix4::new);
+    register(Transform.class, Transform::new);
+    register(ColorRGBA.class, ColorRGBA::new);
+    register(Plane.class, Plane::new);
+    register(Node.class, Node::new);
+    register(Mesh.class, Mesh::new);
+    register(Line.class, Line::new);
+    register(Point.class, Point::new);
+    register(MeshData.class, MeshData::new);
+    register(FloatBufferData.class, FloatBufferData::new);
+    register(ByteBufferData.class, ByteBufferData::new);
+    register(ShortBufferData.class, ShortBufferData::new);
+    register(IntBufferData.class, IntBufferData::new);
+    register(BoundingBox.class, BoundingBox::new);
+    register(BoundingSphere.class, BoundingSphere::new);
+    register(OrientedBoundingBox.class, OrientedBoundingBox::new);
+    register(BlendState.class, BlendState::new);
+    register(CullState.class, CullState::new);
+    register(TextureState.class, TextureState::new);
+    register(ZBufferState.class, ZBufferState::new);
+    register(Image.class, Image::new);
+    register(Texture2D.class, Texture2D::new);
+    register(TextureKey.class, TextureKey::initSavable);
+  }
+
+  private SavableFactories() {}
+
+  /**
+   * Register a factory for a type, replacing any registered before.
+   *
+   * @param type
+   *          the type of Savable
+   * @param factory
+   *          creates new, empty instances of exactly the given type, ready to have their read method
+   *          called.
+   */
+  public static <T extends Savable> void register(final Class<T> type, final Supplier<? extends T> factory) {
+    register(type.getName(), factory);
+  }
+
+  /**
+   * Register a factory for a type, by name, replacing any registered before. Useful for types not
+   * otherwise visible to the registering code.
+   *
+   * @param className
+   *          the fully qualified name of the type, as written by our exporters.
+   * @param factory
+   *          creates new, empty instances of the named type.
+   */
+  public static void register(final String className, final Supplier<? extends Savable> factory) {
+    _factories.put(className, factory);
+  }
+
+  /**
+   * @param className
+   *          the fully qualified name of a type
+   * @return true if a factory was removed.
+   */
+  public static boolean unregister(final String className) {
+    return _factories.remove(className) != null;
+  }
+
+  /**
+   * @param className
+   *          the fully qualified name of a Savable type.
+   * @return a new instance of the named type.
+   * @throws ClassNotFoundException
+   *           if there is no factory for the name and no class of that name.
+   * @throws InstantiationException
+   *           if the class is abstract, an interface, or not a Savable.
+   * @throws NoSuchMethodException
+   *           if the class has neither a no-arg constructor nor a valid {@link SavableFactory} method.
+   * @throws Ardor3dException
+   *           if the constructor or factory method fails or is not accessible.
+   */
+  public static Savable newInstance(final String className) throws ReflectiveOperationException {
+    return getFactory(className).get();
+  }
+
+  /**
+   * @param className
+   *          the fully qualified name of a Savable type.
+   * @return the factory registered for the named type, or else one found by reflection, which is
+   *         cached for later calls.
+   * @throws ReflectiveOperationException
+   *           as described in {@link #newInstance(String)}.
+   */
+  public static Supplier<? extends Savable> getFactory(final String className) throws ReflectiveOperationException {
+    final Supplier<? extends Savable> factory = _factories.get(className);
+    if (factory != null) {
+      return factory;
+    }
+    final Supplier<? extends Savable> found = findFactory(className);
+    final Supplier<? extends Savable> prior = _factories.putIfAbsent(className, found);
+    return prior != null ? prior : found;
+  }
+
+  private static Supplier<? extends Savable> findFactory(final String className)
+      throws ReflectiveOperationException {
+    final Class<?> clazz = Class.forName(className);
+    if (!Savable.class.isAssignableFrom(clazz)) {
+      throw new InstantiationException("Class '" + className + "' is not a Savable.");
+    }
+
+    final SavableFactory ann = clazz.getAnnotation(SavableFactory.class);
+    if (ann != null) {
+      final Method method = clazz.getMethod(ann.factoryMethod());
+      if (!Modifier.isStatic(method.getModifiers())) {
+        throw new NoSuchMethodException(className + "." + ann.factoryMethod() + "() is not static.");
+      }
+      return () -> {
+        try {
+          return (Savable) method.invoke(null);
+        } catch (final ReflectiveOperationException e) {
+          throw creationFailed(className, e);
+        }
+      };
+    }
+
+    if (clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers())) {
+      throw new InstantiationException("Class '" + className + "' is abstract.");
+    }
+    final Constructor<?> constructor = clazz.getDeclaredConstructor();
+    return () -> {
+      try {
+        return (Savable) constructor.newInstance();
+      } catch (final ReflectiveOperationException e) {
+        throw creationFailed(className, e);
+      }
+    };
+  }
+
+  private static Ardor3dException creationFailed(final String className, final ReflectiveOperationException e) {
+    final Throwable cause = e instanceof InvocationTargetException ite ? ite.getCause() : e;
+    return new Ardor3dException("Could not create an instance of '" + className + "'.", cause);
+  }
+}
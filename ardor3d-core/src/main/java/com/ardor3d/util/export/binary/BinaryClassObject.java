@@ -11,6 +11,9 @@
 package com.ardor3d.util.export.binary;
 
 import java.util.HashMap;
+import java.util.function.Supplier;
+
+import com.ardor3d.util.export.Savable;
 
 public class BinaryClassObject {
 
@@ -21,4 +24,7 @@ public class BinaryClassObject {
   public byte[] _alias;
   public String _className;
 
+  // When importing, creates instances of our class. Resolved on first use.
+  public Supplier<? extends Savable> _factory;
+
 }
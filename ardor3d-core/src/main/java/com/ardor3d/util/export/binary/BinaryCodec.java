@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.util.export.binary;
+
+import java.io.IOException;
+
+/**
+ * Compresses and decompresses the chunks written by {@link ChunkedBinaryExporter}. Chunks are worked
+ * on from several threads at once, so implementations must be thread safe. To be read back, a codec
+ * must be registered with {@link BinaryCodecs#register(BinaryCodec)} under its id.
+ */
+public interface BinaryCodec {
+
+  /**
+   * @return the id written to files to name this codec. Ids 0 to 15 are reserved for the codecs of
+   *         {@link BinaryCodecs}.
+   */
+  int getId();
+
+  /**
+   * @param source
+   *          array holding the data to compress
+   * @param offset
+   *          offset of the data in the array
+   * @param length
+   *          length of the data, in bytes
+   * @return the compressed data.
+   */
+  byte[] compress(byte[] source, int offset, int length);
+
+  /**
+   * @param source
+   *          array holding compressed data, as returned by {@link #compress(byte[], int, int)}
+   * @param offset
+   *          offset of the compressed data in the array
+   * @param length
+   *          length of the compressed data, in bytes
+   * @param store
+   *          array to decompress into
+   * @param storeOffset
+   *          where in the store to put the decompressed data
+   * @param storeLength
+   *          the expected length of the decompressed data, in bytes
+   * @throws IOException
+   *           if the data is corrupt, or does not decompress to the expected length.
+   */
+  void decompress(byte[] source, int offset, int length, byte[] store, int storeOffset, int storeLength)
+      throws IOException;
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.util.export.binary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The built in {@link BinaryCodec}s, and the registry used to find a codec by the id written in a
+ * file.
+ */
+public final class BinaryCodecs {
+
+  /** Id of {@link #NONE}. */
+  public static final int ID_NONE = 0;
+
+  /** Id of the deflate codecs - any level reads back the same way. */
+  public static final int ID_DEFLATE = 1;
+
+  /** Stores chunks as they are. Fastest, for local caches where disk space matters little. */
+  public static final BinaryCodec NONE = new BinaryCodec() {
+    @Override
+    public int getId() { return ID_NONE; }
+
+    @Override
+    public byte[] compress(final byte[] source, final int offset, final int length) {
+      return Arrays.copyOfRange(source, offset, offset + length);
+    }
+
+    @Override
+    public void decompress(final byte[] source, final int offset, final int length, final byte[] store,
+        final int storeOffset, final int storeLength) throws IOException {
+      if (length != storeLength) {
+        throw new IOException("Stored chunk is " + length + " bytes, expected " + storeLength);
+      }
+      System.arraycopy(source, offset, store, storeOffset, length);
+    }
+  };
+
+  /** Deflate, favoring speed. */
+  public static final BinaryCodec DEFLATE_FAST = deflate(Deflater.BEST_SPEED);
+
+  /** Deflate, at its default balance of speed and size. */
+  public static final BinaryCodec DEFLATE = deflate(Deflater.DEFAULT_COMPRESSION);
+
+  /** Deflate, favoring size. */
+  public static final BinaryCodec DEFLATE_BEST = deflate(Deflater.BEST_COMPRESSION);
+
+  private static final Map<Integer, BinaryCodec> _codecs = new ConcurrentHashMap<>();
+
+  static {
+    register(NONE);
+    register(DEFLATE);
+  }
+
+  private BinaryCodecs() {}
+
+  /**
+   * @param level
+   *          the compression level, one of the constants from {@link Deflater}.
+   * @return a codec using deflate at the given level.
+   */
+  public static BinaryCodec deflate(final int level) {
+    return new BinaryCodec() {
+      @Override
+      public int getId() { return ID_DEFLATE; }
+
+      @Override
+      public byte[] compress(final byte[] source, final int offset, final int length) {
+        final Deflater deflater = new Deflater(level);
+        try {
+          deflater.setInput(source, offset, length);
+          deflater.finish();
+          final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, length / 2));
+          final byte[] buffer = new byte[Math.min(65536, Math.max(64, length))];
+          while (!deflater.finished()) {
+            final int count = deflater.deflate(buffer);
+            out.write(buffer, 0, count);
+          }
+          return out.toByteArray();
+        } finally {
+          deflater.end();
+        }
+      }
+
+      @Override
+      public void decompress(final byte[] source, final int offset, final int length, final byte[] store,
+          final int storeOffset, final int storeLength) throws IOException {
+        final Inflater inflater = new Inflater();
+        try {
+          inflater.setInput(source, offset, length);
+          int read = 0;
+          while (read < storeLength && !inflater.finished()) {
+            final int count = inflater.inflate(store, storeOffset + read, storeLength - read);
+            if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+              break;
+            }
+            read += count;
+          }
+          // the end of the stream may only be seen once asked for more
+          if (read != storeLength || !inflater.finished() && inflater.inflate(new byte[1]) != 0) {
+            throw new IOException("Deflated chunk did not decompress to " + storeLength + " bytes.");
+          }
+        } catch (final DataFormatException e) {
+          throw new IOException("Corrupt deflated chunk.", e);
+        } finally {
+          inflater.end();
+        }
+      }
+    };
+  }
+
+  /**
+   * Register a codec, so files naming its id can be read. Replaces any codec registered under the same
+   * id.
+   *
+   * @param codec
+   *          the codec to register.
+   */
+  public static void register(final BinaryCodec codec) {
+    _codecs.put(codec.getId(), codec);
+  }
+
+  /**
+   * @param id
+   *          a codec id
+   * @return the codec registered under the given id, or null if there is none.
+   */
+  public static BinaryCodec get(final int id) {
+    return _codecs.get(id);
+  }
+}
@@ -11,6 +11,7 @@
 package com.ardor3d.util.export.binary;
 
 import java.io.*;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
@@ -152,123 +153,179 @@ public class BinaryExporter implements Ardor3dExporter {
   @Override
   public void save(final Savable object, final OutputStream os) throws IOException {
     try {
-      GZIPOutputStream zos = new GZIPOutputStream(os) {
+      final GZIPOutputStream zos = new GZIPOutputStream(os) {
         {
           def.setLevel(_compression);
         }
       };
       final int id = processBinarySavable(object);
+      writeContent(id, zos);
+      zos.finish();
+    } finally {
+      reset();
+    }
+  }
 
-      // write out tag table
-      int ttbytes = 0;
-      final int classNum = _classes.size();
-      final int aliasWidth = ((int) MathUtils.log(classNum, 256) + 1); // make all
-      // aliases a
-      // fixed width
-      zos.write(ByteUtils.convertToBytes(classNum));
-      for (final String key : _classes.keySet()) {
-        final BinaryClassObject bco = _classes.get(key);
-
-        // write alias
-        final byte[] aliasBytes = fixClassAlias(bco._alias, aliasWidth);
-        zos.write(aliasBytes);
-        ttbytes += aliasWidth;
+  /**
+   * Write the class table, location table, root id and object data - items 1 to 19 of the format
+   * described above - for the savables processed so far.
+   *
+   * @param id
+   *          the id of the root savable.
+   * @param os
+   *          the stream to write to.
+   * @throws IOException
+   *           if the stream can not be written to.
+   */
+  protected void writeContent(final int id, final OutputStream os) throws IOException {
+    // write out tag table
+    int ttbytes = 0;
+    final int classNum = _classes.size();
+    final int aliasWidth = ((int) MathUtils.log(classNum, 256) + 1); // make all
+    // aliases a
+    // fixed width
+    os.write(ByteUtils.convertToBytes(classNum));
+    for (final String key : _classes.keySet()) {
+      final BinaryClassObject bco = _classes.get(key);
+
+      // write alias
+      final byte[] aliasBytes = fixClassAlias(bco._alias, aliasWidth);
+      os.write(aliasBytes);
+      ttbytes += aliasWidth;
+
+      // write classname size & classname
+      final byte[] classBytes = key.getBytes();
+      os.write(ByteUtils.convertToBytes(classBytes.length));
+      os.write(classBytes);
+      ttbytes += 4 + classBytes.length;
+
+      os.write(ByteUtils.convertToBytes(bco._nameFields.size()));
+
+      for (final String fieldName : bco._nameFields.keySet()) {
+        final BinaryClassField bcf = bco._nameFields.get(fieldName);
+        os.write(bcf._alias);
+        os.write(bcf._type);
 
         // write classname size & classname
-        final byte[] classBytes = key.getBytes();
-        zos.write(ByteUtils.convertToBytes(classBytes.length));
-        zos.write(classBytes);
-        ttbytes += 4 + classBytes.length;
-
-        zos.write(ByteUtils.convertToBytes(bco._nameFields.size()));
-
-        for (final String fieldName : bco._nameFields.keySet()) {
-          final BinaryClassField bcf = bco._nameFields.get(fieldName);
-          zos.write(bcf._alias);
-          zos.write(bcf._type);
-
-          // write classname size & classname
-          final byte[] fNameBytes = fieldName.getBytes();
-          zos.write(ByteUtils.convertToBytes(fNameBytes.length));
-          zos.write(fNameBytes);
-          ttbytes += 2 + 4 + fNameBytes.length;
-        }
+        final byte[] fNameBytes = fieldName.getBytes();
+        os.write(ByteUtils.convertToBytes(fNameBytes.length));
+        os.write(fNameBytes);
+        ttbytes += 2 + 4 + fNameBytes.length;
       }
+    }
 
-      ByteArrayOutputStream out = new ByteArrayOutputStream();
-      // write out data to a seperate stream
-      int location = 0;
-      // keep track of location for each piece
-      final Map<String, List<BinaryIdContentPair>> alreadySaved = new HashMap<>(_contentTable.size());
-      for (final Savable savable : _contentKeys) {
-        // look back at previous written data for matches
-        final String savableName = savable.getClassTag().getName();
-        final BinaryIdContentPair pair = _contentTable.get(savable);
-        List<BinaryIdContentPair> bucket = alreadySaved.get(savableName + getChunk(pair));
-        final int prevLoc = findPrevMatch(pair, bucket);
-        if (prevLoc != -1) {
-          _locationTable.put(pair.getId(), prevLoc);
-          continue;
-        }
-
-        _locationTable.put(pair.getId(), location);
-        if (bucket == null) {
-          bucket = new ArrayList<>();
-          alreadySaved.put(savableName + getChunk(pair), bucket);
-        }
-        bucket.add(pair);
-        final byte[] aliasBytes = fixClassAlias(_classes.get(savableName)._alias, aliasWidth);
-        out.write(aliasBytes);
-        location += aliasWidth;
-        final BinaryOutputCapsule cap = _contentTable.get(savable).getContent();
-        out.write(ByteUtils.convertToBytes(cap._bytes.length));
-        location += 4; // length of bytes
-        out.write(cap._bytes);
-        location += cap._bytes.length;
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    // write out data to a seperate stream
+    int location = 0;
+    // keep track of location for each piece
+    final Map<String, List<BinaryIdContentPair>> alreadySaved = new HashMap<>(_contentTable.size());
+    for (final Savable savable : _contentKeys) {
+      // look back at previous written data for matches
+      final String savableName = savable.getClassTag().getName();
+      final BinaryIdContentPair pair = _contentTable.get(savable);
+      List<BinaryIdContentPair> bucket = alreadySaved.get(savableName + getChunk(pair));
+      final int prevLoc = findPrevMatch(pair, bucket);
+      if (prevLoc != -1) {
+        _locationTable.put(pair.getId(), prevLoc);
+        continue;
       }
 
-      // write out location table
-      // tag/location
-      final int locNum = _locationTable.size();
-      zos.write(ByteUtils.convertToBytes(locNum));
-      int locbytes = 0;
-      for (final Integer key : _locationTable.keySet()) {
-        zos.write(ByteUtils.convertToBytes(key));
-        zos.write(ByteUtils.convertToBytes(_locationTable.get(key)));
-        locbytes += 8;
+      _locationTable.put(pair.getId(), location);
+      if (bucket == null) {
+        bucket = new ArrayList<>();
+        alreadySaved.put(savableName + getChunk(pair), bucket);
       }
+      bucket.add(pair);
+      final byte[] aliasBytes = fixClassAlias(_classes.get(savableName)._alias, aliasWidth);
+      out.write(aliasBytes);
+      location += aliasWidth;
+      final BinaryOutputCapsule cap = _contentTable.get(savable).getContent();
+      out.write(ByteUtils.convertToBytes(cap._bytes.length));
+      location += 4; // length of bytes
+      out.write(cap._bytes);
+      location += cap._bytes.length;
+    }
 
-      // write out number of root ids - hardcoded 1 for now
-      zos.write(ByteUtils.convertToBytes(1));
+    // write out location table
+    // tag/location
+    final int locNum = _locationTable.size();
+    os.write(ByteUtils.convertToBytes(locNum));
+    int locbytes = 0;
+    for (final Integer key : _locationTable.keySet()) {
+      os.write(ByteUtils.convertToBytes(key));
+      os.write(ByteUtils.convertToBytes(_locationTable.get(key)));
+      locbytes += 8;
+    }
 
-      // write out root id
-      zos.write(ByteUtils.convertToBytes(id));
+    // write out number of root ids - hardcoded 1 for now
+    os.write(ByteUtils.convertToBytes(1));
 
-      // append stream to the output stream
-      out.writeTo(zos);
+    // write out root id
+    os.write(ByteUtils.convertToBytes(id));
 
-      zos.finish();
+    // append stream to the output stream
+    writeObjectData(out, os);
 
-      out = null;
-      zos = null;
+    if (logger.isLoggable(Level.FINE)) {
+      logger.fine("Stats:");
+      logger.fine("classes: " + classNum);
+      logger.fine("class table: " + ttbytes + " bytes");
+      logger.fine("objects: " + locNum);
+      logger.fine("location table: " + locbytes + " bytes");
+      logger.fine("data: " + location + " bytes");
+    }
+  }
 
-      if (logger.isLoggable(Level.FINE)) {
-        logger.fine("Stats:");
-        logger.fine("classes: " + classNum);
-        logger.fine("class table: " + ttbytes + " bytes");
-        logger.fine("objects: " + locNum);
-        logger.fine("location table: " + locbytes + " bytes");
-        logger.fine("data: " + location + " bytes");
-      }
-    } finally {
-      _aliasCount = 1;
-      _idCount = 1;
+  /**
+   * Write the object data section, collected in the given stream, to the output.
+   *
+   * @param data
+   *          the object data section.
+   * @param os
+   *          the stream to write to.
+   * @throws IOException
+   *           if the stream can not be written to.
+   */
+  protected void writeObjectData(final ByteArrayOutputStream data, final OutputStream os) throws IOException {
+    data.writeTo(os);
+  }
 
-      _contentTable.clear();
-      _locationTable.clear();
-      _classes.clear();
-      _contentKeys.clear();
-    }
+  /**
+   * Called by our capsules with the little endian contents of each nio buffer they write. Here the
+   * contents are left for the capsule to write inline, with the rest of its fields.
+   *
+   * @param data
+   *          array holding the buffer contents
+   * @param offset
+   *          offset of the contents in the array
+   * @param length
+   *          length of the contents, in bytes
+   * @return the index under which the contents were stored apart from the object data, or -1 if they
+   *         should be written inline.
+   */
+  protected int addBufferData(final byte[] data, final int offset, final int length) {
+    return -1;
+  }
+
+  /**
+   * @return the byte order our capsules write nio buffer contents in. Little endian here, as the
+   *         format has no room to say otherwise.
+   */
+  protected ByteOrder getBufferOrder() {
+    return ByteOrder.LITTLE_ENDIAN;
+  }
+
+  /**
+   * Forget all savables processed so far, readying us for the next save.
+   */
+  protected void reset() {
+    _aliasCount = 1;
+    _idCount = 1;
+
+    _contentTable.clear();
+    _locationTable.clear();
+    _classes.clear();
+    _contentKeys.clear();
   }
 
   protected String getChunk(final BinaryIdContentPair pair) {
@@ -18,22 +18,29 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.IntStream;
 import java.util.zip.GZIPInputStream;
 
-import com.ardor3d.annotation.SavableFactory;
 import com.ardor3d.math.util.MathUtils;
 import com.ardor3d.util.Ardor3dException;
 import com.ardor3d.util.export.Ardor3dImporter;
 import com.ardor3d.util.export.ByteUtils;
 import com.ardor3d.util.export.ReadListener;
 import com.ardor3d.util.export.Savable;
+import com.ardor3d.util.export.SavableFactories;
 
 public class BinaryImporter implements Ardor3dImporter {
   private static final Logger logger = Logger.getLogger(BinaryImporter.class.getName());
@@ -48,8 +55,18 @@ public class BinaryImporter implements Ardor3dImporter {
   protected final Map<Integer, Integer> _locationTable = new HashMap<>();
 
   protected byte[] _dataArray = null;
+  // offset of the object data section in the data array
+  protected int _dataOffset = 0;
   protected int _aliasWidth = 0;
 
+  // For files from MappableBinaryExporter - the whole file, and where its buffers are in it
+  protected ByteBuffer _bufferSource = null;
+  protected long[] _bufferLocations = null;
+  protected int[] _bufferLengths = null;
+  protected boolean[] _bufferTaken = null;
+  // byte order of nio buffer contents in the file being loaded
+  protected ByteOrder _bufferOrder = ByteOrder.LITTLE_ENDIAN;
+
   public BinaryImporter() {}
 
   @Override
@@ -63,64 +80,25 @@ public class BinaryImporter implements Ardor3dImporter {
 
   public Savable load(final InputStream is, final ReadListener listener, final ByteArrayOutputStream reuseableStream)
       throws IOException {
+    final InputStream source = is.markSupported() ? is : new BufferedInputStream(is);
+    source.mark(MappableBinaryExporter.MAGIC.length);
+    final byte[] magic = source.readNBytes(MappableBinaryExporter.MAGIC.length);
+    source.reset();
+    if (Arrays.equals(magic, MappableBinaryExporter.MAGIC)) {
+      return load(ByteBuffer.wrap(source.readAllBytes()), listener);
+    }
+    if (Arrays.equals(magic, ChunkedBinaryExporter.MAGIC)) {
+      return loadChunked(source, listener);
+    }
+
     try {
-      final GZIPInputStream zis = new GZIPInputStream(is);
+      final GZIPInputStream zis = new GZIPInputStream(source);
       BufferedInputStream bis = new BufferedInputStream(zis);
-      final int numClasses = ByteUtils.readInt(bis);
-      int bytes = 4;
-      _aliasWidth = ((int) MathUtils.log(numClasses, 256) + 1);
-      for (int i = 0; i < numClasses; i++) {
-        final String alias = readString(bis, _aliasWidth);
-
-        final int classLength = ByteUtils.readInt(bis);
-        final String className = readString(bis, classLength);
-        final BinaryClassObject bco = new BinaryClassObject();
-        bco._alias = alias.getBytes();
-        bco._className = className;
-
-        final int fields = ByteUtils.readInt(bis);
-        bytes += (8 + _aliasWidth + classLength);
-
-        bco._nameFields = new HashMap<>(fields);
-        bco._aliasFields = new HashMap<>(fields);
-        for (int x = 0; x < fields; x++) {
-          final byte fieldAlias = (byte) bis.read();
-          final byte fieldType = (byte) bis.read();
-
-          final int fieldNameLength = ByteUtils.readInt(bis);
-          final String fieldName = readString(bis, fieldNameLength);
-          final BinaryClassField bcf = new BinaryClassField(fieldName, fieldAlias, fieldType);
-          bco._nameFields.put(fieldName, bcf);
-          bco._aliasFields.put(fieldAlias, bcf);
-          bytes += (6 + fieldNameLength);
-        }
-        _classes.put(alias, bco);
-      }
-      if (listener != null) {
-        listener.readBytes(bytes);
-      }
-
-      final int numLocs = ByteUtils.readInt(bis);
-      bytes = 4;
-
-      for (int i = 0; i < numLocs; i++) {
-        final int id = ByteUtils.readInt(bis);
-        final int loc = ByteUtils.readInt(bis);
-        _locationTable.put(id, loc);
-        bytes += 8;
-      }
-
-      @SuppressWarnings("unused")
-      final int numbIDs = ByteUtils.readInt(bis); // XXX: NOT CURRENTLY USED
-      final int id = ByteUtils.readInt(bis);
-      bytes += 8;
-      if (listener != null) {
-        listener.readBytes(bytes);
-      }
+      final int id = readTables(bis, listener);
 
       ByteArrayOutputStream baos = reuseableStream;
       if (baos == null) {
-        baos = new ByteArrayOutputStream(bytes);
+        baos = new ByteArrayOutputStream();
       } else {
         baos.reset();
       }
@@ -141,21 +119,298 @@ public class BinaryImporter implements Ardor3dImporter {
 
       if (logger.isLoggable(Level.FINE)) {
         logger.fine("Importer Stats: ");
-        logger.fine("Tags: " + numClasses);
-        logger.fine("Objects: " + numLocs);
+        logger.fine("Tags: " + _classes.size());
+        logger.fine("Objects: " + _locationTable.size());
+        logger.fine("Data Size: " + _dataArray.length);
+      }
+      return rVal;
+
+    } finally {
+      reset();
+    }
+  }
+
+  /**
+   * Load a savable written by {@link MappableBinaryExporter}. The file header holds a flag giving the
+   * byte order nio buffer contents were written in. Nio buffers are read as slices of the given source,
+   * without copying, when they were direct on export, the source is direct - as when it is a file mapped
+   * by {@link #load(File)} - and the file's byte order is {@link ByteOrder#nativeOrder()}. Otherwise
+   * their contents are copied, swapping bytes where the orders differ. Slices of a read only source are
+   * read only too.
+   *
+   * @param source
+   *          the contents of the file, from the source's position - the magic bytes - to its limit. The
+   *          source's position is left alone.
+   * @param listener
+   *          an optional listener told of our progress, or null.
+   * @return the loaded savable.
+   * @throws IOException
+   *           if the source is not in the expected format.
+   */
+  public Savable load(final ByteBuffer source, final ReadListener listener) throws IOException {
+    try {
+      // buffer locations are from the start of the file
+      final ByteBuffer contents = source.slice();
+      final InputStream is = new ByteBufferInputStream(contents.duplicate().order(ByteOrder.BIG_ENDIAN));
+      final byte[] magic = is.readNBytes(MappableBinaryExporter.MAGIC.length);
+      if (!Arrays.equals(magic, MappableBinaryExporter.MAGIC)) {
+        throw new IOException("Not a mappable binary file.");
+      }
+      final int version = ByteUtils.readInt(is);
+      if (version != MappableBinaryExporter.VERSION) {
+        throw new IOException("Unsupported mappable binary version: " + version);
+      }
+      _bufferOrder = readByteOrder(is);
+      final int id = readTables(is, listener);
+
+      final int dataLength = ByteUtils.readInt(is);
+      _dataArray = is.readNBytes(dataLength);
+      if (_dataArray.length != dataLength) {
+        throw new EOFException("Expected " + dataLength + " bytes of object data but reached end of file.");
+      }
+      final int numBuffers = ByteUtils.readInt(is);
+      _bufferLocations = new long[numBuffers];
+      _bufferLengths = new int[numBuffers];
+      _bufferTaken = new boolean[numBuffers];
+      for (int i = 0; i < numBuffers; i++) {
+        _bufferLocations[i] = ByteUtils.readLong(is);
+        _bufferLengths[i] = ByteUtils.readInt(is);
+        if (_bufferLocations[i] + _bufferLengths[i] > contents.limit()) {
+          throw new EOFException("Buffer " + i + " lies past the end of the file.");
+        }
+      }
+      _bufferSource = contents;
+      if (listener != null) {
+        listener.readBytes(dataLength + 4 + numBuffers * 12);
+      }
+
+      final Savable rVal = readObject(id);
+
+      if (logger.isLoggable(Level.FINE)) {
+        logger.fine("Importer Stats: ");
+        logger.fine("Tags: " + _classes.size());
+        logger.fine("Objects: " + _locationTable.size());
         logger.fine("Data Size: " + _dataArray.length);
+        logger.fine("Buffers: " + numBuffers);
+      }
+      return rVal;
+
+    } finally {
+      reset();
+    }
+  }
+
+  /**
+   * Load a savable written by {@link ChunkedBinaryExporter}, decompressing its chunks in parallel.
+   *
+   * @param is
+   *          the stream to read, from the magic bytes on.
+   * @param listener
+   *          an optional listener told of our progress, or null.
+   * @return the loaded savable.
+   * @throws IOException
+   *           if the stream is not in the expected format, or names a codec that is not registered.
+   */
+  protected Savable loadChunked(final InputStream is, final ReadListener listener) throws IOException {
+    try {
+      final byte[] magic = is.readNBytes(ChunkedBinaryExporter.MAGIC.length);
+      if (!Arrays.equals(magic, ChunkedBinaryExporter.MAGIC)) {
+        throw new IOException("Not a chunked binary file.");
+      }
+      final int version = ByteUtils.readInt(is);
+      if (version != ChunkedBinaryExporter.VERSION) {
+        throw new IOException("Unsupported chunked binary version: " + version);
+      }
+      _bufferOrder = readByteOrder(is);
+      final int codecId = is.read();
+      final BinaryCodec codec = BinaryCodecs.get(codecId);
+      if (codec == null) {
+        throw new IOException("No codec registered with id " + codecId);
+      }
+
+      final int rawLength = ByteUtils.readInt(is);
+      final int chunks = ByteUtils.readInt(is);
+      // every chunk holds at least one byte, and its table entry takes 8
+      if (rawLength < 0 || chunks < 0 || chunks > rawLength || chunks == 0 && rawLength > 0
+          || chunks > Integer.MAX_VALUE / 8) {
+        throw new IOException("Corrupt chunk table.");
+      }
+      // read the table before sizing anything by it, so a bad chunk count runs into the end of the stream
+      final byte[] table = is.readNBytes(chunks * 8);
+      if (table.length != chunks * 8) {
+        throw new EOFException("Reached end of stream in the chunk table.");
+      }
+      final int[] offsets = new int[chunks];
+      final int[] lengths = new int[chunks];
+      final int[] storedLengths = new int[chunks];
+      long total = 0;
+      for (int i = 0; i < chunks; i++) {
+        offsets[i] = (int) total;
+        lengths[i] = ByteUtils.convertIntFromBytes(table, i * 8);
+        storedLengths[i] = ByteUtils.convertIntFromBytes(table, i * 8 + 4);
+        // all chunks but the last are the exporter's chunk size, so none may be longer than the first
+        if (lengths[i] <= 0 || lengths[i] > lengths[0] || storedLengths[i] < 0) {
+          throw new IOException("Corrupt chunk table entry " + i);
+        }
+        total += lengths[i];
+      }
+      if (total != rawLength) {
+        throw new IOException("Chunk lengths add up to " + total + " bytes, expected " + rawLength);
+      }
+      final byte[][] stored = new byte[chunks][];
+      for (int i = 0; i < chunks; i++) {
+        // readNBytes grows its array as data arrives, so a bad stored length runs into the end of the stream
+        stored[i] = is.readNBytes(storedLengths[i]);
+        if (stored[i].length != storedLengths[i]) {
+          throw new EOFException("Reached end of stream in chunk " + i);
+        }
+        if (listener != null) {
+          listener.readBytes(stored[i].length);
+        }
+      }
+
+      final byte[] raw = new byte[rawLength];
+      try {
+        IntStream.range(0, chunks).parallel().forEach(i -> {
+          try {
+            codec.decompress(stored[i], 0, stored[i].length, raw, offsets[i], lengths[i]);
+          } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+      } catch (final UncheckedIOException e) {
+        throw e.getCause();
+      }
+
+      final ByteArrayInputStream content = new ByteArrayInputStream(raw);
+      final int id = readTables(content, listener);
+      _dataArray = raw;
+      _dataOffset = rawLength - content.available();
+
+      final Savable rVal = readObject(id);
+
+      if (logger.isLoggable(Level.FINE)) {
+        logger.fine("Importer Stats: ");
+        logger.fine("Tags: " + _classes.size());
+        logger.fine("Objects: " + _locationTable.size());
+        logger.fine("Data Size: " + (rawLength - _dataOffset));
+        logger.fine("Chunks: " + chunks);
       }
       return rVal;
 
     } finally {
-      // Let go of / reset contents.
-      _aliasWidth = 0;
-      _contentTable.clear();
-      _classes.clear();
-      _capsuleTable.clear();
-      _locationTable.clear();
-      _dataArray = null;
+      reset();
+    }
+  }
+
+  /**
+   * Read the class table, location table and root id - items 1 to 14 of the format described in
+   * {@link BinaryExporter}.
+   *
+   * @return the id of the root savable.
+   */
+  protected int readTables(final InputStream bis, final ReadListener listener) throws IOException {
+    final int numClasses = ByteUtils.readInt(bis);
+    int bytes = 4;
+    _aliasWidth = ((int) MathUtils.log(numClasses, 256) + 1);
+    for (int i = 0; i < numClasses; i++) {
+      final String alias = readString(bis, _aliasWidth);
+
+      final int classLength = ByteUtils.readInt(bis);
+      final String className = readString(bis, classLength);
+      final BinaryClassObject bco = new BinaryClassObject();
+      bco._alias = alias.getBytes();
+      bco._className = className;
+
+      final int fields = ByteUtils.readInt(bis);
+      bytes += (8 + _aliasWidth + classLength);
+
+      bco._nameFields = new HashMap<>(fields);
+      bco._aliasFields = new HashMap<>(fields);
+      for (int x = 0; x < fields; x++) {
+        final byte fieldAlias = (byte) bis.read();
+        final byte fieldType = (byte) bis.read();
+
+        final int fieldNameLength = ByteUtils.readInt(bis);
+        final String fieldName = readString(bis, fieldNameLength);
+        final BinaryClassField bcf = new BinaryClassField(fieldName, fieldAlias, fieldType);
+        bco._nameFields.put(fieldName, bcf);
+        bco._aliasFields.put(fieldAlias, bcf);
+        bytes += (6 + fieldNameLength);
+      }
+      _classes.put(alias, bco);
+    }
+    if (listener != null) {
+      listener.readBytes(bytes);
+    }
+
+    final int numLocs = ByteUtils.readInt(bis);
+    bytes = 4;
+
+    for (int i = 0; i < numLocs; i++) {
+      final int id = ByteUtils.readInt(bis);
+      final int loc = ByteUtils.readInt(bis);
+      _locationTable.put(id, loc);
+      bytes += 8;
     }
+
+    @SuppressWarnings("unused")
+    final int numbIDs = ByteUtils.readInt(bis); // XXX: NOT CURRENTLY USED
+    final int id = ByteUtils.readInt(bis);
+    bytes += 8;
+    if (listener != null) {
+      listener.readBytes(bytes);
+    }
+    return id;
+  }
+
+  /**
+   * Let go of the contents of the last load, readying us for the next.
+   */
+  protected void reset() {
+    _aliasWidth = 0;
+    _contentTable.clear();
+    _classes.clear();
+    _capsuleTable.clear();
+    _locationTable.clear();
+    _dataArray = null;
+    _dataOffset = 0;
+    _bufferSource = null;
+    _bufferLocations = null;
+    _bufferLengths = null;
+    _bufferTaken = null;
+    _bufferOrder = ByteOrder.LITTLE_ENDIAN;
+  }
+
+  /**
+   * @return the byte order of nio buffer contents in the file being loaded.
+   */
+  protected ByteOrder getBufferOrder() { return _bufferOrder; }
+
+  /**
+   * @return true if the file being loaded keeps nio buffer contents apart from the object data.
+   */
+  protected boolean hasBufferSection() {
+    return _bufferSource != null;
+  }
+
+  /**
+   * @param index
+   *          an index into the buffer table of the file being loaded.
+   * @return the contents of the buffer, as a slice of the file the first time it is asked for. Equal
+   *         buffers are stored once, so later calls get a copy, keeping each loaded buffer apart -
+   *         unless the file is read only, when nothing can change them and all get a slice.
+   */
+  protected ByteBuffer getBufferData(final int index) {
+    final ByteBuffer slice =
+        _bufferSource.slice((int) _bufferLocations[index], _bufferLengths[index]).order(_bufferOrder);
+    if (!_bufferTaken[index] || _bufferSource.isReadOnly()) {
+      _bufferTaken[index] = true;
+      return slice;
+    }
+    final ByteBuffer copy = ByteBuffer.allocateDirect(slice.remaining()).order(_bufferOrder);
+    copy.put(slice).rewind();
+    return copy;
   }
 
   @Override
@@ -174,7 +429,24 @@ public class BinaryImporter implements Ardor3dImporter {
     return load(file, null);
   }
 
+  /**
+   * Load a savable from a file. Files written by {@link MappableBinaryExporter} and under 2GB are
+   * memory mapped, read only, and their nio buffers used in place where possible (see
+   * {@link #load(ByteBuffer, ReadListener)}). Buffers used in place are read only: copy one, with
+   * {@link com.ardor3d.buffer.BufferUtils#clone(java.nio.FloatBuffer)} and the like, before changing it. Other
+   * files are read into memory as usual. Some platforms will not let a mapped file be deleted while
+   * buffers loaded from it are still reachable.
+   */
   public Savable load(final File file, final ReadListener listener) throws IOException {
+    if (file.length() <= Integer.MAX_VALUE) {
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+        final ByteBuffer magic = ByteBuffer.allocate(MappableBinaryExporter.MAGIC.length);
+        channel.read(magic, 0);
+        if (Arrays.equals(magic.array(), MappableBinaryExporter.MAGIC)) {
+          return load(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), listener);
+        }
+      }
+    }
     try (FileInputStream fis = new FileInputStream(file)) {
       return load(fis, listener);
     }
@@ -182,11 +454,24 @@ public class BinaryImporter implements Ardor3dImporter {
 
   @Override
   public Savable load(final byte[] data) throws IOException {
+    if (data.length >= MappableBinaryExporter.MAGIC.length
+        && Arrays.equals(data, 0, MappableBinaryExporter.MAGIC.length, MappableBinaryExporter.MAGIC, 0,
+            MappableBinaryExporter.MAGIC.length)) {
+      return load(ByteBuffer.wrap(data), null);
+    }
     try (ByteArrayInputStream bais = new ByteArrayInputStream(data)) {
       return load(bais);
     }
   }
 
+  protected static ByteOrder readByteOrder(final InputStream is) throws IOException {
+    return switch (is.read()) {
+      case MappableBinaryExporter.LITTLE_ENDIAN -> ByteOrder.LITTLE_ENDIAN;
+      case MappableBinaryExporter.BIG_ENDIAN -> ByteOrder.BIG_ENDIAN;
+      default -> throw new IOException("Unknown byte order flag.");
+    };
+  }
+
   protected String readString(final InputStream is, final int length) throws IOException {
     if (length < 0) {
       // a corrupt/tampered header can decode a negative length; surface it as a corrupt-file
@@ -216,7 +501,7 @@ public class BinaryImporter implements Ardor3dImporter {
     }
 
     try {
-      int loc = _locationTable.get(id);
+      int loc = _dataOffset + _locationTable.get(id);
 
       final String alias = readString(_aliasWidth, loc);
       loc += _aliasWidth;
@@ -237,14 +522,11 @@ public class BinaryImporter implements Ardor3dImporter {
       final Savable out;
 
       try {
-        @SuppressWarnings("unchecked")
-        final Class<? extends Savable> clazz = (Class<? extends Savable>) Class.forName(bco._className);
-        final SavableFactory ann = clazz.getAnnotation(SavableFactory.class);
-        if (ann == null) {
-          out = clazz.getDeclaredConstructor().newInstance();
-        } else {
-          out = (Savable) clazz.getMethod(ann.factoryMethod(), (Class<?>[]) null).invoke(null, (Object[]) null);
+        // resolve the factory once per class per load; SavableFactories caches it across loads
+        if (bco._factory == null) {
+          bco._factory = SavableFactories.getFactory(bco._className);
         }
+        out = bco._factory.get();
       } catch (final InstantiationException e) {
         logger.logp(Level.SEVERE, this.getClass().toString(), "readObject(int)",
             "Could not access constructor of class '" + bco._className + "'! \n"
@@ -274,4 +556,33 @@ public class BinaryImporter implements Ardor3dImporter {
       throw new Ardor3dException(e);
     }
   }
+
+  /**
+   * Reads through a byte buffer, from its position to its limit.
+   */
+  private static class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer _buffer;
+
+    ByteBufferInputStream(final ByteBuffer buffer) {
+      _buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return _buffer.hasRemaining() ? _buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) {
+      if (len == 0) {
+        return 0;
+      }
+      if (!_buffer.hasRemaining()) {
+        return -1;
+      }
+      final int count = Math.min(len, _buffer.remaining());
+      _buffer.get(b, off, count);
+      return count;
+    }
+  }
 }
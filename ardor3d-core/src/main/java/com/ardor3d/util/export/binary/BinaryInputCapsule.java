@@ -35,6 +35,11 @@ public class BinaryInputCapsule implements InputCapsule {
   protected BinaryClassObject _cObj;
   protected HashMap<Byte, Object> _fieldData;
 
+  // encoded fields, kept until first read
+  protected byte[] _content;
+  protected int _start;
+  protected int _limit;
+
   protected int _index = 0;
 
   public BinaryInputCapsule(final BinaryImporter importer, final BinaryClassObject bco) {
@@ -42,9 +47,32 @@ public class BinaryInputCapsule implements InputCapsule {
     _cObj = bco;
   }
 
+  /**
+   * Set the encoded fields of this capsule. They are decoded on the first read call - which, for
+   * capsules made by {@link BinaryImporter#readObject(int)}, comes straight after, as the savable is
+   * read at once.
+   */
   public void setContent(final byte[] content, final int start, final int limit) {
+    _content = content;
+    _start = start;
+    _limit = limit;
+    _fieldData = null;
+  }
+
+  /**
+   * @return our fields by alias, decoded from our content on first call.
+   */
+  protected HashMap<Byte, Object> getFieldData() {
+    if (_fieldData != null) {
+      return _fieldData;
+    }
     _fieldData = new HashMap<>();
-    for (_index = start; _index < limit;) {
+    if (_content == null) {
+      return _fieldData;
+    }
+    final byte[] content = _content;
+    _content = null;
+    for (_index = _start; _index < _limit;) {
       final byte alias = content[_index];
 
       _index++;
@@ -59,15 +87,16 @@ public class BinaryInputCapsule implements InputCapsule {
         _fieldData.put(alias, reference.get());
 
       } catch (final IOException e) {
-        logger.logp(Level.SEVERE, this.getClass().toString(), "setContent(byte[] content)", "Exception", e);
+        logger.logp(Level.SEVERE, this.getClass().toString(), "getFieldData()", "Exception", e);
       }
     }
+    return _fieldData;
   }
 
   @Override
   public BitSet readBitSet(final String name, final BitSet defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (BitSet) _fieldData.get(field._alias);
@@ -76,7 +105,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public boolean readBoolean(final String name, final boolean defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return ((Boolean) _fieldData.get(field._alias));
@@ -85,7 +114,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public boolean[] readBooleanArray(final String name, final boolean[] defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (boolean[]) _fieldData.get(field._alias);
@@ -94,7 +123,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public boolean[][] readBooleanArray2D(final String name, final boolean[][] defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (boolean[][]) _fieldData.get(field._alias);
@@ -103,7 +132,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public byte readByte(final String name, final byte defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (Byte) _fieldData.get(field._alias);
@@ -112,7 +141,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public byte[] readByteArray(final String name, final byte[] defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (byte[]) _fieldData.get(field._alias);
@@ -121,7 +150,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public byte[][] readByteArray2D(final String name, final byte[][] defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (byte[][]) _fieldData.get(field._alias);
@@ -130,7 +159,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public ByteBuffer readByteBuffer(final String name, final ByteBuffer defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (ByteBuffer) _fieldData.get(field._alias);
@@ -140,7 +169,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @SuppressWarnings("unchecked")
   public List<ByteBuffer> readByteBufferList(final String name, final List<ByteBuffer> defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (List<ByteBuffer>) _fieldData.get(field._alias);
@@ -149,7 +178,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public double readDouble(final String name, final double defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (Double) _fieldData.get(field._alias);
@@ -158,7 +187,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public double[] readDoubleArray(final String name, final double[] defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (double[]) _fieldData.get(field._alias);
@@ -167,7 +196,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public double[][] readDoubleArray2D(final String name, final double[][] defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (double[][]) _fieldData.get(field._alias);
@@ -176,7 +205,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public float readFloat(final String name, final float defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (Float) _fieldData.get(field._alias);
@@ -185,7 +214,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public float[] readFloatArray(final String name, final float[] defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (float[]) _fieldData.get(field._alias);
@@ -194,7 +223,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public float[][] readFloatArray2D(final String name, final float[][] defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (float[][]) _fieldData.get(field._alias);
@@ -203,7 +232,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public FloatBuffer readFloatBuffer(final String name, final FloatBuffer defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (FloatBuffer) _fieldData.get(field._alias);
@@ -213,7 +242,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @SuppressWarnings("unchecked")
   public List<FloatBuffer> readFloatBufferList(final String name, final List<FloatBuffer> defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (List<FloatBuffer>) _fieldData.get(field._alias);
@@ -222,7 +251,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public int readInt(final String name, final int defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (Integer) _fieldData.get(field._alias);
@@ -231,7 +260,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public int[] readIntArray(final String name, final int[] defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (int[]) _fieldData.get(field._alias);
@@ -240,7 +269,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public int[][] readIntArray2D(final String name, final int[][] defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (int[][]) _fieldData.get(field._alias);
@@ -249,7 +278,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public IntBuffer readIntBuffer(final String name, final IntBuffer defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (IntBuffer) _fieldData.get(field._alias);
@@ -258,7 +287,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public long readLong(final String name, final long defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (Long) _fieldData.get(field._alias);
@@ -267,7 +296,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public long[] readLongArray(final String name, final long[] defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (long[]) _fieldData.get(field._alias);
@@ -276,7 +305,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public long[][] readLongArray2D(final String name, final long[][] defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (long[][]) _fieldData.get(field._alias);
@@ -286,7 +315,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @SuppressWarnings("unchecked")
   public <E extends Savable> E readSavable(final String name, final E defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     Object value = _fieldData.get(field._alias);
@@ -305,7 +334,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @SuppressWarnings("unchecked")
   public <E extends Savable> E[] readSavableArray(final String name, final E[] defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     Object[] values = (Object[]) _fieldData.get(field._alias);
@@ -335,7 +364,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @SuppressWarnings("unchecked")
   public <E extends Savable> E[][] readSavableArray2D(final String name, final E[][] defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     Object[][] values = (Object[][]) _fieldData.get(field._alias);
@@ -356,7 +385,7 @@ public class BinaryInputCapsule implements InputCapsule {
 
   public Savable[][][] readSavableArray3D(final String name, final Savable[][][] defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     final Object[][][] values = (Object[][][]) _fieldData.get(field._alias);
@@ -436,7 +465,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @SuppressWarnings("unchecked")
   public <E extends Savable> List<E> readSavableList(final String name, final List<E> defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     Object value = _fieldData.get(field._alias);
@@ -454,7 +483,7 @@ public class BinaryInputCapsule implements InputCapsule {
   public <E extends Savable> List<E>[] readSavableListArray(final String name, final List<E>[] defVal)
       throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     Object value = _fieldData.get(field._alias);
@@ -480,7 +509,7 @@ public class BinaryInputCapsule implements InputCapsule {
   public <E extends Savable> List<E>[][] readSavableListArray2D(final String name, final List<E>[][] defVal)
       throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     Object value = _fieldData.get(field._alias);
@@ -509,7 +538,7 @@ public class BinaryInputCapsule implements InputCapsule {
   public <K extends Savable, V extends Savable> Map<K, V> readSavableMap(final String name, final Map<K, V> defVal)
       throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     Object value = _fieldData.get(field._alias);
@@ -527,7 +556,7 @@ public class BinaryInputCapsule implements InputCapsule {
   public <V extends Savable> Map<String, V> readStringSavableMap(final String name, final Map<String, V> defVal)
       throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     Object value = _fieldData.get(field._alias);
@@ -545,7 +574,7 @@ public class BinaryInputCapsule implements InputCapsule {
   public Map<String, Object> readStringObjectMap(final String name, final Map<String, Object> defVal)
       throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     Object value = _fieldData.get(field._alias);
@@ -560,7 +589,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public short readShort(final String name, final short defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (Short) _fieldData.get(field._alias);
@@ -569,7 +598,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public short[] readShortArray(final String name, final short[] defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (short[]) _fieldData.get(field._alias);
@@ -578,7 +607,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public short[][] readShortArray2D(final String name, final short[][] defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (short[][]) _fieldData.get(field._alias);
@@ -587,7 +616,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public ShortBuffer readShortBuffer(final String name, final ShortBuffer defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (ShortBuffer) _fieldData.get(field._alias);
@@ -596,7 +625,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public String readString(final String name, final String defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (String) _fieldData.get(field._alias);
@@ -605,7 +634,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public String[] readStringArray(final String name, final String[] defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (String[]) _fieldData.get(field._alias);
@@ -614,7 +643,7 @@ public class BinaryInputCapsule implements InputCapsule {
   @Override
   public String[][] readStringArray2D(final String name, final String[][] defVal) throws IOException {
     final BinaryClassField field = _cObj._nameFields.get(name);
-    if (field == null || !_fieldData.containsKey(field._alias)) {
+    if (field == null || !getFieldData().containsKey(field._alias)) {
       return defVal;
     }
     return (String[][]) _fieldData.get(field._alias);
@@ -1220,18 +1249,14 @@ public class BinaryInputCapsule implements InputCapsule {
 
     final boolean direct = readBoolean(content);
 
-    // Pull data in as a little endian byte buffer.
-    final ByteBuffer buf = ByteBuffer.allocateDirect(length * 4).order(ByteOrder.LITTLE_ENDIAN);
-    buf.put(content, _index, length * 4).rewind();
-
-    // increment index
-    _index += length * 4;
+    // Pull data in as a byte buffer in the order it was written.
+    final ByteBuffer buf = readBufferData(content, length * 4);
 
     // Convert to float buffer.
     final FloatBuffer value;
     final boolean contentCopyRequired;
     if (direct) {
-      if (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN) {
+      if (buf.isDirect() && buf.order() == ByteOrder.nativeOrder()) {
         value = buf.asFloatBuffer();
         contentCopyRequired = false;
       } else {
@@ -1259,18 +1284,14 @@ public class BinaryInputCapsule implements InputCapsule {
 
     final boolean direct = readBoolean(content);
 
-    // Pull data in as a little endian byte buffer.
-    final ByteBuffer buf = ByteBuffer.allocateDirect(length * 4).order(ByteOrder.LITTLE_ENDIAN);
-    buf.put(content, _index, length * 4).rewind();
-
-    // increment index
-    _index += length * 4;
+    // Pull data in as a byte buffer in the order it was written.
+    final ByteBuffer buf = readBufferData(content, length * 4);
 
     // Convert to int buffer.
     final IntBuffer value;
     final boolean contentCopyRequired;
     if (direct) {
-      if (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN) {
+      if (buf.isDirect() && buf.order() == ByteOrder.nativeOrder()) {
         value = buf.asIntBuffer();
         contentCopyRequired = false;
       } else {
@@ -1297,18 +1318,14 @@ public class BinaryInputCapsule implements InputCapsule {
 
     final boolean direct = readBoolean(content);
 
-    // Pull data in as a little endian byte buffer.
-    final ByteBuffer buf = ByteBuffer.allocateDirect(length * 2).order(ByteOrder.LITTLE_ENDIAN);
-    buf.put(content, _index, length * 2).rewind();
-
-    // increment index
-    _index += length * 2;
+    // Pull data in as a byte buffer in the order it was written.
+    final ByteBuffer buf = readBufferData(content, length * 2);
 
     // Convert to short buffer.
     final ShortBuffer value;
     final boolean contentCopyRequired;
     if (direct) {
-      if (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN) {
+      if (buf.isDirect() && buf.order() == ByteOrder.nativeOrder()) {
         value = buf.asShortBuffer();
         contentCopyRequired = false;
       } else {
@@ -1335,19 +1352,15 @@ public class BinaryInputCapsule implements InputCapsule {
 
     final boolean direct = readBoolean(content);
 
-    // Pull data in as a little endian byte buffer.
-    final ByteBuffer buf = ByteBuffer.allocateDirect(length).order(ByteOrder.LITTLE_ENDIAN);
-    buf.put(content, _index, length).rewind();
-
-    // increment index
-    _index += length;
+    // Pull data in as a byte buffer in the order it was written.
+    final ByteBuffer buf = readBufferData(content, length);
 
     // Convert to platform endian buffer.
     final ByteBuffer value;
     final boolean contentCopyRequired;
     if (direct) {
-      if (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN) {
-        value = buf;
+      if (buf.isDirect()) {
+        value = buf.order(ByteOrder.nativeOrder());
         contentCopyRequired = false;
       } else {
         value = BufferUtils.createByteBuffer(length);
@@ -1364,6 +1377,21 @@ public class BinaryInputCapsule implements InputCapsule {
     return value;
   }
 
+  /**
+   * Read the contents of an nio buffer, in the byte order of the file - as a slice of the buffer
+   * section if the file has one, else as a view of the inline content. Either way nothing is copied
+   * here; callers copy only when the slice can not be used as is.
+   */
+  protected ByteBuffer readBufferData(final byte[] content, final int length) throws IOException {
+    if (_importer != null && _importer.hasBufferSection()) {
+      return _importer.getBufferData(readInt(content));
+    }
+    final ByteOrder order = _importer != null ? _importer.getBufferOrder() : ByteOrder.LITTLE_ENDIAN;
+    final ByteBuffer buf = ByteBuffer.wrap(content, _index, length).slice().order(order);
+    _index += length;
+    return buf;
+  }
+
   static private class ID {
     public int id;
 
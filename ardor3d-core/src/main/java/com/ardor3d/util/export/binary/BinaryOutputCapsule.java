@@ -1079,8 +1079,6 @@ public class BinaryOutputCapsule implements OutputCapsule {
       return;
     }
 
-    final int sizeof = 4;
-
     // write length
     final int length = source.limit();
     write(length);
@@ -1088,36 +1086,10 @@ public class BinaryOutputCapsule implements OutputCapsule {
     // write boolean for directness
     write(_forceDirectNioBuffers || source.isDirect());
 
-    final byte[] array = new byte[length * sizeof];
-    if (source.hasArray()) {
-      // get the backing array of the source buffer
-      final float[] backingArray = source.array();
-
-      // create a tiny store only to perform the conversion into little endian
-      final ByteBuffer buf = ByteBuffer.allocate(sizeof).order(ByteOrder.LITTLE_ENDIAN);
-
-      for (int i = 0; i < backingArray.length; i++) {
-        buf.putFloat(backingArray[i]).rewind();
-        buf.get(array, i * sizeof, sizeof).rewind();
-      }
-    } else {
-      // duplicate buffer to allow modification of limit/position without changing original.
-      final FloatBuffer value = source.duplicate();
-
-      // create little endian store
-      final ByteBuffer buf = ByteBuffer.allocate(array.length).order(ByteOrder.LITTLE_ENDIAN);
-
-      // place buffer into store.
-      value.rewind();
-      buf.asFloatBuffer().put(value);
-      buf.rewind();
-
-      // Pull out store as array
-      buf.get(array);
-    }
-
-    // write to stream
-    _baos.write(array);
+    // bulk copy into a store of the byte order our exporter asks for, then write out its array
+    final ByteBuffer store = ByteBuffer.allocate(length * Float.BYTES).order(getBufferOrder());
+    store.asFloatBuffer().put(source.duplicate().rewind());
+    writeBufferData(store.array(), 0, store.capacity());
   }
 
   // int buffer
@@ -1127,8 +1099,6 @@ public class BinaryOutputCapsule implements OutputCapsule {
       return;
     }
 
-    final int sizeof = 4;
-
     // write length
     final int length = source.limit();
     write(length);
@@ -1136,36 +1106,10 @@ public class BinaryOutputCapsule implements OutputCapsule {
     // write boolean for directness
     write(_forceDirectNioBuffers || source.isDirect());
 
-    final byte[] array = new byte[length * sizeof];
-    if (source.hasArray()) {
-      // get the backing array of the source buffer
-      final int[] backingArray = source.array();
-
-      // create a tiny store only to perform the conversion into little endian
-      final ByteBuffer buf = ByteBuffer.allocate(sizeof).order(ByteOrder.LITTLE_ENDIAN);
-
-      for (int i = 0; i < backingArray.length; i++) {
-        buf.putInt(backingArray[i]).rewind();
-        buf.get(array, i * sizeof, sizeof).rewind();
-      }
-    } else {
-      // duplicate buffer to allow modification of limit/position without changing original.
-      final IntBuffer value = source.duplicate();
-
-      // create little endian store
-      final ByteBuffer buf = ByteBuffer.allocate(array.length).order(ByteOrder.LITTLE_ENDIAN);
-
-      // place buffer into store. Rewind buffers
-      value.rewind();
-      buf.asIntBuffer().put(value);
-      buf.rewind();
-
-      // Pull out store as array
-      buf.get(array);
-    }
-
-    // write to stream
-    _baos.write(array);
+    // bulk copy into a store of the byte order our exporter asks for, then write out its array
+    final ByteBuffer store = ByteBuffer.allocate(length * Integer.BYTES).order(getBufferOrder());
+    store.asIntBuffer().put(source.duplicate().rewind());
+    writeBufferData(store.array(), 0, store.capacity());
   }
 
   // short buffer
@@ -1175,8 +1119,6 @@ public class BinaryOutputCapsule implements OutputCapsule {
       return;
     }
 
-    final int sizeof = 2;
-
     // write length
     final int length = source.limit();
     write(length);
@@ -1184,36 +1126,10 @@ public class BinaryOutputCapsule implements OutputCapsule {
     // write boolean for directness
     write(_forceDirectNioBuffers || source.isDirect());
 
-    final byte[] array = new byte[length * sizeof];
-    if (source.hasArray()) {
-      // get the backing array of the source buffer
-      final short[] backingArray = source.array();
-
-      // create a tiny store only to perform the conversion into little endian
-      final ByteBuffer buf = ByteBuffer.allocate(sizeof).order(ByteOrder.LITTLE_ENDIAN);
-
-      for (int i = 0; i < backingArray.length; i++) {
-        buf.putShort(backingArray[i]).rewind();
-        buf.get(array, i * sizeof, sizeof).rewind();
-      }
-    } else {
-      // duplicate buffer to allow modification of limit/position without changing original.
-      final ShortBuffer value = source.duplicate();
-
-      // create little endian store
-      final ByteBuffer buf = ByteBuffer.allocate(array.length).order(ByteOrder.LITTLE_ENDIAN);
-
-      // place buffer into store. Rewind buffers
-      value.rewind();
-      buf.asShortBuffer().put(value);
-      buf.rewind();
-
-      // Pull out store as array
-      buf.get(array);
-    }
-
-    // write to stream
-    _baos.write(array);
+    // bulk copy into a store of the byte order our exporter asks for, then write out its array
+    final ByteBuffer store = ByteBuffer.allocate(length * Short.BYTES).order(getBufferOrder());
+    store.asShortBuffer().put(source.duplicate().rewind());
+    writeBufferData(store.array(), 0, store.capacity());
   }
 
   // byte buffer
@@ -1247,7 +1163,27 @@ public class BinaryOutputCapsule implements OutputCapsule {
     }
 
     // write to stream - exactly `length` bytes, not the whole backing array
-    _baos.write(array, offset, length);
+    writeBufferData(array, offset, length);
+  }
+
+  /**
+   * @return the byte order our exporter writes nio buffer contents in.
+   */
+  protected ByteOrder getBufferOrder() {
+    return _exporter != null ? _exporter.getBufferOrder() : ByteOrder.LITTLE_ENDIAN;
+  }
+
+  /**
+   * Write the contents of an nio buffer - inline, or as an index into the buffer section if our
+   * exporter keeps one.
+   */
+  protected void writeBufferData(final byte[] data, final int offset, final int length) throws IOException {
+    final int index = _exporter != null ? _exporter.addBufferData(data, offset, length) : -1;
+    if (index < 0) {
+      _baos.write(data, offset, length);
+    } else {
+      write(index);
+    }
   }
 
   @Override
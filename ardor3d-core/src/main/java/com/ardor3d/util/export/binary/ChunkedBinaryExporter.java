@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.util.export.binary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteOrder;
+import java.util.stream.IntStream;
+
+import com.ardor3d.util.export.ByteUtils;
+import com.ardor3d.util.export.Savable;
+
+/**
+ * <p>
+ * Exports to a chunked variant of the ardor3d Binary Format. The content is split into chunks of a
+ * fixed size, each compressed on its own by a {@link BinaryCodec}, so chunks are compressed in
+ * parallel on save and decompressed in parallel on load. Format descriptor:
+ * </p>
+ * <p>
+ * 1. "magic" - four bytes - {@link #MAGIC}, telling this variant apart from the gzipped one.
+ * </p>
+ * <p>
+ * 2. "version" - four bytes - int value {@link #VERSION}.
+ * </p>
+ * <p>
+ * 2b. "byte order" - one byte - the byte order of nio buffer contents within the content, flagged as
+ * in {@link MappableBinaryExporter}.
+ * </p>
+ * <p>
+ * 3. "codec" - one byte - the id of the codec used, see {@link BinaryCodecs}.
+ * </p>
+ * <p>
+ * 4. "content length" - four bytes - int value representing the length of the content once
+ * decompressed.
+ * </p>
+ * <p>
+ * 5. "number of chunks" - four bytes - int value representing the number of entries in the chunk
+ * table.
+ * </p>
+ * <p>
+ * CHUNK TABLE: There will be X blocks each consisting of numbers 6 and 7, where X = the number read in
+ * 5.
+ * </p>
+ * <p>
+ * 6. "chunk length" - four bytes - int value representing the length of the chunk once decompressed.
+ * </p>
+ * <p>
+ * 7. "stored length" - four bytes - int value representing the length of the compressed chunk.
+ * </p>
+ * <p>
+ * CHUNK DATA: the compressed chunks, one after the other. Decompressed and put together, they hold
+ * items 1 thru 19 of the format described in {@link BinaryExporter}.
+ * </p>
+ */
+public class ChunkedBinaryExporter extends BinaryExporter {
+
+  /** Magic bytes at the start of files in our format. */
+  public static final byte[] MAGIC = {'A', '3', 'D', 'C'};
+
+  /** The version of our format. */
+  public static final int VERSION = 2;
+
+  /** The default size of a chunk, before compression. */
+  public static int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+  protected final BinaryCodec _codec;
+  protected final int _chunkSize;
+
+  /**
+   * Construct a new exporter using fast deflate compression and the default chunk size.
+   */
+  public ChunkedBinaryExporter() {
+    this(BinaryCodecs.DEFLATE_FAST);
+  }
+
+  /**
+   * Construct a new exporter with the default chunk size.
+   *
+   * @param codec
+   *          the codec to compress chunks with.
+   */
+  public ChunkedBinaryExporter(final BinaryCodec codec) {
+    this(codec, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Construct a new exporter.
+   *
+   * @param codec
+   *          the codec to compress chunks with.
+   * @param chunkSize
+   *          the size of a chunk before compression, in bytes. Smaller chunks spread work across more
+   *          threads but compress less well.
+   */
+  public ChunkedBinaryExporter(final BinaryCodec codec, final int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+    }
+    _codec = codec;
+    _chunkSize = chunkSize;
+  }
+
+  @Override
+  public void save(final Savable object, final OutputStream os) throws IOException {
+    try {
+      final int id = processBinarySavable(object);
+      final ContentStream content = new ContentStream();
+      writeContent(id, content);
+
+      final byte[] raw = content.getBuffer();
+      final int rawLength = content.size();
+      final int chunks = Math.max(1, (rawLength + _chunkSize - 1) / _chunkSize);
+      final byte[][] stored = new byte[chunks][];
+      IntStream.range(0, chunks).parallel().forEach(i -> {
+        final int offset = i * _chunkSize;
+        stored[i] = _codec.compress(raw, offset, Math.min(_chunkSize, rawLength - offset));
+      });
+
+      os.write(MAGIC);
+      ByteUtils.writeInt(os, VERSION);
+      os.write(MappableBinaryExporter.getByteOrderFlag(getBufferOrder()));
+      os.write(_codec.getId());
+      ByteUtils.writeInt(os, rawLength);
+      ByteUtils.writeInt(os, chunks);
+      for (int i = 0; i < chunks; i++) {
+        ByteUtils.writeInt(os, Math.min(_chunkSize, rawLength - i * _chunkSize));
+        ByteUtils.writeInt(os, stored[i].length);
+      }
+      for (final byte[] chunk : stored) {
+        os.write(chunk);
+      }
+      os.flush();
+    } finally {
+      reset();
+    }
+  }
+
+  @Override
+  protected ByteOrder getBufferOrder() {
+    return ByteOrder.nativeOrder();
+  }
+
+  public BinaryCodec getCodec() { return _codec; }
+
+  public int getChunkSize() { return _chunkSize; }
+
+  /** Gives access to its buffer, saving a copy of the whole content. */
+  private static class ContentStream extends ByteArrayOutputStream {
+    byte[] getBuffer() { return buf; }
+  }
+}
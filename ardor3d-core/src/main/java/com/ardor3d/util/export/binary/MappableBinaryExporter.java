@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.util.export.binary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ardor3d.util.export.ByteUtils;
+import com.ardor3d.util.export.Savable;
+
+/**
+ * <p>
+ * Exports to an uncompressed variant of the ardor3d Binary Format, laid out so that a file can be
+ * memory mapped by {@link BinaryImporter#load(java.io.File)} and its nio buffers used in place, with
+ * no decompression or copying. Format descriptor:
+ * </p>
+ * <p>
+ * 1. "magic" - four bytes - {@link #MAGIC}, telling this variant apart from the gzipped one.
+ * </p>
+ * <p>
+ * 2. "version" - four bytes - int value {@link #VERSION}.
+ * </p>
+ * <p>
+ * 2b. "byte order" - one byte - {@link #LITTLE_ENDIAN} or {@link #BIG_ENDIAN}, the byte order of the
+ * buffer contents. This is the native order of the platform that wrote the file, so buffers can be
+ * used in place there.
+ * </p>
+ * <p>
+ * 3. items 1 thru 14 of the format described in {@link BinaryExporter}, uncompressed.
+ * </p>
+ * <p>
+ * 4. "data length" - four bytes - int value representing the length of the object data section.
+ * </p>
+ * <p>
+ * 5. the object data section, as in {@link BinaryExporter}, except that the contents of each nio
+ * buffer field are replaced by an int index into the buffer table.
+ * </p>
+ * <p>
+ * 6. "number of buffers" - four bytes - int value representing the number of entries in the buffer
+ * table.
+ * </p>
+ * <p>
+ * BUFFER TABLE: There will be X blocks each consisting of numbers 7 and 8, where X = the number read
+ * in 6.
+ * </p>
+ * <p>
+ * 7. "buffer location" - eight bytes - long value representing the offset from the start of the file
+ * of the buffer contents, a multiple of {@link #ALIGNMENT}.
+ * </p>
+ * <p>
+ * 8. "buffer length" - four bytes - int value representing the length in bytes of the buffer
+ * contents.
+ * </p>
+ * <p>
+ * BUFFER SECTION: the contents of each buffer, in the byte order given in 2b, at the locations given in 7 and padded
+ * with zeros between.
+ * </p>
+ */
+public class MappableBinaryExporter extends BinaryExporter {
+
+  /** Magic bytes at the start of files in our format. */
+  public static final byte[] MAGIC = {'A', '3', 'D', 'M'};
+
+  /** The version of our format. */
+  public static final int VERSION = 2;
+
+  /** Byte order flag for little endian buffer contents. */
+  public static final byte LITTLE_ENDIAN = 0;
+
+  /** Byte order flag for big endian buffer contents. */
+  public static final byte BIG_ENDIAN = 1;
+
+  /** Alignment, in bytes, of buffer contents in the file. */
+  public static final int ALIGNMENT = 16;
+
+  /** Contents of the buffers written so far, by index. */
+  protected final List<byte[]> _buffers = new ArrayList<>();
+
+  /** Index of each distinct buffer content written so far, so equal buffers are stored once. */
+  protected final Map<BufferKey, Integer> _bufferIndices = new HashMap<>();
+
+  @Override
+  public void save(final Savable object, final OutputStream os) throws IOException {
+    try {
+      final int id = processBinarySavable(object);
+
+      // everything before the buffer section is small, so gather it to learn where buffers will go
+      final ByteArrayOutputStream header = new ByteArrayOutputStream();
+      header.write(MAGIC);
+      ByteUtils.writeInt(header, VERSION);
+      header.write(getByteOrderFlag(getBufferOrder()));
+      writeContent(id, header);
+      ByteUtils.writeInt(header, _buffers.size());
+
+      final long[] locations = new long[_buffers.size()];
+      long location = header.size() + _buffers.size() * 12L;
+      for (int i = 0; i < locations.length; i++) {
+        location = align(location);
+        locations[i] = location;
+        ByteUtils.writeLong(header, location);
+        ByteUtils.writeInt(header, _buffers.get(i).length);
+        location += _buffers.get(i).length;
+      }
+      header.writeTo(os);
+
+      long written = header.size();
+      final byte[] padding = new byte[ALIGNMENT];
+      for (int i = 0; i < locations.length; i++) {
+        os.write(padding, 0, (int) (locations[i] - written));
+        os.write(_buffers.get(i));
+        written = locations[i] + _buffers.get(i).length;
+      }
+      os.flush();
+    } finally {
+      reset();
+    }
+  }
+
+  @Override
+  protected void writeObjectData(final ByteArrayOutputStream data, final OutputStream os) throws IOException {
+    ByteUtils.writeInt(os, data.size());
+    data.writeTo(os);
+  }
+
+  @Override
+  protected ByteOrder getBufferOrder() {
+    return ByteOrder.nativeOrder();
+  }
+
+  @Override
+  protected int addBufferData(final byte[] data, final int offset, final int length) {
+    final byte[] contents =
+        offset == 0 && length == data.length ? data : Arrays.copyOfRange(data, offset, offset + length);
+    // equal contents get the same index, so the capsules holding them can still be shared
+    return _bufferIndices.computeIfAbsent(new BufferKey(contents), key -> {
+      _buffers.add(contents);
+      return _buffers.size() - 1;
+    });
+  }
+
+  @Override
+  protected void reset() {
+    super.reset();
+    _buffers.clear();
+    _bufferIndices.clear();
+  }
+
+  /** Compares buffer contents by value. */
+  protected static final class BufferKey {
+    private final byte[] _contents;
+    private final int _hash;
+
+    BufferKey(final byte[] contents) {
+      _contents = contents;
+      _hash = Arrays.hashCode(contents);
+    }
+
+    @Override
+    public int hashCode() {
+      return _hash;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      return obj instanceof BufferKey other && _hash == other._hash && Arrays.equals(_contents, other._contents);
+    }
+  }
+
+  /**
+   * @param order
+   *          a byte order
+   * @return the flag we write to a file header for the given order.
+   */
+  public static byte getByteOrderFlag(final ByteOrder order) {
+    return order == ByteOrder.BIG_ENDIAN ? BIG_ENDIAN : LITTLE_ENDIAN;
+  }
+
+  private static long align(final long location) {
+    return (location + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+  }
+}
@@ -29,7 +29,6 @@ import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
-import com.ardor3d.annotation.SavableFactory;
 import com.ardor3d.buffer.BufferUtils;
 import com.ardor3d.image.Texture;
 import com.ardor3d.renderer.state.RenderState;
@@ -39,6 +38,7 @@ import com.ardor3d.util.TextureKey;
 import com.ardor3d.util.TextureManager;
 import com.ardor3d.util.export.InputCapsule;
 import com.ardor3d.util.export.Savable;
+import com.ardor3d.util.export.SavableFactories;
 import com.ardor3d.util.export.binary.BinaryClassField;
 
 /**
@@ -818,14 +818,7 @@ public class DOMInputCapsule implements InputCapsule {
       }
 
       try {
-        @SuppressWarnings("unchecked")
-        final Class<? extends Savable> clazz = (Class<? extends Savable>) Class.forName(className);
-        final SavableFactory ann = clazz.getAnnotation(SavableFactory.class);
-        if (ann == null) {
-          tmp = clazz.getDeclaredConstructor().newInstance();
-        } else {
-          tmp = (Savable) clazz.getMethod(ann.factoryMethod(), (Class<?>[]) null).invoke(null, (Object[]) null);
-        }
+        tmp = SavableFactories.newInstance(className);
       } catch (final InstantiationException e) {
         Logger.getLogger(getClass().getName()).logp(Level.SEVERE, this.getClass().toString(),
             "readSavableFromCurrentElem(Savable)", "Could not access constructor of class '" + className + "'! \n"
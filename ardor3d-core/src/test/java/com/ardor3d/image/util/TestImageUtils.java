@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.image.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.ardor3d.image.Image;
+import com.ardor3d.image.ImageDataFormat;
+import com.ardor3d.image.PixelDataType;
+import com.ardor3d.image.Texture2D;
+import com.ardor3d.image.Texture3D;
+import com.ardor3d.image.TextureStoreFormat;
+
+public class TestImageUtils {
+
+  @Test
+  public void subImagePixelTypeFollowsTheImage() {
+    final Texture3D texture = new Texture3D();
+    final Image image = new Image();
+    image.setDataFormat(ImageDataFormat.RG);
+    image.setDataType(PixelDataType.Float);
+    texture.setImage(image);
+    texture.setTextureStoreFormat(TextureStoreFormat.RG32F);
+    assertEquals(PixelDataType.Float, ImageUtils.getPixelDataType(texture));
+
+    image.setDataType(PixelDataType.UnsignedByte);
+    assertEquals(PixelDataType.UnsignedByte, ImageUtils.getPixelDataType(texture));
+  }
+
+  @Test
+  public void subImagePixelTypeWithoutAnImageFollowsTheStoreFormat() {
+    final Texture2D texture = new Texture2D();
+    texture.setTextureStoreFormat(TextureStoreFormat.RGBA32F);
+    assertEquals(PixelDataType.Float, ImageUtils.getPixelDataType(texture));
+    texture.setTextureStoreFormat(TextureStoreFormat.RG16F);
+    assertEquals(PixelDataType.HalfFloat, ImageUtils.getPixelDataType(texture));
+    texture.setTextureStoreFormat(TextureStoreFormat.RGBA8);
+    assertEquals(PixelDataType.UnsignedByte, ImageUtils.getPixelDataType(texture));
+  }
+}
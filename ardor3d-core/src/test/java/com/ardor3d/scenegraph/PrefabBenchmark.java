@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.scenegraph;
+
+import java.util.function.Supplier;
+
+import com.ardor3d.bounding.BoundingBox;
+import com.ardor3d.math.Vector3;
+import com.ardor3d.renderer.state.BlendState;
+import com.ardor3d.renderer.state.CullState;
+import com.ardor3d.scenegraph.shape.Box;
+import com.ardor3d.scenegraph.shape.Sphere;
+import com.ardor3d.util.export.binary.BinaryCloner;
+import com.ardor3d.util.geom.SceneCopier;
+import com.ardor3d.util.geom.SharedCopyLogic;
+
+/**
+ * Measures the time to make many copies of a multi mesh model, built of plain nodes and meshes like an
+ * imported one, with a full binary clone, the shared copy logic of SceneCopier, makeCopy and a Prefab,
+ * building new instances or reusing released ones. Run as a plain java application, optionally passing
+ * the number of copies to make.
+ */
+public class PrefabBenchmark {
+
+  private static final int PARTS = 8;
+  private static final int RUNS = 5;
+
+  @SuppressWarnings("deprecation")
+  public static void main(final String[] args) {
+    final int copies = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+    final Node model = createModel();
+    final Prefab prefab = new Prefab(model);
+
+    System.out.println("method\tcopies/s");
+    // a binary clone copies all of the mesh data too, so make fewer of them
+    run("binary clone", Math.max(1, copies / 100), () -> new BinaryCloner().copy(model));
+    run("scene copier", copies, () -> SceneCopier.makeCopy(model, new SharedCopyLogic()));
+    run("make copy", copies, () -> model.makeCopy(true));
+    run("prefab", copies, prefab::instantiate);
+    // every copy is handed back once made, so after warm up all copies reuse a released instance
+    run("prefab, reused", copies, () -> {
+      final Spatial copy = prefab.instantiate();
+      prefab.release(copy);
+      return copy;
+    });
+  }
+
+  private static void run(final String name, final int copies, final Supplier<Spatial> copier) {
+    final Spatial[] store = new Spatial[copies];
+    // warm up, then measure
+    for (int i = 0; i < copies; i++) {
+      store[i] = copier.get();
+    }
+
+    long time = 0;
+    for (int r = 0; r < RUNS; r++) {
+      final long start = System.nanoTime();
+      for (int i = 0; i < copies; i++) {
+        store[i] = copier.get();
+      }
+      time += System.nanoTime() - start;
+    }
+    System.out.printf("%s\t%.0f%n", name, RUNS * copies / (time / 1e9));
+  }
+
+  private static Node createModel() {
+    final Node root = new Node("model");
+    final CullState cull = new CullState();
+    cull.setCullFace(CullState.Face.Back);
+    root.setRenderState(cull);
+    final BlendState blend = new BlendState();
+    blend.setBlendEnabled(true);
+
+    for (int p = 0; p < PARTS; p++) {
+      final Node part = new Node("part" + p);
+      part.setTranslation(p, 0, 0);
+      // plain meshes, as the importers make
+      final Mesh box = new Mesh("box" + p);
+      box.setMeshData(new Box("", Vector3.ZERO, 0.5, 0.5, 0.5).getMeshData());
+      box.setModelBound(new BoundingBox());
+      final Mesh sphere = new Mesh("sphere" + p);
+      sphere.setMeshData(new Sphere("", 32, 32, 0.5).getMeshData());
+      sphere.setModelBound(new BoundingBox());
+      sphere.setTranslation(0, 1, 0);
+      sphere.setRenderState(blend);
+      part.attachChild(box);
+      part.attachChild(sphere);
+      root.attachChild(part);
+    }
+    root.updateGeometricState(0);
+    return root;
+  }
+}
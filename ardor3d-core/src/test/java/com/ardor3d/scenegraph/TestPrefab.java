@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.scenegraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.FloatBuffer;
+
+import org.junit.Test;
+
+import com.ardor3d.bounding.BoundingBox;
+import com.ardor3d.bounding.CollisionTree;
+import com.ardor3d.bounding.CollisionTreeManager;
+import com.ardor3d.math.Vector3;
+import com.ardor3d.math.type.ReadOnlyVector3;
+import com.ardor3d.renderer.state.CullState;
+import com.ardor3d.renderer.state.RenderState.StateType;
+import com.ardor3d.scenegraph.shape.Box;
+
+public class TestPrefab {
+
+  static Node makeModel() {
+    final Node root = new Node("model");
+    final CullState cull = new CullState();
+    cull.setCullFace(CullState.Face.Back);
+    root.setRenderState(cull);
+    root.setProperty("kind", "crate");
+
+    final Node arm = new Node("arm");
+    arm.setTranslation(2, 0, 0);
+    root.attachChild(arm);
+    for (int i = 0; i < 3; i++) {
+      final Box box = new Box("box" + i, Vector3.ZERO, 0.5, 0.5, 0.5);
+      box.setModelBound(new BoundingBox());
+      box.setTranslation(0, i, 0);
+      arm.attachChild(box);
+    }
+    final Line line = new Line("line", new ReadOnlyVector3[] {Vector3.ZERO, Vector3.UNIT_X}, null, null, null);
+    line.setLineWidth(3);
+    root.attachChild(line);
+    root.updateGeometricState(0);
+    return root;
+  }
+
+  @Test
+  public void instancesShareDataButNotHierarchy() {
+    final Node model = makeModel();
+    final Prefab prefab = new Prefab(model);
+    // the line has its own makeCopy, so it is copied with that rather than by the prefab
+    assertEquals(6, prefab.getSpatialCount());
+
+    final Node copy = (Node) prefab.instantiate();
+    assertEquals("model", copy.getName());
+    assertSame(model.getLocalRenderState(StateType.Cull), copy.getLocalRenderState(StateType.Cull));
+    assertEquals("crate", copy.getLocalProperty("kind", null));
+
+    final Node arm = (Node) copy.getChild(0);
+    assertSame(copy, arm.getParent());
+    assertEquals(new Vector3(2, 0, 0), arm.getTranslation());
+    final Box prototypeBox = (Box) ((Node) model.getChild(0)).getChild(2);
+    final Box box = (Box) arm.getChild(2);
+    assertSame(arm, box.getParent());
+    assertSame(prototypeBox.getMeshData(), box.getMeshData());
+    assertNotSame(prototypeBox.getModelBound(), box.getModelBound());
+    assertEquals(prototypeBox.getModelBound(), box.getModelBound());
+
+    assertEquals(3f, ((Line) copy.getChild(1)).getLineWidth(), 0f);
+
+    // transforms are the instance's own
+    copy.setTranslation(10, 0, 0);
+    copy.updateGeometricState(0);
+    assertEquals(new Vector3(12, 2, 0), box.getWorldTranslation());
+    assertEquals(new Vector3(2, 2, 0), prototypeBox.getWorldTranslation());
+    assertEquals(model.getChild(0).getWorldBound().getCenter().add(10, 0, 0, null), arm.getWorldBound().getCenter());
+
+    final Spatial[] many = prefab.instantiate(new Spatial[5]);
+    assertNotSame(many[0], many[4]);
+  }
+
+  @Test
+  public void editsCopyOnWrite() {
+    final Node model = makeModel();
+    final Prefab prefab = new Prefab(model);
+    final Node copy = (Node) prefab.instantiate();
+    final Node other = (Node) prefab.instantiate();
+    final Box box = (Box) ((Node) copy.getChild(0)).getChild(0);
+    final MeshData shared = box.getMeshData();
+
+    final MeshData own = prefab.editMeshData(box);
+    assertNotSame(shared, own);
+    assertSame(own, box.getMeshData());
+    assertSame(own, prefab.editMeshData(box));
+    assertSame(shared, ((Mesh) ((Node) other.getChild(0)).getChild(0)).getMeshData());
+
+    final CullState cull = prefab.editRenderState(copy, StateType.Cull);
+    assertNotSame(model.getLocalRenderState(StateType.Cull), cull);
+    assertEquals(CullState.Face.Back, cull.getCullFace());
+    cull.setCullFace(CullState.Face.None);
+    assertSame(cull, prefab.editRenderState(copy, StateType.Cull));
+    assertEquals(CullState.Face.Back, ((CullState) model.getLocalRenderState(StateType.Cull)).getCullFace());
+  }
+
+  @Test
+  public void collisionTreesShareStructureWhenAsked() {
+    final Node model = makeModel();
+    final Prefab prefab = new Prefab(model);
+    final Mesh prototypeBox = (Mesh) ((Node) model.getChild(0)).getChild(0);
+    final CollisionTreeManager manager = CollisionTreeManager.getInstance();
+    final CollisionTree prototypeTree = manager.getCollisionTree(prototypeBox);
+
+    // by default an instance builds its own tree
+    final Mesh box = (Mesh) ((Node) ((Node) prefab.instantiate()).getChild(0)).getChild(0);
+    assertNotSame(prototypeTree.getBounds(), manager.getCollisionTree(box).getBounds());
+
+    prefab.setShareCollisionTrees(true);
+    final Mesh sharing = (Mesh) ((Node) ((Node) prefab.instantiate()).getChild(0)).getChild(0);
+    final CollisionTree tree = manager.getCollisionTree(sharing);
+    assertNotSame(prototypeTree, tree);
+    assertSame(prototypeTree.getBounds(), tree.getBounds());
+    assertNotSame(prototypeTree.getWorldBounds(), tree.getWorldBounds());
+    assertTrue(tree.intersectsBounding(prototypeTree.getWorldBounds()));
+  }
+
+  @Test
+  public void removedSharedTreeIsRebuiltFromCurrentData() {
+    final Node model = makeModel();
+    final Prefab prefab = new Prefab(model);
+    prefab.setShareCollisionTrees(true);
+    final Mesh prototypeBox = (Mesh) ((Node) model.getChild(0)).getChild(0);
+    final Mesh box = (Mesh) ((Node) ((Node) prefab.instantiate()).getChild(0)).getChild(0);
+    final CollisionTreeManager manager = CollisionTreeManager.getInstance();
+    final CollisionTree shared = manager.getCollisionTree(box);
+    assertSame(manager.getCollisionTree(prototypeBox).getBounds(), shared.getBounds());
+
+    // grow the shared data in place, then drop the instance's tree
+    final FloatBuffer vertices = box.getMeshData().getVertexBuffer();
+    for (int i = 0; i < vertices.limit(); i++) {
+      vertices.put(i, vertices.get(i) * 4);
+    }
+    manager.removeCollisionTree(box);
+
+    final CollisionTree rebuilt = manager.getCollisionTree(box);
+    assertNotSame(shared, rebuilt);
+    assertNotSame(shared.getBounds(), rebuilt.getBounds());
+    assertEquals(2.0, ((BoundingBox) rebuilt.getBounds()).getXExtent(), 1e-6);
+  }
+
+  @Test
+  public void releasedInstancesAreReused() {
+    final Node model = makeModel();
+    final Prefab prefab = new Prefab(model);
+    prefab.preallocate(2);
+    assertEquals(2, prefab.getPooledCount());
+
+    final Node copy = (Node) prefab.instantiate();
+    assertEquals(1, prefab.getPooledCount());
+    final Node arm = (Node) copy.getChild(0);
+    final Box box = (Box) arm.getChild(0);
+    final Line line = (Line) copy.getChild(1);
+
+    // change the instance, then hand it back
+    final Node parent = new Node("parent");
+    parent.attachChild(copy);
+    arm.setTranslation(5, 5, 5);
+    prefab.editMeshData(box);
+    prefab.editRenderState(copy, StateType.Cull);
+    box.setProperty("hit", true);
+    assertTrue(prefab.release(copy));
+    assertEquals(null, copy.getParent());
+    assertEquals(2, prefab.getPooledCount());
+
+    final Node reused = (Node) prefab.instantiate();
+    assertSame(copy, reused);
+    assertSame(arm, reused.getChild(0));
+    assertSame(box, arm.getChild(0));
+    assertEquals(new Vector3(2, 0, 0), arm.getTranslation());
+    final Box prototypeBox = (Box) ((Node) model.getChild(0)).getChild(0);
+    assertSame(prototypeBox.getMeshData(), box.getMeshData());
+    assertSame(model.getLocalRenderState(StateType.Cull), reused.getLocalRenderState(StateType.Cull));
+    assertEquals(null, box.getLocalProperty("hit", null));
+    // the line is copied with makeCopy, so it is replaced rather than reset
+    assertNotSame(line, reused.getChild(1));
+    assertSame(reused, reused.getChild(1).getParent());
+
+    reused.updateGeometricState(0);
+    assertEquals(new Vector3(2, 0, 0), box.getWorldTranslation());
+
+    // an instance whose hierarchy changed is not taken back
+    arm.detachChildAt(0);
+    assertFalse(prefab.release(reused));
+  }
+}
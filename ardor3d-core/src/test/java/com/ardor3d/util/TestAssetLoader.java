@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.ardor3d.util.AssetLoader.Priority;
+
+public class TestAssetLoader {
+
+  private final Object _queueKey = new Object();
+  private final AssetLoader _loader = new AssetLoader(_queueKey, 1);
+  private final CountDownLatch _gate = new CountDownLatch(1);
+  private final List<String> _order = Collections.synchronizedList(new ArrayList<>());
+
+  @After
+  public void shutdown() {
+    _loader.shutdown();
+    GameTaskQueueManager.clearManager(_queueKey);
+  }
+
+  /** Hold the single worker until the gate opens, so requests pile up behind it. */
+  private void blockWorker() {
+    _loader.load("blocker", Priority.High, () -> _gate.await(5, TimeUnit.SECONDS));
+  }
+
+  private CompletableFuture<String> record(final String key, final Priority priority) {
+    return _loader.load(key, priority, () -> {
+      _order.add(key);
+      return key;
+    });
+  }
+
+  @Test
+  public void concurrentRequestsShareOneLoad() throws Exception {
+    blockWorker();
+    final AtomicInteger loads = new AtomicInteger();
+    final CompletableFuture<Integer> a = _loader.load("a", Priority.Normal, loads::incrementAndGet);
+    final CompletableFuture<Integer> b = _loader.load("a", Priority.Normal, loads::incrementAndGet);
+    assertEquals(2, _loader.getPendingCount());
+    _gate.countDown();
+
+    assertEquals(1, (int) a.get(5, TimeUnit.SECONDS));
+    assertEquals(1, (int) b.get(5, TimeUnit.SECONDS));
+    assertEquals(1, loads.get());
+
+    // once done, a new request loads again
+    assertEquals(2, (int) _loader.load("a", Priority.Normal, loads::incrementAndGet).get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void higherPriorityRunsFirst() throws Exception {
+    blockWorker();
+    record("low", Priority.Low);
+    record("normal", Priority.Normal);
+    record("high", Priority.High);
+    record("normal2", Priority.Normal);
+    // asking again with a higher priority moves a waiting request ahead
+    record("raised", Priority.Low);
+    record("raised", Priority.High);
+    _gate.countDown();
+
+    record("last", Priority.Low).get(5, TimeUnit.SECONDS);
+    assertEquals(List.of("high", "raised", "normal", "normal2", "low", "last"), _order);
+  }
+
+  @Test
+  public void uploadsAreSpreadOverFrames() throws Exception {
+    _loader.setUploadBudgetNanos(0);
+    final List<String> uploaded = Collections.synchronizedList(new ArrayList<>());
+    final List<CompletableFuture<String>> futures = new ArrayList<>();
+    for (final String key : new String[] {"a", "b", "c"}) {
+      futures.add(_loader.load(key, Priority.Normal, () -> key, (renderer, asset) -> uploaded.add(asset)));
+    }
+    // the single worker takes requests in order, so when this is done the loads above are too
+    record("fence", Priority.Low).get(5, TimeUnit.SECONDS);
+    assertTrue(uploaded.isEmpty());
+    assertFalse(futures.get(0).isDone());
+
+    final GameTaskQueue render = GameTaskQueueManager.getManager(_queueKey).getQueue(GameTaskQueue.RENDER);
+    for (int frame = 1; frame <= 3; frame++) {
+      render.execute();
+      assertEquals(frame, uploaded.size());
+    }
+    assertEquals(List.of("a", "b", "c"), uploaded);
+    assertEquals("c", futures.get(2).get(0, TimeUnit.SECONDS));
+    assertEquals(0, render.size());
+    assertEquals(0, _loader.getPendingCount());
+  }
+
+  @Test
+  public void failuresCompleteExceptionally() throws Exception {
+    final CompletableFuture<Object> future = _loader.load("bad", Priority.Normal, () -> {
+      throw new IllegalStateException("broken");
+    });
+    try {
+      future.get(5, TimeUnit.SECONDS);
+      fail("the load threw");
+    } catch (final ExecutionException expected) {
+      assertTrue(expected.getCause() instanceof IllegalStateException);
+    }
+    assertEquals(0, _loader.getPendingCount());
+  }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.ardor3d.util.GameTaskQueue.Priority;
+
+public class TestGameTaskQueue {
+
+  private final GameTaskQueue _queue = new GameTaskQueue();
+  private final List<String> _order = new ArrayList<>();
+
+  private Callable<Void> record(final String name) {
+    return () -> {
+      _order.add(name);
+      return null;
+    };
+  }
+
+  private Callable<Void> sleep(final String name, final long millis) {
+    return () -> {
+      Thread.sleep(millis);
+      _order.add(name);
+      return null;
+    };
+  }
+
+  @Test
+  public void singleTaskPerExecuteByDefault() {
+    _queue.enqueue(record("a"));
+    _queue.enqueue(record("b"));
+    _queue.execute();
+    assertEquals(List.of("a"), _order);
+    _queue.execute();
+    assertEquals(List.of("a", "b"), _order);
+  }
+
+  @Test
+  public void higherPriorityRunsFirst() {
+    _queue.setExecuteMultiple(true);
+    _queue.enqueue(record("low"), Priority.Low, null);
+    _queue.enqueue(record("normal"));
+    _queue.enqueue(record("high"), Priority.High, null);
+    _queue.enqueue(record("normal2"));
+    assertEquals(2, _queue.size(Priority.Normal));
+    _queue.execute();
+    assertEquals(List.of("high", "normal", "normal2", "low"), _order);
+  }
+
+  @Test
+  public void producersTakeTurns() {
+    _queue.setExecuteMultiple(true);
+    for (int i = 1; i <= 4; i++) {
+      _queue.enqueue(record("a" + i), Priority.Normal, "a");
+    }
+    _queue.enqueue(record("b1"), Priority.Normal, "b");
+    _queue.enqueue(record("b2"), Priority.Normal, "b");
+    _queue.execute();
+    assertEquals(List.of("a1", "b1", "a2", "b2", "a3", "a4"), _order);
+  }
+
+  @Test
+  public void expensiveTasksWaitForTheNextExecute() {
+    _queue.setExecutionBudgetNanos(TimeUnit.MILLISECONDS.toNanos(5));
+
+    // the first run of a kind of task is not predicted, and the first task of an execute always runs
+    _queue.enqueue(sleep("slow1", 10));
+    _queue.execute();
+    final long slowCost = _queue.getAverageTaskNanos(sleep("", 0).getClass());
+    assertTrue(slowCost >= TimeUnit.MILLISECONDS.toNanos(10));
+    assertEquals(1, _queue.getOverrunCount());
+
+    _queue.enqueue(record("fast1"));
+    _queue.enqueue(sleep("slow2", 10));
+    _queue.enqueue(record("fast2"));
+    _queue.execute();
+    // slow2 would overrun after fast1, so it leads the next execute
+    assertEquals(List.of("slow1", "fast1"), _order);
+    assertEquals(1, _queue.getOverrunCount());
+    _queue.execute();
+    assertEquals(List.of("slow1", "fast1", "slow2"), _order);
+    assertEquals(2, _queue.getOverrunCount());
+    _queue.execute();
+    assertEquals(List.of("slow1", "fast1", "slow2", "fast2"), _order);
+  }
+
+  @Test
+  public void metricsAndCancellation() throws Exception {
+    _queue.setExecuteMultiple(true);
+    final Future<Void> cancelled = _queue.enqueue(record("cancelled"));
+    cancelled.cancel(false);
+    _queue.enqueue(record("a"));
+    Thread.sleep(2);
+    _queue.execute();
+
+    assertEquals(List.of("a"), _order);
+    assertEquals(0, _queue.size());
+    assertEquals(1, _queue.getExecutedCount());
+    assertTrue(_queue.getMaxLatencyNanos() >= TimeUnit.MILLISECONDS.toNanos(2));
+    assertEquals(_queue.getMaxLatencyNanos(), _queue.getAverageLatencyNanos());
+
+    _queue.resetMetrics();
+    assertEquals(0, _queue.getExecutedCount());
+    assertEquals(0, _queue.getMaxLatencyNanos());
+  }
+
+  @Test
+  public void enqueueAllKeepsPriorities() {
+    final GameTaskQueue other = new GameTaskQueue();
+    other.enqueue(record("low"), Priority.Low, null);
+    other.enqueue(record("high"), Priority.High, null);
+    _queue.enqueue(record("normal"));
+    _queue.enqueueAll(other);
+    assertEquals(0, other.size());
+    assertEquals(3, _queue.size());
+
+    _queue.setExecuteMultiple(true);
+    _queue.execute();
+    assertEquals(List.of("high", "normal", "low"), _order);
+  }
+}
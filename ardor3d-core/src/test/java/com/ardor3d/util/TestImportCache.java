@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.ardor3d.util.export.binary.SavableLeaf;
+import com.ardor3d.util.resource.ResourceSource;
+import com.ardor3d.util.resource.StringResourceSource;
+
+public class TestImportCache {
+
+  private final File _dir = new File(System.getProperty("java.io.tmpdir"), "importcache-" + System.nanoTime());
+  private final AtomicInteger _imports = new AtomicInteger();
+
+  @After
+  public void deleteDir() {
+    new ImportCache(_dir, 0).clear();
+    _dir.delete();
+  }
+
+  private SavableLeaf importLeaf(final ResourceSource source) throws IOException {
+    _imports.incrementAndGet();
+    return new SavableLeaf(_imports.get(), source.getName());
+  }
+
+  @Test
+  public void hitSkipsImport() throws Exception {
+    final ImportCache cache = new ImportCache(_dir, Long.MAX_VALUE);
+    final ResourceSource source = new StringResourceSource("model", ".obj");
+
+    final SavableLeaf first = cache.load(source, "a", SavableLeaf.class, this::importLeaf);
+    final SavableLeaf second = cache.load(source, "a", SavableLeaf.class, this::importLeaf);
+    assertEquals(1, _imports.get());
+    assertEquals(first, second);
+    assertNotSame(first, second);
+  }
+
+  @Test
+  public void changedContentOrSettingsMiss() throws Exception {
+    final ImportCache cache = new ImportCache(_dir, Long.MAX_VALUE);
+    cache.load(new StringResourceSource("model", ".obj"), "a", SavableLeaf.class, this::importLeaf);
+    cache.load(new StringResourceSource("model", ".obj"), "b", SavableLeaf.class, this::importLeaf);
+    cache.load(new StringResourceSource("model2", ".obj"), "a", SavableLeaf.class, this::importLeaf);
+    assertEquals(3, _imports.get());
+    assertEquals(3, entries().length);
+
+    cache.clear();
+    assertEquals(0, entries().length);
+    cache.load(new StringResourceSource("model", ".obj"), "a", SavableLeaf.class, this::importLeaf);
+    assertEquals(4, _imports.get());
+  }
+
+  @Test
+  public void corruptEntryIsReimported() throws Exception {
+    final ImportCache cache = new ImportCache(_dir, Long.MAX_VALUE);
+    final ResourceSource source = new StringResourceSource("model", ".obj");
+    cache.load(source, "a", SavableLeaf.class, this::importLeaf);
+
+    Files.write(entries()[0].toPath(), new byte[] {1, 2, 3});
+    final SavableLeaf leaf = cache.load(source, "a", SavableLeaf.class, this::importLeaf);
+    assertEquals(2, _imports.get());
+    assertEquals(2, leaf.id);
+
+    // and the entry was written again
+    cache.load(source, "a", SavableLeaf.class, this::importLeaf);
+    assertEquals(2, _imports.get());
+  }
+
+  @Test
+  public void leastRecentlyUsedAreEvicted() throws Exception {
+    final ImportCache unbounded = new ImportCache(_dir, Long.MAX_VALUE);
+    final ResourceSource a = new StringResourceSource("a", ".obj");
+    unbounded.load(a, "", SavableLeaf.class, this::importLeaf);
+    final File entryA = entries()[0];
+    unbounded.load(new StringResourceSource("b", ".obj"), "", SavableLeaf.class, this::importLeaf);
+    final File entryB = entries()[0].equals(entryA) ? entries()[1] : entries()[0];
+    entryA.setLastModified(2_000_000_000L);
+    entryB.setLastModified(1_000_000_000L);
+
+    // room for two entries: adding a third drops b, used longest ago
+    final ImportCache cache = new ImportCache(_dir, entryA.length() * 5 / 2);
+    cache.load(new StringResourceSource("c", ".obj"), "", SavableLeaf.class, this::importLeaf);
+    assertEquals(2, entries().length);
+    assertTrue(entryA.isFile());
+    assertFalse(entryB.isFile());
+
+    // a hit counts as a use
+    entryA.setLastModified(1_000_000_000L);
+    cache.load(a, "", SavableLeaf.class, this::importLeaf);
+    assertEquals(3, _imports.get());
+    assertTrue(entryA.lastModified() > 1_000_000_000L);
+  }
+
+  private File[] entries() {
+    return _dir.listFiles((dir, name) -> name.endsWith(ImportCache.SUFFIX));
+  }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.util.export.binary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import com.ardor3d.buffer.BufferUtils;
+import com.ardor3d.scenegraph.Mesh;
+import com.ardor3d.scenegraph.Node;
+import com.ardor3d.util.export.Savable;
+
+/**
+ * Measures save and load throughput of a large generated scene for the gzipped binary format and the
+ * chunked format with each built in codec. Run as a plain java application, optionally passing the
+ * number of meshes to generate.
+ */
+public class BinaryThroughputBenchmark {
+
+  private static final int VERTICES = 20_000;
+  private static final int RUNS = 5;
+
+  public static void main(final String[] args) throws IOException {
+    final int meshes = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+    final Node scene = createScene(meshes);
+
+    System.out.println("format\tsize (MB)\tsave (MB/s)\tload (MB/s)");
+    run("gzip best", new BinaryExporter(), scene);
+    run("gzip fast", new BinaryExporter(Deflater.BEST_SPEED), scene);
+    run("chunked none", new ChunkedBinaryExporter(BinaryCodecs.NONE), scene);
+    run("chunked fast", new ChunkedBinaryExporter(BinaryCodecs.DEFLATE_FAST), scene);
+    run("chunked best", new ChunkedBinaryExporter(BinaryCodecs.DEFLATE_BEST), scene);
+    run("mappable", new MappableBinaryExporter(), scene);
+  }
+
+  private static void run(final String name, final BinaryExporter exporter, final Savable scene)
+      throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    // warm up, then measure
+    exporter.save(scene, out);
+    final byte[] bytes = out.toByteArray();
+    new BinaryImporter().load(bytes);
+
+    long save = 0, load = 0;
+    for (int i = 0; i < RUNS; i++) {
+      out.reset();
+      long start = System.nanoTime();
+      exporter.save(scene, out);
+      save += System.nanoTime() - start;
+
+      start = System.nanoTime();
+      new BinaryImporter().load(bytes);
+      load += System.nanoTime() - start;
+    }
+
+    // throughput of the uncompressed scene content
+    final double sceneMB = RUNS * contentSize(scene) / (1024.0 * 1024.0);
+    System.out.printf("%s\t%.1f\t%.1f\t%.1f%n", name, bytes.length / (1024.0 * 1024.0), sceneMB / (save / 1e9),
+        sceneMB / (load / 1e9));
+  }
+
+  private static long contentSize(final Savable scene) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new ChunkedBinaryExporter(BinaryCodecs.NONE).save(scene, out);
+    return out.size();
+  }
+
+  private static Node createScene(final int meshes) {
+    final Random random = new Random(42);
+    final Node root = new Node("root");
+    for (int m = 0; m < meshes; m++) {
+      final Mesh mesh = new Mesh("mesh" + m);
+      final FloatBuffer vertices = BufferUtils.createFloatBuffer(VERTICES * 3);
+      final FloatBuffer normals = BufferUtils.createFloatBuffer(VERTICES * 3);
+      final FloatBuffer texCoords = BufferUtils.createFloatBuffer(VERTICES * 2);
+      for (int v = 0; v < VERTICES; v++) {
+        // a wavy grid, so data compresses about as well as real models do
+        final float x = v % 100, z = v / 100;
+        vertices.put(x).put((float) Math.sin(x * 0.1 + m) * 2 + random.nextFloat() * 0.01f).put(z);
+        normals.put(0).put(1).put(random.nextFloat() * 0.1f);
+        texCoords.put(x / 100f).put(z / 200f);
+      }
+      final IntBuffer indices = BufferUtils.createIntBuffer(VERTICES * 3);
+      for (int i = 0; i < VERTICES; i++) {
+        indices.put(i).put((i + 1) % VERTICES).put((i + 100) % VERTICES);
+      }
+      mesh.getMeshData().setVertexBuffer(vertices);
+      mesh.getMeshData().setNormalBuffer(normals);
+      mesh.getMeshData().setTextureBuffer(texCoords, 0);
+      mesh.getMeshData().setIndexBuffer(indices);
+      mesh.setTranslation(m * 10, 0, 0);
+      root.attachChild(mesh);
+    }
+    return root;
+  }
+}
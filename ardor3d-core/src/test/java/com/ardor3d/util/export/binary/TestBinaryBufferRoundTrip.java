@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.util.export.binary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.ardor3d.buffer.BufferUtils;
+import com.ardor3d.util.export.Savable;
+
+/**
+ * Round-trips every nio buffer field type - float, int, short and byte buffers, and the float and
+ * byte buffer lists - through each binary exporter, direct and on heap, checking contents, directness
+ * and byte order survive.
+ */
+public class TestBinaryBufferRoundTrip {
+
+  @Test
+  public void testDirectBuffers() throws Exception {
+    final AllTypesHolder h = new AllTypesHolder();
+    h.floatBuf = fill(BufferUtils.createFloatBuffer(50));
+    h.intBuf = fill(BufferUtils.createIntBuffer(40));
+    h.shortBuf = fill(BufferUtils.createShortBuffer(30));
+    h.byteBuf = fill(BufferUtils.createByteBuffer(20));
+    for (final BinaryExporter exporter : exporters()) {
+      final AllTypesHolder r = roundTrip(exporter, h);
+      assertBuffers(h, r);
+      assertTrue(r.floatBuf.isDirect() && r.intBuf.isDirect() && r.shortBuf.isDirect() && r.byteBuf.isDirect());
+      assertEquals(ByteOrder.nativeOrder(), r.floatBuf.order());
+      assertEquals(ByteOrder.nativeOrder(), r.byteBuf.order());
+    }
+  }
+
+  @Test
+  public void testHeapBuffers() throws Exception {
+    final AllTypesHolder h = new AllTypesHolder();
+    // array backed buffers - one with limit below capacity, and a slice whose array offset is not zero
+    h.floatBuf = fill(FloatBuffer.allocate(64)).limit(50);
+    h.intBuf = fill(IntBuffer.allocate(48)).position(8).slice();
+    h.shortBuf = fill(BufferUtils.createShortBufferOnHeap(30));
+    h.byteBuf = fill(BufferUtils.createByteBufferOnHeap(20));
+    assertEquals(8, h.intBuf.arrayOffset());
+    for (final BinaryExporter exporter : exporters()) {
+      final AllTypesHolder r = roundTrip(exporter, h);
+      assertBuffers(h, r);
+      assertFalse(r.floatBuf.isDirect() || r.intBuf.isDirect() || r.shortBuf.isDirect() || r.byteBuf.isDirect());
+    }
+  }
+
+  @Test
+  public void testBufferLists() throws Exception {
+    final CollectionsHolder h = new CollectionsHolder();
+    h.floatBufList = List.of(fill(BufferUtils.createFloatBuffer(10)), fill(BufferUtils.createFloatBufferOnHeap(7)));
+    h.byteBufList = List.of(fill(BufferUtils.createByteBufferOnHeap(5)), fill(BufferUtils.createByteBuffer(9)));
+    for (final BinaryExporter exporter : exporters()) {
+      final CollectionsHolder r = roundTrip(exporter, h);
+      assertEquals(2, r.floatBufList.size());
+      assertEquals(2, r.byteBufList.size());
+      for (int i = 0; i < 2; i++) {
+        assertBuffer(h.floatBufList.get(i), r.floatBufList.get(i));
+        assertBuffer(h.byteBufList.get(i), r.byteBufList.get(i));
+      }
+    }
+  }
+
+  @Test
+  public void testForeignByteOrder() throws Exception {
+    // as if written on a platform of the other byte order
+    final ByteOrder foreign =
+        ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+    final AllTypesHolder h = new AllTypesHolder();
+    h.floatBuf = fill(BufferUtils.createFloatBuffer(50));
+    h.intBuf = fill(BufferUtils.createIntBufferOnHeap(40));
+    h.shortBuf = fill(BufferUtils.createShortBuffer(30));
+    for (final BinaryExporter exporter : new BinaryExporter[] {new MappableBinaryExporter() {
+      @Override
+      protected ByteOrder getBufferOrder() { return foreign; }
+    }, new ChunkedBinaryExporter() {
+      @Override
+      protected ByteOrder getBufferOrder() { return foreign; }
+    }}) {
+      final AllTypesHolder r = roundTrip(exporter, h);
+      assertBuffers(h, r);
+      assertTrue(r.floatBuf.isDirect());
+      assertEquals(ByteOrder.nativeOrder(), r.floatBuf.order());
+    }
+  }
+
+  private static BinaryExporter[] exporters() {
+    return new BinaryExporter[] {new BinaryExporter(), new ChunkedBinaryExporter(BinaryCodecs.NONE, 64),
+        new MappableBinaryExporter()};
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T extends Savable> T roundTrip(final BinaryExporter exporter, final T savable) throws Exception {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    exporter.save(savable, out);
+    return (T) new BinaryImporter().load(new ByteArrayInputStream(out.toByteArray()));
+  }
+
+  private static void assertBuffers(final AllTypesHolder expected, final AllTypesHolder actual) {
+    assertBuffer(expected.floatBuf, actual.floatBuf);
+    assertBuffer(expected.intBuf, actual.intBuf);
+    assertBuffer(expected.shortBuf, actual.shortBuf);
+    assertBuffer(expected.byteBuf, actual.byteBuf);
+  }
+
+  private static void assertBuffer(final Buffer expected, final Buffer actual) {
+    if (expected == null) {
+      assertEquals(null, actual);
+      return;
+    }
+    assertEquals(expected.limit(), actual.limit());
+    assertEquals(0, actual.position());
+    assertEquals(expected.duplicate().rewind(), actual.duplicate().rewind());
+  }
+
+  private static FloatBuffer fill(final FloatBuffer buf) {
+    for (int i = 0; i < buf.capacity(); i++) {
+      buf.put(i, i * 1.5f - 7);
+    }
+    return buf;
+  }
+
+  private static IntBuffer fill(final IntBuffer buf) {
+    for (int i = 0; i < buf.capacity(); i++) {
+      buf.put(i, i * 100_003 - 5);
+    }
+    return buf;
+  }
+
+  private static ShortBuffer fill(final ShortBuffer buf) {
+    for (int i = 0; i < buf.capacity(); i++) {
+      buf.put(i, (short) (i * 1021 - 300));
+    }
+    return buf;
+  }
+
+  private static ByteBuffer fill(final ByteBuffer buf) {
+    for (int i = 0; i < buf.capacity(); i++) {
+      buf.put(i, (byte) (i * 7 - 60));
+    }
+    return buf;
+  }
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.util.export.binary;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.FloatBuffer;
+
+import org.junit.Test;
+
+import com.ardor3d.buffer.BufferUtils;
+import com.ardor3d.util.export.ByteUtils;
+
+/**
+ * Round-trips savables through {@link ChunkedBinaryExporter} with each built in codec and a custom
+ * one, split into many chunks.
+ */
+public class TestChunkedBinaryRoundTrip {
+
+  @Test
+  public void testBuiltInCodecsRoundTrip() throws Exception {
+    final AllTypesHolder h = createHolder();
+    int noneSize = 0;
+    for (final BinaryCodec codec : new BinaryCodec[] {BinaryCodecs.NONE, BinaryCodecs.DEFLATE_FAST,
+        BinaryCodecs.DEFLATE, BinaryCodecs.DEFLATE_BEST}) {
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      new ChunkedBinaryExporter(codec, 256).save(h, out);
+      final byte[] bytes = out.toByteArray();
+      assertEquals(codec.getId(), bytes[9]);
+      final int rawLength = ByteUtils.convertIntFromBytes(bytes, 10);
+      assertEquals((rawLength + 255) / 256, ByteUtils.convertIntFromBytes(bytes, 14));
+      if (codec == BinaryCodecs.NONE) {
+        noneSize = bytes.length;
+      } else {
+        assertTrue(bytes.length < noneSize);
+      }
+
+      assertHolder(h, (AllTypesHolder) new BinaryImporter().load(new ByteArrayInputStream(bytes)));
+      assertHolder(h, (AllTypesHolder) new BinaryImporter().load(bytes));
+    }
+  }
+
+  @Test
+  public void testCustomCodec() throws Exception {
+    final BinaryCodec xor = new BinaryCodec() {
+      @Override
+      public int getId() { return 200; }
+
+      @Override
+      public byte[] compress(final byte[] source, final int offset, final int length) {
+        final byte[] rVal = new byte[length];
+        for (int i = 0; i < length; i++) {
+          rVal[i] = (byte) (source[offset + i] ^ 0x5A);
+        }
+        return rVal;
+      }
+
+      @Override
+      public void decompress(final byte[] source, final int offset, final int length, final byte[] store,
+          final int storeOffset, final int storeLength) {
+        for (int i = 0; i < length; i++) {
+          store[storeOffset + i] = (byte) (source[offset + i] ^ 0x5A);
+        }
+      }
+    };
+    final AllTypesHolder h = createHolder();
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new ChunkedBinaryExporter(xor, 100).save(h, out);
+
+    try {
+      new BinaryImporter().load(out.toByteArray());
+      fail("codec is not registered yet");
+    } catch (final IOException expected) {}
+
+    BinaryCodecs.register(xor);
+    assertHolder(h, (AllTypesHolder) new BinaryImporter().load(out.toByteArray()));
+  }
+
+  @Test
+  public void testCorruptChunkFails() throws Exception {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new ChunkedBinaryExporter(BinaryCodecs.DEFLATE, 128).save(createHolder(), out);
+    final byte[] bytes = out.toByteArray();
+    for (int i = bytes.length - 40; i < bytes.length; i++) {
+      bytes[i] = (byte) 0xFF;
+    }
+    try {
+      new BinaryImporter().load(bytes);
+      fail("corrupt data should not load");
+    } catch (final IOException expected) {}
+  }
+
+  @Test
+  public void testCorruptHeaderFails() throws Exception {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new ChunkedBinaryExporter(BinaryCodecs.NONE, 128).save(createHolder(), out);
+    final byte[] original = out.toByteArray();
+    final int rawLength = ByteUtils.convertIntFromBytes(original, 10);
+
+    // chunk count, first chunk length and first stored length, each negative and far too large
+    for (final int offset : new int[] {14, 18, 22}) {
+      for (final int value : new int[] {-1, Integer.MIN_VALUE, Integer.MAX_VALUE, rawLength + 1}) {
+        final byte[] bytes = original.clone();
+        System.arraycopy(ByteUtils.convertToBytes(value), 0, bytes, offset, 4);
+        try {
+          new BinaryImporter().load(bytes);
+          fail("corrupt header at " + offset + " with " + value + " should not load");
+        } catch (final IOException expected) {}
+      }
+    }
+  }
+
+  private static AllTypesHolder createHolder() {
+    final AllTypesHolder h = new AllTypesHolder();
+    h.i = 42;
+    h.str = "chunked";
+    h.iArr = new int[500];
+    for (int i = 0; i < h.iArr.length; i++) {
+      h.iArr[i] = i * 3;
+    }
+    final FloatBuffer floats = BufferUtils.createFloatBuffer(1000);
+    for (int i = 0; i < floats.capacity(); i++) {
+      floats.put(i, i % 17);
+    }
+    h.floatBuf = floats;
+    return h;
+  }
+
+  private static void assertHolder(final AllTypesHolder expected, final AllTypesHolder actual) {
+    assertEquals(expected.i, actual.i);
+    assertEquals(expected.str, actual.str);
+    assertArrayEquals(expected.iArr, actual.iArr);
+    assertEquals(expected.floatBuf.duplicate().rewind(), actual.floatBuf.duplicate().rewind());
+  }
+}
@@ -0,0 +1,234 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.util.export.binary;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.ShortBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.ardor3d.buffer.BufferUtils;
+
+/**
+ * Round-trips savables through {@link MappableBinaryExporter}, loading them back from a mapped file,
+ * a stream and a byte array, and checks gzipped files still load the same ways.
+ */
+public class TestMappableBinaryRoundTrip {
+
+  @Test
+  public void testMappedFileRoundTrips() throws Exception {
+    final AllTypesHolder h = createHolder();
+    final File file = File.createTempFile("mappable", ".bin");
+    file.deleteOnExit();
+    new MappableBinaryExporter().save(h, file);
+
+    final byte[] bytes = Files.readAllBytes(file.toPath());
+    assertArrayEquals(MappableBinaryExporter.MAGIC, Arrays.copyOf(bytes, 4));
+    // buffer contents are stored aligned, little endian
+    final int floats = indexOf(bytes, littleEndian(h.floatBuf));
+    assertTrue(floats > 0);
+    assertEquals(0, floats % MappableBinaryExporter.ALIGNMENT);
+
+    final AllTypesHolder r = (AllTypesHolder) new BinaryImporter().load(file);
+    assertHolder(h, r);
+    if (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN) {
+      assertTrue(r.floatBuf.isDirect());
+      assertTrue(r.intBuf.isDirect());
+      assertTrue(r.shortBuf.isDirect());
+      assertTrue(r.byteBuf.isDirect());
+    }
+
+    // mapped read only, so buffers used in place must be copied to change
+    if (r.floatBuf.isDirect()) {
+      assertTrue(r.floatBuf.isReadOnly());
+      try {
+        r.floatBuf.put(0, 99f);
+        fail("Expected a read only buffer.");
+      } catch (final ReadOnlyBufferException e) {
+        // expected
+      }
+    }
+    final FloatBuffer copy = BufferUtils.clone(r.floatBuf);
+    copy.put(0, 99f);
+    assertEquals(99f, copy.get(0), 0f);
+    assertArrayEquals(bytes, Files.readAllBytes(file.toPath()));
+
+    // files we can not write to are mapped as well
+    assertTrue(file.setWritable(false));
+    try {
+      final AllTypesHolder readOnly = (AllTypesHolder) new BinaryImporter().load(file);
+      assertHolder(h, readOnly);
+      assertEquals(r.floatBuf.isDirect(), readOnly.floatBuf.isDirect());
+    } finally {
+      file.setWritable(true);
+    }
+  }
+
+  @Test
+  public void testByteBufferSourceAtAnOffset() throws Exception {
+    final AllTypesHolder h = createHolder();
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new MappableBinaryExporter().save(h, out);
+    final byte[] file = out.toByteArray();
+
+    // buffer locations are from the start of the file, not of whatever holds it
+    final ByteBuffer source = ByteBuffer.allocateDirect(file.length + 5);
+    source.position(5);
+    source.put(file).position(5);
+    assertHolder(h, (AllTypesHolder) new BinaryImporter().load(source, null));
+    assertEquals(5, source.position());
+  }
+
+  @Test
+  public void testStreamAndByteArrayRoundTrip() throws Exception {
+    final AllTypesHolder h = createHolder();
+    // heap buffers come back on the heap
+    h.intBuf = IntBuffer.wrap(new int[] {4, 5, 6});
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new MappableBinaryExporter().save(h, out);
+
+    final AllTypesHolder fromStream =
+        (AllTypesHolder) new BinaryImporter().load(new ByteArrayInputStream(out.toByteArray()));
+    assertHolder(h, fromStream);
+    assertTrue(fromStream.floatBuf.isDirect());
+    assertFalse(fromStream.intBuf.isDirect());
+
+    final AllTypesHolder fromBytes = (AllTypesHolder) new BinaryImporter().load(out.toByteArray());
+    assertHolder(h, fromBytes);
+    assertTrue(fromBytes.floatBuf.isDirect());
+  }
+
+  @Test
+  public void testDefaultsAndReferences() throws Exception {
+    final AllTypesHolder h = new AllTypesHolder();
+    h.floatBuf = BufferUtils.createFloatBuffer(0);
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new MappableBinaryExporter().save(h, out);
+    final AllTypesHolder r = (AllTypesHolder) new BinaryImporter().load(out.toByteArray());
+    assertEquals(0, r.floatBuf.remaining());
+    assertNull(r.intBuf);
+    assertNull(r.str);
+
+    final RefHolder shared = new RefHolder(2);
+    final RefHolder root = new RefHolder(1);
+    root.left = shared;
+    root.right = shared;
+    out.reset();
+    new MappableBinaryExporter().save(root, out);
+    final RefHolder loaded = (RefHolder) new BinaryImporter().load(out.toByteArray());
+    assertEquals(1, loaded.tag);
+    assertEquals(2, ((RefHolder) loaded.left).tag);
+    assertSame(loaded.left, loaded.right);
+  }
+
+  @Test
+  public void testEqualBuffersStoredOnce() throws Exception {
+    final AllTypesHolder first = createHolder();
+    final AllTypesHolder second = createHolder();
+    second.i = 7;
+    final RefHolder root = new RefHolder(1);
+    root.left = first;
+    root.right = second;
+    final File file = File.createTempFile("shared", ".bin");
+    file.deleteOnExit();
+    new MappableBinaryExporter().save(root, file);
+
+    final byte[] bytes = Files.readAllBytes(file.toPath());
+    final byte[] floats = littleEndian(first.floatBuf);
+    final int at = indexOf(bytes, floats);
+    assertTrue(at > 0);
+    assertEquals(-1, indexOf(Arrays.copyOfRange(bytes, at + 1, bytes.length), floats));
+
+    final RefHolder loaded = (RefHolder) new BinaryImporter().load(file);
+    assertHolder(first, (AllTypesHolder) loaded.left);
+    assertHolder(second, (AllTypesHolder) loaded.right);
+
+    // buffers loaded into memory do not share it
+    final RefHolder inMemory = (RefHolder) new BinaryImporter().load(bytes);
+    final AllTypesHolder loadedFirst = (AllTypesHolder) inMemory.left;
+    final AllTypesHolder loadedSecond = (AllTypesHolder) inMemory.right;
+    assertHolder(first, loadedFirst);
+    assertHolder(second, loadedSecond);
+    loadedFirst.floatBuf.put(0, -1f);
+    assertEquals(first.floatBuf.get(0), loadedSecond.floatBuf.get(0), 0f);
+  }
+
+  @Test
+  public void testGzippedFileStillLoads() throws Exception {
+    final AllTypesHolder h = createHolder();
+    final File file = File.createTempFile("gzipped", ".bin");
+    file.deleteOnExit();
+    new BinaryExporter().save(h, file);
+    assertHolder(h, (AllTypesHolder) new BinaryImporter().load(file));
+    assertHolder(h, (AllTypesHolder) new BinaryImporter().load(Files.readAllBytes(file.toPath())));
+  }
+
+  private static AllTypesHolder createHolder() {
+    final AllTypesHolder h = new AllTypesHolder();
+    h.i = 0x0BADBEEF;
+    h.str = "héllo";
+    h.fArr = new float[] {0.5f, -1.5f};
+    h.byteBuf = (ByteBuffer) BufferUtils.createByteBuffer(3).put(new byte[] {9, 8, 7}).flip();
+    final FloatBuffer floats = BufferUtils.createFloatBuffer(300);
+    for (int i = 0; i < floats.capacity(); i++) {
+      floats.put(i, i * 0.25f + 1000f);
+    }
+    h.floatBuf = floats;
+    h.intBuf = BufferUtils.createIntBuffer(100, 200, 300);
+    h.shortBuf = BufferUtils.createShortBuffer(new short[] {5, 6, 7, 8});
+    return h;
+  }
+
+  private static void assertHolder(final AllTypesHolder expected, final AllTypesHolder actual) {
+    assertEquals(expected.i, actual.i);
+    assertEquals(expected.str, actual.str);
+    assertArrayEquals(expected.fArr, actual.fArr, 0f);
+    assertEquals(expected.byteBuf.duplicate().rewind(), actual.byteBuf.duplicate().rewind());
+    assertEquals(expected.floatBuf.duplicate().rewind(), actual.floatBuf.duplicate().rewind());
+    assertEquals(expected.intBuf.duplicate().rewind(), actual.intBuf.duplicate().rewind());
+    assertEquals(expected.shortBuf.duplicate().rewind(), actual.shortBuf.duplicate().rewind());
+  }
+
+  private static byte[] littleEndian(final FloatBuffer source) {
+    final ByteBuffer bytes = ByteBuffer.allocate(source.limit() * 4).order(ByteOrder.LITTLE_ENDIAN);
+    bytes.asFloatBuffer().put(source.duplicate().rewind());
+    return bytes.array();
+  }
+
+  private static int indexOf(final byte[] data, final byte[] pattern) {
+    outer: for (int i = 0; i <= data.length - pattern.length; i++) {
+      for (int j = 0; j < pattern.length; j++) {
+        if (data[i + j] != pattern[j]) {
+          continue outer;
+        }
+      }
+      return i;
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.util.export.binary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.ardor3d.util.export.Savable;
+import com.ardor3d.util.export.SavableFactories;
+import com.ardor3d.util.export.xml.XMLExporter;
+import com.ardor3d.util.export.xml.XMLImporter;
+
+/**
+ * Checks both importers create Savables through {@link SavableFactories}, and its reflective fallback.
+ */
+public class TestSavableFactories {
+
+  @Test
+  public void testRegisteredFactoryUsedByImporters() throws Exception {
+    final SavableLeaf leaf = new SavableLeaf(5, "five");
+    final AtomicInteger created = new AtomicInteger();
+    SavableFactories.register(SavableLeaf.class, () -> {
+      created.incrementAndGet();
+      return new SavableLeaf();
+    });
+    try {
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      new BinaryExporter().save(leaf, out);
+      assertEquals(leaf, new BinaryImporter().load(new ByteArrayInputStream(out.toByteArray())));
+      assertEquals(1, created.get());
+
+      out.reset();
+      new XMLExporter().save(leaf, out);
+      assertEquals(leaf, new XMLImporter().load(new ByteArrayInputStream(out.toByteArray())));
+      assertEquals(2, created.get());
+    } finally {
+      SavableFactories.unregister(SavableLeaf.class.getName());
+    }
+  }
+
+  @Test
+  public void testReflectiveFactoryIsCached() throws Exception {
+    final String name = RefHolder.class.getName();
+    SavableFactories.unregister(name);
+    assertSame(SavableFactories.getFactory(name), SavableFactories.getFactory(name));
+    assertEquals(RefHolder.class, SavableFactories.newInstance(name).getClass());
+  }
+
+  @Test
+  public void testUnusableClassesFail() throws Exception {
+    try {
+      SavableFactories.newInstance("com.ardor3d.NoSuchSavable");
+      fail("class does not exist");
+    } catch (final ClassNotFoundException expected) {}
+    try {
+      SavableFactories.newInstance(Savable.class.getName());
+      fail("interface can not be instantiated");
+    } catch (final InstantiationException expected) {}
+    try {
+      SavableFactories.newInstance(String.class.getName());
+      fail("not a savable");
+    } catch (final InstantiationException expected) {}
+  }
+}
@@ -306,6 +306,8 @@ public class Md2Importer {
         controller.setKeyframe(i, meshX);
         i++;
       }
+      // pack the frames for fast morphing, and sharing with other instances
+      controller.buildMorphTargets();
 
       // Make a store object to return
       final Md2DataStore store = new Md2DataStore(mesh, controller);
@@ -10,14 +10,17 @@
 
 package com.ardor3d.extension.model.obj;
 
+import java.io.IOException;
 import java.nio.Buffer;
 import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.ardor3d.buffer.BufferUtils;
 import com.ardor3d.buffer.IndexBufferData;
@@ -30,19 +33,29 @@ import com.ardor3d.scenegraph.Mesh;
 import com.ardor3d.scenegraph.Node;
 import com.ardor3d.scenegraph.Point;
 import com.ardor3d.scenegraph.Spatial;
+import com.ardor3d.util.export.InputCapsule;
+import com.ardor3d.util.export.OutputCapsule;
+import com.ardor3d.util.export.Savable;
 import com.ardor3d.util.geom.GeometryTool;
 import com.ardor3d.util.geom.GeometryTool.MatchCondition;
 import com.ardor3d.util.geom.VertGroupData;
 
-public class ObjGeometryStore {
+/**
+ * The result of an OBJ import. As a Savable it keeps the scene and the group and material maps; the
+ * raw vertex data and the material library are only kept in a store fresh from the importer.
+ */
+public class ObjGeometryStore implements Savable {
   private static final String DEFAULT_GROUP = "_default_";
 
+  /** Number of ints per corner in the index set arrays passed to addFace, addLine and addPoints. */
+  static final int SET_SIZE = 4;
+
   private final ObjDataStore _dataStore = new ObjDataStore();
 
   private int _totalPoints = 0;
   private int _totalLines = 0;
   private int _totalMeshes = 0;
-  private final Node _root = new Node();
+  private Node _root = new Node();
   private final Map<String, List<Spatial>> _groupMap = new HashMap<>();
 
   private ObjMaterial _currentMaterial = new ObjMaterial("default");
@@ -67,74 +80,130 @@ public class ObjGeometryStore {
   public Node getScene() { return _root; }
 
   void addFace(final List<ObjIndexSet> indices) {
+    addFace(ObjGeometryStore.toSets(indices), indices.size());
+  }
+
+  /**
+   * Add a face as a fan of triangles.
+   *
+   * @param sets
+   *          {@value #SET_SIZE} ints per corner: the vertex, uv and normal index and the smooth group.
+   *          Missing indices are -1.
+   * @param count
+   *          the number of corners, at least 3.
+   */
+  void addFace(final int[] sets, final int count) {
     if (_meshManager == null) {
       _meshManager = new ObjSetManager();
     }
 
-    // Build a fan of triangles
-    final ObjIndexSet first = indices.get(0);
-    final int firstIndex = _meshManager.findSet(first);
-    ObjIndexSet second = indices.get(1);
-    int secondIndex = _meshManager.findSet(second);
-    for (int i = 2; i < indices.size(); i++) {
-      final ObjIndexSet third = indices.get(i);
-      final int thirdIndex = _meshManager.findSet(third);
+    // A corner lacking a normal gets the generated face normal. Like the corner's own index set, the
+    // stored set only takes it if that corner is the one that added it.
+    int setCount = _meshManager.getSetCount();
+    final int firstIndex = findSet(_meshManager, sets, 0);
+    final boolean firstAdded = firstIndex == setCount;
+    int firstVn = sets[2];
+    setCount = _meshManager.getSetCount();
+    int secondIndex = findSet(_meshManager, sets, 1);
+    boolean secondAdded = secondIndex == setCount;
+    int secondVn = sets[ObjGeometryStore.SET_SIZE + 2];
+    for (int i = 2; i < count; i++) {
+      setCount = _meshManager.getSetCount();
+      final int thirdIndex = findSet(_meshManager, sets, i);
+      final boolean thirdAdded = thirdIndex == setCount;
+      int thirdVn = sets[i * ObjGeometryStore.SET_SIZE + 2];
       _meshManager.addIndex(firstIndex);
       _meshManager.addIndex(secondIndex);
       _meshManager.addIndex(thirdIndex);
-      if (first.getVnIndex() == -1 || second.getVnIndex() == -1 || third.getVnIndex() == -1) {
+      if (firstVn == -1 || secondVn == -1 || thirdVn == -1) {
         // Generate flat face normal.
-        final Vector3 v = new Vector3(_dataStore.getVertices().get(second.getVIndex()));
-        final Vector3 w = new Vector3(_dataStore.getVertices().get(third.getVIndex()));
-        v.subtractLocal(_dataStore.getVertices().get(first.getVIndex()));
-        w.subtractLocal(_dataStore.getVertices().get(first.getVIndex()));
+        final Vector3 first = _dataStore.getVertices().get(sets[0]);
+        final Vector3 v = new Vector3(_dataStore.getVertices().get(sets[(i - 1) * ObjGeometryStore.SET_SIZE]));
+        final Vector3 w = new Vector3(_dataStore.getVertices().get(sets[i * ObjGeometryStore.SET_SIZE]));
+        v.subtractLocal(first);
+        w.subtractLocal(first);
         v.crossLocal(w);
         v.normalizeLocal();
         _dataStore.getGeneratedNormals().add(v);
         final int genIndex = -1 * (_dataStore.getGeneratedNormals().size() - 1) - 2;
-        if (first.getVnIndex() == -1) {
-          first.setVnIndex(genIndex);
+        if (firstVn == -1) {
+          firstVn = genIndex;
+          if (firstAdded) {
+            _meshManager.setVnIndex(firstIndex, genIndex);
+          }
         }
-        if (second.getVnIndex() == -1) {
-          second.setVnIndex(genIndex);
+        if (secondVn == -1) {
+          secondVn = genIndex;
+          if (secondAdded) {
+            _meshManager.setVnIndex(secondIndex, genIndex);
+          }
         }
-        if (third.getVnIndex() == -1) {
-          third.setVnIndex(genIndex);
+        if (thirdVn == -1) {
+          thirdVn = genIndex;
+          if (thirdAdded) {
+            _meshManager.setVnIndex(thirdIndex, genIndex);
+          }
         }
       }
-      second = third;
       secondIndex = thirdIndex;
+      secondAdded = thirdAdded;
+      secondVn = thirdVn;
     }
   }
 
   void addLine(final List<ObjIndexSet> indices) {
+    addLine(ObjGeometryStore.toSets(indices), indices.size());
+  }
+
+  /**
+   * Add a single long line through the given points, laid out as for {@link #addFace(int[], int)}.
+   */
+  void addLine(final int[] sets, final int count) {
     if (_lineManager == null) {
       _lineManager = new ObjSetManager();
     }
 
-    // Build a single long line
-    for (int i = 0; i < indices.size(); i++) {
-      final ObjIndexSet point = indices.get(i);
-      final int index = _lineManager.findSet(point);
-      _lineManager.addIndex(index);
+    for (int i = 0; i < count; i++) {
+      _lineManager.addIndex(findSet(_lineManager, sets, i));
     }
 
-    _lineManager.addLength(indices.size());
+    _lineManager.addLength(count);
   }
 
   void addPoints(final List<ObjIndexSet> indices) {
+    addPoints(ObjGeometryStore.toSets(indices), indices.size());
+  }
+
+  /**
+   * Add the given points, laid out as for {@link #addFace(int[], int)}.
+   */
+  void addPoints(final int[] sets, final int count) {
     if (_pointManager == null) {
       _pointManager = new ObjSetManager();
     }
 
-    // Add points
-    for (int i = 0; i < indices.size(); i++) {
-      final ObjIndexSet point = indices.get(i);
-      final int index = _pointManager.findSet(point);
-      _pointManager.addIndex(index);
+    for (int i = 0; i < count; i++) {
+      _pointManager.addIndex(findSet(_pointManager, sets, i));
     }
   }
 
+  private static int findSet(final ObjSetManager manager, final int[] sets, final int corner) {
+    final int offset = corner * ObjGeometryStore.SET_SIZE;
+    return manager.findSet(sets[offset], sets[offset + 1], sets[offset + 2], sets[offset + 3]);
+  }
+
+  private static int[] toSets(final List<ObjIndexSet> indices) {
+    final int[] sets = new int[indices.size() * ObjGeometryStore.SET_SIZE];
+    int offset = 0;
+    for (final ObjIndexSet set : indices) {
+      sets[offset++] = set.getVIndex();
+      sets[offset++] = set.getVtIndex();
+      sets[offset++] = set.getVnIndex();
+      sets[offset++] = set.getRawSmoothGroup();
+    }
+    return sets;
+  }
+
   void setCurrentGroupNames(final String[] names) {
     commitObjects();
     _currentGroupNames = names;
@@ -170,17 +239,16 @@ public class ObjGeometryStore {
         name = "obj_points" + _totalPoints;
       }
 
-      final Vector3[] vertices = new Vector3[_pointManager.getStore().size()];
-      int i = 0;
-      for (final ObjIndexSet set : _pointManager.getStore().keySet()) {
-        vertices[i++] = _dataStore.getVertices().get(set.getVIndex());
+      final Vector3[] vertices = new Vector3[_pointManager.getSetCount()];
+      for (int i = 0; i < vertices.length; i++) {
+        vertices[i] = _dataStore.getVertices().get(_pointManager.getVIndex(i));
       }
 
       final Point points = new Point(name, vertices, null, null, null);
       final IndexBufferData<? extends Buffer> indexBuffer =
-          BufferUtils.createIndexBufferData(_pointManager.getIndices().size(), vertices.length - 1);
-      for (final int index : _pointManager.getIndices()) {
-        indexBuffer.put(index);
+          BufferUtils.createIndexBufferData(_pointManager.getIndexCount(), vertices.length - 1);
+      for (int i = 0; i < _pointManager.getIndexCount(); i++) {
+        indexBuffer.put(_pointManager.getIndex(i));
       }
       points.getMeshData().setIndices(indexBuffer);
 
@@ -202,34 +270,28 @@ public class ObjGeometryStore {
         name = "obj_lines" + _totalLines;
       }
 
-      final Vector3[] vertices = new Vector3[_lineManager.getStore().size()];
+      final Vector3[] vertices = new Vector3[_lineManager.getSetCount()];
       final Vector2[] uvs = new Vector2[vertices.length];
       boolean hasUVs = false;
-      int i = 0;
-      for (final ObjIndexSet set : _lineManager.getStore().keySet()) {
-        vertices[i] = _dataStore.getVertices().get(set.getVIndex());
-        if (set.getVtIndex() >= 0) {
-          final Vector3 uv = _dataStore.getUvs().get(set.getVtIndex());
+      for (int i = 0; i < vertices.length; i++) {
+        vertices[i] = _dataStore.getVertices().get(_lineManager.getVIndex(i));
+        if (_lineManager.getVtIndex(i) >= 0) {
+          final Vector3 uv = _dataStore.getUvs().get(_lineManager.getVtIndex(i));
           // our line only supports 2d uvs
           uvs[i] = new Vector2(uv.getX(), uv.getY());
           hasUVs = true;
         }
-        i++;
       }
 
       final Line line = new Line(name, vertices, null, null, hasUVs ? uvs : null);
       final IndexBufferData<? extends Buffer> indexBuffer =
-          BufferUtils.createIndexBufferData(_lineManager.getIndices().size(), vertices.length - 1);
-      for (final int index : _lineManager.getIndices()) {
-        indexBuffer.put(index);
+          BufferUtils.createIndexBufferData(_lineManager.getIndexCount(), vertices.length - 1);
+      for (int i = 0; i < _lineManager.getIndexCount(); i++) {
+        indexBuffer.put(_lineManager.getIndex(i));
       }
       line.getMeshData().setIndices(indexBuffer);
-      if (_lineManager.getLengths().size() > 1) {
-        final int[] lengths = new int[_lineManager.getLengths().size()];
-        i = 0;
-        for (final int l : _lineManager.getLengths()) {
-          lengths[i++] = l;
-        }
+      final int[] lengths = _lineManager.getLengthArray();
+      if (lengths.length > 1) {
         line.getMeshData().setIndexLengths(lengths);
       }
       GeometryTool.minimizeVerts(line, EnumSet.of(MatchCondition.UVs));
@@ -252,38 +314,36 @@ public class ObjGeometryStore {
 
       final Mesh mesh = new Mesh(name);
 
-      final FloatBuffer vertices = BufferUtils.createVector3Buffer(_meshManager.getStore().size());
+      final int setCount = _meshManager.getSetCount();
+      final FloatBuffer vertices = BufferUtils.createVector3Buffer(setCount);
       final FloatBuffer normals = BufferUtils.createFloatBuffer(vertices.capacity());
       final FloatBuffer uvs = BufferUtils.createFloatBuffer(vertices.capacity());
       boolean hasNormals = false, hasUVs = false;
 
-      int j = 0;
-      final int[] vertGroups = new int[_meshManager.getStore().size()];
-      final List<Integer> groups = new ArrayList<>();
+      final int[] vertGroups = new int[setCount];
+      final Set<Integer> groups = new HashSet<>();
       Vector3 vector;
-      for (final ObjIndexSet set : _meshManager.getStore().keySet()) {
-        vertGroups[j] = set.getSmoothGroup();
-        if (!groups.contains(set.getSmoothGroup())) {
-          groups.add(set.getSmoothGroup());
-        }
-        vector = _dataStore.getVertices().get(set.getVIndex());
+      for (int j = 0; j < setCount; j++) {
+        vertGroups[j] = _meshManager.getSmoothGroup(j);
+        groups.add(vertGroups[j]);
+        vector = _dataStore.getVertices().get(_meshManager.getVIndex(j));
         vertices.put(vector.getXf()).put(vector.getYf()).put(vector.getZf());
-        if (set.getVnIndex() >= 0) {
-          vector = _dataStore.getNormals().get(set.getVnIndex());
+        final int vnIndex = _meshManager.getVnIndex(j);
+        if (vnIndex >= 0) {
+          vector = _dataStore.getNormals().get(vnIndex);
           normals.put(vector.getXf()).put(vector.getYf()).put(vector.getZf());
           hasNormals = true;
-        } else if (set.getVnIndex() < -1) {
-          vector = _dataStore.getGeneratedNormals().get(-1 * set.getVnIndex() - 2);
+        } else if (vnIndex < -1) {
+          vector = _dataStore.getGeneratedNormals().get(-1 * vnIndex - 2);
           normals.put(vector.getXf()).put(vector.getYf()).put(vector.getZf());
           hasNormals = true;
         }
-        if (set.getVtIndex() >= 0) {
-          vector = _dataStore.getUvs().get(set.getVtIndex());
+        if (_meshManager.getVtIndex(j) >= 0) {
+          vector = _dataStore.getUvs().get(_meshManager.getVtIndex(j));
           // TODO: add 3d tex support?
           uvs.put(vector.getXf()).put(vector.getYf());
           hasUVs = true;
         }
-        j++;
       }
 
       mesh.getMeshData().setVertexBuffer(vertices);
@@ -295,9 +355,9 @@ public class ObjGeometryStore {
       }
 
       final IndexBufferData<? extends Buffer> indexBuffer =
-          BufferUtils.createIndexBufferData(_meshManager.getIndices().size(), _meshManager.getStore().size() - 1);
-      for (final int index : _meshManager.getIndices()) {
-        indexBuffer.put(index);
+          BufferUtils.createIndexBufferData(_meshManager.getIndexCount(), setCount - 1);
+      for (int i = 0; i < _meshManager.getIndexCount(); i++) {
+        indexBuffer.put(_meshManager.getIndex(i));
       }
       mesh.getMeshData().setIndices(indexBuffer);
 
@@ -366,4 +426,55 @@ public class ObjGeometryStore {
     _groupMap.forEach((name, spatials) -> view.put(name, Collections.unmodifiableList(spatials)));
     return Collections.unmodifiableMap(view);
   }
+
+  // /////////////////
+  // Methods for Savable
+  // /////////////////
+
+  @Override
+  public Class<?> getClassTag() { return this.getClass(); }
+
+  @Override
+  public void read(final InputCapsule capsule) throws IOException {
+    _root = capsule.readSavable("root", null);
+
+    final String[] groupNames = capsule.readStringArray("groupNames", new String[0]);
+    final int[] groupSizes = capsule.readIntArray("groupSizes", new int[0]);
+    final List<Spatial> grouped = capsule.readSavableList("groupSpatials", new ArrayList<>());
+    _groupMap.clear();
+    for (int i = 0, offset = 0; i < groupNames.length; offset += groupSizes[i++]) {
+      _groupMap.put(groupNames[i], new ArrayList<>(grouped.subList(offset, offset + groupSizes[i])));
+    }
+
+    final List<Spatial> materialSpatials = capsule.readSavableList("materialSpatials", new ArrayList<>());
+    final String[] materialNames = capsule.readStringArray("materialNames", new String[0]);
+    _materialMap.clear();
+    for (int i = 0; i < materialNames.length; i++) {
+      _materialMap.put(materialSpatials.get(i), materialNames[i]);
+    }
+  }
+
+  @Override
+  public void write(final OutputCapsule capsule) throws IOException {
+    capsule.write(_root, "root", null);
+
+    final String[] groupNames = _groupMap.keySet().toArray(new String[0]);
+    final int[] groupSizes = new int[groupNames.length];
+    final List<Spatial> grouped = new ArrayList<>();
+    for (int i = 0; i < groupNames.length; i++) {
+      groupSizes[i] = _groupMap.get(groupNames[i]).size();
+      grouped.addAll(_groupMap.get(groupNames[i]));
+    }
+    capsule.write(groupNames, "groupNames", new String[0]);
+    capsule.write(groupSizes, "groupSizes", new int[0]);
+    capsule.writeSavableList(grouped, "groupSpatials", new ArrayList<>());
+
+    final List<Spatial> materialSpatials = new ArrayList<>(_materialMap.keySet());
+    final String[] materialNames = new String[materialSpatials.size()];
+    for (int i = 0; i < materialNames.length; i++) {
+      materialNames[i] = _materialMap.get(materialSpatials.get(i));
+    }
+    capsule.writeSavableList(materialSpatials, "materialSpatials", new ArrayList<>());
+    capsule.write(materialNames, "materialNames", new String[0]);
+  }
 }
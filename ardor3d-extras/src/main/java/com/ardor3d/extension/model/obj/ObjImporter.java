@@ -11,6 +11,7 @@
 package com.ardor3d.extension.model.obj;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.List;
@@ -22,6 +23,7 @@ import com.ardor3d.image.TextureStoreFormat;
 import com.ardor3d.math.Vector3;
 import com.ardor3d.math.util.MathUtils;
 import com.ardor3d.util.Ardor3dException;
+import com.ardor3d.util.ImportCache;
 import com.ardor3d.util.TextureManager;
 import com.ardor3d.util.resource.ResourceLocator;
 import com.ardor3d.util.resource.ResourceLocatorTool;
@@ -46,6 +48,9 @@ public class ObjImporter {
   private boolean _useCompression = true;
   private boolean _flipTextureVertically = true;
 
+  private boolean _parallelParse = false;
+  private ImportCache _importCache;
+
   public boolean isLoadTextures() { return _loadTextures; }
 
   public ObjImporter setLoadTextures(final boolean loadTextures) {
@@ -53,6 +58,35 @@ public class ObjImporter {
     return this;
   }
 
+  public boolean isParallelParse() { return _parallelParse; }
+
+  /**
+   * @param parallelParse
+   *          if true, OBJ files are scanned in parallel chunks straight from their bytes, memory mapping
+   *          local files, which is much faster for large files. The result is the same as that of the
+   *          default, line by line parse.
+   * @return this importer, for chaining.
+   */
+  public ObjImporter setParallelParse(final boolean parallelParse) {
+    _parallelParse = parallelParse;
+    return this;
+  }
+
+  public ImportCache getImportCache() { return _importCache; }
+
+  /**
+   * @param importCache
+   *          if not null, loads are looked up in and stored to this cache. Entries are keyed by the
+   *          source and the settings of this importer that change the result; material libraries are
+   *          not part of the key. A store read from the cache holds the scene and the group and material
+   *          maps, but not the raw vertex data or the material library.
+   * @return this importer, for chaining.
+   */
+  public ObjImporter setImportCache(final ImportCache importCache) {
+    _importCache = importCache;
+    return this;
+  }
+
   public ObjImporter setTextureLocator(final ResourceLocator locator) {
     _textureLocator = locator;
     return this;
@@ -118,6 +152,34 @@ public class ObjImporter {
    * @return an ObjGeometryStore data object containing the scene and other useful elements.
    */
   public ObjGeometryStore load(final ResourceSource resource) {
+    if (_importCache != null) {
+      try {
+        return _importCache.load(resource, getCacheSettings(), ObjGeometryStore.class, this::importResource);
+      } catch (final IOException e) {
+        throw new Ardor3dException("Unable to load obj resource from URL: " + resource, e);
+      }
+    }
+    return importResource(resource);
+  }
+
+  /**
+   * @return the settings that change the result of an import, for keying cache entries.
+   */
+  private String getCacheSettings() {
+    return "obj loadTextures=" + _loadTextures + " flipTextureVertically=" + _flipTextureVertically
+        + " useCompression=" + _useCompression + " minificationFilter=" + _minificationFilter + " specularMax="
+        + _specularMax;
+  }
+
+  private ObjGeometryStore importResource(final ResourceSource resource) {
+    if (_parallelParse) {
+      try {
+        return new ObjParallelParser(this, ObjParallelParser.DEFAULT_CHUNK_SIZE).load(resource);
+      } catch (final Exception e) {
+        throw new Ardor3dException("Unable to load obj resource from URL: " + resource, e);
+      }
+    }
+
     try (final BufferedReader reader =
         new BufferedReader(new InputStreamReader(resource.openStream()))) {
       final ObjGeometryStore store = new ObjGeometryStore();
@@ -143,205 +205,219 @@ public class ObjImporter {
           continue;
         }
 
-        // tokenize line
-        final String[] tokens = line.split("\\s+");
+        currentSmoothGroup = processLine(line, lineNo, resource, store, currentSmoothGroup);
+      }
 
-        // no tokens? must be an empty line. goto next line
-        if (tokens.length == 0) {
-          continue;
-        }
+      store.commitObjects();
+      store.cleanup();
+      return store;
+    } catch (final Exception e) {
+      throw new Ardor3dException("Unable to load obj resource from URL: " + resource, e);
+    }
+  }
 
-        // grab our "keyword"
-        final String keyword = tokens[0];
-        final int argCount = tokens.length - 1;
+  /**
+   * Act on one line of an OBJ file.
+   *
+   * @param line
+   *          the trimmed line, without continuation markers.
+   * @param lineNo
+   *          the number of the line, for messages.
+   * @param currentSmoothGroup
+   *          the smoothing group set by the last "s" statement, -1 if none.
+   * @return the smoothing group to use from the next line on.
+   */
+  int processLine(final String line, final int lineNo, final ResourceSource resource, final ObjGeometryStore store,
+      final int currentSmoothGroup) {
+    // tokenize line
+    final String[] tokens = line.split("\\s+");
+
+    // no tokens? must be an empty line.
+    if (tokens.length == 0) {
+      return currentSmoothGroup;
+    }
 
-        // Act on our keyword...
+    // grab our "keyword"
+    final String keyword = tokens[0];
+    final int argCount = tokens.length - 1;
 
-        // -------- VERTEX DATA KEYWORDS --------
-        // if vertex
-        if ("v".equals(keyword)) {
-          // XXX: support optional weight?
-          // final double w = argCount >= 4 ? Double.valueOf(tokens[4]) : 1.0;
+    // Act on our keyword...
 
-          final Vector3 vertex =
-              new Vector3(Double.parseDouble(tokens[1]), Double.parseDouble(tokens[2]), Double.parseDouble(tokens[3]));
-          store.getDataStore().getVertices().add(vertex);
-        }
+    // -------- VERTEX DATA KEYWORDS --------
+    // if vertex
+    if ("v".equals(keyword)) {
+      // XXX: support optional weight?
+      // final double w = argCount >= 4 ? Double.valueOf(tokens[4]) : 1.0;
 
-        // if texture coords
-        else if ("vt".equals(keyword)) {
-          final double v = argCount >= 2 ? Double.parseDouble(tokens[2]) : 0;
-          final double w = argCount >= 3 ? Double.parseDouble(tokens[3]) : 0;
-          final Vector3 coord = new Vector3(Double.parseDouble(tokens[1]), v, w);
-          store.getDataStore().getUvs().add(coord);
-        }
+      final Vector3 vertex =
+          new Vector3(Double.parseDouble(tokens[1]), Double.parseDouble(tokens[2]), Double.parseDouble(tokens[3]));
+      store.getDataStore().getVertices().add(vertex);
+    }
 
-        // if normal vector
-        else if ("vn".equals(keyword)) {
-          final Vector3 normal =
-              new Vector3(Double.parseDouble(tokens[1]), Double.parseDouble(tokens[2]), Double.parseDouble(tokens[3]));
-          store.getDataStore().getNormals().add(normal);
-        }
+    // if texture coords
+    else if ("vt".equals(keyword)) {
+      final double v = argCount >= 2 ? Double.parseDouble(tokens[2]) : 0;
+      final double w = argCount >= 3 ? Double.parseDouble(tokens[3]) : 0;
+      final Vector3 coord = new Vector3(Double.parseDouble(tokens[1]), v, w);
+      store.getDataStore().getUvs().add(coord);
+    }
 
-        // if parameter space vertices
-        else if ("vp".equals(keyword)) {
-          // TODO: Add support for vp
-          ObjImporter.logger.warning("ObjModelImporter: vp not supported.  (line " + lineNo + ") " + line);
-        }
+    // if normal vector
+    else if ("vn".equals(keyword)) {
+      final Vector3 normal =
+          new Vector3(Double.parseDouble(tokens[1]), Double.parseDouble(tokens[2]), Double.parseDouble(tokens[3]));
+      store.getDataStore().getNormals().add(normal);
+    }
 
-        // if curve/surface type
-        else if ("cstype".equals(keyword)) {
-          // TODO: Add support for cstype
-          ObjImporter.logger.warning("ObjModelImporter: cstype not supported.  (line " + lineNo + ") " + line);
-        }
+    // if parameter space vertices
+    else if ("vp".equals(keyword)) {
+      // TODO: Add support for vp
+      ObjImporter.logger.warning("ObjModelImporter: vp not supported.  (line " + lineNo + ") " + line);
+    }
 
-        // if degree
-        else if ("deg".equals(keyword)) {
-          // TODO: Add support for degree
-          ObjImporter.logger.warning("ObjModelImporter: deg not supported.  (line " + lineNo + ") " + line);
-        }
+    // if curve/surface type
+    else if ("cstype".equals(keyword)) {
+      // TODO: Add support for cstype
+      ObjImporter.logger.warning("ObjModelImporter: cstype not supported.  (line " + lineNo + ") " + line);
+    }
 
-        // if basis matrix
-        else if ("bmat".equals(keyword)) {
-          // TODO: Add support for basis matrix
-          ObjImporter.logger.warning("ObjModelImporter: bmat not supported.  (line " + lineNo + ") " + line);
-        }
+    // if degree
+    else if ("deg".equals(keyword)) {
+      // TODO: Add support for degree
+      ObjImporter.logger.warning("ObjModelImporter: deg not supported.  (line " + lineNo + ") " + line);
+    }
 
-        // if step size
-        else if ("step".equals(keyword)) {
-          // TODO: Add support for step size
-          ObjImporter.logger.warning("ObjModelImporter: step not supported.  (line " + lineNo + ") " + line);
-        }
+    // if basis matrix
+    else if ("bmat".equals(keyword)) {
+      // TODO: Add support for basis matrix
+      ObjImporter.logger.warning("ObjModelImporter: bmat not supported.  (line " + lineNo + ") " + line);
+    }
 
-        // -------- GROUPING KEYWORDS --------
+    // if step size
+    else if ("step".equals(keyword)) {
+      // TODO: Add support for step size
+      ObjImporter.logger.warning("ObjModelImporter: step not supported.  (line " + lineNo + ") " + line);
+    }
 
-        // if group name(s)
-        else if ("g".equals(keyword)) {
-          if (argCount < 1) {
-            // A bare "g" with no names selects the default group.
-            store.setCurrentGroupNames(null);
-            continue;
-          }
+    // -------- GROUPING KEYWORDS --------
 
-          // Each token is a name
-          final String[] currentGroupNames = new String[argCount];
-          store.setCurrentGroupNames(currentGroupNames);
-          System.arraycopy(tokens, 1, currentGroupNames, 0, argCount);
-        }
+    // if group name(s)
+    else if ("g".equals(keyword)) {
+      if (argCount < 1) {
+        // A bare "g" with no names selects the default group.
+        store.setCurrentGroupNames(null);
+        return currentSmoothGroup;
+      }
 
-        // if smoothing group
-        else if ("s".equals(keyword)) {
-          if (argCount != 1) {
-            throw new Ardor3dException("wrong number of args.  s must have 1 argument.  (line " + lineNo + ") " + line);
-          }
+      // Each token is a name
+      final String[] currentGroupNames = new String[argCount];
+      store.setCurrentGroupNames(currentGroupNames);
+      System.arraycopy(tokens, 1, currentGroupNames, 0, argCount);
+    }
 
-          if ("off".equalsIgnoreCase(tokens[1])) {
-            currentSmoothGroup = 0;
-          } else {
-            currentSmoothGroup = Integer.parseInt(tokens[1]);
-          }
-        }
+    // if smoothing group
+    else if ("s".equals(keyword)) {
+      if (argCount != 1) {
+        throw new Ardor3dException("wrong number of args.  s must have 1 argument.  (line " + lineNo + ") " + line);
+      }
 
-        // if merge group
-        else if ("mg".equals(keyword)) {
-          // TODO: Add support for merge groups
-          ObjImporter.logger.warning("ObjModelImporter: mg not supported.  (line " + lineNo + ") " + line);
-        }
+      return "off".equalsIgnoreCase(tokens[1]) ? 0 : Integer.parseInt(tokens[1]);
+    }
 
-        // if object name
-        else if ("o".equals(keyword)) {
-          if (argCount < 1) {
-            throw new Ardor3dException("wrong number of args.  o must have 1 argument.  (line " + lineNo + ") " + line);
-          }
-          store.setCurrentObjectName(tokens[1]);
-        }
+    // if merge group
+    else if ("mg".equals(keyword)) {
+      // TODO: Add support for merge groups
+      ObjImporter.logger.warning("ObjModelImporter: mg not supported.  (line " + lineNo + ") " + line);
+    }
 
-        // -------- RENDER ATTRIBUTES KEYWORDS --------
+    // if object name
+    else if ("o".equals(keyword)) {
+      if (argCount < 1) {
+        throw new Ardor3dException("wrong number of args.  o must have 1 argument.  (line " + lineNo + ") " + line);
+      }
+      store.setCurrentObjectName(tokens[1]);
+    }
 
-        // if material library(ies)
-        else if ("mtllib".equals(keyword)) {
-          if (argCount < 1) {
-            throw new Ardor3dException(
-                "wrong number of args.  mtllib must have at least 1 argument.  (line " + lineNo + ") " + line);
-          }
+    // -------- RENDER ATTRIBUTES KEYWORDS --------
 
-          // load material libraries
-          for (int i = 1; i <= argCount; i++) {
-            loadMaterialLibrary(tokens[i], resource, store.getMaterialLibrary());
-          }
-        }
+    // if material library(ies)
+    else if ("mtllib".equals(keyword)) {
+      if (argCount < 1) {
+        throw new Ardor3dException(
+            "wrong number of args.  mtllib must have at least 1 argument.  (line " + lineNo + ") " + line);
+      }
 
-        // if use material command
-        else if ("usemtl".equals(keyword)) {
-          if (argCount != 1) {
-            throw new Ardor3dException("wrong number of args.  usemtl must have 1 argument.  (line " + lineNo + ") " + line);
-          }
+      // load material libraries
+      for (int i = 1; i <= argCount; i++) {
+        loadMaterialLibrary(tokens[i], resource, store.getMaterialLibrary());
+      }
+    }
 
-          // set new material
-          store.setCurrentMaterial(store.getMaterialLibrary().get(tokens[1]));
-        }
+    // if use material command
+    else if ("usemtl".equals(keyword)) {
+      if (argCount != 1) {
+        throw new Ardor3dException("wrong number of args.  usemtl must have 1 argument.  (line " + lineNo + ") " + line);
+      }
 
-        // -------- ELEMENTS KEYWORDS --------
+      // set new material
+      store.setCurrentMaterial(store.getMaterialLibrary().get(tokens[1]));
+    }
 
-        // if point
-        else if ("p".equals(keyword) && argCount >= 1) {
-          // Each token corresponds to 1 vertex entry
-          final List<ObjIndexSet> indices = new ArrayList<>();
-          for (int i = 1; i <= argCount; i++) {
-            indices.add(new ObjIndexSet(tokens[i], store.getDataStore(), currentSmoothGroup));
-          }
-          store.addPoints(indices);
-        }
+    // -------- ELEMENTS KEYWORDS --------
 
-        // if line
-        else if ("l".equals(keyword) && argCount >= 1) {
-          // Each token corresponds to 1 vertex entry and possibly one texture entry
-          final List<ObjIndexSet> indices = new ArrayList<>();
-          for (int i = 1; i <= argCount; i++) {
-            indices.add(new ObjIndexSet(tokens[i], store.getDataStore(), currentSmoothGroup));
-          }
-          store.addLine(indices);
-        }
+    // if point
+    else if ("p".equals(keyword) && argCount >= 1) {
+      // Each token corresponds to 1 vertex entry
+      final List<ObjIndexSet> indices = new ArrayList<>();
+      for (int i = 1; i <= argCount; i++) {
+        indices.add(new ObjIndexSet(tokens[i], store.getDataStore(), currentSmoothGroup));
+      }
+      store.addPoints(indices);
+    }
 
-        // if face
-        else if (("f".equals(keyword) || "fo".equals(keyword)) && argCount > 0) {
-          if (argCount < 3) {
-            throw new Ardor3dException("wrong number of args.  f must have at least 3 vertices.  (line " + lineNo + ") " + line);
-          }
+    // if line
+    else if ("l".equals(keyword) && argCount >= 1) {
+      // Each token corresponds to 1 vertex entry and possibly one texture entry
+      final List<ObjIndexSet> indices = new ArrayList<>();
+      for (int i = 1; i <= argCount; i++) {
+        indices.add(new ObjIndexSet(tokens[i], store.getDataStore(), currentSmoothGroup));
+      }
+      store.addLine(indices);
+    }
 
-          // Each token corresponds to 1 vertex entry and possibly one texture entry and normal entry.
-          final List<ObjIndexSet> indices = new ArrayList<>();
-          for (int i = 1; i <= argCount; i++) {
-            indices.add(new ObjIndexSet(tokens[i], store.getDataStore(), currentSmoothGroup));
-          }
-          store.addFace(indices);
-        }
+    // if face
+    else if (("f".equals(keyword) || "fo".equals(keyword)) && argCount > 0) {
+      if (argCount < 3) {
+        throw new Ardor3dException("wrong number of args.  f must have at least 3 vertices.  (line " + lineNo + ") " + line);
+      }
 
-        // if curve
-        else if ("curv".equals(keyword)) {
-          // TODO: Add support for curves
-          ObjImporter.logger.warning("ObjModelImporter: curv not supported.  (line " + lineNo + ") " + line);
-        }
+      // Each token corresponds to 1 vertex entry and possibly one texture entry and normal entry.
+      final List<ObjIndexSet> indices = new ArrayList<>();
+      for (int i = 1; i <= argCount; i++) {
+        indices.add(new ObjIndexSet(tokens[i], store.getDataStore(), currentSmoothGroup));
+      }
+      store.addFace(indices);
+    }
 
-        // if 2d curve
-        else if ("curv2".equals(keyword)) {
-          // TODO: Add support for 2d curves
-          ObjImporter.logger.warning("ObjModelImporter: curv2 not supported.  (line " + lineNo + ") " + line);
-        }
+    // if curve
+    else if ("curv".equals(keyword)) {
+      // TODO: Add support for curves
+      ObjImporter.logger.warning("ObjModelImporter: curv not supported.  (line " + lineNo + ") " + line);
+    }
 
-        // if surface
-        else if ("surf".equals(keyword)) {
-          // TODO: Add support for surfaces
-          ObjImporter.logger.warning("ObjModelImporter: surf not supported.  (line " + lineNo + ") " + line);
-        }
-      }
+    // if 2d curve
+    else if ("curv2".equals(keyword)) {
+      // TODO: Add support for 2d curves
+      ObjImporter.logger.warning("ObjModelImporter: curv2 not supported.  (line " + lineNo + ") " + line);
+    }
 
-      store.commitObjects();
-      store.cleanup();
-      return store;
-    } catch (final Exception e) {
-      throw new Ardor3dException("Unable to load obj resource from URL: " + resource, e);
+    // if surface
+    else if ("surf".equals(keyword)) {
+      // TODO: Add support for surfaces
+      ObjImporter.logger.warning("ObjModelImporter: surf not supported.  (line " + lineNo + ") " + line);
     }
+
+    return currentSmoothGroup;
   }
 
   /**
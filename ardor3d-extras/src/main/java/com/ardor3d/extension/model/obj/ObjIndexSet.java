@@ -23,6 +23,13 @@ public class ObjIndexSet {
     _sGroup = smoothGroup;
   }
 
+  ObjIndexSet(final int vIndex, final int vtIndex, final int vnIndex, final int smoothGroup) {
+    _vIndex = vIndex;
+    _vtIndex = vtIndex;
+    _vnIndex = vnIndex;
+    _sGroup = smoothGroup;
+  }
+
   private int parseValue(final String token, final int currentPosition) {
     if (token == null || token.isEmpty()) {
       return -1;
@@ -46,6 +53,11 @@ public class ObjIndexSet {
     return _sGroup;
   }
 
+  /**
+   * @return the smooth group this set was read in, even if it has a normal.
+   */
+  int getRawSmoothGroup() { return _sGroup; }
+
   public int getVIndex() { return _vIndex; }
 
   public int getVtIndex() { return _vtIndex; }
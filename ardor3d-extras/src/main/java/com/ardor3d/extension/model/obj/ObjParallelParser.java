@@ -0,0 +1,586 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.model.obj;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import com.ardor3d.math.Vector3;
+import com.ardor3d.util.resource.ResourceSource;
+import com.ardor3d.util.resource.URLResourceSource;
+
+/**
+ * Reads an OBJ resource in parallel. Local files are memory mapped, other resources read into memory,
+ * and then cut into line aligned chunks. Each chunk is scanned on its own thread straight from the bytes
+ * into primitive arrays: vertex data, and a stream of elements and of the other statements. The chunks
+ * are then replayed in file order into an {@link ObjGeometryStore}, with statements going through
+ * {@link ObjImporter#processLine}, so the store ends up as a sequential load would leave it.
+ */
+final class ObjParallelParser {
+
+  /** Size chunks are cut at before being extended to the end of the line. */
+  static final int DEFAULT_CHUNK_SIZE = 1 << 22;
+
+  /** Largest part of a file mapped at once. */
+  private static final int MAX_WINDOW = 1 << 30;
+
+  // element stream opcodes
+  private static final int FACE = 0;
+  private static final int LINE = 1;
+  private static final int POINTS = 2;
+  private static final int STATEMENT = 3;
+
+  private final ObjImporter _importer;
+  private final int _chunkSize;
+
+  ObjParallelParser(final ObjImporter importer, final int chunkSize) {
+    _importer = importer;
+    _chunkSize = chunkSize;
+  }
+
+  ObjGeometryStore load(final ResourceSource resource) throws IOException {
+    final List<ByteBuffer> buffers = new ArrayList<>();
+    final Path file = ObjParallelParser.getLocalFile(resource);
+    if (file != null) {
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+        final long size = channel.size();
+        long position = 0;
+        while (position < size) {
+          final long length = Math.min(size - position, ObjParallelParser.MAX_WINDOW);
+          final int used = split(channel.map(MapMode.READ_ONLY, position, length), position + length == size, buffers);
+          if (used == 0) {
+            throw new IOException("Line at offset " + position + " is longer than " + ObjParallelParser.MAX_WINDOW);
+          }
+          position += used;
+        }
+      }
+    } else {
+      try (InputStream stream = resource.openStream()) {
+        split(ByteBuffer.wrap(stream.readAllBytes()), true, buffers);
+      }
+    }
+
+    final Chunk[] chunks = new Chunk[buffers.size()];
+    IntStream.range(0, chunks.length).parallel().forEach(i -> chunks[i] = new Chunk(buffers.get(i)).parse());
+    return replay(chunks, resource);
+  }
+
+  private static Path getLocalFile(final ResourceSource resource) {
+    if (resource instanceof URLResourceSource urlSource) {
+      final URL url = urlSource.getURL();
+      if (url != null && "file".equals(url.getProtocol())) {
+        try {
+          return Paths.get(url.toURI());
+        } catch (final URISyntaxException | IllegalArgumentException e) {
+          return null;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Cut the given bytes into chunks of whole lines.
+   *
+   * @param last
+   *          true if the bytes run to the end of the resource. If not, the trailing partial chunk is left
+   *          for the next call.
+   * @return the number of bytes put in chunks.
+   */
+  private int split(final ByteBuffer bytes, final boolean last, final List<ByteBuffer> chunks) {
+    final int limit = bytes.limit();
+    int start = 0;
+    while (start < limit) {
+      int end = limit - start > _chunkSize ? ObjParallelParser.findLineEnd(bytes, start, start + _chunkSize) : -1;
+      if (end < 0) {
+        if (!last) {
+          break;
+        }
+        end = limit;
+      }
+      chunks.add(bytes.slice(start, end - start));
+      start = end;
+    }
+    return start;
+  }
+
+  /**
+   * @return the offset after the first line feed from the given offset on that does not end a line
+   *         continued with a \, or -1 if there is none.
+   */
+  private static int findLineEnd(final ByteBuffer bytes, final int start, final int from) {
+    for (int i = from; i < bytes.limit(); i++) {
+      if (bytes.get(i) != '\n') {
+        continue;
+      }
+      int last = i - 1;
+      while (last >= start && bytes.get(last) != '\n' && ObjParallelParser.isSpace(bytes, last)) {
+        last--;
+      }
+      if (last < start || bytes.get(last) != '\\') {
+        return i + 1;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean isSpace(final ByteBuffer bytes, final int index) {
+    return (bytes.get(index) & 0xff) <= ' ';
+  }
+
+  private ObjGeometryStore replay(final Chunk[] chunks, final ResourceSource resource) {
+    final ObjGeometryStore store = new ObjGeometryStore();
+    final ObjDataStore data = store.getDataStore();
+    for (final Chunk chunk : chunks) {
+      chunk._vertices.addTo(data.getVertices());
+      chunk._uvs.addTo(data.getUvs());
+      chunk._normals.addTo(data.getNormals());
+    }
+
+    int smoothGroup = -1;
+    int lineBase = 0, vBase = 0, vtBase = 0, vnBase = 0;
+    int[] sets = new int[16 * ObjGeometryStore.SET_SIZE];
+    for (final Chunk chunk : chunks) {
+      final int[] ops = chunk._ops._data;
+      for (int i = 0; i < chunk._ops._size;) {
+        final int op = ops[i++];
+        if (op == ObjParallelParser.STATEMENT) {
+          smoothGroup = _importer.processLine(chunk._statements.get(ops[i + 1]), lineBase + ops[i], resource, store,
+              smoothGroup);
+          i += 2;
+          continue;
+        }
+
+        final int count = ops[i++];
+        if (sets.length < count * ObjGeometryStore.SET_SIZE) {
+          sets = new int[count * ObjGeometryStore.SET_SIZE];
+        }
+        for (int j = 0; j < count * ObjGeometryStore.SET_SIZE; j += ObjGeometryStore.SET_SIZE, i += 4) {
+          // relative indices were resolved against the counts within the chunk
+          final int relative = ops[i + 3];
+          sets[j] = ops[i] + ((relative & 1) != 0 ? vBase : 0);
+          sets[j + 1] = ops[i + 1] + ((relative & 2) != 0 ? vtBase : 0);
+          sets[j + 2] = ops[i + 2] + ((relative & 4) != 0 ? vnBase : 0);
+          sets[j + 3] = smoothGroup;
+        }
+        switch (op) {
+          case FACE -> store.addFace(sets, count);
+          case LINE -> store.addLine(sets, count);
+          default -> store.addPoints(sets, count);
+        }
+      }
+      lineBase += chunk._lineCount;
+      vBase += chunk._vertices.count();
+      vtBase += chunk._uvs.count();
+      vnBase += chunk._normals.count();
+    }
+
+    store.commitObjects();
+    store.cleanup();
+    return store;
+  }
+
+  /**
+   * Parse a double from the given bytes as {@link Double#parseDouble(String)} would, without making
+   * objects for plain decimals that convert exactly.
+   */
+  static double parseDouble(final ByteBuffer bytes, final int start, final int end) {
+    int i = start;
+    final byte sign = bytes.get(i);
+    final boolean negative = sign == '-';
+    if (negative || sign == '+') {
+      i++;
+    }
+
+    long mantissa = 0;
+    int digits = 0, exponent = 0;
+    boolean any = false, point = false;
+    for (; i < end; i++) {
+      final int c = bytes.get(i);
+      if (c >= '0' && c <= '9') {
+        any = true;
+        if (mantissa != 0 || c != '0') {
+          if (++digits > 18) {
+            return ObjParallelParser.parseDoubleSlow(bytes, start, end);
+          }
+          mantissa = mantissa * 10 + c - '0';
+        }
+        if (point) {
+          exponent--;
+        }
+      } else if (c == '.' && !point) {
+        point = true;
+      } else {
+        break;
+      }
+    }
+    if (!any) {
+      return ObjParallelParser.parseDoubleSlow(bytes, start, end);
+    }
+
+    if (i < end && (bytes.get(i) == 'e' || bytes.get(i) == 'E')) {
+      i++;
+      final boolean negativeExponent = i < end && bytes.get(i) == '-';
+      if (i < end && (negativeExponent || bytes.get(i) == '+')) {
+        i++;
+      }
+      int value = 0;
+      final int digitsStart = i;
+      for (; i < end && bytes.get(i) >= '0' && bytes.get(i) <= '9'; i++) {
+        value = Math.min(value * 10 + bytes.get(i) - '0', 10000);
+      }
+      if (i == digitsStart) {
+        return ObjParallelParser.parseDoubleSlow(bytes, start, end);
+      }
+      exponent += negativeExponent ? -value : value;
+    }
+    if (i != end) {
+      return ObjParallelParser.parseDoubleSlow(bytes, start, end);
+    }
+
+    final double value;
+    if (mantissa == 0) {
+      value = 0;
+    } else if (mantissa < 1L << 53 && exponent >= -22 && exponent <= 22) {
+      // both exactly representable, so one rounding as for the exact decimal
+      value = exponent < 0 ? mantissa / ObjParallelParser.POWERS_OF_TEN[-exponent]
+          : mantissa * ObjParallelParser.POWERS_OF_TEN[exponent];
+    } else {
+      return ObjParallelParser.parseDoubleSlow(bytes, start, end);
+    }
+    return negative ? -value : value;
+  }
+
+  private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+      1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+  private static double parseDoubleSlow(final ByteBuffer bytes, final int start, final int end) {
+    return Double.parseDouble(ObjParallelParser.toString(bytes, start, end));
+  }
+
+  /**
+   * Parse an int from the given bytes as {@link Integer#parseInt(String)} would.
+   */
+  static int parseInt(final ByteBuffer bytes, final int start, final int end) {
+    int i = start;
+    final byte sign = bytes.get(i);
+    final boolean negative = sign == '-';
+    if (negative || sign == '+') {
+      i++;
+    }
+    // nine digits can not overflow
+    if (i == end || end - i > 9) {
+      return Integer.parseInt(ObjParallelParser.toString(bytes, start, end));
+    }
+    int value = 0;
+    for (; i < end; i++) {
+      final int c = bytes.get(i);
+      if (c < '0' || c > '9') {
+        return Integer.parseInt(ObjParallelParser.toString(bytes, start, end));
+      }
+      value = value * 10 + c - '0';
+    }
+    return negative ? -value : value;
+  }
+
+  private static String toString(final ByteBuffer bytes, final int start, final int end) {
+    final byte[] content = new byte[end - start];
+    bytes.get(start, content);
+    // as the InputStreamReader of ObjImporter decodes it
+    return new String(content, Charset.defaultCharset());
+  }
+
+  /** Vertex data of one kind, three doubles per entry. */
+  private static final class Doubles {
+    private double[] _data = new double[3 * 1024];
+    private int _size;
+
+    void add(final double x, final double y, final double z) {
+      if (_size + 3 > _data.length) {
+        _data = Arrays.copyOf(_data, _data.length * 2);
+      }
+      _data[_size++] = x;
+      _data[_size++] = y;
+      _data[_size++] = z;
+    }
+
+    int count() {
+      return _size / 3;
+    }
+
+    void addTo(final List<Vector3> store) {
+      for (int i = 0; i < _size; i += 3) {
+        store.add(new Vector3(_data[i], _data[i + 1], _data[i + 2]));
+      }
+    }
+  }
+
+  private static final class Ints {
+    private int[] _data = new int[1024];
+    private int _size;
+
+    void add(final int value) {
+      if (_size == _data.length) {
+        _data = Arrays.copyOf(_data, _size * 2);
+      }
+      _data[_size++] = value;
+    }
+  }
+
+  /**
+   * The result of scanning one chunk. Elements are stored as opcode, corner count and four ints per
+   * corner: the vertex, uv and normal index and a mask of which of them are relative to the counts at
+   * the chunk start. Anything else is kept as a statement: opcode, line number within the chunk and the
+   * index of the line text.
+   */
+  private static final class Chunk {
+    private final ByteBuffer _bytes;
+
+    private final Doubles _vertices = new Doubles();
+    private final Doubles _uvs = new Doubles();
+    private final Doubles _normals = new Doubles();
+    private final Ints _ops = new Ints();
+    private final List<String> _statements = new ArrayList<>();
+    private int _lineCount;
+
+    // the line being scanned
+    private ByteBuffer _line;
+    private int _pos, _end;
+
+    // a line joined from lines continued with \
+    private byte[] _joined = new byte[256];
+    private int _joinedLength;
+
+    Chunk(final ByteBuffer bytes) {
+      _bytes = bytes;
+    }
+
+    Chunk parse() {
+      final int limit = _bytes.limit();
+      int pos = 0;
+      while (pos < limit) {
+        final int end = lineEnd(pos);
+        int next = nextLine(end);
+        _lineCount++;
+
+        // trim, as ObjImporter does
+        int start = pos, stop = end;
+        while (start < stop && ObjParallelParser.isSpace(_bytes, start)) {
+          start++;
+        }
+        while (stop > start && ObjParallelParser.isSpace(_bytes, stop - 1)) {
+          stop--;
+        }
+        if (stop > start && _bytes.get(stop - 1) == '\\') {
+          next = join(start, stop, next);
+          parseLine(ByteBuffer.wrap(_joined), 0, _joinedLength);
+        } else {
+          parseLine(_bytes, start, stop);
+        }
+        pos = next;
+      }
+      return this;
+    }
+
+    private int lineEnd(final int from) {
+      int end = from;
+      while (end < _bytes.limit() && _bytes.get(end) != '\n' && _bytes.get(end) != '\r') {
+        end++;
+      }
+      return end;
+    }
+
+    private int nextLine(final int lineEnd) {
+      if (lineEnd == _bytes.limit()) {
+        return lineEnd;
+      }
+      if (_bytes.get(lineEnd) == '\r' && lineEnd + 1 < _bytes.limit() && _bytes.get(lineEnd + 1) == '\n') {
+        return lineEnd + 2;
+      }
+      return lineEnd + 1;
+    }
+
+    /**
+     * Join a line ending in \ with the lines after it, as ObjImporter does.
+     *
+     * @return the offset of the line after the joined ones.
+     */
+    private int join(final int start, final int end, final int next) {
+      _joinedLength = 0;
+      append(start, end);
+      int pos = next;
+      while (_joinedLength > 0 && _joined[_joinedLength - 1] == '\\') {
+        _joinedLength--;
+        if (pos < _bytes.limit()) {
+          final int lineEnd = lineEnd(pos);
+          append(pos, lineEnd);
+          pos = nextLine(lineEnd);
+
+          int first = 0;
+          while (first < _joinedLength && (_joined[first] & 0xff) <= ' ') {
+            first++;
+          }
+          while (_joinedLength > first && (_joined[_joinedLength - 1] & 0xff) <= ' ') {
+            _joinedLength--;
+          }
+          System.arraycopy(_joined, first, _joined, 0, _joinedLength - first);
+          _joinedLength -= first;
+        }
+      }
+      return pos;
+    }
+
+    private void append(final int start, final int end) {
+      if (_joinedLength + end - start > _joined.length) {
+        _joined = Arrays.copyOf(_joined, Math.max(_joined.length * 2, _joinedLength + end - start));
+      }
+      _bytes.get(start, _joined, _joinedLength, end - start);
+      _joinedLength += end - start;
+    }
+
+    private void parseLine(final ByteBuffer line, final int start, final int end) {
+      // skip empty lines and comments
+      if (start == end || line.get(start) == '#') {
+        return;
+      }
+
+      _line = line;
+      _pos = start;
+      _end = end;
+      final int keywordEnd = tokenEnd();
+      final int keywordLength = keywordEnd - start;
+      final byte first = line.get(start);
+      final byte second = keywordLength == 2 ? line.get(start + 1) : 0;
+      _pos = keywordEnd;
+
+      final int mark = _ops._size;
+      try {
+        if (first == 'v' && keywordLength == 1) {
+          _vertices.add(nextDouble(), nextDouble(), nextDouble());
+        } else if (first == 'v' && second == 't') {
+          final double u = nextDouble();
+          final double v = hasNext() ? nextDouble() : 0;
+          final double w = hasNext() ? nextDouble() : 0;
+          _uvs.add(u, v, w);
+        } else if (first == 'v' && second == 'n') {
+          _normals.add(nextDouble(), nextDouble(), nextDouble());
+        } else if (first == 'f' && (keywordLength == 1 || second == 'o')) {
+          addElement(ObjParallelParser.FACE);
+        } else if (first == 'l' && keywordLength == 1) {
+          addElement(ObjParallelParser.LINE);
+        } else if (first == 'p' && keywordLength == 1) {
+          addElement(ObjParallelParser.POINTS);
+        } else {
+          addStatement(line, start, end);
+        }
+      } catch (final NumberFormatException e) {
+        // let ObjImporter fail on it, so the error names the line
+        _ops._size = mark;
+        addStatement(line, start, end);
+      }
+    }
+
+    private void addStatement(final ByteBuffer line, final int start, final int end) {
+      _ops.add(ObjParallelParser.STATEMENT);
+      _ops.add(_lineCount);
+      _ops.add(_statements.size());
+      _statements.add(ObjParallelParser.toString(line, start, end));
+    }
+
+    private void addElement(final int type) {
+      final int mark = _ops._size;
+      _ops.add(type);
+      _ops.add(0);
+      int count = 0;
+      while (hasNext()) {
+        final int end = tokenEnd();
+        int v = -1, vt = -1, vn = -1, relative = 0;
+        // at most three fields, split by /, as in ObjIndexSet
+        for (int field = 0, from = _pos; field < 3 && from <= end; field++) {
+          int to = from;
+          while (to < end && _line.get(to) != '/') {
+            to++;
+          }
+          if (to > from) {
+            int value = ObjParallelParser.parseInt(_line, from, to);
+            if (value < 0) {
+              value += (field == 0 ? _vertices : field == 1 ? _uvs : _normals).count();
+              relative |= 1 << field;
+            } else {
+              // OBJ is 1 based
+              value--;
+            }
+            switch (field) {
+              case 0 -> v = value;
+              case 1 -> vt = value;
+              default -> vn = value;
+            }
+          }
+          from = to + 1;
+        }
+        _ops.add(v);
+        _ops.add(vt);
+        _ops.add(vn);
+        _ops.add(relative);
+        _pos = end;
+        count++;
+      }
+
+      if (count == 0) {
+        _ops._size = mark;
+      } else if (type == ObjParallelParser.FACE && count < 3) {
+        throw new NumberFormatException("too few vertices for a face");
+      } else {
+        _ops._data[mark + 1] = count;
+      }
+    }
+
+    /**
+     * @return true if another token follows, skipping to it.
+     */
+    private boolean hasNext() {
+      while (_pos < _end && ObjParallelParser.isSpace(_line, _pos)) {
+        _pos++;
+      }
+      return _pos < _end;
+    }
+
+    private int tokenEnd() {
+      int end = _pos;
+      while (end < _end && !ObjParallelParser.isSpace(_line, end)) {
+        end++;
+      }
+      return end;
+    }
+
+    private double nextDouble() {
+      if (!hasNext()) {
+        throw new NumberFormatException("missing value");
+      }
+      final int start = _pos;
+      _pos = tokenEnd();
+      return ObjParallelParser.parseDouble(_line, start, _pos);
+    }
+  }
+}
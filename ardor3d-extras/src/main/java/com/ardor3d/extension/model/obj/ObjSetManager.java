@@ -11,36 +11,185 @@
 package com.ardor3d.extension.model.obj;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Collects the distinct index sets (vertex, uv, normal, smooth group) of one element type and the
+ * indices into them, in primitive arrays. Sets are kept in the order they were first seen and are
+ * found again through an open addressing hash table, so no objects are made per OBJ vertex.
+ */
 public class ObjSetManager {
-  private final Map<ObjIndexSet, Integer> _store = new LinkedHashMap<>();
-  private final List<Integer> _indices = new ArrayList<>();
-  private final List<Integer> _lengths = new ArrayList<>();
+  private static final int SET_SIZE = 4;
+
+  // v, vt, vn and smooth group of each set, in insertion order
+  private int[] _sets = new int[16 * ObjSetManager.SET_SIZE];
+  private int _setCount;
+
+  // set index + 1 per slot, 0 marks an empty slot. Length is a power of two.
+  private int[] _table = new int[32];
+
+  private int[] _indices = new int[64];
+  private int _indexCount;
+
+  private int[] _lengths = new int[8];
+  private int _lengthCount;
 
   public int findSet(final ObjIndexSet set) {
-    if (_store.containsKey(set)) {
-      return _store.get(set);
+    return findSet(set.getVIndex(), set.getVtIndex(), set.getVnIndex(), set.getRawSmoothGroup());
+  }
+
+  /**
+   * @return the index of the set with the given values, adding it if it is new. A new set always gets
+   *         the index {@link #getSetCount()} had before the call.
+   */
+  public int findSet(final int vIndex, final int vtIndex, final int vnIndex, final int smoothGroup) {
+    final int mask = _table.length - 1;
+    int slot = ObjSetManager.hash(vIndex, vtIndex, vnIndex, smoothGroup) & mask;
+    for (int entry; (entry = _table[slot]) != 0; slot = (slot + 1) & mask) {
+      final int offset = (entry - 1) * ObjSetManager.SET_SIZE;
+      if (_sets[offset] == vIndex && _sets[offset + 1] == vtIndex && _sets[offset + 2] == vnIndex
+          && _sets[offset + 3] == smoothGroup) {
+        return entry - 1;
+      }
     }
 
-    final int index = _store.size();
-    _store.put(set, index);
+    final int index = _setCount++;
+    if (_setCount * ObjSetManager.SET_SIZE > _sets.length) {
+      _sets = Arrays.copyOf(_sets, _sets.length * 2);
+    }
+    final int offset = index * ObjSetManager.SET_SIZE;
+    _sets[offset] = vIndex;
+    _sets[offset + 1] = vtIndex;
+    _sets[offset + 2] = vnIndex;
+    _sets[offset + 3] = smoothGroup;
+    _table[slot] = index + 1;
+    if (_setCount * 2 > _table.length) {
+      rehash();
+    }
     return index;
   }
 
+  /**
+   * Replace the normal index of a set, as done when a face normal is generated for it. The set is not
+   * moved in the hash table, so it can no longer be found with either normal index; sets with a
+   * generated normal are never shared.
+   */
+  void setVnIndex(final int set, final int vnIndex) {
+    _sets[set * ObjSetManager.SET_SIZE + 2] = vnIndex;
+  }
+
+  private void rehash() {
+    final int[] table = new int[_table.length * 2];
+    final int mask = table.length - 1;
+    for (final int entry : _table) {
+      if (entry != 0) {
+        final int offset = (entry - 1) * ObjSetManager.SET_SIZE;
+        // stored by the values the set was added with, which for a set with a generated normal is -1
+        final int vn = _sets[offset + 2] < -1 ? -1 : _sets[offset + 2];
+        int slot = ObjSetManager.hash(_sets[offset], _sets[offset + 1], vn, _sets[offset + 3]) & mask;
+        while (table[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        table[slot] = entry;
+      }
+    }
+    _table = table;
+  }
+
+  private static int hash(final int vIndex, final int vtIndex, final int vnIndex, final int smoothGroup) {
+    int result = 17;
+    result = 31 * result + vIndex;
+    result = 31 * result + vtIndex;
+    result = 31 * result + vnIndex;
+    result = 31 * result + smoothGroup;
+    return result ^ (result >>> 16);
+  }
+
   public void addIndex(final int index) {
-    _indices.add(index);
+    if (_indexCount == _indices.length) {
+      _indices = Arrays.copyOf(_indices, _indexCount * 2);
+    }
+    _indices[_indexCount++] = index;
   }
 
   public void addLength(final int length) {
-    _lengths.add(length);
+    if (_lengthCount == _lengths.length) {
+      _lengths = Arrays.copyOf(_lengths, _lengthCount * 2);
+    }
+    _lengths[_lengthCount++] = length;
   }
 
-  public Map<ObjIndexSet, Integer> getStore() { return _store; }
+  public int getSetCount() { return _setCount; }
 
-  public List<Integer> getIndices() { return _indices; }
+  public int getVIndex(final int set) {
+    return _sets[set * ObjSetManager.SET_SIZE];
+  }
+
+  public int getVtIndex(final int set) {
+    return _sets[set * ObjSetManager.SET_SIZE + 1];
+  }
+
+  public int getVnIndex(final int set) {
+    return _sets[set * ObjSetManager.SET_SIZE + 2];
+  }
+
+  /**
+   * @return the smooth group of the given set, 0 if it has a normal from the file - normals override
+   *         smoothing.
+   */
+  public int getSmoothGroup(final int set) {
+    return getVnIndex(set) >= 0 ? 0 : _sets[set * ObjSetManager.SET_SIZE + 3];
+  }
+
+  public int getIndexCount() { return _indexCount; }
+
+  public int getIndex(final int i) {
+    return _indices[i];
+  }
 
-  public List<Integer> getLengths() { return _lengths; }
+  public int[] getLengthArray() { return Arrays.copyOf(_lengths, _lengthCount); }
+
+  /**
+   * @return a copy of our sets, mapped to their indices in the order they were added.
+   * @deprecated sets are no longer kept as objects, so this builds a new map on each call. Use
+   *             {@link #getSetCount()} and the per set getters.
+   */
+  @Deprecated
+  public Map<ObjIndexSet, Integer> getStore() {
+    final Map<ObjIndexSet, Integer> store = new LinkedHashMap<>();
+    for (int i = 0; i < _setCount; i++) {
+      final int offset = i * ObjSetManager.SET_SIZE;
+      store.put(new ObjIndexSet(_sets[offset], _sets[offset + 1], _sets[offset + 2], _sets[offset + 3]), i);
+    }
+    return store;
+  }
+
+  /**
+   * @return a copy of our indices.
+   * @deprecated builds a new list on each call. Use {@link #getIndexCount()} and {@link #getIndex(int)}.
+   */
+  @Deprecated
+  public List<Integer> getIndices() {
+    final List<Integer> indices = new ArrayList<>(_indexCount);
+    for (int i = 0; i < _indexCount; i++) {
+      indices.add(_indices[i]);
+    }
+    return indices;
+  }
+
+  /**
+   * @return a copy of our lengths.
+   * @deprecated builds a new list on each call. Use {@link #getLengthArray()}.
+   */
+  @Deprecated
+  public List<Integer> getLengths() {
+    final List<Integer> lengths = new ArrayList<>(_lengthCount);
+    for (int i = 0; i < _lengthCount; i++) {
+      lengths.add(_lengths[i]);
+    }
+    return lengths;
+  }
 }
@@ -12,6 +12,7 @@ package com.ardor3d.extension.model.util;
 
 import java.io.IOException;
 import java.io.Serial;
+import java.net.URISyntaxException;
 import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.logging.Logger;
@@ -28,6 +29,8 @@ import com.ardor3d.scenegraph.controller.ComplexSpatialController;
 import com.ardor3d.util.export.InputCapsule;
 import com.ardor3d.util.export.OutputCapsule;
 import com.ardor3d.util.export.Savable;
+import com.ardor3d.util.resource.ResourceLocatorTool;
+import com.ardor3d.util.resource.SimpleResourceLocator;
 
 /**
  * TODO: Revisit for better Ardor3D integration.
@@ -51,6 +54,12 @@ import com.ardor3d.util.export.Savable;
  * When this controller is saved/loaded to XML format, it assumes that the mesh it morphs is the
  * Mesh it belongs to, so it is recommended to only attach this controller to the Mesh it animates.
  *
+ * Once the keyframes are set, {@link #buildMorphTargets()} packs them into {@link MorphTargets} and
+ * switches to a faster path that blends whole arrays at once. Other model instances can then share the
+ * keyframes and targets through {@link #createInstance(Mesh)}, keeping only their own time. With
+ * {@link #setGpuMorph(boolean)}, the blend is left to the vertex shader instead - see
+ * {@link #KEY_MorphVertexCoords}.
+ *
  * (Based on work by Jack Lindamood, kevglass (parts), hevee (blend time), Julien Gouesse (port to
  * Ardor3D))
  */
@@ -59,6 +68,17 @@ public class KeyframeController<T extends Spatial> extends ComplexSpatialControl
 
   private static final Logger logger = Logger.getLogger(KeyframeController.class.getName());
 
+  /**
+   * Key of the mesh data holding the vertices being blended to, when morphing on the GPU. The vertices
+   * being blended from are the mesh's own, and the blend is set as the "morphBlend" property of the
+   * mesh. Use with a material whose vertex shader blends them, such as
+   * lit/textured/basic_morph_phong.yaml.
+   */
+  public static final String KEY_MorphVertexCoords = "morphVertex";
+
+  /** Key of the mesh data holding the normals being blended to, when morphing on the GPU. */
+  public static final String KEY_MorphNormalCoords = "morphNormal";
+
   @Serial
   private static final long serialVersionUID = 1L;
 
@@ -128,6 +148,18 @@ public class KeyframeController<T extends Spatial> extends ComplexSpatialControl
   /** If true, the model's bounding volume will update every frame. */
   private boolean _updateBounding = true;
 
+  /** Our keyframes, packed. Null to morph from the keyframe meshes. */
+  transient private MorphTargets _morphTargets;
+
+  /** Scratch array our morph targets are blended into. */
+  transient private float[] _morphStore;
+
+  /** If true, morph targets are blended on the GPU. */
+  transient private boolean _gpuMorph;
+
+  /** The mesh's own vertex and normal data, put back when GPU morphing is turned off. */
+  transient private FloatBufferData _cpuVertexCoords, _cpuNormalCoords;
+
   /**
    * Default constructor. Speed is 1, MinTime is 0 MaxTime is 0. Both MinTime and MaxTime are
    * automatically adjusted by setKeyframe if the setKeyframe time is less than MinTime or greater
@@ -166,6 +198,8 @@ public class KeyframeController<T extends Spatial> extends ComplexSpatialControl
    *          The new mesh to morph
    */
   public void setMorphingMesh(final Mesh morph) {
+    // our packed targets were made from the keyframes we drop here
+    setMorphTargets(null);
     _morphMesh = morph;
     _keyframes.clear();
     _keyframes.add(new PointInTime(0, null));
@@ -180,7 +214,8 @@ public class KeyframeController<T extends Spatial> extends ComplexSpatialControl
    * must be non-null and shape must have the same number of vertexes as the current shape. If not,
    * then nothing happens. It is also required that setMorphingMesh(Mesh) is called before
    * setKeyframe. It is assumed that shape.indices == morphMesh.indices, otherwise morphing may look
-   * funny
+   * funny. Any morph targets are dropped, as they no longer match the keyframes - call
+   * {@link #buildMorphTargets()} again once done.
    *
    * @param time
    *          The time for the change
@@ -188,19 +223,30 @@ public class KeyframeController<T extends Spatial> extends ComplexSpatialControl
    *          The new shape at that time
    */
   public void setKeyframe(final double time, final Mesh shape) {
+    if (insertKeyframe(time, shape)) {
+      setMorphTargets(null);
+    }
+  }
+
+  /**
+   * Add or replace a keyframe of our current keyframe set, leaving our morph targets alone.
+   *
+   * @return true if the keyframes were changed.
+   */
+  private boolean insertKeyframe(final double time, final Mesh shape) {
     if (_morphMesh == null || time < 0
         || shape.getMeshData().getVertexBuffer().capacity() != _morphMesh.getMeshData().getVertexBuffer().capacity()) {
-      return;
+      return false;
     }
     for (int i = 0; i < _keyframes.size(); i++) {
       final PointInTime lookingTime = _keyframes.get(i);
       if (lookingTime._time == time) {
         lookingTime._newShape = shape;
-        return;
+        return true;
       }
       if (lookingTime._time > time) {
         _keyframes.add(i, new PointInTime(time, shape));
-        return;
+        return true;
       }
     }
     _keyframes.add(new PointInTime(time, shape));
@@ -210,6 +256,7 @@ public class KeyframeController<T extends Spatial> extends ComplexSpatialControl
     if (time < getMinTime()) {
       setMinTime(time);
     }
+    return true;
   }
 
   /**
@@ -267,8 +314,9 @@ public class KeyframeController<T extends Spatial> extends ComplexSpatialControl
     _curFrame = 0;
     setMinTime(0);
     setMaxTime(translationLen);
-    setKeyframe(0, begin);
-    setKeyframe(translationLen, end);
+    // the transition set is never packed, our targets still match the set swapped back in afterwards
+    insertKeyframe(0, begin);
+    insertKeyframe(translationLen, end);
     _isSmooth = true;
     _tempNewBeginTime = newBeginTime;
     _tempNewEndTime = newEndTime;
@@ -462,6 +510,27 @@ public class KeyframeController<T extends Spatial> extends ComplexSpatialControl
       delta = (clampedCurTime - _before._time) / (_after._time - _before._time);
     }
 
+    // keyframes changed behind our back leave the targets short, so morph from the meshes instead
+    if (_morphTargets != null && !_isSmooth && _morphTargets.getFrameCount() == _keyframes.size()) {
+      if (_gpuMorph) {
+        applyGpuMorph(_curFrame, _nextFrame, (float) delta);
+      } else {
+        applyMorphTargets(_curFrame, _nextFrame, (float) delta);
+      }
+      if (_updateBounding) {
+        updateBounding();
+      }
+      return;
+    }
+    if (_gpuMorph) {
+      // blending on the CPU for now, into our own buffers - show those.
+      final MeshData data = _morphMesh.getMeshData();
+      data.setVertexCoords(_cpuVertexCoords);
+      data.setNormalCoords(_cpuNormalCoords);
+      data.setCoords(KEY_MorphVertexCoords, _cpuVertexCoords);
+      data.setCoords(KEY_MorphNormalCoords, _cpuNormalCoords);
+    }
+
     final Mesh oldShape = _before._newShape;
     final Mesh newShape = _after._newShape;
 
@@ -580,6 +649,136 @@ public class KeyframeController<T extends Spatial> extends ComplexSpatialControl
     }
   }
 
+  private void applyMorphTargets(final int from, final int to, final float blend) {
+    final MeshData data = _morphMesh.getMeshData();
+    blendInto(data, MeshData.KEY_VertexCoords, _morphTargets.getVertices(), 3, from, to, blend);
+    blendInto(data, MeshData.KEY_NormalCoords, _morphTargets.getNormals(), 3, from, to, blend);
+    blendInto(data, MeshData.KEY_ColorCoords, _morphTargets.getColors(), 4, from, to, blend);
+    if (_interpTex) {
+      blendInto(data, MeshData.KEY_TextureCoords0, _morphTargets.getTexCoords(), 2, from, to, blend);
+    }
+  }
+
+  private void blendInto(final MeshData data, final String key, final float[] frames, final int tupleSize,
+      final int from, final int to, final float blend) {
+    final FloatBuffer target = data.getBuffer(key);
+    if (frames == null || target == null) {
+      return;
+    }
+    final int count = _morphTargets.getVertexCount() * tupleSize;
+    if (_morphStore == null || _morphStore.length < count) {
+      _morphStore = new float[count];
+    }
+    MorphTargets.lerp(frames, from * count, to * count, blend, _morphStore, count);
+    target.put(0, _morphStore, 0, count);
+    data.markBufferDirty(key);
+  }
+
+  private void applyGpuMorph(final int from, final int to, final float blend) {
+    final MeshData data = _morphMesh.getMeshData();
+    data.setVertexCoords(_morphTargets.getVertexData(from));
+    data.setCoords(KEY_MorphVertexCoords, _morphTargets.getVertexData(to));
+    if (_morphTargets.getNormals() != null) {
+      data.setNormalCoords(_morphTargets.getNormalData(from));
+      data.setCoords(KEY_MorphNormalCoords, _morphTargets.getNormalData(to));
+    }
+    _morphMesh.setProperty("morphBlend", blend);
+  }
+
+  /**
+   * Pack our current keyframes into morph targets and morph from those from now on. Call again if the
+   * keyframes change.
+   *
+   * @return the new morph targets.
+   */
+  public MorphTargets buildMorphTargets() {
+    final MorphTargets targets = MorphTargets.fromKeyframes(_keyframes);
+    _morphTargets = targets;
+    KeyframeController.logger.fine(() -> "Packed " + targets.getFrameCount() + " keyframes into "
+        + targets.getMemoryUsage() + " bytes.");
+    return targets;
+  }
+
+  /**
+   * @param targets
+   *          morph targets packed from our keyframes, or null to morph from the keyframe meshes.
+   * @throws IllegalArgumentException
+   *           if the targets do not have one frame per keyframe.
+   */
+  public void setMorphTargets(final MorphTargets targets) {
+    if (targets != null && targets.getFrameCount() != _keyframes.size()) {
+      throw new IllegalArgumentException(
+          "targets have " + targets.getFrameCount() + " frames, expected " + _keyframes.size());
+    }
+    if (targets == null) {
+      setGpuMorph(false);
+    }
+    _morphTargets = targets;
+  }
+
+  public MorphTargets getMorphTargets() { return _morphTargets; }
+
+  /**
+   * Create a controller for another instance of our model, sharing our keyframes and morph targets
+   * (packed now if needed) and copying our playback settings. Only the time is kept per instance. The
+   * keyframe list is shared rather than copied, so do not change the keyframes of any of the
+   * controllers once instances exist.
+   *
+   * @param morph
+   *          the mesh to morph - usually a copy of ours, sharing its index data.
+   * @return the new controller. It is not added to the mesh.
+   */
+  public KeyframeController<T> createInstance(final Mesh morph) {
+    if (_morphTargets == null) {
+      buildMorphTargets();
+    }
+    final KeyframeController<T> instance = new KeyframeController<>();
+    instance._keyframes = _keyframes;
+    instance._morphTargets = _morphTargets;
+    instance._morphMesh = morph;
+    instance.setSpeed(getSpeed());
+    instance.setRepeatType(getRepeatType());
+    instance.setMinTime(getMinTime());
+    instance.setMaxTime(getMaxTime());
+    instance.setActive(isActive());
+    instance._curTime = _curTime;
+    instance._interpTex = _interpTex;
+    instance._updateBounding = _updateBounding;
+    instance.blendTime = blendTime;
+    instance.setGpuMorph(_gpuMorph);
+    return instance;
+  }
+
+  /**
+   * @param gpuMorph
+   *          if true, morph targets are blended by the vertex shader rather than on the CPU: the mesh is
+   *          given the vertices and normals of the two frames around the current time, shared by all
+   *          instances, and the blend between them. Only takes effect while we have morph targets.
+   *          Colors and texture coordinates are not blended. If false (the default), the mesh's own
+   *          buffers are blended into.
+   */
+  public void setGpuMorph(final boolean gpuMorph) {
+    if (gpuMorph == _gpuMorph || _morphMesh == null) {
+      _gpuMorph = gpuMorph;
+      return;
+    }
+    final MeshData data = _morphMesh.getMeshData();
+    if (gpuMorph) {
+      _cpuVertexCoords = data.getVertexCoords();
+      _cpuNormalCoords = data.getNormalCoords();
+    } else {
+      data.setVertexCoords(_cpuVertexCoords);
+      data.setNormalCoords(_cpuNormalCoords);
+      data.setCoords(KEY_MorphVertexCoords, null);
+      data.setCoords(KEY_MorphNormalCoords, null);
+      _morphMesh.removeProperty("morphBlend");
+      _cpuVertexCoords = _cpuNormalCoords = null;
+    }
+    _gpuMorph = gpuMorph;
+  }
+
+  public boolean isGpuMorph() { return _gpuMorph; }
+
   /**
    * Updates the bounding volume of the morph mesh
    */
@@ -776,6 +975,19 @@ public class KeyframeController<T extends Spatial> extends ComplexSpatialControl
 
   public Mesh getMorphMesh() { return _morphMesh; }
 
+  public static void addDefaultResourceLocators() {
+    try {
+      ResourceLocatorTool.addResourceLocator(ResourceLocatorTool.TYPE_MATERIAL,
+          new SimpleResourceLocator(ResourceLocatorTool.getClassPathResource(KeyframeController.class,
+              "com/ardor3d/extension/model/material")));
+      ResourceLocatorTool.addResourceLocator(ResourceLocatorTool.TYPE_SHADER,
+          new SimpleResourceLocator(ResourceLocatorTool.getClassPathResource(KeyframeController.class,
+              "com/ardor3d/extension/model/shader")));
+    } catch (final URISyntaxException ex) {
+      ex.printStackTrace();
+    }
+  }
+
   @SuppressWarnings("rawtypes")
   @Override
   public Class<? extends KeyframeController> getClassTag() { return this.getClass(); }
@@ -0,0 +1,253 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.model.util;
+
+import java.nio.FloatBuffer;
+import java.util.List;
+
+import com.ardor3d.buffer.BufferUtils;
+import com.ardor3d.buffer.FloatBufferData;
+import com.ardor3d.extension.model.util.KeyframeController.PointInTime;
+import com.ardor3d.math.Vector3;
+import com.ardor3d.math.type.ReadOnlyTransform;
+import com.ardor3d.scenegraph.Mesh;
+import com.ardor3d.scenegraph.MeshData;
+
+/**
+ * <p>
+ * The keyframes of a {@link KeyframeController}, packed for fast morphing. Each attribute (vertices,
+ * normals, colors and first texture coordinates) of every keyframe is held in one contiguous float
+ * array, frame after frame, with keyframe transforms already applied to the vertices. Morphing is then
+ * a single {@link #lerp(float[], int, int, float, float[], int)} over two slices of an array.
+ * </p>
+ * <p>
+ * Morph targets are read only once built, so many controllers - one per model instance - can share
+ * them, each keeping just its own time. For GPU morphing, the vertices and normals of each frame are
+ * also available as buffer data (see {@link #getVertexData(int)}), created on first use and shared by
+ * all controllers, so each frame is sent to the card once however many instances show it.
+ * </p>
+ */
+public class MorphTargets {
+
+  private final double[] _times;
+  private final int _vertexCount;
+
+  private final float[] _vertices;
+  private final float[] _normals;
+  private final float[] _colors;
+  private final float[] _texCoords;
+
+  /** Per frame buffer data for GPU morphing, created on first use. */
+  private final FloatBufferData[] _vertexData;
+  private final FloatBufferData[] _normalData;
+
+  /**
+   * Pack the given keyframes. Normals, colors and texture coordinates are only kept if every keyframe
+   * has them.
+   *
+   * @param keyframes
+   *          the keyframes to pack, all with shapes of the same vertex count.
+   * @return the packed morph targets.
+   * @throws IllegalArgumentException
+   *           if there are no keyframes, or a keyframe has no shape or a different vertex count.
+   */
+  public static MorphTargets fromKeyframes(final List<PointInTime> keyframes) {
+    if (keyframes.isEmpty()) {
+      throw new IllegalArgumentException("no keyframes to pack.");
+    }
+    final int frameCount = keyframes.size();
+    final double[] times = new double[frameCount];
+    int vertexCount = -1;
+    boolean hasNormals = true, hasColors = true, hasTexCoords = true;
+    for (int i = 0; i < frameCount; i++) {
+      final PointInTime keyframe = keyframes.get(i);
+      if (keyframe._newShape == null || keyframe._newShape.getMeshData().getVertexBuffer() == null) {
+        throw new IllegalArgumentException("keyframe " + i + " has no shape.");
+      }
+      final MeshData data = keyframe._newShape.getMeshData();
+      final int count = data.getVertexBuffer().capacity() / 3;
+      if (vertexCount >= 0 && count != vertexCount) {
+        throw new IllegalArgumentException("keyframe " + i + " has " + count + " vertices, expected " + vertexCount);
+      }
+      vertexCount = count;
+      times[i] = keyframe._time;
+      hasNormals &= data.getNormalBuffer() != null;
+      hasColors &= data.getColorBuffer() != null;
+      hasTexCoords &= data.getTextureCoords(0) != null;
+    }
+
+    final float[] vertices = new float[frameCount * vertexCount * 3];
+    final float[] normals = hasNormals ? new float[frameCount * vertexCount * 3] : null;
+    final float[] colors = hasColors ? new float[frameCount * vertexCount * 4] : null;
+    final float[] texCoords = hasTexCoords ? new float[frameCount * vertexCount * 2] : null;
+    final Vector3 vertex = new Vector3();
+    for (int i = 0; i < frameCount; i++) {
+      final Mesh shape = keyframes.get(i)._newShape;
+      final MeshData data = shape.getMeshData();
+      final ReadOnlyTransform transform = shape.getTransform();
+      final FloatBuffer verts = data.getVertexBuffer();
+      final int offset = i * vertexCount * 3;
+      if (transform.isIdentity()) {
+        verts.get(0, vertices, offset, vertexCount * 3);
+      } else {
+        for (int v = 0; v < vertexCount; v++) {
+          vertex.set(verts.get(v * 3), verts.get(v * 3 + 1), verts.get(v * 3 + 2));
+          transform.applyForward(vertex);
+          vertices[offset + v * 3] = vertex.getXf();
+          vertices[offset + v * 3 + 1] = vertex.getYf();
+          vertices[offset + v * 3 + 2] = vertex.getZf();
+        }
+      }
+      if (normals != null) {
+        data.getNormalBuffer().get(0, normals, offset, vertexCount * 3);
+      }
+      if (colors != null) {
+        data.getColorBuffer().get(0, colors, i * vertexCount * 4, vertexCount * 4);
+      }
+      if (texCoords != null) {
+        data.getTextureCoords(0).getBuffer().get(0, texCoords, i * vertexCount * 2, vertexCount * 2);
+      }
+    }
+    return new MorphTargets(times, vertexCount, vertices, normals, colors, texCoords);
+  }
+
+  /**
+   * Construct new morph targets from packed arrays, frame after frame. Arrays are not copied.
+   *
+   * @param times
+   *          the time of each frame
+   * @param vertexCount
+   *          the number of vertices per frame
+   * @param vertices
+   *          3 floats per vertex
+   * @param normals
+   *          3 floats per vertex, or null
+   * @param colors
+   *          4 floats per vertex, or null
+   * @param texCoords
+   *          2 floats per vertex, or null
+   */
+  public MorphTargets(final double[] times, final int vertexCount, final float[] vertices, final float[] normals,
+      final float[] colors, final float[] texCoords) {
+    _times = times;
+    _vertexCount = vertexCount;
+    _vertices = vertices;
+    _normals = normals;
+    _colors = colors;
+    _texCoords = texCoords;
+    _vertexData = new FloatBufferData[times.length];
+    _normalData = new FloatBufferData[times.length];
+  }
+
+  /**
+   * Bulk linear interpolation between two slices of a packed array.
+   *
+   * @param source
+   *          the packed array to read
+   * @param fromOffset
+   *          start of the slice at blend 0
+   * @param toOffset
+   *          start of the slice at blend 1
+   * @param blend
+   *          the blend between the slices, 0 to 1
+   * @param store
+   *          where to write the blended values, from index 0
+   * @param count
+   *          the number of values to blend
+   */
+  public static void lerp(final float[] source, final int fromOffset, final int toOffset, final float blend,
+      final float[] store, final int count) {
+    final float keep = 1f - blend;
+    for (int i = 0; i < count; i++) {
+      store[i] = keep * source[fromOffset + i] + blend * source[toOffset + i];
+    }
+  }
+
+  public int getFrameCount() { return _times.length; }
+
+  public int getVertexCount() { return _vertexCount; }
+
+  /**
+   * @param frame
+   *          a frame index
+   * @return the time of the given frame.
+   */
+  public double getTime(final int frame) {
+    return _times[frame];
+  }
+
+  /**
+   * @return our vertices, 3 floats per vertex, frame after frame. Do not modify.
+   */
+  public float[] getVertices() { return _vertices; }
+
+  /**
+   * @return our normals, 3 floats per vertex, frame after frame, or null. Do not modify.
+   */
+  public float[] getNormals() { return _normals; }
+
+  /**
+   * @return our colors, 4 floats per vertex, frame after frame, or null. Do not modify.
+   */
+  public float[] getColors() { return _colors; }
+
+  /**
+   * @return our first texture coordinates, 2 floats per vertex, frame after frame, or null. Do not
+   *         modify.
+   */
+  public float[] getTexCoords() { return _texCoords; }
+
+  /**
+   * @param frame
+   *          a frame index
+   * @return the vertices of the given frame, as buffer data shared by all users of these targets.
+   */
+  public synchronized FloatBufferData getVertexData(final int frame) {
+    if (_vertexData[frame] == null) {
+      _vertexData[frame] = createData(_vertices, frame, 3);
+    }
+    return _vertexData[frame];
+  }
+
+  /**
+   * @param frame
+   *          a frame index
+   * @return the normals of the given frame, as buffer data shared by all users of these targets, or
+   *         null if we have no normals.
+   */
+  public synchronized FloatBufferData getNormalData(final int frame) {
+    if (_normals == null) {
+      return null;
+    }
+    if (_normalData[frame] == null) {
+      _normalData[frame] = createData(_normals, frame, 3);
+    }
+    return _normalData[frame];
+  }
+
+  /**
+   * @return the number of bytes of heap used by our packed arrays.
+   */
+  public long getMemoryUsage() {
+    long floats = _vertices.length;
+    floats += _normals != null ? _normals.length : 0;
+    floats += _colors != null ? _colors.length : 0;
+    floats += _texCoords != null ? _texCoords.length : 0;
+    return floats * Float.BYTES + (long) _times.length * Double.BYTES;
+  }
+
+  private FloatBufferData createData(final float[] source, final int frame, final int tupleSize) {
+    final int size = _vertexCount * tupleSize;
+    final FloatBuffer buffer = BufferUtils.createFloatBuffer(size);
+    buffer.put(0, source, frame * size, size);
+    return new FloatBufferData(buffer, tupleSize);
+  }
+}
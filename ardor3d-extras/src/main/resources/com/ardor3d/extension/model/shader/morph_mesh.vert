@@ -0,0 +1,31 @@
+#version 330 core
+
+in vec3 vertex;
+in vec3 normal;
+in vec3 morphVertex;
+in vec3 morphNormal;
+in vec2 uv0;
+
+out vec3 WorldPos;
+out vec3 Normal;
+out vec4 DiffuseColor;
+out vec2 TexCoords0;
+
+uniform mat4 model;
+uniform mat4 view;
+uniform mat4 projection;
+uniform mat3 normalMat;
+uniform vec4 defaultColor;
+
+// blend from our own keyframe (vertex, normal) to the next (morphVertex, morphNormal)
+uniform float morphBlend;
+
+void main()
+{
+    WorldPos = vec3(model * vec4(mix(vertex, morphVertex, morphBlend), 1.0));
+    Normal = normalize(normalMat * mix(normal, morphNormal, morphBlend));
+    DiffuseColor = defaultColor;
+    TexCoords0 = uv0;
+
+    gl_Position = projection * view * vec4(WorldPos, 1.0);
+}
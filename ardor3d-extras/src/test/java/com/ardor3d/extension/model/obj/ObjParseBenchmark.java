@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.model.obj;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ardor3d.util.geom.GeometryTool;
+import com.ardor3d.util.resource.URLResourceSource;
+
+/**
+ * Compares the time of the line by line and the parallel OBJ parse on a large generated grid mesh. Run
+ * as a plain java application, optionally passing the grid size and "lines" or "parallel" to run just
+ * one of them.
+ */
+public class ObjParseBenchmark {
+
+  // held, so the level set on it is not lost with a collected logger
+  private static final Logger GEOMETRY_LOGGER = Logger.getLogger(GeometryTool.class.getName());
+
+  public static void main(final String[] args) throws Exception {
+    final int size = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+    final File file = File.createTempFile("grid", ".obj");
+    file.deleteOnExit();
+    try (Writer writer = new BufferedWriter(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))) {
+      writeGrid(writer, size);
+    }
+    System.out.printf("%d x %d grid, %.1f MB%n", size, size, file.length() / (1024.0 * 1024.0));
+
+    // the vertex reduction log lines are not what is measured
+    GEOMETRY_LOGGER.setLevel(Level.WARNING);
+    final URL url = file.toURI().toURL();
+    for (int i = 0; i < 3; i++) {
+      if (args.length < 2 || "lines".equals(args[1])) {
+        run("lines", false, url);
+      }
+      if (args.length < 2 || "parallel".equals(args[1])) {
+        run("parallel", true, url);
+      }
+    }
+  }
+
+  private static void run(final String name, final boolean parallel, final URL url) {
+    final long start = System.nanoTime();
+    new ObjImporter().setParallelParse(parallel).load(new URLResourceSource(url));
+    System.out.printf("%s\t%.0f ms%n", name, (System.nanoTime() - start) / 1e6);
+  }
+
+  /**
+   * Write an OBJ file holding one size x size grid of vertices with uvs and normals, as quads.
+   */
+  static void writeGrid(final Writer writer, final int size) throws IOException {
+    final Random random = new Random(17);
+    writer.write("# generated grid\no grid\ng surface\ns 1\n");
+    for (int i = 0; i < size * size; i++) {
+      writer.write(String.format(Locale.ROOT, "v %.6f %.6f %.6f\n", (double) (i % size), random.nextGaussian(),
+          (double) (i / size)));
+    }
+    for (int i = 0; i < size * size; i++) {
+      writer.write(String.format(Locale.ROOT, "vt %.5f %.5f\n", (i % size) / (double) size,
+          (i / size) / (double) size));
+    }
+    for (int i = 0; i < size * size; i++) {
+      writer.write(String.format(Locale.ROOT, "vn %.4e 1 %.4e\n", random.nextFloat() * 0.1, -random.nextFloat() * 0.1));
+    }
+    for (int z = 0; z < size - 1; z++) {
+      for (int x = 0; x < size - 1; x++) {
+        final int i = z * size + x + 1;
+        writer.write("f");
+        for (final int corner : new int[] {i, i + size, i + size + 1, i + 1}) {
+          writer.write(" " + corner + "/" + corner + "/" + corner);
+        }
+        writer.write('\n');
+      }
+    }
+  }
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.model.obj;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+import com.ardor3d.scenegraph.Mesh;
+import com.ardor3d.scenegraph.Spatial;
+import com.ardor3d.util.ImportCache;
+import com.ardor3d.util.resource.StringResourceSource;
+
+public class TestObjImportCache {
+
+  @Test
+  public void cachedStoreKeepsSceneAndMaps() throws Exception {
+    final StringWriter obj = new StringWriter();
+    obj.write("g first\nusemtl red\n");
+    ObjParseBenchmark.writeGrid(obj, 4);
+    obj.write("g first second\nf 1 2 3\n");
+
+    final File dir = new File(System.getProperty("java.io.tmpdir"), "objcache-" + System.nanoTime());
+    final ImportCache cache = new ImportCache(dir, Long.MAX_VALUE);
+    try {
+      final StringResourceSource source = new StringResourceSource(obj.toString(), ".obj");
+      final ObjGeometryStore imported = new ObjImporter().setImportCache(cache).load(source);
+      final ObjGeometryStore cached = new ObjImporter().setImportCache(cache).load(source);
+
+      // only a store read back from the cache lacks the raw data
+      assertEquals(imported.getScene().getNumberOfChildren(), cached.getScene().getNumberOfChildren());
+      assertTrue(cached.getDataStore().getVertices().isEmpty());
+      for (int i = 0; i < imported.getScene().getNumberOfChildren(); i++) {
+        final Mesh a = (Mesh) imported.getScene().getChild(i);
+        final Mesh b = (Mesh) cached.getScene().getChild(i);
+        assertEquals(a.getName(), b.getName());
+        assertEquals(a.getMeshData().getVertexBuffer(), b.getMeshData().getVertexBuffer());
+        assertEquals(a.getMeshData().getIndices().getBuffer().duplicate().rewind(),
+            b.getMeshData().getIndices().getBuffer().duplicate().rewind());
+        assertEquals(imported.getMaterialMap().get(a), cached.getMaterialMap().get(b));
+      }
+      assertEquals(imported.getGroupMap().keySet(), cached.getGroupMap().keySet());
+      for (final String group : imported.getGroupMap().keySet()) {
+        assertEquals(imported.getGroupMap().get(group).size(), cached.getGroupMap().get(group).size());
+        for (final Spatial spatial : cached.getGroupMap().get(group)) {
+          assertEquals(cached.getScene(), spatial.getParent());
+        }
+      }
+    } finally {
+      cache.clear();
+      dir.delete();
+    }
+  }
+}
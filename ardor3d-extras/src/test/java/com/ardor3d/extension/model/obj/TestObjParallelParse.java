@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.model.obj;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.ardor3d.scenegraph.Mesh;
+import com.ardor3d.scenegraph.MeshData;
+import com.ardor3d.scenegraph.Spatial;
+import com.ardor3d.util.Ardor3dException;
+import com.ardor3d.util.resource.ResourceSource;
+import com.ardor3d.util.resource.StringResourceSource;
+import com.ardor3d.util.resource.URLResourceSource;
+
+/**
+ * The parallel parse must leave the same store as the line by line one, whatever the chunk size, and
+ * parse numbers exactly as the JDK does.
+ */
+public class TestObjParallelParse {
+
+  private static final String MIXED = "# header \\\n continued comment\n" //
+      + "v 0 0 0\nv 1 0 0\r\nv 1 1 0\n  v\t0 1 0  \nv 0 0 1 1.0\nv 1e0 0.5E+0 -0\n" //
+      + "vt 0 0\nvt 1\nvt 1 1 0\nvn 0 0 1\nvn 0 1 0\n\n" //
+      + "g quads\ns 1\nf 1 2 3 4\nf -4 -3 -2 -1\nfo 1/1 2/2 3/3\n" //
+      + "s off\nf 1//1 2//1 3//-1\nf 1/1/1 2/2/2 \\\n 5/3/2 6/3/1\n" //
+      + "g left right\no partA\nf 1 1 2\nf 2 5 6\nusemtl missing\nvp 1 2\n" //
+      + "l 1 2 3\nl 4/1 5/2\np 1 2\np -1\ng\nf 3 4 5\n";
+
+  @Test
+  public void parallelMatchesLineParse() throws Exception {
+    final StringBuilder obj = new StringBuilder(MIXED);
+    final Random random = new Random(5);
+    for (int i = 0; i < 200; i++) {
+      obj.append(String.format(Locale.ROOT, "v %.7f %.3e %s\n", random.nextGaussian(), random.nextGaussian(),
+          random.nextInt(100)));
+      if (i % 3 == 0) {
+        obj.append("f ").append(-1 - random.nextInt(3)).append(' ').append(1 + random.nextInt(i + 6)).append(' ')
+            .append(1 + random.nextInt(i + 6)).append(i % 2 == 0 ? "\n" : " 1\n");
+      }
+      if (i % 50 == 0) {
+        obj.append("s ").append(i / 50).append("\no part").append(i).append('\n');
+      }
+    }
+
+    final ResourceSource source = new StringResourceSource(obj.toString(), ".obj");
+    final ObjGeometryStore expected = new ObjImporter().load(source);
+    for (final int chunkSize : new int[] {1, 16, 64, 1000, ObjParallelParser.DEFAULT_CHUNK_SIZE}) {
+      assertSameStore(expected, new ObjParallelParser(new ObjImporter(), chunkSize).load(source));
+    }
+  }
+
+  @Test
+  public void mappedFileMatchesLineParse() throws Exception {
+    final File file = File.createTempFile("grid", ".obj");
+    file.deleteOnExit();
+    try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+      ObjParseBenchmark.writeGrid(writer, 20);
+    }
+    final ResourceSource source = new URLResourceSource(file.toURI().toURL());
+    assertSameStore(new ObjImporter().load(source), new ObjImporter().setParallelParse(true).load(source));
+    assertSameStore(new ObjImporter().load(source), new ObjParallelParser(new ObjImporter(), 100).load(source));
+  }
+
+  @Test
+  public void errorsNameTheLine() throws Exception {
+    final StringWriter obj = new StringWriter();
+    obj.write("v 0 0 0\nv 1 0 0\n# comment\n\nv 0 1 0\nf 1 2\n");
+    try {
+      new ObjParallelParser(new ObjImporter(), 8).load(new StringResourceSource(obj.toString(), ".obj"));
+      fail("a face needs three vertices");
+    } catch (final Ardor3dException expected) {
+      assertTrue(expected.getMessage(), expected.getMessage().contains("(line 6)"));
+    }
+    try {
+      new ObjImporter().setParallelParse(true).load(new StringResourceSource("v 0 0 x\n", ".obj"));
+      fail("not a number");
+    } catch (final Ardor3dException expected) {
+      assertTrue(expected.getCause() instanceof NumberFormatException);
+    }
+  }
+
+  @Test
+  public void numbersParseAsTheJdkDoes() {
+    final Random random = new Random(3);
+    for (int i = 0; i < 100_000; i++) {
+      final double value = random.nextGaussian() * Math.pow(10, random.nextInt(40) - 20);
+      for (final String format : new String[] {"%.3f", "%.6f", "%.9f", "%.4e", "%.8e", "%.16e", "%.17g", "%s"}) {
+        final String s = String.format(Locale.ROOT, format, value);
+        assertEquals(s, Double.parseDouble(s), parseDouble(s), 0.0);
+      }
+      final String s = Integer.toString(random.nextInt());
+      assertEquals(Integer.parseInt(s), parseInt(s));
+    }
+
+    assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(parseDouble("-0.000")));
+    assertEquals(12.0, parseDouble("+12."), 0.0);
+    assertEquals(0.5, parseDouble(".5"), 0.0);
+    assertEquals(2.0, parseDouble("2d"), 0.0);
+    assertEquals(Double.POSITIVE_INFINITY, parseDouble("1e400"), 0.0);
+    assertTrue(Double.isNaN(parseDouble("NaN")));
+    assertEquals(Integer.MIN_VALUE, parseInt("-2147483648"));
+    assertEquals(5, parseInt("+05"));
+    for (final String bad : new String[] {"2147483648", "1x", "-", "1-"}) {
+      try {
+        parseInt(bad);
+        fail(bad);
+      } catch (final NumberFormatException expected) {}
+    }
+  }
+
+  private static double parseDouble(final String s) {
+    return ObjParallelParser.parseDouble(ByteBuffer.wrap(s.getBytes(StandardCharsets.US_ASCII)), 0, s.length());
+  }
+
+  private static int parseInt(final String s) {
+    return ObjParallelParser.parseInt(ByteBuffer.wrap(s.getBytes(StandardCharsets.US_ASCII)), 0, s.length());
+  }
+
+  private static void assertSameStore(final ObjGeometryStore expected, final ObjGeometryStore actual) {
+    assertEquals(expected.getDataStore().getVertices(), actual.getDataStore().getVertices());
+    assertEquals(expected.getDataStore().getUvs(), actual.getDataStore().getUvs());
+    assertEquals(expected.getDataStore().getNormals(), actual.getDataStore().getNormals());
+    assertEquals(expected.getDataStore().getGeneratedNormals(), actual.getDataStore().getGeneratedNormals());
+    assertEquals(expected.getScene().getNumberOfChildren(), actual.getScene().getNumberOfChildren());
+    for (int i = 0; i < expected.getScene().getNumberOfChildren(); i++) {
+      final Spatial a = expected.getScene().getChild(i);
+      final Spatial b = actual.getScene().getChild(i);
+      assertEquals(a.getClass(), b.getClass());
+      assertEquals(a.getName(), b.getName());
+      assertEquals(expected.getMaterialMap().get(a), actual.getMaterialMap().get(b));
+
+      final MeshData x = ((Mesh) a).getMeshData();
+      final MeshData y = ((Mesh) b).getMeshData();
+      assertEquals(x.getVertexBuffer(), y.getVertexBuffer());
+      assertEquals(x.getNormalBuffer(), y.getNormalBuffer());
+      assertEquals(x.getTextureBuffer(0), y.getTextureBuffer(0));
+      assertEquals(x.getIndices().getBuffer(), y.getIndices().getBuffer());
+      assertArrayEquals(x.getIndexLengths(), y.getIndexLengths());
+    }
+    assertEquals(expected.getGroupMap().keySet(), actual.getGroupMap().keySet());
+    expected.getGroupMap().forEach((name, spatials) -> assertEquals(name, spatials.size(),
+        actual.getGroupMap().get(name).size()));
+  }
+}
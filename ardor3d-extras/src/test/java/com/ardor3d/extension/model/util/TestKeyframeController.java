@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) 2008-2026 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.model.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.FloatBuffer;
+
+import org.junit.Test;
+
+import com.ardor3d.buffer.BufferUtils;
+import com.ardor3d.buffer.FloatBufferData;
+import com.ardor3d.scenegraph.Mesh;
+import com.ardor3d.scenegraph.MeshData;
+
+public class TestKeyframeController {
+
+  private static final int VERTICES = 50;
+  private static final int FRAMES = 4;
+
+  @Test
+  public void testMorphTargetsMatchKeyframeMorphing() {
+    final KeyframeController<Mesh> reference = createController();
+    final KeyframeController<Mesh> packed = createController();
+    // moved keyframes are packed with their transforms applied
+    reference._keyframes.get(2)._newShape.setTranslation(1, 2, 3);
+    packed._keyframes.get(2)._newShape.setTranslation(1, 2, 3);
+    final MorphTargets targets = packed.buildMorphTargets();
+    assertEquals(FRAMES, targets.getFrameCount());
+    assertEquals(VERTICES, targets.getVertexCount());
+
+    for (int step = 0; step < 40; step++) {
+      reference.update(0.13, null);
+      packed.update(0.13, null);
+      assertEquals(reference.getCurrentFrame(), packed.getCurrentFrame());
+      compare(reference.getMorphMesh().getMeshData().getVertexBuffer(),
+          packed.getMorphMesh().getMeshData().getVertexBuffer());
+      compare(reference.getMorphMesh().getMeshData().getNormalBuffer(),
+          packed.getMorphMesh().getMeshData().getNormalBuffer());
+      compare(reference.getMorphMesh().getMeshData().getTextureBuffer(0),
+          packed.getMorphMesh().getMeshData().getTextureBuffer(0));
+    }
+  }
+
+  @Test
+  public void testInstancesShareKeyframes() {
+    final KeyframeController<Mesh> first = createController();
+    final KeyframeController<Mesh> second = first.createInstance(first.getMorphMesh().makeCopy(false));
+    assertSame(first.getMorphTargets(), second.getMorphTargets());
+    assertSame(first._keyframes, second._keyframes);
+
+    // each instance keeps its own time
+    first.update(0.5, null);
+    second.update(1.25, null);
+    assertEquals(0.5, first.getCurTime(), 1e-9);
+    assertEquals(1.25, second.getCurTime(), 1e-9);
+    assertFalse(first.getMorphMesh().getMeshData().getVertexBuffer().get(0) == second.getMorphMesh().getMeshData()
+        .getVertexBuffer().get(0));
+  }
+
+  @Test
+  public void testGpuMorph() {
+    final KeyframeController<Mesh> controller = createController();
+    final MeshData data = controller.getMorphMesh().getMeshData();
+    final FloatBufferData ownVertices = data.getVertexCoords();
+    final MorphTargets targets = controller.buildMorphTargets();
+    controller.setGpuMorph(true);
+
+    // a quarter of the way from frame 1 to frame 2, leaving the blend to the shader
+    controller.update(1.25, null);
+    assertSame(targets.getVertexData(1), data.getVertexCoords());
+    assertSame(targets.getVertexData(2), data.getCoords(KeyframeController.KEY_MorphVertexCoords));
+    assertSame(targets.getNormalData(1), data.getNormalCoords());
+    assertSame(targets.getNormalData(2), data.getCoords(KeyframeController.KEY_MorphNormalCoords));
+    assertEquals(0.25f, controller.getMorphMesh().getProperty("morphBlend", 0f).floatValue(), 1e-6f);
+
+    // another instance, starting from our time, shows the same shared frame data
+    final KeyframeController<Mesh> other = controller.createInstance(controller.getMorphMesh().makeCopy(false));
+    assertTrue(other.isGpuMorph());
+    other.update(1.5, null);
+    assertSame(targets.getVertexData(2), other.getMorphMesh().getMeshData().getVertexCoords());
+    assertSame(targets.getVertexData(3), other.getMorphMesh().getMeshData().getCoords(
+        KeyframeController.KEY_MorphVertexCoords));
+
+    controller.setGpuMorph(false);
+    assertSame(ownVertices, data.getVertexCoords());
+    assertNull(data.getCoords(KeyframeController.KEY_MorphVertexCoords));
+    assertNull(controller.getMorphMesh().getProperty("morphBlend", null));
+  }
+
+  @Test
+  public void testChangedKeyframesDropMorphTargets() {
+    final KeyframeController<Mesh> reference = createController();
+    final KeyframeController<Mesh> packed = createController();
+    packed.buildMorphTargets();
+    packed.setGpuMorph(true);
+
+    // a keyframe added after packing
+    final Mesh extra = reference._keyframes.get(1)._newShape.makeCopy(false);
+    extra.setTranslation(0, 5, 0);
+    reference.setKeyframe(FRAMES, extra);
+    packed.setKeyframe(FRAMES, extra);
+    assertNull(packed.getMorphTargets());
+    assertFalse(packed.isGpuMorph());
+    // a keyframe's shape replaced
+    final Mesh replaced = reference._keyframes.get(2)._newShape.makeCopy(false);
+    replaced.setTranslation(-1, 0, 0);
+    reference.setKeyframe(2, replaced);
+    packed.buildMorphTargets();
+    packed.setKeyframe(2, replaced);
+    assertNull(packed.getMorphTargets());
+
+    for (int step = 0; step < 40; step++) {
+      reference.update(0.13, null);
+      packed.update(0.13, null);
+      compare(reference.getMorphMesh().getMeshData().getVertexBuffer(),
+          packed.getMorphMesh().getMeshData().getVertexBuffer());
+    }
+  }
+
+  @Test
+  public void testKeyframesChangedDirectlySkipShortTargets() {
+    final KeyframeController<Mesh> reference = createController();
+    final KeyframeController<Mesh> packed = createController();
+    packed.buildMorphTargets();
+    // the list is public, so the targets may be left a frame short
+    final Mesh extra = reference._keyframes.get(1)._newShape.makeCopy(false);
+    reference._keyframes.add(new KeyframeController.PointInTime(FRAMES, extra));
+    packed._keyframes.add(new KeyframeController.PointInTime(FRAMES, extra));
+    reference.setMaxTime(FRAMES);
+    packed.setMaxTime(FRAMES);
+
+    for (int step = 0; step < 40; step++) {
+      reference.update(0.13, null);
+      packed.update(0.13, null);
+      compare(reference.getMorphMesh().getMeshData().getVertexBuffer(),
+          packed.getMorphMesh().getMeshData().getVertexBuffer());
+    }
+  }
+
+  @Test
+  public void testLerp() {
+    final float[] source = {0, 1, 2, 10, 20, 30};
+    final float[] store = new float[3];
+    MorphTargets.lerp(source, 0, 3, 0.25f, store, 3);
+    assertEquals(2.5f, store[0], 1e-6f);
+    assertEquals(5.75f, store[1], 1e-6f);
+    assertEquals(9f, store[2], 1e-6f);
+  }
+
+  private static void compare(final FloatBuffer expected, final FloatBuffer actual) {
+    assertEquals(expected.capacity(), actual.capacity());
+    for (int i = 0; i < expected.capacity(); i++) {
+      assertEquals(expected.get(i), actual.get(i), 1e-4f);
+    }
+  }
+
+  private static KeyframeController<Mesh> createController() {
+    final Mesh[] frames = new Mesh[FRAMES];
+    for (int f = 0; f < FRAMES; f++) {
+      frames[f] = new Mesh("frame" + f);
+      final FloatBuffer verts = BufferUtils.createFloatBuffer(VERTICES * 3);
+      final FloatBuffer norms = BufferUtils.createFloatBuffer(VERTICES * 3);
+      final FloatBuffer texs = BufferUtils.createFloatBuffer(VERTICES * 2);
+      for (int v = 0; v < VERTICES; v++) {
+        verts.put(v + f).put((float) Math.sin(v * f)).put(-v * 0.5f);
+        norms.put(0).put((float) Math.cos(v + f)).put((float) Math.sin(v + f));
+        texs.put(v * 0.01f).put(f * 0.1f);
+      }
+      frames[f].getMeshData().setVertexBuffer(verts);
+      frames[f].getMeshData().setNormalBuffer(norms);
+      frames[f].getMeshData().setTextureBuffer(texs, 0);
+    }
+
+    final Mesh mesh = frames[0].makeCopy(false);
+    final KeyframeController<Mesh> controller = new KeyframeController<>();
+    controller.setMorphingMesh(mesh);
+    for (int f = 0; f < FRAMES; f++) {
+      controller.setKeyframe(f, frames[f]);
+    }
+    controller.setUpdateBounding(false);
+    return controller;
+  }
+}
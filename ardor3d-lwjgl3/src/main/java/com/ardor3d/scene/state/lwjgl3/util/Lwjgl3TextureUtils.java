@@ -129,13 +129,14 @@ public class Lwjgl3TextureUtils implements ITextureUtils {
       imageHeight = srcTotalHeight;
     }
 
-    // Grab pixel format
+    // Grab pixel format and type
     final int pixelFormat;
     if (destination.getImage() != null) {
       pixelFormat = TextureConstants.getGLPixelFormat(destination.getImage().getDataFormat());
     } else {
       pixelFormat = TextureConstants.getGLPixelFormatFromStoreFormat(destination.getTextureStoreFormat());
     }
+    final int pixelDataType = TextureConstants.getGLPixelDataType(ImageUtils.getPixelDataType(destination));
 
     // bind...
     Lwjgl3TextureStateUtil.doTextureBind(destination, 0, false);
@@ -170,7 +171,7 @@ public class Lwjgl3TextureUtils implements ITextureUtils {
     try {
       switch (type) {
         case OneDimensional: {
-          GL11C.glTexSubImage1D(glType, 0, dstOffsetX, dstWidth, pixelFormat, GL11C.GL_UNSIGNED_BYTE, source);
+          GL11C.glTexSubImage1D(glType, 0, dstOffsetX, dstWidth, pixelFormat, pixelDataType, source);
           break;
         }
 
@@ -179,7 +180,7 @@ public class Lwjgl3TextureUtils implements ITextureUtils {
         case CubeMap: {
           final int target2D = type == Type.CubeMap ? TextureConstants.getGLCubeMapFace(dstFace) : glType;
           GL11C.glTexSubImage2D(target2D, 0, dstOffsetX, dstOffsetY, dstWidth, dstHeight, pixelFormat,
-              GL11C.GL_UNSIGNED_BYTE, source);
+              pixelDataType, source);
           break;
         }
 
@@ -187,7 +188,7 @@ public class Lwjgl3TextureUtils implements ITextureUtils {
         case TwoDimensionalArray:
         case CubeMapArray: {
           GL12C.glTexSubImage3D(GL12C.GL_TEXTURE_3D, 0, dstOffsetX, dstOffsetY, dstOffsetZ, dstWidth, dstHeight,
-              dstDepth, pixelFormat, GL11C.GL_UNSIGNED_BYTE, source);
+              dstDepth, pixelFormat, pixelDataType, source);
           break;
         }
 
@@ -10,6 +10,8 @@
 
 package com.ardor3d.extension.terrain.client;
 
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Objects;
@@ -17,6 +19,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.ardor3d.extension.terrain.util.DoubleBufferedList;
 import com.ardor3d.extension.terrain.util.PriorityExecutors.PriorityRunnable;
@@ -56,6 +59,9 @@ public abstract class AbstractGridCache {
 
   protected DoubleBufferedList<Region> mailBox;
 
+  /** Tile loading counters for this cache. */
+  protected final GridCacheStats stats = new GridCacheStats();
+
   /**
    * The center tile of our last validity check.
    */
@@ -142,9 +148,13 @@ public abstract class AbstractGridCache {
       // Is this tile NOT in the new data set?
       if (forceRefresh || !newTiles.contains(data) || data.state == State.requeue) {
         // set that destination tile as invalid
-        cache[data.destTile.getX()][data.destTile.getY()].isValid = false;
+        cache[data.destTile.getX()][data.destTile.getY()].invalidate();
 
         // try to cancel the tile's loading if possible
+        if (!data.isCancelled && data.state != State.finished && data.state != State.error
+            && data.state != State.cancelled) {
+          stats.tileCancelled();
+        }
         data.isCancelled = true;
         final Future<?> future = data.future;
         if (future != null && !future.isDone()) {
@@ -230,7 +240,7 @@ public abstract class AbstractGridCache {
 
       // check if the given tile is valid and should be processed
       if (validTiles == null || validTiles.contains(data.sourceTile)) {
-        cache[data.destTile.getX()][data.destTile.getY()].isValid = false;
+        cache[data.destTile.getX()][data.destTile.getY()].invalidate();
         int priority = Math.abs(data.sourceTile.getX() - tileX) + Math.abs(data.sourceTile.getY() - tileY);
         if (priority <= 3) {
           priority = 100 * meshClipIndex;
@@ -238,6 +248,10 @@ public abstract class AbstractGridCache {
           priority = 2 * meshClipIndex - priority;
         }
 
+        if (data.requestTime == 0) {
+          data.requestTime = System.nanoTime();
+        }
+        stats.tileSubmitted();
         data.future = tileThreadService.submit(PriorityRunnable.of(data, priority));
       }
       tileIterator.remove();
@@ -246,6 +260,11 @@ public abstract class AbstractGridCache {
 
   protected abstract State copyTileData(final Tile sourceTile, final int destX, final int destY);
 
+  /**
+   * @return the number of bytes of tile data currently held by this cache.
+   */
+  public abstract long getMemoryUsage();
+
   protected abstract Set<Tile> getValidTilesFromSource(final int tileX, final int tileY, int numTilesX, int numTilesY);
 
   protected abstract Set<Tile> getInvalidTilesFromSource(final int tileX, final int tileY, int numTilesX,
@@ -306,9 +325,7 @@ public abstract class AbstractGridCache {
     final int tileX = MathUtils.floor(x / tileSize);
     final int tileY = MathUtils.floor(z / tileSize);
 
-    final int cacheX = MathUtils.moduloPositive(tileX, cacheSize);
-    final int cacheY = MathUtils.moduloPositive(tileY, cacheSize);
-    final var tileData = cache[cacheX][cacheY];
+    final var tileData = getCacheSlot(tileX, tileY);
 
     if (!tileData.isValid || tileData.validX != tileX || tileData.validY != tileY) {
       return null;
@@ -316,8 +333,63 @@ public abstract class AbstractGridCache {
     return tileData;
   }
 
+  /**
+   * Get the CacheData slot a given source tile maps to, regardless of what that slot currently holds.
+   *
+   * @param tileX
+   *          source tile x
+   * @param tileY
+   *          source tile y
+   * @return the cache slot for the tile.
+   */
+  protected CacheData getCacheSlot(final int tileX, final int tileY) {
+    return cache[MathUtils.moduloPositive(tileX, cacheSize)][MathUtils.moduloPositive(tileY, cacheSize)];
+  }
+
+  /**
+   * @return the x index of the source tile at the center of our cache area.
+   */
+  public int getCurrentTileX() { return backCurrentTileX; }
+
+  /**
+   * @return the y index of the source tile at the center of our cache area.
+   */
+  public int getCurrentTileY() { return backCurrentTileY; }
+
+  /**
+   * @return the size of our tiles, in samples.
+   */
+  public int getTileSize() { return tileSize; }
+
+  /**
+   * @return the number of tiles along one side of our cache area.
+   */
+  public int getCacheSize() { return cacheSize; }
+
   public void setMailBox(final DoubleBufferedList<Region> mailBox) { this.mailBox = mailBox; }
 
+  /**
+   * @return the tile loading counters of this cache.
+   */
+  public GridCacheStats getStats() { return stats; }
+
+  /**
+   * Count the tiles we are currently tracking by loading state.
+   *
+   * @param store
+   *          if not null and large enough, receives the counts. Otherwise a new array is made.
+   * @return tile counts, indexed by {@link State#ordinal()}.
+   */
+  public int[] getTileStateCounts(final int[] store) {
+    final int length = State.values().length;
+    final int[] result = store != null && store.length >= length ? store : new int[length];
+    Arrays.fill(result, 0, length, 0);
+    for (final TileLoadingData data : currentTiles) {
+      result[data.state.ordinal()]++;
+    }
+    return result;
+  }
+
   public static class TileLoadingData implements Runnable {
     public final AbstractGridCache sourceCache;
 
@@ -329,6 +401,9 @@ public abstract class AbstractGridCache {
     public static long maxLoadingTime = 15 * 1000L;
     public Future<?> future;
 
+    /** System.nanoTime() of our first submission for loading, or 0 if not submitted yet. */
+    public long requestTime = 0;
+
     public State state = State.init;
 
     public TileLoadingData(final AbstractGridCache sourceCache, final int sourceX, final int sourceY,
@@ -362,16 +437,22 @@ public abstract class AbstractGridCache {
         case loading:
         case requeue:
           // source is not ready. Reschedule.
+          sourceCache.stats.tileRequeued();
           state = State.requeue;
           return;
         case cancelled:
-          // source was asked to cancel.
+          // source was asked to cancel. If we cancelled ourselves, this was already counted.
+          if (!isCancelled) {
+            sourceCache.stats.tileCancelled();
+          }
           state = State.cancelled;
           return;
         case error:
+          sourceCache.stats.tileFailed();
           state = State.error;
           return;
         case finished:
+          sourceCache.stats.tileLoaded(requestTime != 0 ? System.nanoTime() - requestTime : 0);
           state = State.finished;
           final Region region = sourceCache.toRegion(sourceTile);
           final DoubleBufferedList<Region> mailBox = sourceCache.mailBox;
@@ -379,9 +460,7 @@ public abstract class AbstractGridCache {
             mailBox.add(region);
           }
           final var cacheTile = sourceCache.cache[destTile.getX()][destTile.getY()];
-          cacheTile.isValid = true;
-          cacheTile.validX = sourceTile.getX();
-          cacheTile.validY = sourceTile.getY();
+          cacheTile.validate(sourceTile.getX(), sourceTile.getY());
         default:
           return;
       }
@@ -435,12 +514,59 @@ public abstract class AbstractGridCache {
     }
   }
 
+  /**
+   * Tracks which source tile currently occupies a slot of the cache. The stamp is bumped on every
+   * invalidation and validation so readers on other threads can detect that a tile was swapped out
+   * while they were reading its data: read the stamp, check validity, read the data, then call
+   * {@link #isUnchanged(int)} with the stamp read at the start.
+   */
   public static class CacheData {
-    public int validX, validY;
-    public boolean isValid;
+    public volatile int validX, validY;
+    public volatile boolean isValid;
+
+    private final AtomicInteger stamp = new AtomicInteger();
 
     public CacheData() {
       isValid = false;
     }
+
+    /**
+     * Mark this slot as invalid, prior to new data being written into it.
+     */
+    public void invalidate() {
+      isValid = false;
+      stamp.incrementAndGet();
+    }
+
+    /**
+     * Mark this slot as holding valid data for the given source tile.
+     *
+     * @param x
+     *          source tile x
+     * @param y
+     *          source tile y
+     */
+    public void validate(final int x, final int y) {
+      validX = x;
+      validY = y;
+      isValid = true;
+      stamp.incrementAndGet();
+    }
+
+    /**
+     * @return the current modification stamp of this slot.
+     */
+    public int getStamp() { return stamp.get(); }
+
+    /**
+     * @param previousStamp
+     *          a stamp previously read via {@link #getStamp()}
+     * @return true if this slot has not been invalidated or revalidated since previousStamp was read.
+     *         Data reads made before this call are ordered before the stamp check.
+     */
+    public boolean isUnchanged(final int previousStamp) {
+      VarHandle.acquireFence();
+      return stamp.get() == previousStamp;
+    }
   }
 }
@@ -11,6 +11,9 @@
 package com.ardor3d.extension.terrain.client;
 
 import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.ardor3d.bounding.BoundingBox;
 import com.ardor3d.buffer.AbstractBufferData.VBOAccessMode;
@@ -61,6 +64,11 @@ public class ClipmapLevel extends Mesh {
   private final Region clipRegion;
   private final Region intersectionRegion;
 
+  /**
+   * Region we are moving to. Matches clipRegion unless vertex data for a move is still being prepared.
+   */
+  private final Region targetRegion;
+
   /**
    * Maximum terrain height.
    */
@@ -116,6 +124,19 @@ public class ClipmapLevel extends Mesh {
    */
   private boolean cullingEnabled = true;
 
+  private final int levelIndex;
+
+  /**
+   * If not null, our heights live in this texture and our vertex buffer is static.
+   */
+  private final HeightClipmap heightClipmap;
+
+  /**
+   * First grid position of our clip region and the texel it maps to, used by the displacement shader.
+   */
+  private final IntBuffer clipOrigin = BufferUtils.createIntBuffer(2);
+  private final IntBuffer clipOriginSlot = BufferUtils.createIntBuffer(2);
+
   /**
    * Creates a new clipmaplevel.
    *
@@ -133,6 +154,30 @@ public class ClipmapLevel extends Mesh {
    */
   public ClipmapLevel(final int levelIndex, final Camera clipmapTestFrustum, final int clipSideSize,
     final float heightScale, final TerrainCache cache) throws Exception {
+    this(levelIndex, clipmapTestFrustum, clipSideSize, heightScale, cache, null);
+  }
+
+  /**
+   * Creates a new clipmaplevel.
+   *
+   * @param levelIndex
+   *          Levelindex of the clipmap. If is 0 this will be the finest level
+   * @param clipmapTestFrustum
+   *          Camera used to acquire a frustum to test view clipping.
+   * @param clipSideSize
+   *          Number of vertices per clipside. Must be one less than power of two.
+   * @param heightScale
+   *          Maximum terrain height
+   * @param cache
+   *          Level specific height data cache.
+   * @param heightClipmap
+   *          if not null, heights are written to this texture instead of our vertices, which then
+   *          only hold the position of each vertex in the texture. Must be drawn with a displacement
+   *          shader.
+   * @exception Exception
+   */
+  public ClipmapLevel(final int levelIndex, final Camera clipmapTestFrustum, final int clipSideSize,
+    final float heightScale, final TerrainCache cache, final HeightClipmap heightClipmap) throws Exception {
     super("Clipmap Level " + levelIndex);
 
     // Check some exception cases
@@ -142,10 +187,15 @@ public class ClipmapLevel extends Mesh {
     if (!MathUtils.isPowerOfTwo(clipSideSize + 1)) {
       throw new Exception("clipSideSize must be one less than power of two");
     }
+    if (heightClipmap != null && heightClipmap.getTextureSize() != clipSideSize) {
+      throw new Exception("heightClipmap texture size must match clipSideSize");
+    }
 
     // Apply the values
     this.clipmapTestFrustum = clipmapTestFrustum;
     this.cache = cache;
+    this.levelIndex = levelIndex;
+    this.heightClipmap = heightClipmap;
 
     this.heightScale = heightScale;
     this.clipSideSize = clipSideSize;
@@ -157,8 +207,15 @@ public class ClipmapLevel extends Mesh {
     frameDistance = (frameSize - 1) * vertexDistance;
     clipRegion = new Region(0, 0, (clipSideSize - 1) * vertexDistance, (clipSideSize - 1) * vertexDistance);
     intersectionRegion = new Region(0, 0, clipSideSize * vertexDistance, clipSideSize * vertexDistance);
+    targetRegion = new Region(clipRegion);
 
     setProperty("vertexDistance", vertexDistance);
+    if (heightClipmap != null) {
+      setProperty("heightLevel", levelIndex);
+      setProperty("clipOrigin", clipOrigin);
+      setProperty("clipOriginSlot", clipOriginSlot);
+      updateClipOrigin();
+    }
 
     // Initialize the vertices
     initialize();
@@ -175,9 +232,23 @@ public class ClipmapLevel extends Mesh {
     // clipSideSize is the number of vertices per clipmapside, so number of all vertices is clipSideSize
     // *
     // clipSideSize
-    final FloatBufferData vertices =
-        new FloatBufferData(BufferUtils.createVector4Buffer(clipSideSize * clipSideSize), 4);
-    vertices.setVboAccessMode(VBOAccessMode.DynamicDraw);
+    final FloatBufferData vertices;
+    if (heightClipmap == null) {
+      vertices = new FloatBufferData(BufferUtils.createVector4Buffer(clipSideSize * clipSideSize), 4);
+      vertices.setVboAccessMode(VBOAccessMode.DynamicDraw);
+    } else {
+      // Displaced vertices only store their slot in the height texture. The shader works out which
+      // grid position the slot currently holds, so this never changes.
+      vertices = new FloatBufferData(BufferUtils.createVector2Buffer(clipSideSize * clipSideSize), 2);
+      vertices.setVboAccessMode(VBOAccessMode.StaticDraw);
+      final FloatBuffer buffer = vertices.getBuffer();
+      for (int z = 0; z < clipSideSize; z++) {
+        for (int x = 0; x < clipSideSize; x++) {
+          buffer.put(x).put(z);
+        }
+      }
+      buffer.rewind();
+    }
     meshData.setVertexCoords(vertices);
 
     final int indicesSize = 4 * (3 * frameSize * frameSize + clipSideSize * clipSideSize / 2 + 4 * frameSize - 10);
@@ -207,6 +278,56 @@ public class ClipmapLevel extends Mesh {
    * Update our vertex buffer for any changes in frustum camera position or cache events.
    */
   public void updateVertices() {
+    if (updateTargetRegion()) {
+      // Apply our delta change to the vertex buffer.
+      final List<Region> regions = new ArrayList<>(3);
+      collectMovementRegions(regions);
+      for (final Region region : regions) {
+        updateRegion(region.getX(), region.getY(), region.getWidth(), region.getHeight());
+      }
+      commitTargetRegion();
+    }
+
+    // Ask the cache to look for any invalid data in the current region. These will be sent to the
+    // mailbox
+    cache.checkForInvalidatedRegions();
+  }
+
+  /**
+   * Refresh the vertex data - or our slice of the height texture, if we are displaced on the GPU - for
+   * a region of this level from our cache.
+   *
+   * @param x
+   *          region start, in grid units of this level
+   * @param z
+   *          region start, in grid units of this level
+   * @param width
+   *          region width, in grid units
+   * @param height
+   *          region height, in grid units
+   */
+  public void updateRegion(final int x, final int z, final int width, final int height) {
+    if (heightClipmap != null) {
+      heightClipmap.updateRegion(levelIndex, x, z, width, height);
+      return;
+    }
+
+    final MeshData meshData = getMeshData();
+    cache.updateRegion(meshData.getVertexBuffer(), x, z, width, height);
+
+    // We have updated vertex data, so mark our buffer to be re-sent to the card
+    meshData.markBufferDirty(MeshData.KEY_VertexCoords);
+    markDirty(DirtyType.Bounding);
+  }
+
+  /**
+   * Work out where this level should be positioned based on our frustum camera, without touching the
+   * vertex data or the region used to build our indices. The new position becomes current once
+   * {@link #commitTargetRegion()} is called, after the vertices for it have been written.
+   *
+   * @return true if our target region differs from the region our vertex data currently represents.
+   */
+  public boolean updateTargetRegion() {
     // get our frustum camera's location relative to the world transform of this clipmap.
     getWorldTransform().applyInverse(clipmapTestFrustum.getLocation(), transformedFrustumPos);
     final int cx = (int) transformedFrustumPos.getX();
@@ -218,65 +339,42 @@ public class ClipmapLevel extends Mesh {
       oldCX = cx;
       oldCZ = cz;
 
-      // Store the old region positions to diff against any changes
-      final int oldClipX = clipRegion.getX();
-      final int oldClipZ = clipRegion.getY();
-
       // Calculate the new position
-      clipRegion.setX(cx - (clipSideSize + 1) * vertexDistance / 2);
-      clipRegion.setY(cz - (clipSideSize + 1) * vertexDistance / 2);
+      int targetX = cx - (clipSideSize + 1) * vertexDistance / 2;
+      int targetZ = cz - (clipSideSize + 1) * vertexDistance / 2;
 
       // Calculate the modulo to doubleVertexDistance of the new position.
       // This makes sure that the current level always fits in the hole of the
       // coarser level. The grid spacing of the coarser level is vertexDistance * 2, so here
       // doubleVertexDistance.
-      final int modX = MathUtils.moduloPositive(clipRegion.getX(), doubleVertexDistance);
-      final int modY = MathUtils.moduloPositive(clipRegion.getY(), doubleVertexDistance);
-      clipRegion.setX(clipRegion.getX() + doubleVertexDistance - modX);
-      clipRegion.setY(clipRegion.getY() + doubleVertexDistance - modY);
-
-      // Update our intersection region
-      intersectionRegion.setX(clipRegion.getX());
-      intersectionRegion.setY(clipRegion.getY());
-
-      // Calculate the moving distance
-      final int dx = clipRegion.getX() - oldClipX;
-      final int dz = clipRegion.getY() - oldClipZ;
-
-      // Use our clip region to set the cache position - this is not the same thing as our camera
+      final int modX = MathUtils.moduloPositive(targetX, doubleVertexDistance);
+      final int modY = MathUtils.moduloPositive(targetZ, doubleVertexDistance);
+      targetX += doubleVertexDistance - modX;
+      targetZ += doubleVertexDistance - modY;
+      targetRegion.setX(targetX);
+      targetRegion.setY(targetZ);
+
+      // Use our target region to set the cache position - this is not the same thing as our camera
       // position. We do this, even if the region has not changed, because it gives the system a chance to
       // refresh tiles
-      cache.setCurrentPosition(clipRegion.getX() / vertexDistance, clipRegion.getY() / vertexDistance);
-
-      // Apply our delta change to the vertex buffer.
-      if (updateVerticesForMovement(dx, dz)) {
-        // We have updated vertex data, so mark our buffer to be re-sent to the card
-        getMeshData().markBufferDirty(MeshData.KEY_VertexCoords);
-        markDirty(DirtyType.Bounding);
-      }
+      cache.setCurrentPosition(targetX / vertexDistance, targetZ / vertexDistance);
     }
 
-    // Ask the cache to look for any invalid data in the current region. These will be sent to the
-    // mailbox
-    cache.checkForInvalidatedRegions();
-  }
-
-  public void regenerate() {
-    cache.regenerate();
+    return targetRegion.getX() != clipRegion.getX() || targetRegion.getY() != clipRegion.getY();
   }
 
   /**
-   * Update vertices in our clip level based on a movement from our old position.
+   * Add the regions of vertex data, in grid units of this level, that need to be refreshed to move
+   * from our current region to our target region. This is the L shaped area uncovered by the move.
    *
-   * @param deltaX
-   *          localized delta change in X
-   * @param deltaZ
-   *          localized delta change in Z (recall that Ardor3D uses Y up)
-   * @return true if we touched the vertex buffer
+   * @param store
+   *          the list to add regions to
    */
-  private boolean updateVerticesForMovement(final int deltaX, final int deltaZ) {
+  public void collectMovementRegions(final List<Region> store) {
+    final int deltaX = targetRegion.getX() - clipRegion.getX();
+    final int deltaZ = targetRegion.getY() - clipRegion.getY();
     if (deltaX == 0 && deltaZ == 0) {
-      return false;
+      return;
     }
 
     final int dx = MathUtils.clamp(deltaX, -clipSideSize + 1, clipSideSize - 1);
@@ -284,36 +382,60 @@ public class ClipmapLevel extends Mesh {
 
     // Create some better readable variables.
     // This are just the bounds of the current level (the new region).
-    final int xmin = clipRegion.getLeft() / vertexDistance;
-    final int xmax = clipRegion.getRight() / vertexDistance;
-    final int zmin = clipRegion.getTop() / vertexDistance;
-    final int zmax = clipRegion.getBottom() / vertexDistance;
-
-    final FloatBuffer vertices = getMeshData().getVertexBuffer();
+    final int xmin = targetRegion.getLeft() / vertexDistance;
+    final int xmax = targetRegion.getRight() / vertexDistance;
+    final int zmin = targetRegion.getTop() / vertexDistance;
+    final int zmax = targetRegion.getBottom() / vertexDistance;
 
     // Update the L shaped region.
     // This replaces the old data with the new one.
     if (dz > 0) {
       if (dx > 0) {
-        cache.updateRegion(vertices, xmax - dx, zmin, dx + 1, zmax - zmin - dz + 1);
+        store.add(new Region(xmax - dx, zmin, dx + 1, zmax - zmin - dz + 1));
       } else if (dx < 0) {
-        cache.updateRegion(vertices, xmin, zmin, -dx + 1, zmax - zmin - dz + 1);
+        store.add(new Region(xmin, zmin, -dx + 1, zmax - zmin - dz + 1));
       }
 
-      cache.updateRegion(vertices, xmin, zmax - dz, xmax - xmin + 1, dz + 1);
+      store.add(new Region(xmin, zmax - dz, xmax - xmin + 1, dz + 1));
     } else {
       if (dx > 0) {
-        cache.updateRegion(vertices, xmax - dx, zmin - dz, dx + 1, zmax - zmin + dz + 1);
+        store.add(new Region(xmax - dx, zmin - dz, dx + 1, zmax - zmin + dz + 1));
       } else if (dx < 0) {
-        cache.updateRegion(vertices, xmin, zmin - dz, -dx + 1, zmax - zmin + dz + 1);
+        store.add(new Region(xmin, zmin - dz, -dx + 1, zmax - zmin + dz + 1));
       }
 
       if (dz < 0) {
-        cache.updateRegion(vertices, xmin, zmin, xmax - xmin + 1, -dz + 1);
+        store.add(new Region(xmin, zmin, xmax - xmin + 1, -dz + 1));
       }
     }
+  }
+
+  /**
+   * Make our target region current. Call once the vertex data for the target region is in place.
+   */
+  public void commitTargetRegion() {
+    clipRegion.setX(targetRegion.getX());
+    clipRegion.setY(targetRegion.getY());
+
+    // Update our intersection region
+    intersectionRegion.setX(clipRegion.getX());
+    intersectionRegion.setY(clipRegion.getY());
+
+    if (heightClipmap != null) {
+      updateClipOrigin();
+    }
+  }
 
-    return true;
+  private void updateClipOrigin() {
+    final int originX = clipRegion.getX() / vertexDistance;
+    final int originZ = clipRegion.getY() / vertexDistance;
+    clipOrigin.put(0, originX).put(1, originZ);
+    clipOriginSlot.put(0, HeightClipmap.toTexel(originX, clipSideSize)).put(1,
+        HeightClipmap.toTexel(originZ, clipSideSize));
+  }
+
+  public void regenerate() {
+    cache.regenerate();
   }
 
   /**
@@ -603,6 +725,13 @@ public class ClipmapLevel extends Mesh {
 
   public boolean isReady() { return cache.isValid(); }
 
+  public int getLevelIndex() { return levelIndex; }
+
+  /**
+   * @return the height texture we are displaced with, or null if our heights are in our vertices.
+   */
+  public HeightClipmap getHeightClipmap() { return heightClipmap; }
+
   public TerrainCache getCache() { return cache; }
 
   public void setHeightRange(final float heightRangeMin, final float heightRangeMax) {
@@ -620,6 +749,15 @@ public class ClipmapLevel extends Mesh {
 
   public Region getIntersectionRegion() { return intersectionRegion; }
 
+  /**
+   * @return a new region covering the area our intersection region will have once our target region
+   *         is committed.
+   */
+  public Region getTargetIntersectionRegion() {
+    return new Region(targetRegion.getX(), targetRegion.getY(), intersectionRegion.getWidth(),
+        intersectionRegion.getHeight());
+  }
+
   public float getHeightScale() { return heightScale; }
 
   public boolean isCullingEnabled() { return cullingEnabled; }
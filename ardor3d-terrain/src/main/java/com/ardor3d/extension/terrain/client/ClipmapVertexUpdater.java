@@ -0,0 +1,258 @@
+/**
+ * Copyright (c) 2008-2024 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.terrain.client;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ardor3d.extension.terrain.util.Region;
+import com.ardor3d.math.util.MathUtils;
+import com.ardor3d.scenegraph.MeshData;
+import com.ardor3d.scenegraph.event.DirtyType;
+
+/**
+ * Prepares clipmap vertex data on worker threads. Work is done in batches covering every clipmap
+ * level that needs updating in a given frame. For each level, the vertices of all regions to refresh
+ * are computed from the level's cache into a staging array. Once every level of a batch is ready,
+ * the render thread copies the staged vertices into the level vertex buffers and commits the new
+ * level positions all at once, so nested levels always stay consistent with each other.
+ * <p>
+ * Worker threads never touch the level vertex buffers, which the renderer may read at any time. Each
+ * level has a single staging array, which is only filled by a worker while a batch is in flight and
+ * only read by the render thread once the batch is done, so it is never used by both at once.
+ * </p>
+ * <p>
+ * All methods other than the worker tasks themselves must be called from the render (update) thread.
+ * </p>
+ */
+public class ClipmapVertexUpdater {
+  /** The Constant logger. */
+  private static final Logger logger = Logger.getLogger(ClipmapVertexUpdater.class.getName());
+
+  private final ExecutorService _executor;
+
+  private final List<LevelJob> _jobs = new ArrayList<>();
+
+  /** Staging per clipmap level, indexed by level. */
+  private final LevelJob[] _levelJobs;
+
+  /** Mailbox regions applied as part of the batch in flight, for region listeners. */
+  private List<Region> _batchMailRegions;
+
+  private boolean _busy = false;
+
+  public ClipmapVertexUpdater(final int levelCount, final ExecutorService executor) {
+    _executor = executor;
+    _levelJobs = new LevelJob[levelCount];
+  }
+
+  /**
+   * @return true if a batch has been submitted and not yet committed.
+   */
+  public boolean isBusy() { return _busy; }
+
+  /**
+   * Queue a set of regions for a level in the batch being assembled. Regions are in grid units of the
+   * level. Must be followed by {@link #submit(List)} to start work.
+   *
+   * @param level
+   *          the clipmap level
+   * @param levelIndex
+   *          index of that level in the terrain
+   * @param regions
+   *          regions to refresh, in grid units
+   * @param moved
+   *          true if the level is moving to its target region as part of this batch
+   */
+  public void add(final ClipmapLevel level, final int levelIndex, final List<Region> regions, final boolean moved) {
+    if (_busy) {
+      throw new IllegalStateException("Batch already in flight.");
+    }
+    LevelJob job = _levelJobs[levelIndex];
+    if (job == null) {
+      job = new LevelJob(level);
+      _levelJobs[levelIndex] = job;
+    }
+    job.regions.clear();
+    job.regions.addAll(regions);
+    job.moved = moved;
+    _jobs.add(job);
+  }
+
+  /**
+   * Start work on all levels added since the last batch.
+   *
+   * @param mailRegions
+   *          the mailbox regions included in this batch, handed back by {@link #commitIfDone()} once
+   *          applied. May be null.
+   */
+  public void submit(final List<Region> mailRegions) {
+    if (_jobs.isEmpty()) {
+      return;
+    }
+    _batchMailRegions = mailRegions;
+    _busy = true;
+    for (final LevelJob job : _jobs) {
+      job.prepare();
+      job.future = _executor.submit(job);
+    }
+  }
+
+  /**
+   * If the batch in flight has finished, copy its vertex data into the level vertex buffers and commit
+   * the level positions.
+   *
+   * @return the mailbox regions that were part of the committed batch, or null if no batch was
+   *         committed.
+   */
+  public List<Region> commitIfDone() {
+    if (!_busy) {
+      return null;
+    }
+    for (final LevelJob job : _jobs) {
+      if (!job.future.isDone()) {
+        return null;
+      }
+    }
+
+    for (final LevelJob job : _jobs) {
+      try {
+        job.future.get();
+      } catch (final Exception e) {
+        logger.log(Level.WARNING, "Vertex preparation failed for " + job.level.getName()
+            + ", falling back to synchronous update.", e);
+        job.fillSynchronously();
+      }
+      job.apply();
+    }
+
+    final List<Region> mailRegions = _batchMailRegions;
+    _batchMailRegions = null;
+    _jobs.clear();
+    _busy = false;
+    return mailRegions != null ? mailRegions : List.of();
+  }
+
+  /**
+   * Block until the batch in flight, if any, is finished and commit it.
+   *
+   * @return the mailbox regions that were part of the committed batch, or null if there was none.
+   */
+  public List<Region> finish() {
+    for (final LevelJob job : _jobs) {
+      try {
+        if (job.future != null) {
+          job.future.get();
+        }
+      } catch (final Exception e) {
+        // handled in commitIfDone
+      }
+    }
+    return commitIfDone();
+  }
+
+  /**
+   * Copy a block of vertices, laid out row by row, into a clipmap vertex buffer using the toroidal
+   * addressing of {@link TerrainCache#updateRegion(FloatBuffer, int, int, int, int)}.
+   *
+   * @param source
+   *          staged vertex data
+   * @param offset
+   *          index of the first vertex component in source
+   * @param destination
+   *          clipmap vertex buffer
+   * @param destinationSize
+   *          number of vertices along one side of the clipmap
+   * @param region
+   *          the region, in grid units, the staged data covers
+   */
+  public static void copyRegion(final float[] source, final int offset, final FloatBuffer destination,
+      final int destinationSize, final Region region) {
+    final int width = region.getWidth();
+    int index = offset;
+    for (int z = 0; z < region.getHeight(); z++) {
+      final int destY = MathUtils.moduloPositive(region.getY() + z, destinationSize);
+      final int rowStart = destY * destinationSize;
+
+      // copy the row in runs, wrapping around the destination as needed.
+      int x = 0;
+      while (x < width) {
+        final int destX = MathUtils.moduloPositive(region.getX() + x, destinationSize);
+        final int run = Math.min(width - x, destinationSize - destX);
+        destination.put((rowStart + destX) * ClipmapLevel.VERT_SIZE, source, index, run * ClipmapLevel.VERT_SIZE);
+        index += run * ClipmapLevel.VERT_SIZE;
+        x += run;
+      }
+    }
+  }
+
+  private static class LevelJob implements Runnable {
+    final ClipmapLevel level;
+    final List<Region> regions = new ArrayList<>();
+    boolean moved;
+    Future<?> future;
+
+    /** Vertices filled by the worker, for all regions in order. */
+    float[] staging = new float[0];
+
+    LevelJob(final ClipmapLevel level) {
+      this.level = level;
+    }
+
+    void prepare() {
+      int size = 0;
+      for (final Region region : regions) {
+        size += region.getWidth() * region.getHeight() * ClipmapLevel.VERT_SIZE;
+      }
+      if (staging.length < size) {
+        staging = new float[size];
+      }
+    }
+
+    @Override
+    public void run() {
+      final TerrainCache cache = level.getCache();
+      int offset = 0;
+      for (final Region region : regions) {
+        cache.fillRegion(staging, offset, region.getX(), region.getY(), region.getWidth(), region.getHeight());
+        offset += region.getWidth() * region.getHeight() * ClipmapLevel.VERT_SIZE;
+      }
+    }
+
+    void fillSynchronously() {
+      run();
+    }
+
+    void apply() {
+      final MeshData meshData = level.getMeshData();
+      final FloatBuffer vertices = meshData.getVertexBuffer();
+      int offset = 0;
+      for (final Region region : regions) {
+        copyRegion(staging, offset, vertices, level.getClipSideSize(), region);
+        offset += region.getWidth() * region.getHeight() * ClipmapLevel.VERT_SIZE;
+      }
+
+      if (moved) {
+        level.commitTargetRegion();
+      }
+
+      if (!regions.isEmpty()) {
+        meshData.markBufferDirty(MeshData.KEY_VertexCoords);
+        level.markDirty(DirtyType.Bounding);
+      }
+    }
+  }
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2008-2024 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.terrain.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.ardor3d.util.Constants;
+import com.ardor3d.util.stat.StatCollector;
+
+/**
+ * Running tile loading counters for a single {@link AbstractGridCache}. Counters are updated from
+ * tile loader threads and may be read from any thread.
+ * <p>
+ * Load latency is measured from the moment a tile is first submitted for loading until its data is
+ * in the cache, including any time spent requeued while the source was not ready. Latencies are
+ * collected into a histogram with bucket upper bounds given by {@link #LATENCY_BUCKETS_MS}, plus a
+ * final bucket for anything slower.
+ * </p>
+ * <p>
+ * If stats are enabled (see {@link Constants#stats}), loads, cancellations and failures are also
+ * reported to the {@link StatCollector} as they happen, using the types in {@link TerrainStats}.
+ * </p>
+ */
+public class GridCacheStats {
+
+  /** Upper bounds, in milliseconds, of the load latency histogram buckets. */
+  public static final long[] LATENCY_BUCKETS_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000};
+
+  private final AtomicLong tilesSubmitted = new AtomicLong();
+  private final AtomicLong tilesLoaded = new AtomicLong();
+  private final AtomicLong tilesRequeued = new AtomicLong();
+  private final AtomicLong tilesCancelled = new AtomicLong();
+  private final AtomicLong tilesFailed = new AtomicLong();
+
+  private final AtomicLong totalLoadNanos = new AtomicLong();
+  private final AtomicLong maxLoadNanos = new AtomicLong();
+  private final AtomicLongArray latencyHistogram = new AtomicLongArray(LATENCY_BUCKETS_MS.length + 1);
+
+  void tileSubmitted() {
+    tilesSubmitted.incrementAndGet();
+  }
+
+  void tileRequeued() {
+    tilesRequeued.incrementAndGet();
+  }
+
+  void tileCancelled() {
+    tilesCancelled.incrementAndGet();
+    if (Constants.stats) {
+      StatCollector.addStat(TerrainStats.STAT_TILES_CANCELLED, 1);
+    }
+  }
+
+  void tileFailed() {
+    tilesFailed.incrementAndGet();
+    if (Constants.stats) {
+      StatCollector.addStat(TerrainStats.STAT_TILES_FAILED, 1);
+    }
+  }
+
+  void tileLoaded(final long loadNanos) {
+    tilesLoaded.incrementAndGet();
+    totalLoadNanos.addAndGet(loadNanos);
+    maxLoadNanos.accumulateAndGet(loadNanos, Math::max);
+    latencyHistogram.incrementAndGet(getLatencyBucket(TimeUnit.NANOSECONDS.toMillis(loadNanos)));
+    if (Constants.stats) {
+      StatCollector.addStat(TerrainStats.STAT_TILE_LOAD_TIME,
+          loadNanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+  }
+
+  /**
+   * @param latencyMS
+   *          a load latency in milliseconds
+   * @return the index of the histogram bucket the given latency falls in.
+   */
+  public static int getLatencyBucket(final long latencyMS) {
+    for (int i = 0; i < LATENCY_BUCKETS_MS.length; i++) {
+      if (latencyMS <= LATENCY_BUCKETS_MS[i]) {
+        return i;
+      }
+    }
+    return LATENCY_BUCKETS_MS.length;
+  }
+
+  /**
+   * @return number of times a tile was handed to the tile thread service, including resubmissions.
+   */
+  public long getTilesSubmitted() { return tilesSubmitted.get(); }
+
+  /**
+   * @return number of tiles successfully copied into the cache.
+   */
+  public long getTilesLoaded() { return tilesLoaded.get(); }
+
+  /**
+   * @return number of times a tile was requeued because its source was not ready.
+   */
+  public long getTilesRequeued() { return tilesRequeued.get(); }
+
+  /**
+   * @return number of tiles dropped before they finished loading, because the cache moved away from
+   *         them, was regenerated or the source cancelled them.
+   */
+  public long getTilesCancelled() { return tilesCancelled.get(); }
+
+  /**
+   * @return number of tiles whose source reported an error.
+   */
+  public long getTilesFailed() { return tilesFailed.get(); }
+
+  /**
+   * @return the average load latency of loaded tiles, in milliseconds.
+   */
+  public double getAverageLoadTimeMS() {
+    final long loaded = tilesLoaded.get();
+    return loaded == 0 ? 0 : totalLoadNanos.get() / (double) loaded / TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  /**
+   * @return the largest load latency seen, in milliseconds.
+   */
+  public double getMaxLoadTimeMS() { return maxLoadNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1); }
+
+  /**
+   * @param store
+   *          if not null and large enough, receives the bucket counts. Otherwise a new array is made.
+   * @return the load latency histogram. See {@link #LATENCY_BUCKETS_MS}.
+   */
+  public long[] getLatencyHistogram(final long[] store) {
+    final int length = latencyHistogram.length();
+    final long[] result = store != null && store.length >= length ? store : new long[length];
+    for (int i = 0; i < length; i++) {
+      result[i] = latencyHistogram.get(i);
+    }
+    return result;
+  }
+
+  /**
+   * Zero all counters.
+   */
+  public void reset() {
+    tilesSubmitted.set(0);
+    tilesLoaded.set(0);
+    tilesRequeued.set(0);
+    tilesCancelled.set(0);
+    tilesFailed.set(0);
+    totalLoadNanos.set(0);
+    maxLoadNanos.set(0);
+    for (int i = 0; i < latencyHistogram.length(); i++) {
+      latencyHistogram.set(i, 0);
+    }
+  }
+}
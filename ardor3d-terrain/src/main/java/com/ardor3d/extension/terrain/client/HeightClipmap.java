@@ -0,0 +1,328 @@
+/**
+ * Copyright (c) 2008-2024 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.terrain.client;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import com.ardor3d.buffer.BufferUtils;
+import com.ardor3d.extension.terrain.util.Region;
+import com.ardor3d.image.Image;
+import com.ardor3d.image.ImageDataFormat;
+import com.ardor3d.image.PixelDataType;
+import com.ardor3d.image.Texture;
+import com.ardor3d.image.Texture.MagnificationFilter;
+import com.ardor3d.image.Texture.MinificationFilter;
+import com.ardor3d.image.Texture3D;
+import com.ardor3d.image.TextureStoreFormat;
+import com.ardor3d.math.util.MathUtils;
+import com.ardor3d.renderer.ContextManager;
+import com.ardor3d.renderer.Renderer;
+import com.ardor3d.util.TextureKey;
+
+/**
+ * Holds the heights of every geometry clipmap level in a float texture, for terrain drawn with GPU
+ * displacement. Each level owns one slice of a 3D texture, clipSideSize texels square. Grid position
+ * (x, z) of a level is stored at texel (x mod clipSideSize, z mod clipSideSize) - the same toroidal
+ * addressing the levels use for their vertex buffers and {@link TextureClipmap} uses for color - so
+ * when a level moves only the rows and columns it uncovers are rewritten and uploaded.
+ * <p>
+ * Each texel holds two values: the height at that grid position and the height of the next coarser
+ * level there, matching the y and w components of the vertices built on the CPU.
+ * </p>
+ * <p>
+ * Slice data is written by {@link #updateRegion(int, int, int, int, int)} and the changed texel
+ * rectangles are queued until {@link #upload(Renderer)} is called from the render thread. Everything
+ * but the upload works without a graphics context.
+ * </p>
+ */
+public class HeightClipmap {
+  /** The Constant logger. */
+  private static final Logger logger = Logger.getLogger(HeightClipmap.class.getName());
+
+  /** Number of values per texel - height and coarser height. */
+  public static final int TEXEL_SIZE = 2;
+
+  private final List<TerrainCache> cacheList;
+  private final int textureSize;
+  private final int validLevels;
+
+  private Texture3D heightTexture;
+
+  private final ByteBuffer[] sliceBytes;
+  private final FloatBuffer[] sliceData;
+
+  /** Texel rectangles per level written since our last upload. */
+  private final List<List<Region>> pendingUploads = new ArrayList<>();
+
+  /** Scratch space for vertices pulled from our caches. */
+  private float[] vertexStore = new float[0];
+
+  /**
+   * Construct a new HeightClipmap.
+   *
+   * @param cacheList
+   *          the height caches of our levels, finest first.
+   * @param textureSize
+   *          width and height of each slice. This must match the clipSideSize of the levels drawn
+   *          with it.
+   */
+  public HeightClipmap(final List<TerrainCache> cacheList, final int textureSize) {
+    this.cacheList = cacheList;
+    this.textureSize = textureSize;
+    validLevels = cacheList.size();
+
+    HeightClipmap.logger.fine("Height texture size: " + textureSize);
+    HeightClipmap.logger.fine("ValidLevels: " + validLevels);
+
+    sliceBytes = new ByteBuffer[validLevels];
+    sliceData = new FloatBuffer[validLevels];
+    for (int i = 0; i < validLevels; i++) {
+      pendingUploads.add(new ArrayList<>());
+    }
+
+    createTexture();
+  }
+
+  /**
+   * Copy the heights of a region of a level from its cache into that level's slice and queue the
+   * touched texels for upload.
+   *
+   * @param level
+   *          the level to update
+   * @param x
+   *          region start, in grid units of that level
+   * @param z
+   *          region start, in grid units of that level
+   * @param width
+   *          region width, in grid units
+   * @param height
+   *          region height, in grid units
+   */
+  public void updateRegion(final int level, final int x, final int z, final int width, final int height) {
+    if (width <= 0 || height <= 0) {
+      return;
+    }
+
+    final int size = width * height * ClipmapLevel.VERT_SIZE;
+    if (vertexStore.length < size) {
+      vertexStore = new float[size];
+    }
+    cacheList.get(level).fillRegion(vertexStore, 0, x, z, width, height);
+
+    // Rows or columns past our texture size wrap onto texels already written, same as the vertex path.
+    final FloatBuffer slice = sliceData[level];
+    int index = 0;
+    for (int row = 0; row < height; row++) {
+      final int texelRow = MathUtils.moduloPositive(z + row, textureSize) * textureSize;
+      for (int col = 0; col < width; col++) {
+        final int texel = (texelRow + MathUtils.moduloPositive(x + col, textureSize)) * TEXEL_SIZE;
+        slice.put(texel, vertexStore[index + 1]);
+        slice.put(texel + 1, vertexStore[index + 3]);
+        index += ClipmapLevel.VERT_SIZE;
+      }
+    }
+
+    splitToroidal(new Region(level, x, z, width, height), textureSize, pendingUploads.get(level));
+  }
+
+  /**
+   * Send all queued texel rectangles to the card. If the texture has not been created yet for the
+   * current context, nothing is sent as the whole texture will be uploaded on creation anyway.
+   *
+   * @param renderer
+   *          the renderer to upload with
+   */
+  public void upload(final Renderer renderer) {
+    if (heightTexture.getTextureIdForContext(ContextManager.getCurrentContext()) == 0) {
+      clearPendingUploads();
+      return;
+    }
+
+    for (int level = 0; level < validLevels; level++) {
+      final List<Region> uploads = pendingUploads.get(level);
+      if (uploads.isEmpty()) {
+        continue;
+      }
+
+      final ByteBuffer source = sliceBytes[level];
+      if (getTexelCount(uploads) * 2 >= textureSize * textureSize) {
+        // cheaper to send the slice in one go
+        source.rewind();
+        renderer.getTextureUtils().updateTexture3DSubImage(heightTexture, 0, 0, level, textureSize, textureSize, 1,
+            source, 0, 0, 0, textureSize, textureSize);
+      } else {
+        for (final Region region : uploads) {
+          source.rewind();
+          renderer.getTextureUtils().updateTexture3DSubImage(heightTexture, region.getX(), region.getY(), level,
+              region.getWidth(), region.getHeight(), 1, source, region.getX(), region.getY(), 0, textureSize,
+              textureSize);
+        }
+      }
+      uploads.clear();
+    }
+  }
+
+  /**
+   * @param level
+   *          a level index
+   * @return the texel rectangles of the given level waiting to be uploaded.
+   */
+  public List<Region> getPendingUploads(final int level) {
+    return pendingUploads.get(level);
+  }
+
+  public void clearPendingUploads() {
+    for (final List<Region> uploads : pendingUploads) {
+      uploads.clear();
+    }
+  }
+
+  /**
+   * @param level
+   *          a level index
+   * @param texelX
+   *          texel column
+   * @param texelY
+   *          texel row
+   * @return the height stored at the given texel of the given level.
+   */
+  public float getHeight(final int level, final int texelX, final int texelY) {
+    return sliceData[level].get((texelY * textureSize + texelX) * TEXEL_SIZE);
+  }
+
+  /**
+   * @param level
+   *          a level index
+   * @param texelX
+   *          texel column
+   * @param texelY
+   *          texel row
+   * @return the coarser level height stored at the given texel of the given level.
+   */
+  public float getCoarserHeight(final int level, final int texelX, final int texelY) {
+    return sliceData[level].get((texelY * textureSize + texelX) * TEXEL_SIZE + 1);
+  }
+
+  /**
+   * Map a grid position to the texel that holds it.
+   *
+   * @param gridCoordinate
+   *          grid position along one axis
+   * @param textureSize
+   *          texels along that axis
+   * @return the texel index, in [0, textureSize)
+   */
+  public static int toTexel(final int gridCoordinate, final int textureSize) {
+    return MathUtils.moduloPositive(gridCoordinate, textureSize);
+  }
+
+  /**
+   * Map a texel back to the grid position it holds for a clip whose first grid position is origin.
+   * This is the inverse of {@link #toTexel(int, int)} over the textureSize positions starting at
+   * origin, and is what the displacement shader does for each vertex.
+   *
+   * @param texel
+   *          texel index, in [0, textureSize)
+   * @param origin
+   *          first grid position covered by the clip along this axis
+   * @param textureSize
+   *          texels along that axis
+   * @return the grid position
+   */
+  public static int toGrid(final int texel, final int origin, final int textureSize) {
+    return origin + MathUtils.moduloPositive(texel - origin, textureSize);
+  }
+
+  /**
+   * Split a region given in grid units into the texel rectangles it occupies in a toroidally
+   * addressed texture. Regions crossing the texture edge split into up to four rectangles; regions
+   * wider or taller than the texture are clamped to its full width or height.
+   *
+   * @param region
+   *          region in grid units
+   * @param textureSize
+   *          texture width and height
+   * @param store
+   *          list to add the texel rectangles to. Rectangles keep the level of the given region.
+   */
+  public static void splitToroidal(final Region region, final int textureSize, final List<Region> store) {
+    final int width = Math.min(region.getWidth(), textureSize);
+    final int height = Math.min(region.getHeight(), textureSize);
+    if (width <= 0 || height <= 0) {
+      return;
+    }
+
+    final int startX = width == textureSize ? 0 : toTexel(region.getX(), textureSize);
+    final int startY = height == textureSize ? 0 : toTexel(region.getY(), textureSize);
+    final int widthA = Math.min(width, textureSize - startX);
+    final int heightA = Math.min(height, textureSize - startY);
+    final int widthB = width - widthA;
+    final int heightB = height - heightA;
+
+    store.add(new Region(region.getLevel(), startX, startY, widthA, heightA));
+    if (widthB > 0) {
+      store.add(new Region(region.getLevel(), 0, startY, widthB, heightA));
+    }
+    if (heightB > 0) {
+      store.add(new Region(region.getLevel(), startX, 0, widthA, heightB));
+      if (widthB > 0) {
+        store.add(new Region(region.getLevel(), 0, 0, widthB, heightB));
+      }
+    }
+  }
+
+  private static int getTexelCount(final List<Region> regions) {
+    int count = 0;
+    for (final Region region : regions) {
+      count += region.getWidth() * region.getHeight();
+    }
+    return count;
+  }
+
+  public void regenerate() {
+    for (final TerrainCache cache : cacheList) {
+      cache.regenerate();
+    }
+  }
+
+  public Texture getTexture() { return heightTexture; }
+
+  public int getTextureSize() { return textureSize; }
+
+  public int getValidLevels() { return validLevels; }
+
+  public List<TerrainCache> getCacheList() { return cacheList; }
+
+  private void createTexture() {
+    heightTexture = new Texture3D();
+    heightTexture.setMinificationFilter(MinificationFilter.NearestNeighborNoMipMaps);
+    heightTexture.setMagnificationFilter(MagnificationFilter.NearestNeighbor);
+    final Image img = new Image();
+    img.setWidth(textureSize);
+    img.setHeight(textureSize);
+    img.setDepth(validLevels);
+    img.setDataFormat(ImageDataFormat.RG);
+    img.setDataType(PixelDataType.Float);
+    heightTexture.setTextureKey(TextureKey.getRTTKey(heightTexture.getMinificationFilter()));
+
+    for (int l = 0; l < validLevels; l++) {
+      sliceBytes[l] = BufferUtils.createByteBuffer(textureSize * textureSize * TEXEL_SIZE * Float.BYTES);
+      sliceData[l] = sliceBytes[l].asFloatBuffer();
+      img.setData(l, sliceBytes[l]);
+    }
+    heightTexture.setImage(img);
+    heightTexture.setTextureStoreFormat(TextureStoreFormat.RG32F);
+  }
+}
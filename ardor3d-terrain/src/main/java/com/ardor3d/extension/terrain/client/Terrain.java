@@ -11,7 +11,6 @@
 package com.ardor3d.extension.terrain.client;
 
 import java.net.URISyntaxException;
-import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -30,6 +29,9 @@ import com.ardor3d.light.LightProperties;
 import com.ardor3d.math.ColorRGBA;
 import com.ardor3d.math.Ray3;
 import com.ardor3d.math.Vector3;
+import com.ardor3d.math.type.ReadOnlyRay3;
+import com.ardor3d.math.type.ReadOnlyTransform;
+import com.ardor3d.math.type.ReadOnlyVector3;
 import com.ardor3d.math.util.MathUtils;
 import com.ardor3d.renderer.Camera;
 import com.ardor3d.renderer.Renderer;
@@ -37,10 +39,10 @@ import com.ardor3d.renderer.queue.RenderBucketType;
 import com.ardor3d.renderer.state.BlendState;
 import com.ardor3d.renderer.state.CullState;
 import com.ardor3d.renderer.state.TextureState;
-import com.ardor3d.scenegraph.MeshData;
 import com.ardor3d.scenegraph.Node;
 import com.ardor3d.scenegraph.event.DirtyType;
 import com.ardor3d.surface.ColorSurface;
+import com.ardor3d.util.Constants;
 import com.ardor3d.util.resource.ResourceLocatorTool;
 import com.ardor3d.util.resource.SimpleResourceLocator;
 
@@ -71,6 +73,10 @@ public class Terrain extends Node implements Pickable, Runnable {
   protected TextureClipmap _normalClipmap;
   protected int _normalUnit;
 
+  /** Reference to our height texture, if our levels are displaced on the GPU */
+  protected HeightClipmap _heightClipmap;
+  protected int _heightUnit;
+
   protected final Vector3 transformedFrustumPos = new Vector3();
 
   protected final DoubleBufferedList<Region> mailBox = new DoubleBufferedList<>();
@@ -96,6 +102,9 @@ public class Terrain extends Node implements Pickable, Runnable {
   /** Listeners for region events. */
   protected List<IRegionUpdateListener> _listeners;
 
+  /** Prepares vertex data off the render thread, if async vertex updates are enabled. */
+  protected ClipmapVertexUpdater _vertexUpdater;
+
   public Terrain(final BuildConfiguration buildConfig, final List<TerrainCache> cacheList,
     final TerrainConfiguration terrainConfiguration) {
     _buildConfig = buildConfig;
@@ -137,10 +146,15 @@ public class Terrain extends Node implements Pickable, Runnable {
 
       final float heightScale = terrainConfiguration.getScale().getYf();
 
+      if (buildConfig.gpuDisplacement) {
+        _heightClipmap = new HeightClipmap(cacheList, _clipSideSize);
+      }
+
       for (int i = 0; i < cacheList.size(); i++) {
         final TerrainCache cache = cacheList.get(i);
         cache.setMailBox(mailBox);
-        final ClipmapLevel clipmap = new ClipmapLevel(i, _terrainCamera, _clipSideSize, heightScale, cache);
+        final ClipmapLevel clipmap =
+            new ClipmapLevel(i, _terrainCamera, _clipSideSize, heightScale, cache, _heightClipmap);
         _clips.add(clipmap);
         attachChild(clipmap);
       }
@@ -153,8 +167,14 @@ public class Terrain extends Node implements Pickable, Runnable {
     setScale(terrainConfiguration.getScale().getX(), 1, terrainConfiguration.getScale().getZ());
     setHeightRange(terrainConfiguration.getHeightRangeMin(), terrainConfiguration.getHeightRangeMax());
 
+    // Displaced levels only write small height texture strips, so there is nothing worth moving off thread.
+    if (buildConfig.vertexThreadService != null && _clips != null && _heightClipmap == null) {
+      _vertexUpdater = new ClipmapVertexUpdater(_clips.size(), buildConfig.vertexThreadService);
+    }
+
     setProperty("clipSideSize", _clipSideSize);
     setNormalUnit(5);
+    setHeightUnit(4);
 
     this.updateWorldRenderStates(true);
   }
@@ -185,15 +205,20 @@ public class Terrain extends Node implements Pickable, Runnable {
     // }
     // }
 
-    // Process cache updates for non-visible clip levels
-    checkNonVisibleClips();
+    if (_vertexUpdater != null) {
+      // Apply any vertex data prepared by our workers, then start on the next set of changes.
+      updateVerticesAsync();
+    } else {
+      // Process cache updates for non-visible clip levels
+      checkNonVisibleClips();
 
-    // Update from mailbox
-    updateFromMailbox();
+      // Update from mailbox
+      updateFromMailbox();
 
-    // Process vertex updates for visible clipmap levels.
-    for (int i = _clips.size() - 1; i >= _visibleLevels; i--) {
-      _clips.get(i).updateVertices();
+      // Process vertex updates for visible clipmap levels.
+      for (int i = _clips.size() - 1; i >= _visibleLevels; i--) {
+        _clips.get(i).updateVertices();
+      }
     }
 
     // Update indices.
@@ -207,6 +232,10 @@ public class Terrain extends Node implements Pickable, Runnable {
       }
     }
 
+    if (Constants.stats) {
+      TerrainStats.publish(this);
+    }
+
     if (runCacheThread && cacheThread == null) {
       cacheThread = new Thread(this, "TerrainCacheUpdater");
       cacheThread.setDaemon(true);
@@ -218,27 +247,94 @@ public class Terrain extends Node implements Pickable, Runnable {
    * Check clipmap levels below our
    */
   private void checkNonVisibleClips() {
-    // Lazy init the contents of _timers
     final long now = System.currentTimeMillis();
-    if (_timers.size() < _visibleLevels) {
-      for (int unit = 0; unit < _visibleLevels; unit++) {
-        _timers.add(now);
-      }
-    }
 
     // walk through levels below the visible level
     for (int unit = 0; unit < _visibleLevels; unit++) {
-      final long t = now - _timers.get(unit);
-      if (t > NON_VISIBLE_UPDATE_RATE_MS) {
-        // Enough time has passed. Reset our timer
-        _timers.set(unit, now);
-
+      if (isNonVisibleUpdateDue(unit, now)) {
         // Ask clip to update its vertex buffer
         _clips.get(unit).updateVertices();
       }
     }
   }
 
+  /**
+   * Check if enough time has passed to refresh the given level below our visible levels, resetting its
+   * timer if so.
+   */
+  private boolean isNonVisibleUpdateDue(final int unit, final long now) {
+    // Lazy init the contents of _timers
+    while (_timers.size() <= unit) {
+      _timers.add(now);
+    }
+
+    final long t = now - _timers.get(unit);
+    if (t > NON_VISIBLE_UPDATE_RATE_MS) {
+      // Enough time has passed. Reset our timer
+      _timers.set(unit, now);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Vertex update used when a {@link ClipmapVertexUpdater} is set. Commits the batch in flight once it
+   * is done and, when no batch is in flight, gathers movement and mailbox regions for all levels due an
+   * update and hands them to the updater.
+   */
+  protected void updateVerticesAsync() {
+    final List<Region> appliedMail = _vertexUpdater.commitIfDone();
+    if (appliedMail != null && !appliedMail.isEmpty()) {
+      // Alert any terrain region listeners of the regions used to do updates.
+      alertRegionListeners(appliedMail);
+    }
+
+    if (_vertexUpdater.isBusy()) {
+      // still waiting on the previous batch. Levels keep drawing their last committed data.
+      return;
+    }
+
+    final long now = System.currentTimeMillis();
+    final boolean[] moved = new boolean[_clips.size()];
+    final boolean[] included = new boolean[_clips.size()];
+    for (int i = _clips.size() - 1; i >= 0; i--) {
+      if (i >= _visibleLevels || isNonVisibleUpdateDue(i, now)) {
+        final ClipmapLevel clip = _clips.get(i);
+        included[i] = true;
+        moved[i] = clip.updateTargetRegion();
+
+        // Ask the cache to look for any invalid data in the current region. These will be sent to the
+        // mailbox
+        clip.getCache().checkForInvalidatedRegions();
+      }
+    }
+
+    // Mailbox regions are trimmed against where the levels are headed, not where they are now.
+    final List<Region> mailRegions = pollMailbox(true);
+
+    final List<Region> levelRegions = new ArrayList<>();
+    for (int i = _clips.size() - 1; i >= 0; i--) {
+      final ClipmapLevel clip = _clips.get(i);
+      levelRegions.clear();
+      if (moved[i]) {
+        clip.collectMovementRegions(levelRegions);
+      }
+      if (mailRegions != null) {
+        final int vertexDistance = clip.getVertexDistance();
+        for (final Region region : mailRegions) {
+          if (region.getLevel() == i) {
+            levelRegions.add(new Region(region.getX() / vertexDistance, region.getY() / vertexDistance,
+                region.getWidth() / vertexDistance, region.getHeight() / vertexDistance));
+          }
+        }
+      }
+      if (moved[i] || !levelRegions.isEmpty()) {
+        _vertexUpdater.add(clip, i, levelRegions, moved[i]);
+      }
+    }
+    _vertexUpdater.submit(mailRegions);
+  }
+
   @Override
   public void run() {
     while (runCacheThread) {
@@ -281,6 +377,12 @@ public class Terrain extends Node implements Pickable, Runnable {
     getWorldTransform().applyInverse(_terrainCamera.getLocation(), transformedFrustumPos);
     setProperty("eyePosition", transformedFrustumPos);
 
+    // If our levels are displaced on the GPU, send up any height changes and grab the texture.
+    if (_heightClipmap != null) {
+      _heightClipmap.upload(r);
+      clipTextureState.setTexture(_heightClipmap.getTexture(), _heightUnit);
+    }
+
     // If we have a normalmap clip, update and grab the texture for drawing later.
     if (_normalClipmap != null) {
       _normalClipmap.update(r, transformedFrustumPos);
@@ -339,11 +441,38 @@ public class Terrain extends Node implements Pickable, Runnable {
   }
 
   protected void updateFromMailbox() {
+    final List<Region> regionList = pollMailbox(false);
+    if (regionList != null && !regionList.isEmpty()) {
+      // Update the clipmap vertices for the affected regions
+      for (int i = regionList.size() - 1; i >= 0; i--) {
+        final Region region = regionList.get(i);
+        final ClipmapLevel clip = _clips.get(region.getLevel());
+        final int vertexDistance = clip.getVertexDistance();
+
+        clip.updateRegion(region.getX() / vertexDistance, region.getY() / vertexDistance,
+            region.getWidth() / vertexDistance, region.getHeight() / vertexDistance);
+      }
+
+      // Alert any terrain region listeners of the regions used to do updates.
+      alertRegionListeners(regionList);
+    }
+  }
+
+  /**
+   * If our mailbox update timer has elapsed, grab the regions posted to our mailbox, trimmed to our
+   * clipmaps and expanded to the finer levels below them.
+   *
+   * @param useTargetRegions
+   *          if true, trim against the regions our levels are moving to rather than their current ones.
+   * @return the regions to update, or null if it is not yet time to check the mailbox.
+   */
+  protected List<Region> pollMailbox(final boolean useTargetRegions) {
+    List<Region> result = null;
     if (updateTimer > updateThreshold) {
-      final List<Region> regionList = mailBox.switchAndGet();
+      final List<Region> regionList = new ArrayList<>(mailBox.switchAndGet());
       if (!regionList.isEmpty()) {
         // trim our regions down based on our valid clipmaps
-        trimRegionsToClipmaps(regionList);
+        trimRegionsToClipmaps(regionList, useTargetRegions);
 
         // walk through the remaining regions backwards and recursively add new update regions on levels
         // lower than them. This is important for getting a valid visual result when reconstructing
@@ -356,31 +485,15 @@ public class Terrain extends Node implements Pickable, Runnable {
         }
 
         // trim our updated regions down again based on our valid clipmaps
-        trimRegionsToClipmaps(regionList);
-
-        // Update the clipmap vertices for the affected regions
-        for (int i = regionList.size() - 1; i >= 0; i--) {
-          final Region region = regionList.get(i);
-          final ClipmapLevel clip = _clips.get(region.getLevel());
-          final MeshData meshData = clip.getMeshData();
-          final FloatBuffer vertices = meshData.getVertexBuffer();
-          final int vertexDistance = clip.getVertexDistance();
-
-          clip.getCache().updateRegion(vertices, region.getX() / vertexDistance, region.getY() / vertexDistance,
-              region.getWidth() / vertexDistance, region.getHeight() / vertexDistance);
-
-          meshData.markBufferDirty(MeshData.KEY_VertexCoords);
-          clip.markDirty(DirtyType.Bounding);
-        }
-
-        // Alert any terrain region listeners of the regions used to do updates.
-        alertRegionListeners(regionList);
+        trimRegionsToClipmaps(regionList, useTargetRegions);
       }
+      result = regionList;
       updateTimer %= updateThreshold;
     }
     final long time = System.currentTimeMillis();
     updateTimer += time - oldTime;
     oldTime = time;
+    return result;
   }
 
   private void alertRegionListeners(final List<Region> regionList) {
@@ -393,12 +506,13 @@ public class Terrain extends Node implements Pickable, Runnable {
     }
   }
 
-  private void trimRegionsToClipmaps(final List<Region> regionList) {
+  private void trimRegionsToClipmaps(final List<Region> regionList, final boolean useTargetRegions) {
     for (int i = regionList.size() - 1; i >= 0; i--) {
       final Region region = regionList.get(i);
 
       final ClipmapLevel clip = _clips.get(region.getLevel());
-      final Region clipRegion = clip.getIntersectionRegion();
+      final Region clipRegion =
+          useTargetRegions ? clip.getTargetIntersectionRegion() : clip.getIntersectionRegion();
 
       if (clipRegion.intersects(region)) {
         clipRegion.intersection(region);
@@ -656,31 +770,140 @@ public class Terrain extends Node implements Pickable, Runnable {
    * @return the height, in world coordinate
    */
   public float getHeightAt(final double x, final double z, final int clipLevel, final boolean tryParentCache) {
-    final Vector3 heightCalc = new Vector3(x, 0, z);
-
     // don't use worldToLocal because we don't want rotations to have any affect on things
     // - assumes scale is not part of matrix
-    // worldToLocal(heightCalc, heightCalc);
-    heightCalc.subtractLocal(getWorldTranslation());
-    heightCalc.divideLocal(getWorldScale());
+    final ReadOnlyVector3 translation = getWorldTranslation();
+    final ReadOnlyVector3 scale = getWorldScale();
+    final float localX = (float) ((x - translation.getX()) / scale.getX());
+    final float localZ = (float) ((z - translation.getZ()) / scale.getZ());
 
-    final float height =
-        getClipmaps().get(clipLevel).getCache().getSubHeight(heightCalc.getXf(), heightCalc.getZf(), tryParentCache);
-    heightCalc.set(x, height, z);
+    final float height = getClipmaps().get(clipLevel).getCache().getSubHeight(localX, localZ, tryParentCache);
 
     // don't use localToWorld because we don't want rotations to have any affect on things
     // - assumes scale is not part of matrix
-    // localToWorld(heightCalc, heightCalc);
-    heightCalc.multiplyLocal(getWorldScale());
-    heightCalc.addLocal(getWorldTranslation());
+    return (float) (height * scale.getY() + translation.getY());
+  }
+
+  /**
+   * Get heights of the terrain at many world coordinates at once. This is the bulk equivalent of
+   * {@link #getHeightAt(double, double)} and is considerably cheaper per position when sampling large
+   * numbers of points, especially when neighboring entries are close to each other.
+   *
+   * @param xs
+   *          world x-coordinates
+   * @param zs
+   *          world z-coordinates
+   * @param store
+   *          receives the height, in world coordinates, for each position
+   * @param count
+   *          number of positions to sample
+   */
+  public void getHeightsAt(final double[] xs, final double[] zs, final float[] store, final int count) {
+    getHeightsAt(xs, zs, store, count, 0, true);
+  }
+
+  /**
+   * Get heights of the terrain at many world coordinates at once, from the given clip level.
+   *
+   * @param xs
+   *          world x-coordinates
+   * @param zs
+   *          world z-coordinates
+   * @param store
+   *          receives the height, in world coordinates, for each position
+   * @param count
+   *          number of positions to sample
+   * @param clipLevel
+   *          clip level to start our check at
+   * @param tryParentCache
+   *          if true and the requested clip level is not available, we will ask the next coarser
+   *          level
+   */
+  public void getHeightsAt(final double[] xs, final double[] zs, final float[] store, final int count,
+      final int clipLevel, final boolean tryParentCache) {
+    final ReadOnlyVector3 translation = getWorldTranslation();
+    final ReadOnlyVector3 scale = getWorldScale();
+    final double tx = translation.getX(), ty = translation.getY(), tz = translation.getZ();
+    final double sx = scale.getX(), sy = scale.getY(), sz = scale.getZ();
+
+    final float[] localX = new float[count];
+    final float[] localZ = new float[count];
+    for (int i = 0; i < count; i++) {
+      localX[i] = (float) ((xs[i] - tx) / sx);
+      localZ[i] = (float) ((zs[i] - tz) / sz);
+    }
+
+    getClipmaps().get(clipLevel).getCache().getSubHeights(localX, localZ, store, count, tryParentCache);
+
+    for (int i = 0; i < count; i++) {
+      store[i] = (float) (store[i] * sy + ty);
+    }
+  }
+
+  /**
+   * Cast a ray against the cached terrain data, starting at the finest visible clip level and moving
+   * to coarser levels as the ray leaves each level's cache area. Unlike the {@link ClipmapTerrainPicker}
+   * this does not need {@link #makePickable(Class, int, Vector3)}, uses min/max height trees to skip
+   * empty space and may be called from any thread.
+   *
+   * @param ray
+   *          the ray, in world coordinates. The direction is expected to be normalized.
+   * @param maxDistance
+   *          maximum distance along the ray to search
+   * @param store
+   *          if not null, receives the world intersection point
+   * @param normalStore
+   *          if not null, receives the world surface normal at the intersection
+   * @return distance along the ray to the intersection, or a negative value if there was none.
+   */
+  public double castRay(final ReadOnlyRay3 ray, final double maxDistance, final Vector3 store,
+      final Vector3 normalStore) {
+    final ReadOnlyTransform transform = getWorldTransform();
+    final Vector3 origin = transform.applyInverse(ray.getOrigin(), null);
+    final Vector3 direction = transform.applyInverseVector(ray.getDirection(), null);
+    final double[] normal = normalStore != null ? new double[3] : null;
+
+    double start = 0;
+    for (int i = _minVisibleLevel, maxI = _clips.size(); i < maxI && start <= maxDistance; i++) {
+      final ClipmapLevel clip = _clips.get(i);
+      if (!(clip.getCache() instanceof final TerrainGridCache cache)) {
+        continue;
+      }
+
+      // move into this level's grid space
+      final double invSpacing = 1.0 / clip.getVertexDistance();
+      final double ox = origin.getX() * invSpacing, oz = origin.getZ() * invSpacing;
+      final double dx = direction.getX() * invSpacing, dz = direction.getZ() * invSpacing;
+
+      final double hit =
+          cache.intersectRay(ox, origin.getY(), oz, dx, direction.getY(), dz, start, maxDistance, normal);
+      if (hit >= 0) {
+        if (store != null) {
+          store.set(direction).multiplyLocal(hit).addLocal(origin);
+          transform.applyForward(store, store);
+        }
+        if (normalStore != null) {
+          normalStore.set(normal[0] * invSpacing, normal[1], normal[2] * invSpacing);
+          transform.applyForwardVector(normalStore, normalStore).normalizeLocal();
+        }
+        return hit;
+      }
 
-    return heightCalc.getYf();
+      start = Math.max(start, cache.getCacheAreaExit(ox, oz, dx, dz));
+    }
+    return -1;
   }
 
   public void shutdown() {
     runCacheThread = false;
   }
 
+  /**
+   * @return the updater preparing our vertex data on worker threads, or null if vertex updates are
+   *         done synchronously on the render thread.
+   */
+  public ClipmapVertexUpdater getVertexUpdater() { return _vertexUpdater; }
+
   public BuildConfiguration getBuildConfig() { return _buildConfig; }
 
   public TextureState getClipTextureState() { return clipTextureState; }
@@ -696,6 +919,18 @@ public class Terrain extends Node implements Pickable, Runnable {
     setProperty("normalMap", _normalUnit);
   }
 
+  /**
+   * @return our height texture, or null if our levels are not displaced on the GPU.
+   */
+  public HeightClipmap getHeightClipmap() { return _heightClipmap; }
+
+  public int getHeightUnit() { return _heightUnit; }
+
+  public void setHeightUnit(final int unit) {
+    _heightUnit = unit;
+    setProperty("heightMap", _heightUnit);
+  }
+
   public void addListener(final IRegionUpdateListener listener) {
     if (_listeners == null) {
       _listeners = new ArrayList<>();
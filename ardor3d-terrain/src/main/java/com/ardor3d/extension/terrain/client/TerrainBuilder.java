@@ -74,6 +74,23 @@ public class TerrainBuilder {
 
   public int getCacheBufferSize() { return buildConfig.cacheBufferSize; }
 
+  /**
+   * Bound the memory held by the terrain's geometry, texture and normal map caches. When set, the
+   * builder picks the largest cache buffer size, up to the one set by
+   * {@link #withCacheBufferSize(int)}, whose fully loaded caches fit in the budget. The chosen size
+   * replaces the configured one. If even a buffer of 0 does not fit, 0 is used and a warning logged.
+   *
+   * @param bytes
+   *          the budget in bytes, or 0 for no budget.
+   * @return this builder
+   */
+  public TerrainBuilder withCacheMemoryBudget(final long bytes) {
+    buildConfig.cacheMemoryBudget = bytes;
+    return this;
+  }
+
+  public long getCacheMemoryBudget() { return buildConfig.cacheMemoryBudget; }
+
   public TerrainBuilder withClipmapTerrainCount(final int clipmapTerrainCount) {
     buildConfig.clipmapTerrainCount = clipmapTerrainCount;
     return this;
@@ -102,6 +119,67 @@ public class TerrainBuilder {
 
   public int getClipmapTextureSize() { return buildConfig.clipmapTextureSize; }
 
+  /**
+   * Prepare clipmap vertex updates on the given executor instead of on the render thread. Vertex data
+   * for all levels that need updating is computed by workers and copied to the level buffers once
+   * ready, so levels may lag the camera by a frame or two. Pass null to use the synchronous path.
+   *
+   * @param vertexThreadService
+   *          executor to run vertex preparation on, or null
+   * @return this builder
+   */
+  public TerrainBuilder withVertexThreadService(final ExecutorService vertexThreadService) {
+    buildConfig.vertexThreadService = vertexThreadService;
+    return this;
+  }
+
+  public ExecutorService getVertexThreadService() { return buildConfig.vertexThreadService; }
+
+  /**
+   * Convenience for {@link #withVertexThreadService(ExecutorService)} using a new pool of daemon
+   * threads, one per available processor.
+   *
+   * @param asyncVertexUpdates
+   *          true to prepare vertex updates on worker threads
+   * @return this builder
+   */
+  public TerrainBuilder withAsyncVertexUpdates(final boolean asyncVertexUpdates) {
+    if (!asyncVertexUpdates) {
+      buildConfig.vertexThreadService = null;
+    } else if (buildConfig.vertexThreadService == null) {
+      buildConfig.vertexThreadService =
+          Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+            private final AtomicInteger threadNumber = new AtomicInteger(1);
+            private final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+
+            @Override
+            public Thread newThread(final Runnable r) {
+              final Thread thread = defaultFactory.newThread(r);
+              thread.setName("TerrainVertexThread-" + threadNumber.getAndIncrement());
+              thread.setDaemon(true);
+              return thread;
+            }
+          });
+    }
+    return this;
+  }
+
+  /**
+   * Draw terrain levels as static grids displaced by a height texture in the vertex shader, instead of
+   * rewriting their vertices on the CPU as the camera moves. Requires a displacement material such as
+   * clipmap/terrain_textured_displaced.yaml. Async vertex updates are not used in this mode.
+   *
+   * @param gpuDisplacement
+   *          true to displace terrain levels on the GPU
+   * @return this builder
+   */
+  public TerrainBuilder withGpuDisplacement(final boolean gpuDisplacement) {
+    buildConfig.gpuDisplacement = gpuDisplacement;
+    return this;
+  }
+
+  public boolean isGpuDisplacement() { return buildConfig.gpuDisplacement; }
+
   public TerrainBuilder withShowDebugPanels(final boolean showDebugPanels) {
     buildConfig.showDebugPanels = showDebugPanels;
     return this;
@@ -112,9 +190,26 @@ public class TerrainBuilder {
   public Terrain build() throws Exception {
 
     final TerrainSource terrainSource = buildConfig.terrainDataProvider.getTerrainSource();
+    final List<TextureSource> textureSources = buildConfig.terrainDataProvider.getTextureSources();
+    final TextureSource normalSource = buildConfig.terrainDataProvider.getNormalMapSource();
+
+    if (buildConfig.cacheMemoryBudget > 0) {
+      final List<TextureConfiguration> textureConfigurations = new ArrayList<>();
+      for (final TextureSource textureSource : textureSources) {
+        textureConfigurations.add(textureSource.getConfiguration());
+      }
+      for (final TextureSource extraSource : extraTextureSources) {
+        textureConfigurations.add(extraSource.getConfiguration());
+      }
+      if (normalSource != null) {
+        textureConfigurations.add(normalSource.getConfiguration());
+      }
+      buildConfig.cacheBufferSize = fitCacheBufferSize(terrainSource.getConfiguration(), textureConfigurations,
+          buildConfig, buildConfig.cacheMemoryBudget);
+    }
+
     final Terrain terrain = buildTerrainSystem(terrainSource, buildConfig);
 
-    final List<TextureSource> textureSources = buildConfig.terrainDataProvider.getTextureSources();
     for (final TextureSource textureSource : textureSources) {
       terrain.addTextureClipmap(buildTextureClipmap(textureSource, buildConfig));
     }
@@ -123,7 +218,6 @@ public class TerrainBuilder {
       terrain.addTextureClipmap(buildTextureClipmap(extraSource, buildConfig));
     }
 
-    final TextureSource normalSource = buildConfig.terrainDataProvider.getNormalMapSource();
     if (normalSource != null) {
       terrain.setNormalClipmap(buildTextureClipmap(normalSource, buildConfig));
     }
@@ -131,6 +225,77 @@ public class TerrainBuilder {
     return terrain;
   }
 
+  /**
+   * Find the largest cache buffer size, no larger than the one in the given configuration, for which
+   * the estimated cache memory fits the given budget.
+   *
+   * @return the chosen buffer size, or 0 if nothing fits.
+   */
+  public static int fitCacheBufferSize(final TerrainConfiguration terrainConfiguration,
+      final List<TextureConfiguration> textureConfigurations, final BuildConfiguration buildConfig,
+      final long budget) {
+    for (int bufferSize = buildConfig.cacheBufferSize; bufferSize > 0; bufferSize--) {
+      final long bytes =
+          estimateCacheMemoryUsage(terrainConfiguration, textureConfigurations, buildConfig, bufferSize);
+      if (bytes <= budget) {
+        logger.fine("cache buffer size " + bufferSize + " fits budget: " + bytes + " <= " + budget);
+        return bufferSize;
+      }
+    }
+
+    final long bytes = estimateCacheMemoryUsage(terrainConfiguration, textureConfigurations, buildConfig, 0);
+    if (bytes > budget) {
+      logger.warning("Terrain caches need at least " + bytes + " bytes, over the budget of " + budget);
+    }
+    return 0;
+  }
+
+  /**
+   * Estimate the number of bytes the geometry and texture caches of a terrain hold once fully
+   * loaded.
+   *
+   * @param terrainConfiguration
+   *          configuration of the terrain source
+   * @param textureConfigurations
+   *          configurations of all texture and normal map sources
+   * @param buildConfig
+   *          clipmap sizes and counts to use
+   * @param cacheBufferSize
+   *          the cache buffer size to estimate for
+   * @return the estimated number of bytes.
+   */
+  public static long estimateCacheMemoryUsage(final TerrainConfiguration terrainConfiguration,
+      final List<TextureConfiguration> textureConfigurations, final BuildConfiguration buildConfig,
+      final int cacheBufferSize) {
+    final int terrainLevels =
+        Math.min(terrainConfiguration.getTotalNrClipmapLevels(), buildConfig.clipmapTerrainCount);
+    final int terrainTileSize = terrainConfiguration.getCacheGridSize();
+    final int terrainCacheSize = computeCacheSize(buildConfig.clipmapTerrainSize, terrainTileSize, cacheBufferSize);
+    long bytes = terrainLevels * TerrainGridCache.estimateMemoryUsage(terrainCacheSize, terrainTileSize);
+
+    for (final TextureConfiguration textureConfiguration : textureConfigurations) {
+      final int textureLevels =
+          Math.min(textureConfiguration.getTotalNrClipmapLevels(), buildConfig.clipmapTextureCount);
+      final int textureTileSize = textureConfiguration.getCacheGridSize();
+      final int textureCacheSize =
+          computeCacheSize(buildConfig.clipmapTextureSize, textureTileSize, cacheBufferSize);
+      bytes += textureLevels
+          * TextureGridCache.estimateMemoryUsage(textureCacheSize, textureTileSize, textureConfiguration.isUseAlpha());
+    }
+    return bytes;
+  }
+
+  /**
+   * @return the number of tiles along one side of a cache feeding a clipmap of the given size. This is
+   *         always odd, so the cache has a center tile.
+   */
+  public static int computeCacheSize(final int clipmapSize, final int tileSize, final int cacheBufferSize) {
+    int cacheSize = (clipmapSize + 1) / tileSize + cacheBufferSize;
+    // make sure cacheSize is odd.
+    cacheSize += cacheSize & 1 ^ 1;
+    return cacheSize;
+  }
+
   public static Terrain buildTerrainSystem(final TerrainSource terrainSource, final BuildConfiguration buildConfig)
       throws Exception {
     final TerrainConfiguration terrainConfiguration = terrainSource.getConfiguration();
@@ -141,9 +306,7 @@ public class TerrainBuilder {
 
     final int tileSize = terrainConfiguration.getCacheGridSize();
 
-    int cacheSize = (buildConfig.clipmapTerrainSize + 1) / tileSize + buildConfig.cacheBufferSize;
-    // make sure cacheSize is odd.
-    cacheSize += cacheSize & 1 ^ 1;
+    final int cacheSize = computeCacheSize(buildConfig.clipmapTerrainSize, tileSize, buildConfig.cacheBufferSize);
 
     logger.fine("server clipmapLevels: " + clipmapLevels);
 
@@ -195,9 +358,7 @@ public class TerrainBuilder {
 
     final int tileSize = textureConfiguration.getCacheGridSize();
 
-    int cacheSize = (buildConfig.clipmapTextureSize + 1) / tileSize + buildConfig.cacheBufferSize;
-    // make sure cacheSize is odd.
-    cacheSize += cacheSize & 1 ^ 1;
+    final int cacheSize = computeCacheSize(buildConfig.clipmapTextureSize, tileSize, buildConfig.cacheBufferSize);
 
     logger.fine("server clipmapLevels: " + clipmapLevels);
 
@@ -243,6 +404,12 @@ public class TerrainBuilder {
     public TerrainDataProvider terrainDataProvider;
     public Camera camera;
     public ExecutorService tileThreadService;
+    /** If not null, clipmap vertex updates are prepared on this executor. */
+    public ExecutorService vertexThreadService;
+    /** If true, terrain levels are displaced on the GPU using a height texture. */
+    public boolean gpuDisplacement = false;
+    /** If positive, the cache buffer size is chosen so terrain caches fit in this many bytes. */
+    public long cacheMemoryBudget = 0;
 
     public int cacheBufferSize = 4;
     public int clipmapTerrainCount = 20;
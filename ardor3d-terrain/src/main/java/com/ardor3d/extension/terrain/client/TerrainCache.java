@@ -55,6 +55,27 @@ public interface TerrainCache {
    */
   float getSubHeight(float x, float z, boolean tryParentCache);
 
+  /**
+   * Bulk version of {@link #getSubHeight(float, float, boolean)}. Implementations may use this to
+   * avoid repeating per-call lookups for runs of positions that fall in the same tile.
+   *
+   * @param xs
+   *          local, fractional x positions
+   * @param zs
+   *          local, fractional z positions
+   * @param store
+   *          receives the height for each position
+   * @param count
+   *          number of positions to process
+   * @param tryParentCache
+   */
+  default void getSubHeights(final float[] xs, final float[] zs, final float[] store, final int count,
+      final boolean tryParentCache) {
+    for (int i = 0; i < count; i++) {
+      store[i] = getSubHeight(xs[i], zs[i], tryParentCache);
+    }
+  }
+
   /**
    * Update destinationData from cache in specified region
    *
@@ -66,6 +87,23 @@ public interface TerrainCache {
    */
   void updateRegion(FloatBuffer destinationData, int sourceX, int sourceY, int width, int height);
 
+  /**
+   * Write the vertex data for the specified region into a plain array, row by row, using the same
+   * {@link ClipmapLevel#VERT_SIZE} components per vertex as
+   * {@link #updateRegion(FloatBuffer, int, int, int, int)}. Unlike updateRegion, this does not touch
+   * any buffer shared with the renderer, so it may be called from worker threads.
+   *
+   * @param store
+   *          destination array
+   * @param offset
+   *          index in store to write the first vertex to
+   * @param sourceX
+   * @param sourceY
+   * @param width
+   * @param height
+   */
+  void fillRegion(float[] store, int offset, int sourceX, int sourceY, int width, int height);
+
   void getEyeCoords(float[] destinationData, int sourceX, int sourceY, ReadOnlyVector3 eyePos);
 
   boolean isValid();
@@ -17,6 +17,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.ardor3d.extension.terrain.util.HeightQuadTree;
 import com.ardor3d.extension.terrain.util.Tile;
 import com.ardor3d.math.type.ReadOnlyVector3;
 import com.ardor3d.math.util.MathUtils;
@@ -36,6 +37,12 @@ public class TerrainGridCache extends AbstractGridCache implements TerrainCache
 
   private final float heightScale;
 
+  /** Min/max height trees, one per cache slot, rebuilt whenever a tile is loaded into that slot. */
+  protected final HeightQuadTree[][] heightTrees;
+
+  /** Scratch space for scaling tile heights before building a height tree, per loader thread. */
+  private final ThreadLocal<float[]> scaledTileStore;
+
   public TerrainGridCache(final TerrainCache parentCache, final int cacheSize, final TerrainSource source,
     final int tileSize, final int destinationSize, final TerrainConfiguration terrainConfiguration,
     final int meshClipIndex, final int dataClipIndex, final ExecutorService tileThreadService) {
@@ -47,6 +54,8 @@ public class TerrainGridCache extends AbstractGridCache implements TerrainCache
     this.terrainConfiguration = terrainConfiguration;
 
     data = new float[dataSize * dataSize];
+    heightTrees = new HeightQuadTree[cacheSize][cacheSize];
+    scaledTileStore = ThreadLocal.withInitial(() -> new float[tileSize * tileSize]);
   }
 
   @Override
@@ -87,9 +96,75 @@ public class TerrainGridCache extends AbstractGridCache implements TerrainCache
     for (int y = 0; y < tileSize; y++) {
       System.arraycopy(sourceData, y * tileSize, data, offset + y * dataSize, tileSize);
     }
+
+    buildHeightTree(sourceData, destX, destY);
     return State.finished;
   }
 
+  @Override
+  public long getMemoryUsage() {
+    long bytes = (long) data.length * Float.BYTES;
+    for (final HeightQuadTree[] column : heightTrees) {
+      for (final HeightQuadTree tree : column) {
+        if (tree != null) {
+          bytes += tree.getMemoryUsage();
+        }
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * @param cacheSize
+   *          number of tiles along one side of the cache
+   * @param tileSize
+   *          number of samples along one side of a tile
+   * @return the number of bytes a fully loaded cache of the given dimensions holds.
+   */
+  public static long estimateMemoryUsage(final int cacheSize, final int tileSize) {
+    final long dataSize = (long) cacheSize * tileSize;
+    return dataSize * dataSize * Float.BYTES
+        + (long) cacheSize * cacheSize * HeightQuadTree.estimateMemoryUsage(tileSize);
+  }
+
+  /**
+   * Rebuild the min/max height tree for the given cache slot. Called from tile loader threads while
+   * the slot is marked invalid.
+   */
+  protected void buildHeightTree(final float[] sourceData, final int destX, final int destY) {
+    final float[] scaled = scaledTileStore.get();
+    for (int i = 0, max = tileSize * tileSize; i < max; i++) {
+      scaled[i] = toHeight(sourceData[i]);
+    }
+
+    // Edge cells may be completed by neighbor tiles or parent data, so bound them by any height we
+    // could possibly hand out.
+    final float min = terrainConfiguration.getHeightRangeMin();
+    final float max = terrainConfiguration.getHeightRangeMax();
+    final float edgeMin = Math.min(min, Math.min(min * heightScale, max * heightScale));
+    final float edgeMax = Math.max(min, Math.max(min * heightScale, max * heightScale));
+
+    HeightQuadTree tree = heightTrees[destX][destY];
+    if (tree == null) {
+      tree = new HeightQuadTree(tileSize);
+      heightTrees[destX][destY] = tree;
+    }
+    tree.build(scaled, 0, tileSize, edgeMin, edgeMax);
+  }
+
+  /**
+   * Convert a raw source sample to a final height, the same way {@link #getHeight(int, int, boolean)}
+   * does.
+   */
+  private float toHeight(final float raw) {
+    final float min = terrainConfiguration.getHeightRangeMin();
+    final float max = terrainConfiguration.getHeightRangeMax();
+    if (raw < min || raw > max) {
+      return min;
+    }
+    return raw * heightScale;
+  }
+
   @Override
   protected Set<Tile> getValidTilesFromSource(final int tileX, final int tileY, final int numTilesX,
       final int numTilesY) {
@@ -140,14 +215,7 @@ public class TerrainGridCache extends AbstractGridCache implements TerrainCache
       final int dataX = MathUtils.moduloPositive(x, dataSize);
       final int dataY = MathUtils.moduloPositive(z, dataSize);
 
-      final float min = terrainConfiguration.getHeightRangeMin();
-      final float max = terrainConfiguration.getHeightRangeMax();
-      final float height = data[dataY * dataSize + dataX];
-      if (height < min || height > max) {
-        return min;
-      }
-
-      return height * heightScale;
+      return toHeight(data[dataY * dataSize + dataX]);
     }
   }
 
@@ -180,6 +248,293 @@ public class TerrainGridCache extends AbstractGridCache implements TerrainCache
     }
   }
 
+  @Override
+  public void getSubHeights(final float[] xs, final float[] zs, final float[] store, final int count,
+      final boolean tryParentCache) {
+    final int lastCell = tileSize - 1;
+    int currentTileX = Integer.MIN_VALUE, currentTileY = Integer.MIN_VALUE;
+    CacheData slot = null;
+    int stamp = 0;
+    boolean slotUsable = false;
+
+    for (int i = 0; i < count; i++) {
+      final float x = xs[i];
+      final float z = zs[i];
+      final int col = MathUtils.floor(x);
+      final int row = MathUtils.floor(z);
+      final int tileX = Math.floorDiv(col, tileSize);
+      final int tileY = Math.floorDiv(row, tileSize);
+
+      // Only cells fully inside a single valid tile can be read directly. Everything else takes the
+      // regular path, which knows how to go to neighbors and the parent cache.
+      if (tileX != currentTileX || tileY != currentTileY) {
+        currentTileX = tileX;
+        currentTileY = tileY;
+        slot = getCacheSlot(tileX, tileY);
+        stamp = slot.getStamp();
+        slotUsable = slot.isValid && slot.validX == tileX && slot.validY == tileY;
+      }
+
+      if (!slotUsable || col - tileX * tileSize >= lastCell || row - tileY * tileSize >= lastCell) {
+        store[i] = getSubHeight(x, z, tryParentCache);
+        continue;
+      }
+
+      final int index = MathUtils.moduloPositive(row, dataSize) * dataSize + MathUtils.moduloPositive(col, dataSize);
+      final double topLeft = toHeight(data[index]);
+      final double topRight = toHeight(data[index + 1]);
+      final double bottomLeft = toHeight(data[index + dataSize]);
+      final double bottomRight = toHeight(data[index + dataSize + 1]);
+
+      if (!slot.isUnchanged(stamp)) {
+        // tile was swapped out while we read it.
+        slotUsable = false;
+        store[i] = getSubHeight(x, z, tryParentCache);
+        continue;
+      }
+
+      final double intOnX = x - col;
+      final double intOnZ = z - row;
+      store[i] = (float) MathUtils.lerp(intOnZ, MathUtils.lerp(intOnX, topLeft, topRight),
+          MathUtils.lerp(intOnX, bottomLeft, bottomRight));
+    }
+  }
+
+  /**
+   * Find the first intersection of a ray with the terrain surface held in this cache, using the per
+   * tile min/max height trees to skip over empty space. Tiles along the ray that are not loaded are
+   * searched in the parent cache instead, if there is one. Safe to call from any thread while tiles
+   * are loading; tiles that are swapped out mid-search are treated as not loaded.
+   * <p>
+   * The ray is given in this level's grid space: x and z in sample units of this level, y in height
+   * units as returned by {@link #getHeight(int, int, boolean)}.
+   * </p>
+   *
+   * @param ox
+   *          ray origin x
+   * @param oy
+   *          ray origin y
+   * @param oz
+   *          ray origin z
+   * @param dx
+   *          ray direction x
+   * @param dy
+   *          ray direction y
+   * @param dz
+   *          ray direction z
+   * @param tMin
+   *          start of the ray interval to search
+   * @param tMax
+   *          end of the ray interval to search
+   * @param normalStore
+   *          if not null and a hit is found, receives the grid space surface normal (unnormalized) as
+   *          x, y, z in the first 3 entries.
+   * @return the ray parameter of the nearest hit in [tMin, tMax] within our cache area, or a negative
+   *         value if there is none.
+   */
+  public double intersectRay(final double ox, final double oy, final double oz, final double dx, final double dy,
+      final double dz, final double tMin, final double tMax, final double[] normalStore) {
+    // clip the interval to our cache area
+    final double areaMinX = (double) (backCurrentTileX - cacheSize / 2) * tileSize;
+    final double areaMinZ = (double) (backCurrentTileY - cacheSize / 2) * tileSize;
+    double start = tMin, end = Math.min(tMax, getCacheAreaExit(ox, oz, dx, dz));
+    if (dx != 0) {
+      final double a = (areaMinX - ox) / dx, b = (areaMinX + dataSize - ox) / dx;
+      start = Math.max(start, Math.min(a, b));
+    } else if (ox < areaMinX || ox > areaMinX + dataSize) {
+      return -1;
+    }
+    if (dz != 0) {
+      final double a = (areaMinZ - oz) / dz, b = (areaMinZ + dataSize - oz) / dz;
+      start = Math.max(start, Math.min(a, b));
+    } else if (oz < areaMinZ || oz > areaMinZ + dataSize) {
+      return -1;
+    }
+    if (!(start <= end)) {
+      return -1;
+    }
+
+    final TileRayCaster caster = new TileRayCaster(ox, oy, oz, dx, dy, dz);
+
+    // walk the tiles along the ray
+    final double startX = ox + dx * start, startZ = oz + dz * start;
+    int tileX = (int) Math.floor(startX / tileSize);
+    int tileY = (int) Math.floor(startZ / tileSize);
+    final int stepX = dx > 0 ? 1 : dx < 0 ? -1 : 0;
+    final int stepY = dz > 0 ? 1 : dz < 0 ? -1 : 0;
+    final double deltaX = stepX != 0 ? tileSize / Math.abs(dx) : Double.POSITIVE_INFINITY;
+    final double deltaY = stepY != 0 ? tileSize / Math.abs(dz) : Double.POSITIVE_INFINITY;
+    double nextX = stepX != 0 ? ((tileX + (stepX > 0 ? 1 : 0)) * (double) tileSize - ox) / dx
+        : Double.POSITIVE_INFINITY;
+    double nextY = stepY != 0 ? ((tileY + (stepY > 0 ? 1 : 0)) * (double) tileSize - oz) / dz
+        : Double.POSITIVE_INFINITY;
+
+    double tileStart = start;
+    while (tileStart <= end) {
+      final double tileEnd = Math.min(end, Math.min(nextX, nextY));
+
+      final double hit = intersectTile(caster, tileX, tileY, tileStart, tileEnd, normalStore);
+      if (hit >= 0) {
+        return hit;
+      }
+
+      if (nextX < nextY) {
+        tileX += stepX;
+        tileStart = nextX;
+        nextX += deltaX;
+      } else if (stepY != 0) {
+        tileY += stepY;
+        tileStart = nextY;
+        nextY += deltaY;
+      } else {
+        break;
+      }
+    }
+
+    return -1;
+  }
+
+  /**
+   * @return the ray parameter at which a ray, given in this level's grid space, leaves our cache area
+   *         in x/z. May be infinite for rays parallel to an axis.
+   */
+  public double getCacheAreaExit(final double ox, final double oz, final double dx, final double dz) {
+    final double areaMinX = (double) (backCurrentTileX - cacheSize / 2) * tileSize;
+    final double areaMinZ = (double) (backCurrentTileY - cacheSize / 2) * tileSize;
+    double exit = Double.POSITIVE_INFINITY;
+    if (dx != 0) {
+      exit = Math.min(exit, Math.max((areaMinX - ox) / dx, (areaMinX + dataSize - ox) / dx));
+    }
+    if (dz != 0) {
+      exit = Math.min(exit, Math.max((areaMinZ - oz) / dz, (areaMinZ + dataSize - oz) / dz));
+    }
+    return exit;
+  }
+
+  private double intersectTile(final TileRayCaster caster, final int tileX, final int tileY, final double tMin,
+      final double tMax, final double[] normalStore) {
+    final CacheData slot = getCacheSlot(tileX, tileY);
+    final int stamp = slot.getStamp();
+    final HeightQuadTree tree =
+        heightTrees[MathUtils.moduloPositive(tileX, cacheSize)][MathUtils.moduloPositive(tileY, cacheSize)];
+
+    if (slot.isValid && slot.validX == tileX && slot.validY == tileY && tree != null) {
+      final int baseX = tileX * tileSize;
+      final int baseZ = tileY * tileSize;
+      caster.setTile(baseX, baseZ, MathUtils.moduloPositive(baseZ, dataSize) * dataSize
+          + MathUtils.moduloPositive(baseX, dataSize));
+      final double hit = tree.traverse(caster.ox - baseX, caster.oy, caster.oz - baseZ, caster.dx, caster.dy,
+          caster.dz, tMin, tMax, caster);
+      if (slot.isUnchanged(stamp)) {
+        if (hit >= 0 && normalStore != null) {
+          normalStore[0] = caster.nx;
+          normalStore[1] = caster.ny;
+          normalStore[2] = caster.nz;
+        }
+        return hit;
+      }
+    }
+
+    // No usable data here, so look in our parent for this stretch of the ray.
+    if (parentCache instanceof final TerrainGridCache parent) {
+      final double hit = parent.intersectRay(caster.ox * 0.5, caster.oy, caster.oz * 0.5, caster.dx * 0.5, caster.dy,
+          caster.dz * 0.5, tMin, tMax, normalStore);
+      if (hit >= 0 && normalStore != null) {
+        // bring the normal from parent grid space into ours
+        normalStore[0] *= 0.5;
+        normalStore[2] *= 0.5;
+      }
+      return hit;
+    }
+    return -1;
+  }
+
+  /**
+   * Tests ray against the two triangles of candidate cells handed out by a tile's height tree.
+   */
+  private final class TileRayCaster implements HeightQuadTree.CellVisitor {
+    final double ox, oy, oz, dx, dy, dz;
+    double nx, ny, nz;
+    private int baseX, baseZ, dataOffset;
+
+    TileRayCaster(final double ox, final double oy, final double oz, final double dx, final double dy,
+      final double dz) {
+      this.ox = ox;
+      this.oy = oy;
+      this.oz = oz;
+      this.dx = dx;
+      this.dy = dy;
+      this.dz = dz;
+    }
+
+    void setTile(final int baseX, final int baseZ, final int dataOffset) {
+      this.baseX = baseX;
+      this.baseZ = baseZ;
+      this.dataOffset = dataOffset;
+    }
+
+    @Override
+    public double visitCell(final int cellX, final int cellZ, final double tMin, final double tMax) {
+      final int x = baseX + cellX, z = baseZ + cellZ;
+      final double h1, h2, h3, h4;
+      if (cellX < tileSize - 1 && cellZ < tileSize - 1) {
+        final int index = dataOffset + cellZ * dataSize + cellX;
+        h1 = toHeight(data[index]);
+        h2 = toHeight(data[index + 1]);
+        h3 = toHeight(data[index + dataSize]);
+        h4 = toHeight(data[index + dataSize + 1]);
+      } else {
+        h1 = getHeight(x, z, true);
+        h2 = getHeight(x + 1, z, true);
+        h3 = getHeight(x, z + 1, true);
+        h4 = getHeight(x + 1, z + 1, true);
+      }
+
+      // same triangulation as the clipmap picker: (h1, h3, h2) and (h2, h3, h4)
+      double t = intersectTriangle(x, h1, z, x, h3, z + 1, x + 1, h2, z);
+      if (t >= tMin && t <= tMax) {
+        nx = h1 - h2;
+        ny = 1;
+        nz = h1 - h3;
+        return t;
+      }
+      t = intersectTriangle(x + 1, h2, z, x, h3, z + 1, x + 1, h4, z + 1);
+      if (t >= tMin && t <= tMax) {
+        nx = h3 - h4;
+        ny = 1;
+        nz = h2 - h4;
+        return t;
+      }
+      return -1;
+    }
+
+    /**
+     * Moller-Trumbore ray/triangle test, double sided.
+     */
+    private double intersectTriangle(final double ax, final double ay, final double az, final double bx,
+        final double by, final double bz, final double cx, final double cy, final double cz) {
+      final double e1x = bx - ax, e1y = by - ay, e1z = bz - az;
+      final double e2x = cx - ax, e2y = cy - ay, e2z = cz - az;
+      final double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+      final double det = e1x * px + e1y * py + e1z * pz;
+      if (Math.abs(det) < MathUtils.EPSILON) {
+        return -1;
+      }
+      final double invDet = 1.0 / det;
+      final double sx = ox - ax, sy = oy - ay, sz = oz - az;
+      final double u = (sx * px + sy * py + sz * pz) * invDet;
+      if (u < 0 || u > 1) {
+        return -1;
+      }
+      final double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+      final double v = (dx * qx + dy * qy + dz * qz) * invDet;
+      if (v < 0 || u + v > 1) {
+        return -1;
+      }
+      return (e2x * qx + e2y * qy + e2z * qz) * invDet;
+    }
+  }
+
   @Override
   public void getEyeCoords(final float[] destinationData, final int sourceX, final int sourceY,
       final ReadOnlyVector3 eyePos) {
@@ -234,52 +589,74 @@ public class TerrainGridCache extends AbstractGridCache implements TerrainCache
   @Override
   public void updateRegion(final FloatBuffer destinationData, final int sourceX, final int sourceY, final int width,
       final int height) {
+    final float[] vertex = new float[ClipmapLevel.VERT_SIZE];
     for (int z = 0; z < height; z++) {
       final int currentZ = sourceY + z;
       for (int x = 0; x < width; x++) {
         final int currentX = sourceX + x;
 
-        final float cacheHeight = getHeight(currentX, currentZ, true);
-
         final int destX = MathUtils.moduloPositive(currentX, destinationSize);
         final int destY = MathUtils.moduloPositive(currentZ, destinationSize);
         final int indexDest = (destY * destinationSize + destX) * ClipmapLevel.VERT_SIZE;
 
-        destinationData.put(indexDest + 0, currentX * vertexDistance); // x
-        destinationData.put(indexDest + 1, cacheHeight); // y
-        destinationData.put(indexDest + 2, currentZ * vertexDistance); // z
+        computeVertex(currentX, currentZ, vertex, 0);
+        destinationData.put(indexDest, vertex);
+      }
+    }
+  }
 
-        if (parentCache == null) {
-          destinationData.put(indexDest + 3, cacheHeight); // w
-        } else {
-          final int coarseX1 = (currentX < 0 ? currentX - 1 : currentX) / 2;
-          int coarseZ1 = (currentZ < 0 ? currentZ - 1 : currentZ) / 2;
+  @Override
+  public void fillRegion(final float[] store, final int offset, final int sourceX, final int sourceY,
+      final int width, final int height) {
+    int index = offset;
+    for (int z = 0; z < height; z++) {
+      final int currentZ = sourceY + z;
+      for (int x = 0; x < width; x++) {
+        computeVertex(sourceX + x, currentZ, store, index);
+        index += ClipmapLevel.VERT_SIZE;
+      }
+    }
+  }
 
-          final boolean onGridX = currentX % 2 == 0;
-          final boolean onGridZ = currentZ % 2 == 0;
+  /**
+   * Compute the clipmap vertex (x, height, z, coarser height) for a given grid position.
+   */
+  private void computeVertex(final int currentX, final int currentZ, final float[] store, final int index) {
+    final float cacheHeight = getHeight(currentX, currentZ, true);
 
-          if (onGridX && onGridZ) {
-            final float coarseHeight = parentCache.getHeight(coarseX1, coarseZ1, true);
-            destinationData.put(indexDest + 3, coarseHeight); // w
-          } else {
-            int coarseX2 = coarseX1;
-            int coarseZ2 = coarseZ1;
-            if (!onGridX && onGridZ) {
-              coarseX2++;
-            } else if (onGridX && !onGridZ) {
-              coarseZ2++;
-            } else if (!onGridX && !onGridZ) {
-              coarseX2++;
-              coarseZ1++;
-            }
+    store[index + 0] = currentX * vertexDistance; // x
+    store[index + 1] = cacheHeight; // y
+    store[index + 2] = currentZ * vertexDistance; // z
 
-            final float coarser1 = parentCache.getHeight(coarseX1, coarseZ1, true);
-            final float coarser2 = parentCache.getHeight(coarseX2, coarseZ2, true);
+    if (parentCache == null) {
+      store[index + 3] = cacheHeight; // w
+    } else {
+      final int coarseX1 = (currentX < 0 ? currentX - 1 : currentX) / 2;
+      int coarseZ1 = (currentZ < 0 ? currentZ - 1 : currentZ) / 2;
 
-            // Apply the median of the coarser heightvalues to the W value
-            destinationData.put(indexDest + 3, (coarser1 + coarser2) * 0.5f); // w
-          }
+      final boolean onGridX = currentX % 2 == 0;
+      final boolean onGridZ = currentZ % 2 == 0;
+
+      if (onGridX && onGridZ) {
+        final float coarseHeight = parentCache.getHeight(coarseX1, coarseZ1, true);
+        store[index + 3] = coarseHeight; // w
+      } else {
+        int coarseX2 = coarseX1;
+        int coarseZ2 = coarseZ1;
+        if (!onGridX && onGridZ) {
+          coarseX2++;
+        } else if (onGridX && !onGridZ) {
+          coarseZ2++;
+        } else if (!onGridX && !onGridZ) {
+          coarseX2++;
+          coarseZ1++;
         }
+
+        final float coarser1 = parentCache.getHeight(coarseX1, coarseZ1, true);
+        final float coarser2 = parentCache.getHeight(coarseX2, coarseZ2, true);
+
+        // Apply the median of the coarser heightvalues to the W value
+        store[index + 3] = (coarser1 + coarser2) * 0.5f; // w
       }
     }
   }
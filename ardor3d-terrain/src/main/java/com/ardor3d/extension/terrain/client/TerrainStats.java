@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) 2008-2024 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.terrain.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ardor3d.extension.terrain.client.AbstractGridCache.State;
+import com.ardor3d.util.stat.StatCollector;
+import com.ardor3d.util.stat.StatType;
+
+/**
+ * {@link StatType}s for terrain, along with helpers to gather cache memory and tile loading numbers
+ * from a {@link Terrain}. Gauges - bytes held and tiles in flight - are published once per terrain
+ * update by {@link #publish(Terrain)}. Events - tile loads, cancellations and failures - are
+ * published by each cache's {@link GridCacheStats} as they happen.
+ */
+public final class TerrainStats {
+
+  /** Bytes held by the geometry caches of all levels. */
+  public static final StatType STAT_TERRAIN_CACHE_BYTES = new StatType("_terrainCacheBytes");
+  /** Bytes held by the texture and normal map caches of all levels. */
+  public static final StatType STAT_TEXTURE_CACHE_BYTES = new StatType("_terrainTextureCacheBytes");
+  /** Tiles waiting to be loaded, including those requeued because their source was not ready. */
+  public static final StatType STAT_TILES_QUEUED = new StatType("_terrainTilesQueued");
+  /** Tiles currently being loaded. */
+  public static final StatType STAT_TILES_LOADING = new StatType("_terrainTilesLoading");
+  /** Tiles dropped before they finished loading. */
+  public static final StatType STAT_TILES_CANCELLED = new StatType("_terrainTilesCancelled");
+  /** Tiles whose source reported an error. */
+  public static final StatType STAT_TILES_FAILED = new StatType("_terrainTilesFailed");
+  /** Milliseconds from first request to arrival of loaded tiles. */
+  public static final StatType STAT_TILE_LOAD_TIME = new StatType("_terrainTileLoadTime");
+
+  private static final List<StatType> levelBytesTypes = new ArrayList<>();
+
+  private TerrainStats() {}
+
+  /**
+   * @param level
+   *          a clipmap level
+   * @return the stat type for bytes held by all caches - geometry and texture - of the given level.
+   */
+  public static StatType getLevelBytesType(final int level) {
+    synchronized (levelBytesTypes) {
+      while (levelBytesTypes.size() <= level) {
+        levelBytesTypes.add(new StatType("_terrainLevelBytes" + levelBytesTypes.size()));
+      }
+      return levelBytesTypes.get(level);
+    }
+  }
+
+  /**
+   * Publish the current memory and tile queue gauges of a terrain to the {@link StatCollector}.
+   *
+   * @param terrain
+   *          the terrain to measure
+   */
+  public static void publish(final Terrain terrain) {
+    long geometryBytes = 0;
+    long textureBytes = 0;
+    final int levels = terrain.getClipmaps().size();
+    for (int i = 0; i < levels; i++) {
+      final long levelGeometry = getGeometryMemoryUsage(terrain, i);
+      final long levelTexture = getTextureMemoryUsage(terrain, i);
+      geometryBytes += levelGeometry;
+      textureBytes += levelTexture;
+      StatCollector.addStat(getLevelBytesType(i), levelGeometry + levelTexture);
+    }
+    StatCollector.addStat(STAT_TERRAIN_CACHE_BYTES, geometryBytes);
+    StatCollector.addStat(STAT_TEXTURE_CACHE_BYTES, textureBytes);
+
+    final int[] counts = getTileStateCounts(terrain);
+    StatCollector.addStat(STAT_TILES_QUEUED, counts[State.init.ordinal()] + counts[State.requeue.ordinal()]);
+    StatCollector.addStat(STAT_TILES_LOADING, counts[State.loading.ordinal()]);
+  }
+
+  /**
+   * @param terrain
+   *          the terrain to measure
+   * @return the number of bytes held by all geometry, texture and normal map caches of the terrain.
+   */
+  public static long getMemoryUsage(final Terrain terrain) {
+    long bytes = 0;
+    for (final AbstractGridCache cache : getCaches(terrain)) {
+      bytes += cache.getMemoryUsage();
+    }
+    return bytes;
+  }
+
+  /**
+   * @param terrain
+   *          the terrain to measure
+   * @param level
+   *          a clipmap level, 0 being the finest
+   * @return the number of bytes held by the geometry cache of the given level.
+   */
+  public static long getGeometryMemoryUsage(final Terrain terrain, final int level) {
+    final List<ClipmapLevel> clips = terrain.getClipmaps();
+    if (level < clips.size() && clips.get(level).getCache() instanceof final AbstractGridCache cache) {
+      return cache.getMemoryUsage();
+    }
+    return 0;
+  }
+
+  /**
+   * @param terrain
+   *          the terrain to measure
+   * @param level
+   *          a clipmap level, 0 being the finest
+   * @return the number of bytes held by the texture and normal map caches of the given level.
+   */
+  public static long getTextureMemoryUsage(final Terrain terrain, final int level) {
+    // called for every level each frame, so sum in place rather than gathering the clipmaps first
+    long bytes = 0;
+    synchronized (terrain.getTextureClipmaps()) {
+      for (final TextureClipmap textureClipmap : terrain.getTextureClipmaps()) {
+        bytes += getTextureMemoryUsage(textureClipmap, level);
+      }
+    }
+    if (terrain.getNormalClipmap() != null) {
+      bytes += getTextureMemoryUsage(terrain.getNormalClipmap(), level);
+    }
+    return bytes;
+  }
+
+  private static long getTextureMemoryUsage(final TextureClipmap textureClipmap, final int level) {
+    final List<TextureCache> caches = textureClipmap.getCacheList();
+    if (level < caches.size() && caches.get(level) instanceof final AbstractGridCache cache) {
+      return cache.getMemoryUsage();
+    }
+    return 0;
+  }
+
+  /**
+   * @param terrain
+   *          the terrain to inspect
+   * @return the number of tiles, over all caches of the terrain, in each loading state, indexed by
+   *         {@link State#ordinal()}.
+   */
+  public static int[] getTileStateCounts(final Terrain terrain) {
+    final int[] totals = new int[State.values().length];
+    final int[] counts = new int[totals.length];
+    for (final AbstractGridCache cache : getCaches(terrain)) {
+      cache.getTileStateCounts(counts);
+      for (int i = 0; i < totals.length; i++) {
+        totals[i] += counts[i];
+      }
+    }
+    return totals;
+  }
+
+  /**
+   * @param terrain
+   *          the terrain to inspect
+   * @return all grid caches - geometry, texture and normal map - used by the terrain.
+   */
+  public static List<AbstractGridCache> getCaches(final Terrain terrain) {
+    final List<AbstractGridCache> caches = new ArrayList<>();
+    for (final ClipmapLevel clip : terrain.getClipmaps()) {
+      if (clip.getCache() instanceof final AbstractGridCache cache) {
+        caches.add(cache);
+      }
+    }
+    synchronized (terrain.getTextureClipmaps()) {
+      for (final TextureClipmap textureClipmap : terrain.getTextureClipmaps()) {
+        addTextureCaches(textureClipmap, caches);
+      }
+    }
+    if (terrain.getNormalClipmap() != null) {
+      addTextureCaches(terrain.getNormalClipmap(), caches);
+    }
+    return caches;
+  }
+
+  private static void addTextureCaches(final TextureClipmap textureClipmap, final List<AbstractGridCache> store) {
+    for (final TextureCache textureCache : textureClipmap.getCacheList()) {
+      if (textureCache instanceof final AbstractGridCache cache) {
+        store.add(cache);
+      }
+    }
+  }
+}
@@ -98,6 +98,23 @@ public class TextureGridCache extends AbstractGridCache implements TextureCache
     return State.finished;
   }
 
+  @Override
+  public long getMemoryUsage() { return data.length; }
+
+  /**
+   * @param cacheSize
+   *          number of tiles along one side of the cache
+   * @param tileSize
+   *          number of texels along one side of a tile
+   * @param useAlpha
+   *          true if the cache stores an alpha channel
+   * @return the number of bytes a cache of the given dimensions holds.
+   */
+  public static long estimateMemoryUsage(final int cacheSize, final int tileSize, final boolean useAlpha) {
+    final long dataSize = (long) cacheSize * tileSize;
+    return dataSize * dataSize * (useAlpha ? 4 : 3);
+  }
+
   @Override
   protected Set<Tile> getValidTilesFromSource(final int tileX, final int tileY, final int numTilesX,
       final int numTilesY) {
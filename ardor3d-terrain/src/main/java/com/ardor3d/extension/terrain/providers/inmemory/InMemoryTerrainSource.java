@@ -99,19 +99,17 @@ public class InMemoryTerrainSource implements TerrainSource {
 
     final int baseClipmapLevel = availableClipmapLevels - clipmapLevel - 1;
 
-    final int levelSize = 1 << baseClipmapLevel;
-
-    final int size = inMemoryTerrainData.getSide();
-
-    final float[] heightData = inMemoryTerrainData.getHeightData();
+    // read from the height pyramid, which holds every sample of this level in a row
+    final float[] heightData = inMemoryTerrainData.getLevelHeights(baseClipmapLevel);
+    final int size = inMemoryTerrainData.getLevelSide(baseClipmapLevel);
 
     final float[] data = new float[tileSize * tileSize];
     for (int y = 0; y < tileSize; y++) {
       for (int x = 0; x < tileSize; x++) {
         final int index = x + y * tileSize;
 
-        final int heightX = (tileX * tileSize + x) * levelSize;
-        final int heightY = (tileY * tileSize + y) * levelSize;
+        final int heightX = tileX * tileSize + x;
+        final int heightY = tileY * tileSize + y;
         data[index] = getHeight(heightData, size, heightX, heightY);
       }
     }
@@ -22,8 +22,43 @@ import com.ardor3d.math.functions.Functions;
 import com.ardor3d.math.type.ReadOnlyVector3;
 import com.ardor3d.math.util.MathUtils;
 
+/**
+ * Terrain heights and colors held in memory, for use with
+ * {@link com.ardor3d.extension.terrain.providers.inmemory.InMemoryTerrainSource} and
+ * {@link com.ardor3d.extension.terrain.providers.inmemory.InMemoryTextureSource}.
+ * <p>
+ * Heights are kept as a pyramid with one array per clipmap level. Level 0 is {@link #getHeightData()}
+ * and each coarser level holds every other sample of the level before it, which is what the terrain
+ * source serves for that level. Edits made through {@link #editHeights(int, int, int, int, HeightBrush)},
+ * {@link #setHeights(int, int, int, int, float[])} or {@link #applyBrush(int, int, int, float, ColorRGBA)}
+ * only rewrite the pyramid samples that actually changed, and only the tiles holding those samples are
+ * marked for reload. A small edit will often not reach the coarser levels at all.
+ * </p>
+ * <p>
+ * By default every edit is made visible to the sources right away. Turn off auto commit to collect the
+ * tiles touched by any number of edits and hand them over in one go with {@link #commitEdits()}, usually
+ * once per frame, so a tile hit by several brush strokes is only reloaded once.
+ * </p>
+ */
 public class InMemoryTerrainData {
 
+  /**
+   * Computes new heights for an edit.
+   */
+  @FunctionalInterface
+  public interface HeightBrush {
+    /**
+     * @param x
+     *          sample column
+     * @param y
+     *          sample row
+     * @param height
+     *          current height of the sample
+     * @return the new height of the sample
+     */
+    float apply(int x, int y, float height);
+  }
+
   protected final float[] heightData;
   protected final byte[] colorData;
   protected final int side;
@@ -39,6 +74,17 @@ public class InMemoryTerrainData {
   protected final Set<Tile>[] updatedTerrainTiles;
   protected final Set<Tile>[] updatedTextureTiles;
 
+  /** Heights per clipmap level, finest first. Level 0 is heightData. */
+  protected final float[][] levelHeights;
+  protected final int[] levelSides;
+
+  /** Tiles touched by edits not yet committed. Guarded by editLock. */
+  protected final Set<Tile>[] pendingTerrainTiles;
+  protected final Set<Tile>[] pendingTextureTiles;
+  protected boolean autoCommit = true;
+
+  protected final Object editLock = new Object();
+
   protected ReadOnlyVector3 scale;
 
   /**
@@ -56,7 +102,6 @@ public class InMemoryTerrainData {
    * @param totalSide
    *          must be greater than 10.
    */
-  @SuppressWarnings("unchecked")
   public InMemoryTerrainData(final int totalSide, final int clipmapLevels, final int tileSize,
     final ReadOnlyVector3 scale, final FbmFunction3D sourceFunc) {
     if (totalSide < 10) {
@@ -69,12 +114,10 @@ public class InMemoryTerrainData {
     this.clipmapLevels = clipmapLevels;
     this.scale = scale;
 
-    updatedTerrainTiles = new Set[clipmapLevels];
-    updatedTextureTiles = new Set[clipmapLevels];
-    for (int i = 0; i < clipmapLevels; i++) {
-      updatedTerrainTiles[i] = new HashSet<>();
-      updatedTextureTiles[i] = new HashSet<>();
-    }
+    updatedTerrainTiles = newTileSets(clipmapLevels);
+    updatedTextureTiles = newTileSets(clipmapLevels);
+    pendingTerrainTiles = newTileSets(clipmapLevels);
+    pendingTextureTiles = newTileSets(clipmapLevels);
 
     final double procScale = 1.0 / 4000.0;
     final Function3D function = Functions.scaleInput(sourceFunc, procScale, procScale, 1);
@@ -94,6 +137,16 @@ public class InMemoryTerrainData {
         colorData[index * 4 + 3] = (byte) 1;
       }
     }
+
+    levelHeights = new float[clipmapLevels][];
+    levelSides = new int[clipmapLevels];
+    levelHeights[0] = heightData;
+    levelSides[0] = side;
+    for (int i = 1; i < clipmapLevels; i++) {
+      levelSides[i] = (side - 1 >> i) + 1;
+      levelHeights[i] = new float[levelSides[i] * levelSides[i]];
+    }
+    updatePyramid(0, 0, side - 1, side - 1);
   }
 
   public void startUpdates() {
@@ -127,23 +180,27 @@ public class InMemoryTerrainData {
             MathUtils.nextRandomFloat() * updateDelta * (MathUtils.nextRandomInt(0, 2) != 0 ? 1 : -1);
 
         // modify the terrain!
-        updateTerrain(x, y, radius, paint, offset);
-
-        // queue up an update alert for the rectangle updated
-        final int minY = Math.max(0, y - radius), maxY = Math.min(y + radius, side - 1);
-        final int minX = Math.max(0, x - radius), maxX = Math.min(x + radius, side - 1);
-        final Rectangle2 region = new Rectangle2(minX, minY, maxX - minX, maxY - minY);
-
-        // break up by clipmaplevel
-        // add to two queues since these updates are called in different threads potentially
-        addTiles(region, updatedTerrainTiles);
-        addTiles(region, updatedTextureTiles);
+        applyBrush(x, y, radius, offset, paint);
       }
     });
     t.setDaemon(true);
     t.start();
   }
 
+  @SuppressWarnings("unchecked")
+  private static Set<Tile>[] newTileSets(final int count) {
+    final Set<Tile>[] sets = (Set<Tile>[]) new Set<?>[count];
+    for (int i = 0; i < count; i++) {
+      sets[i] = new HashSet<>();
+    }
+    return sets;
+  }
+
+  /**
+   * @deprecated does not refresh the coarser height levels. Use {@link #heightsChanged(int, int, int, int)}
+   *             or {@link #colorsChanged(int, int, int, int)}.
+   */
+  @Deprecated
   protected void addTiles(final Rectangle2 bounds, final Set<Tile>[] store) {
     for (int i = 0; i < clipmapLevels; i++) {
       final double scale = 1.0 / (tileSize * MathUtils.pow2(i));
@@ -164,34 +221,242 @@ public class InMemoryTerrainData {
     }
   }
 
-  protected void updateTerrain(final int x, final int y, final int radius, final ColorRGBA paint, final float offset) {
-    float r, dr;
-    int dx, dy, index;
-    byte red, green, blue, alpha;
+  /**
+   * Raise or lower a round area of the terrain, strongest at its center and fading out towards its
+   * edge, optionally blending in a color the same way.
+   *
+   * @param x
+   *          center column
+   * @param y
+   *          center row
+   * @param radius
+   *          radius in samples
+   * @param offset
+   *          height change at the center
+   * @param paint
+   *          color to blend in, or null to leave colors alone
+   */
+  public void applyBrush(final int x, final int y, final int radius, final float offset, final ColorRGBA paint) {
+    if (radius <= 0) {
+      return;
+    }
     final int minY = Math.max(0, y - radius), maxY = Math.min(y + radius, side - 1);
     final int minX = Math.max(0, x - radius), maxX = Math.min(x + radius, side - 1);
-    for (int i = minY; i <= maxY; i++) {
-      dy = Math.abs(y - i);
-      for (int j = minX; j <= maxX; j++) {
-        dx = Math.abs(x - j);
-        r = (float) Math.sqrt(dx * dx + dy * dy);
-        if (r <= radius) {
-          dr = (radius - r) / radius;
-          index = i * side + j;
-          heightData[index] = Math.max(minHeight, Math.min(heightData[index] + dr * offset, maxHeight));
-          red = (byte) ((int) MathUtils.lerp(dr, colorData[index * 4 + 0] & 0xff, paint.getRed() * 255) & 0xff);
-          green = (byte) ((int) MathUtils.lerp(dr, colorData[index * 4 + 1] & 0xff, paint.getGreen() * 255) & 0xff);
-          blue = (byte) ((int) MathUtils.lerp(dr, colorData[index * 4 + 2] & 0xff, paint.getBlue() * 255) & 0xff);
-          alpha = (byte) ((int) MathUtils.lerp(dr, colorData[index * 4 + 3] & 0xff, paint.getAlpha() * 255) & 0xff);
-          colorData[index * 4 + 0] = red;
-          colorData[index * 4 + 1] = green;
-          colorData[index * 4 + 2] = blue;
-          colorData[index * 4 + 3] = alpha;
+
+    synchronized (editLock) {
+      editHeights(minX, minY, maxX, maxY, (j, i, height) -> {
+        final float r = (float) Math.sqrt((x - j) * (x - j) + (y - i) * (y - i));
+        return r <= radius ? height + (radius - r) / radius * offset : height;
+      });
+
+      if (paint != null) {
+        for (int i = minY; i <= maxY; i++) {
+          final int dy = Math.abs(y - i);
+          for (int j = minX; j <= maxX; j++) {
+            final int dx = Math.abs(x - j);
+            final float r = (float) Math.sqrt(dx * dx + dy * dy);
+            if (r <= radius) {
+              final float dr = (radius - r) / radius;
+              final int index = (i * side + j) * 4;
+              colorData[index + 0] = blend(dr, colorData[index + 0], paint.getRed());
+              colorData[index + 1] = blend(dr, colorData[index + 1], paint.getGreen());
+              colorData[index + 2] = blend(dr, colorData[index + 2], paint.getBlue());
+              colorData[index + 3] = blend(dr, colorData[index + 3], paint.getAlpha());
+            }
+          }
+        }
+        colorsChanged(minX, minY, maxX, maxY);
+      }
+    }
+  }
+
+  private static byte blend(final float amount, final byte current, final float target) {
+    return (byte) ((int) MathUtils.lerp(amount, current & 0xff, target * 255) & 0xff);
+  }
+
+  /**
+   * @deprecated use {@link #applyBrush(int, int, int, float, ColorRGBA)}, which also marks the touched
+   *             tiles.
+   */
+  @Deprecated
+  protected void updateTerrain(final int x, final int y, final int radius, final ColorRGBA paint, final float offset) {
+    applyBrush(x, y, radius, offset, paint);
+  }
+
+  /**
+   * Rewrite the heights of a rectangle of samples. New heights are clamped to our height range. The
+   * rectangle is clipped to the terrain.
+   *
+   * @param minX
+   *          first column, inclusive
+   * @param minY
+   *          first row, inclusive
+   * @param maxX
+   *          last column, inclusive
+   * @param maxY
+   *          last row, inclusive
+   * @param brush
+   *          called once per sample in the rectangle for its new height
+   */
+  public void editHeights(final int minX, final int minY, final int maxX, final int maxY, final HeightBrush brush) {
+    final int x0 = Math.max(0, minX), y0 = Math.max(0, minY);
+    final int x1 = Math.min(maxX, side - 1), y1 = Math.min(maxY, side - 1);
+    if (x0 > x1 || y0 > y1) {
+      return;
+    }
+
+    synchronized (editLock) {
+      for (int y = y0; y <= y1; y++) {
+        for (int x = x0; x <= x1; x++) {
+          final int index = y * side + x;
+          heightData[index] = MathUtils.clamp(brush.apply(x, y, heightData[index]), minHeight, maxHeight);
+        }
+      }
+      heightsChanged(x0, y0, x1, y1);
+    }
+  }
+
+  /**
+   * Replace the heights of a rectangle of samples. New heights are clamped to our height range.
+   *
+   * @param x
+   *          first column
+   * @param y
+   *          first row
+   * @param width
+   *          number of columns
+   * @param height
+   *          number of rows
+   * @param values
+   *          the new heights, row by row
+   */
+  public void setHeights(final int x, final int y, final int width, final int height, final float[] values) {
+    if (values.length < width * height) {
+      throw new IllegalArgumentException("values must hold at least width * height heights.");
+    }
+    editHeights(x, y, x + width - 1, y + height - 1, (col, row, current) -> values[(row - y) * width + col - x]);
+  }
+
+  /**
+   * Bring the coarser levels up to date with heights written straight into {@link #getHeightData()} and
+   * mark the touched terrain tiles. The edit methods of this class call this for you.
+   *
+   * @param minX
+   *          first changed column, inclusive
+   * @param minY
+   *          first changed row, inclusive
+   * @param maxX
+   *          last changed column, inclusive
+   * @param maxY
+   *          last changed row, inclusive
+   */
+  public void heightsChanged(final int minX, final int minY, final int maxX, final int maxY) {
+    synchronized (editLock) {
+      updatePyramid(minX, minY, maxX, maxY);
+      addTiles(minX, minY, maxX, maxY, pendingTerrainTiles);
+      if (autoCommit) {
+        commitEdits();
+      }
+    }
+  }
+
+  /**
+   * Mark the texture tiles showing a rectangle of colors written straight into {@link #getColorData()}.
+   *
+   * @param minX
+   *          first changed column, inclusive
+   * @param minY
+   *          first changed row, inclusive
+   * @param maxX
+   *          last changed column, inclusive
+   * @param maxY
+   *          last changed row, inclusive
+   */
+  public void colorsChanged(final int minX, final int minY, final int maxX, final int maxY) {
+    synchronized (editLock) {
+      addTiles(minX, minY, maxX, maxY, pendingTextureTiles);
+      if (autoCommit) {
+        commitEdits();
+      }
+    }
+  }
+
+  /**
+   * Hand the tiles touched by all edits since the last commit over to our sources for reloading.
+   */
+  public void commitEdits() {
+    synchronized (editLock) {
+      for (int i = 0; i < clipmapLevels; i++) {
+        commit(pendingTerrainTiles[i], updatedTerrainTiles[i]);
+        commit(pendingTextureTiles[i], updatedTextureTiles[i]);
+      }
+    }
+  }
+
+  private static void commit(final Set<Tile> pending, final Set<Tile> updated) {
+    if (pending.isEmpty()) {
+      return;
+    }
+    synchronized (updated) {
+      updated.addAll(pending);
+    }
+    pending.clear();
+  }
+
+  /**
+   * Copy the samples of a level 0 rectangle down the height pyramid. Only samples lying on the grid of a
+   * level are copied to it, so the work done shrinks by four with every level.
+   */
+  protected void updatePyramid(final int minX, final int minY, final int maxX, final int maxY) {
+    for (int level = 1; level < clipmapLevels; level++) {
+      final int x0 = toLevelMin(minX, level), y0 = toLevelMin(minY, level);
+      final int x1 = toLevelMax(maxX, level), y1 = toLevelMax(maxY, level);
+      if (x0 > x1 || y0 > y1) {
+        // no sample of this level or any coarser one changed
+        return;
+      }
+
+      final float[] source = levelHeights[level - 1];
+      final float[] dest = levelHeights[level];
+      final int sourceSide = levelSides[level - 1];
+      final int destSide = levelSides[level];
+      for (int y = y0; y <= y1; y++) {
+        for (int x = x0; x <= x1; x++) {
+          dest[y * destSide + x] = source[2 * y * sourceSide + 2 * x];
         }
       }
     }
   }
 
+  /**
+   * Add the tiles of every level holding a sample of the given level 0 rectangle to a tile store.
+   */
+  protected void addTiles(final int minX, final int minY, final int maxX, final int maxY, final Set<Tile>[] store) {
+    for (int level = 0; level < clipmapLevels; level++) {
+      final int x0 = toLevelMin(Math.max(0, minX), level), y0 = toLevelMin(Math.max(0, minY), level);
+      final int x1 = toLevelMax(Math.min(maxX, side - 1), level), y1 = toLevelMax(Math.min(maxY, side - 1), level);
+      if (x0 > x1 || y0 > y1) {
+        return;
+      }
+
+      for (int y = y0 / tileSize; y <= y1 / tileSize; y++) {
+        for (int x = x0 / tileSize; x <= x1 / tileSize; x++) {
+          store[level].add(new Tile(x, y));
+        }
+      }
+    }
+  }
+
+  /** @return the first sample of a level at or after the given level 0 coordinate. */
+  private static int toLevelMin(final int coordinate, final int level) {
+    return coordinate + (1 << level) - 1 >> level;
+  }
+
+  /** @return the last sample of a level at or before the given level 0 coordinate. */
+  private static int toLevelMax(final int coordinate, final int level) {
+    return coordinate >> level;
+  }
+
   public void stopUpdates() {
     running = false;
   }
@@ -212,6 +477,40 @@ public class InMemoryTerrainData {
 
   public float[] getHeightData() { return heightData; }
 
+  /**
+   * @param level
+   *          pyramid level, 0 being the finest
+   * @return the heights of the given level, row by row, {@link #getLevelSide(int)} samples square.
+   */
+  public float[] getLevelHeights(final int level) {
+    return levelHeights[level];
+  }
+
+  /**
+   * @param level
+   *          pyramid level, 0 being the finest
+   * @return the number of samples along one side of the given level.
+   */
+  public int getLevelSide(final int level) {
+    return levelSides[level];
+  }
+
+  public boolean isAutoCommit() { return autoCommit; }
+
+  /**
+   * @param autoCommit
+   *          if true, every edit is handed to our sources as soon as it is made. If false, edits are
+   *          collected until {@link #commitEdits()} is called.
+   */
+  public void setAutoCommit(final boolean autoCommit) {
+    synchronized (editLock) {
+      this.autoCommit = autoCommit;
+      if (autoCommit) {
+        commitEdits();
+      }
+    }
+  }
+
   public int getSide() { return side; }
 
   public Set<Tile>[] getUpdatedTerrainTiles() { return updatedTerrainTiles; }
@@ -0,0 +1,359 @@
+/**
+ * Copyright (c) 2008-2024 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.terrain.util;
+
+import java.util.Arrays;
+
+/**
+ * A min/max height quadtree over the grid cells of a single square terrain tile. Each leaf is one
+ * grid cell (the quad spanned by samples (x, z) to (x + 1, z + 1)) and each node stores the minimum
+ * and maximum height found below it, so ray casts can discard whole blocks of cells whose height
+ * range the ray never enters.
+ * <p>
+ * Cells along the far X and Z edges of a tile reach into neighboring tiles whose data may not be
+ * present. Their bounds are therefore set to a caller supplied fallback range, which keeps the tree
+ * conservative no matter what the neighbors contain.
+ * </p>
+ * <p>
+ * A tree may be rebuilt in place with {@link #build(float[], int, int, float, float)}. It is not
+ * internally synchronized; readers on other threads are expected to guard their use of the tree with
+ * the owning cache slot's stamp.
+ * </p>
+ */
+public class HeightQuadTree {
+
+  /** Number of cells along one side of the tile. */
+  private final int _cellCount;
+
+  /** Number of levels in the tree, including the root (level 0) and the cell level. */
+  private final int _levels;
+
+  /** Side length of the padded, power of two cell grid. */
+  private final int _paddedSize;
+
+  /** Per level offsets into _min and _max. Level l holds (1 << l) squared nodes. */
+  private final int[] _levelOffsets;
+
+  private final float[] _min;
+  private final float[] _max;
+
+  /**
+   * @param cellCount
+   *          number of grid cells (and samples) along one side of the tile. Does not need to be a
+   *          power of two.
+   */
+  public HeightQuadTree(final int cellCount) {
+    if (cellCount < 1) {
+      throw new IllegalArgumentException("cellCount must be positive: " + cellCount);
+    }
+    _cellCount = cellCount;
+
+    int levels = 1;
+    int size = 1;
+    while (size < cellCount) {
+      size <<= 1;
+      levels++;
+    }
+    _levels = levels;
+    _paddedSize = size;
+
+    _levelOffsets = new int[levels];
+    int total = 0;
+    for (int l = 0; l < levels; l++) {
+      _levelOffsets[l] = total;
+      total += (1 << l) * (1 << l);
+    }
+    _min = new float[total];
+    _max = new float[total];
+  }
+
+  /**
+   * @param cellCount
+   *          number of grid cells along one side of the tile.
+   * @return the number of bytes of node data a tree over the given number of cells holds.
+   */
+  public static long estimateMemoryUsage(final int cellCount) {
+    long nodes = 0;
+    for (int side = 1;; side <<= 1) {
+      nodes += (long) side * side;
+      if (side >= cellCount) {
+        break;
+      }
+    }
+    return nodes * 2 * Float.BYTES;
+  }
+
+  /**
+   * @return the number of bytes of node data held by this tree.
+   */
+  public long getMemoryUsage() { return (long) (_min.length + _max.length) * Float.BYTES; }
+
+  /**
+   * (Re)build the tree from the given tile samples.
+   *
+   * @param heights
+   *          source samples, already scaled to final heights
+   * @param offset
+   *          index of sample (0, 0) in heights
+   * @param stride
+   *          distance between rows (z) in heights
+   * @param edgeMin
+   *          lower bound used for cells touching the far edges of the tile
+   * @param edgeMax
+   *          upper bound used for cells touching the far edges of the tile
+   */
+  public void build(final float[] heights, final int offset, final int stride, final float edgeMin,
+      final float edgeMax) {
+    final int leafLevel = _levels - 1;
+    final int leafOffset = _levelOffsets[leafLevel];
+
+    // padding cells are empty and will never be hit
+    Arrays.fill(_min, leafOffset, leafOffset + _paddedSize * _paddedSize, Float.POSITIVE_INFINITY);
+    Arrays.fill(_max, leafOffset, leafOffset + _paddedSize * _paddedSize, Float.NEGATIVE_INFINITY);
+
+    final int last = _cellCount - 1;
+    for (int z = 0; z < _cellCount; z++) {
+      final int row = offset + z * stride;
+      final int leafRow = leafOffset + z * _paddedSize;
+      for (int x = 0; x < _cellCount; x++) {
+        if (x == last || z == last) {
+          _min[leafRow + x] = edgeMin;
+          _max[leafRow + x] = edgeMax;
+          continue;
+        }
+        final float h1 = heights[row + x];
+        final float h2 = heights[row + x + 1];
+        final float h3 = heights[row + stride + x];
+        final float h4 = heights[row + stride + x + 1];
+        _min[leafRow + x] = Math.min(Math.min(h1, h2), Math.min(h3, h4));
+        _max[leafRow + x] = Math.max(Math.max(h1, h2), Math.max(h3, h4));
+      }
+    }
+
+    // reduce upwards
+    for (int l = leafLevel - 1; l >= 0; l--) {
+      final int side = 1 << l;
+      final int childSide = side << 1;
+      final int off = _levelOffsets[l];
+      final int childOff = _levelOffsets[l + 1];
+      for (int z = 0; z < side; z++) {
+        for (int x = 0; x < side; x++) {
+          final int c = childOff + (z * 2) * childSide + x * 2;
+          _min[off + z * side + x] =
+              Math.min(Math.min(_min[c], _min[c + 1]), Math.min(_min[c + childSide], _min[c + childSide + 1]));
+          _max[off + z * side + x] =
+              Math.max(Math.max(_max[c], _max[c + 1]), Math.max(_max[c + childSide], _max[c + childSide + 1]));
+        }
+      }
+    }
+  }
+
+  /**
+   * @return number of cells along one side of the tile.
+   */
+  public int getCellCount() { return _cellCount; }
+
+  /**
+   * @return number of levels in this tree, including root and cell levels.
+   */
+  public int getLevels() { return _levels; }
+
+  /**
+   * @return the minimum height of the whole tile (including edge fallback bounds).
+   */
+  public float getMinHeight() { return _min[0]; }
+
+  /**
+   * @return the maximum height of the whole tile (including edge fallback bounds).
+   */
+  public float getMaxHeight() { return _max[0]; }
+
+  /**
+   * @param level
+   *          tree level, 0 being the root
+   * @param x
+   *          node x index in that level
+   * @param z
+   *          node z index in that level
+   * @return the minimum height stored in the given node.
+   */
+  public float getMin(final int level, final int x, final int z) {
+    return _min[_levelOffsets[level] + z * (1 << level) + x];
+  }
+
+  /**
+   * @param level
+   *          tree level, 0 being the root
+   * @param x
+   *          node x index in that level
+   * @param z
+   *          node z index in that level
+   * @return the maximum height stored in the given node.
+   */
+  public float getMax(final int level, final int x, final int z) {
+    return _max[_levelOffsets[level] + z * (1 << level) + x];
+  }
+
+  /**
+   * Walk the tree front to back along a ray, calling the visitor for each cell whose bounds the ray
+   * passes through, until the visitor reports a hit. Ray coordinates are relative to the tile's sample
+   * (0, 0), with x and z in grid units.
+   *
+   * @param ox
+   *          ray origin x
+   * @param oy
+   *          ray origin y
+   * @param oz
+   *          ray origin z
+   * @param dx
+   *          ray direction x
+   * @param dy
+   *          ray direction y
+   * @param dz
+   *          ray direction z
+   * @param tMin
+   *          start of the ray interval to consider
+   * @param tMax
+   *          end of the ray interval to consider
+   * @param visitor
+   *          called with candidate cells in front to back order
+   * @return the ray parameter of the first hit reported by the visitor, or a negative value if none.
+   */
+  public double traverse(final double ox, final double oy, final double oz, final double dx, final double dy,
+      final double dz, final double tMin, final double tMax, final CellVisitor visitor) {
+    final double invDx = 1.0 / dx;
+    final double invDy = 1.0 / dy;
+    final double invDz = 1.0 / dz;
+    return traverseNode(0, 0, 0, ox, oy, oz, invDx, invDy, invDz, tMin, tMax, visitor);
+  }
+
+  private double traverseNode(final int level, final int nx, final int nz, final double ox, final double oy,
+      final double oz, final double invDx, final double invDy, final double invDz, final double tMin,
+      final double tMax, final CellVisitor visitor) {
+    final int index = _levelOffsets[level] + nz * (1 << level) + nx;
+    final float min = _min[index];
+    final float max = _max[index];
+    if (min > max) {
+      // empty (padding) node
+      return -1;
+    }
+
+    final int span = _paddedSize >> level;
+    final double x0 = nx * span, z0 = nz * span;
+    double t0 = tMin, t1 = tMax;
+
+    // slab tests. Axis parallel rays are checked against the slab directly to avoid 0 * inf.
+    if (Double.isInfinite(invDx)) {
+      if (ox < x0 || ox > x0 + span) {
+        return -1;
+      }
+    } else {
+      final double a = (x0 - ox) * invDx, b = (x0 + span - ox) * invDx;
+      t0 = Math.max(t0, Math.min(a, b));
+      t1 = Math.min(t1, Math.max(a, b));
+    }
+    if (Double.isInfinite(invDy)) {
+      if (oy < min || oy > max) {
+        return -1;
+      }
+    } else {
+      final double a = (min - oy) * invDy, b = (max - oy) * invDy;
+      t0 = Math.max(t0, Math.min(a, b));
+      t1 = Math.min(t1, Math.max(a, b));
+    }
+    if (Double.isInfinite(invDz)) {
+      if (oz < z0 || oz > z0 + span) {
+        return -1;
+      }
+    } else {
+      final double a = (z0 - oz) * invDz, b = (z0 + span - oz) * invDz;
+      t0 = Math.max(t0, Math.min(a, b));
+      t1 = Math.min(t1, Math.max(a, b));
+    }
+    if (t0 > t1) {
+      return -1;
+    }
+
+    if (level == _levels - 1) {
+      if (nx >= _cellCount || nz >= _cellCount) {
+        return -1;
+      }
+      return visitor.visitCell(nx, nz, tMin, tMax);
+    }
+
+    // Children partition the node in x/z, so their ray intervals are disjoint. Visit them ordered by
+    // entry distance so the first hit found is the nearest one.
+    final int childLevel = level + 1;
+    final int half = span >> 1;
+    final int cx = nx << 1, cz = nz << 1;
+    final double midX = x0 + half, midZ = z0 + half;
+
+    // which side of the split planes the entry point lies on
+    final double entryX = Double.isInfinite(invDx) ? ox : ox + t0 / invDx;
+    final double entryZ = Double.isInfinite(invDz) ? oz : oz + t0 / invDz;
+    final int firstX = entryX < midX || entryX == midX && invDx < 0 ? 0 : 1;
+    final int firstZ = entryZ < midZ || entryZ == midZ && invDz < 0 ? 0 : 1;
+
+    // parametric distance to the split planes
+    final double tSplitX = (midX - ox) * invDx;
+    final double tSplitZ = (midZ - oz) * invDz;
+
+    int curX = firstX, curZ = firstZ;
+    double t = t0;
+    for (int i = 0; i < 3; i++) {
+      final double hit = traverseNode(childLevel, cx + curX, cz + curZ, ox, oy, oz, invDx, invDy, invDz, tMin, tMax,
+          visitor);
+      if (hit >= 0) {
+        return hit;
+      }
+
+      // step across whichever split plane comes next after t
+      final boolean canStepX = curX == firstX && tSplitX > t && (curX == 0 ? invDx > 0 : invDx < 0);
+      final boolean canStepZ = curZ == firstZ && tSplitZ > t && (curZ == 0 ? invDz > 0 : invDz < 0);
+      if (canStepX && (!canStepZ || tSplitX <= tSplitZ)) {
+        if (tSplitX > t1) {
+          break;
+        }
+        curX ^= 1;
+        t = tSplitX;
+      } else if (canStepZ) {
+        if (tSplitZ > t1) {
+          break;
+        }
+        curZ ^= 1;
+        t = tSplitZ;
+      } else {
+        break;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Receives candidate cells from {@link HeightQuadTree#traverse}.
+   */
+  @FunctionalInterface
+  public interface CellVisitor {
+    /**
+     * @param cellX
+     *          tile relative cell x
+     * @param cellZ
+     *          tile relative cell z
+     * @param tMin
+     *          start of the ray interval being searched
+     * @param tMax
+     *          end of the ray interval being searched
+     * @return the ray parameter of an intersection with the surface in this cell, or a negative value
+     *         if there is none.
+     */
+    double visitCell(int cellX, int cellZ, double tMin, double tMax);
+  }
+}
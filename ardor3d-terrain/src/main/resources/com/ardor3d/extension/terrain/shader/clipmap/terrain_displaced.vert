@@ -0,0 +1,58 @@
+#version 330 core
+
+in vec2 vertex;               // slot (texel column and row) of this vertex in our level's height slice
+ 
+out vec2 vVertex;             // our terrain grid position relative to our eye.
+out vec3 WorldPos;
+out vec4 ViewPos;
+ 
+uniform mat4 model;
+uniform mat4 view;
+uniform mat4 projection;
+ 
+uniform vec3 eyePosition;
+uniform float textureDensity;
+uniform int vertexDistance;
+uniform int clipSideSize;
+
+uniform sampler3D heightMap;  // x = height, y = height of the next coarser level
+uniform int heightLevel;      // our slice of heightMap
+uniform ivec2 clipOrigin;     // first grid position of our level
+uniform ivec2 clipOriginSlot; // the slot clipOrigin is stored in
+
+void applyTerrainBlending(inout vec4 position)
+{
+    float scaledClipSideSize = clipSideSize * vertexDistance * 0.5;
+    vec2 viewDistance = abs(position.xz - eyePosition.xz);
+    float maxDistance = max(viewDistance.x, viewDistance.y) / scaledClipSideSize;
+    float blend = clamp((maxDistance - 0.51) * 2.2, 0.0, 1.0);
+
+    position.y = mix(position.y, position.w, blend);
+    position.w = 1.0;
+}
+
+void main() 
+{
+    // Grid positions are stored toroidally - slot = grid mod clipSideSize - so work out which grid 
+    // position our slot holds for the current level origin. 
+    ivec2 slot = ivec2(vertex);
+    ivec2 grid = clipOrigin + (slot - clipOriginSlot + clipSideSize) % clipSideSize;
+    vec2 heights = texelFetch(heightMap, ivec3(slot, heightLevel), 0).xy;
+
+    // Rebuild the same vertex the cpu path would have written.
+    vec4 position = vec4(grid.x * vertexDistance, heights.x, grid.y * vertexDistance, heights.y);
+
+    // Sent to fragment program for texture clipmap generation.
+    // This is the signed distance from our eye to the vertex/pixel, modified by our 
+    // pixel density.  A higher density means the texture is packed more tightly 
+    // around the viewer. We accomplish this by increasing the distance to the pixel.
+    vVertex = (position.xz - eyePosition.xz) * textureDensity;
+
+    // Apply terrain height blending    
+    applyTerrainBlending(position);
+    
+    WorldPos = (model * position).xyz;
+    ViewPos = view * vec4(WorldPos, 1.0);
+    
+    gl_Position = projection * ViewPos;
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2008-2024 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.terrain.client;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.ardor3d.extension.terrain.client.AbstractGridCache.State;
+import com.ardor3d.extension.terrain.client.TerrainBuilder.BuildConfiguration;
+import com.ardor3d.extension.terrain.util.Tile;
+import com.ardor3d.math.Vector3;
+
+public class TestGridCacheStats {
+
+  private static final int TILE_SIZE = 16;
+  private static final int CACHE_SIZE = 5;
+
+  private final TerrainConfiguration config =
+      new TerrainConfiguration(3, TILE_SIZE, new Vector3(1, 10, 1), 0f, 1f, false);
+
+  @Test
+  public void testLoadCountersAndMemory() {
+    final TerrainGridCache cache = new TerrainGridCache(null, CACHE_SIZE, new TestTerrainGridCacheQueries.WaveSource(),
+        TILE_SIZE, 64, config, 0, 0, new TestTerrainGridCacheQueries.DirectExecutorService());
+    cache.setCurrentPosition(0, 0);
+    cache.checkForUpdates();
+
+    final GridCacheStats stats = cache.getStats();
+    final int tiles = CACHE_SIZE * CACHE_SIZE;
+    assertEquals(tiles, stats.getTilesSubmitted());
+    assertEquals(tiles, stats.getTilesLoaded());
+    assertEquals(0, stats.getTilesCancelled());
+
+    long histogramTotal = 0;
+    for (final long count : stats.getLatencyHistogram(null)) {
+      histogramTotal += count;
+    }
+    assertEquals(tiles, histogramTotal);
+    assertEquals(tiles, cache.getTileStateCounts(null)[State.finished.ordinal()]);
+
+    // every slot is loaded, so we should match our estimate exactly
+    assertEquals(TerrainGridCache.estimateMemoryUsage(CACHE_SIZE, TILE_SIZE), cache.getMemoryUsage());
+  }
+
+  @Test
+  public void testCancelledWhenMovingAway() {
+    final HoldingExecutorService executor = new HoldingExecutorService();
+    final TerrainGridCache cache = new TerrainGridCache(null, CACHE_SIZE, new TestTerrainGridCacheQueries.WaveSource(),
+        TILE_SIZE, 64, config, 0, 0, executor);
+    cache.setCurrentPosition(0, 0);
+    cache.checkForUpdates();
+    assertEquals(CACHE_SIZE * CACHE_SIZE, cache.getTileStateCounts(null)[State.init.ordinal()]);
+
+    // move far enough that none of the queued tiles are wanted anymore
+    cache.setCurrentPosition(TILE_SIZE * 100, 0);
+    assertEquals(CACHE_SIZE * CACHE_SIZE, cache.getStats().getTilesCancelled());
+
+    // late runs of the dropped tiles are not counted twice
+    for (final Runnable task : executor.tasks) {
+      task.run();
+    }
+    assertEquals(CACHE_SIZE * CACHE_SIZE, cache.getStats().getTilesCancelled());
+    assertEquals(0, cache.getStats().getTilesLoaded());
+  }
+
+  @Test
+  public void testCancelledBySourceCountedOnce() {
+    // the source is interrupted on every tile, cancelling them itself
+    final TerrainGridCache cache = new TerrainGridCache(null, CACHE_SIZE, new TestTerrainGridCacheQueries.WaveSource() {
+      @Override
+      public float[] getTile(final int clipmapLevel, final Tile tile) throws InterruptedException {
+        throw new InterruptedException();
+      }
+    }, TILE_SIZE, 64, config, 0, 0, new TestTerrainGridCacheQueries.DirectExecutorService());
+    cache.setCurrentPosition(0, 0);
+    cache.checkForUpdates();
+    assertEquals(CACHE_SIZE * CACHE_SIZE, cache.getStats().getTilesCancelled());
+    assertEquals(CACHE_SIZE * CACHE_SIZE, cache.getTileStateCounts(null)[State.cancelled.ordinal()]);
+
+    // dropping those tiles when moving away does not count them again
+    cache.setCurrentPosition(TILE_SIZE * 100, 0);
+    assertEquals(CACHE_SIZE * CACHE_SIZE, cache.getStats().getTilesCancelled());
+  }
+
+  @Test
+  public void testLatencyBuckets() {
+    assertEquals(0, GridCacheStats.getLatencyBucket(0));
+    assertEquals(1, GridCacheStats.getLatencyBucket(2));
+    assertEquals(2, GridCacheStats.getLatencyBucket(3));
+    assertEquals(GridCacheStats.LATENCY_BUCKETS_MS.length, GridCacheStats.getLatencyBucket(60_000));
+  }
+
+  @Test
+  public void testBudgetPicksLargestFittingBuffer() {
+    final BuildConfiguration buildConfig =
+        new TerrainBuilder(null, null, new TestTerrainGridCacheQueries.DirectExecutorService()).buildConfig;
+    buildConfig.clipmapTerrainSize = 63;
+    buildConfig.cacheBufferSize = 4;
+    final List<TextureConfiguration> textures = new ArrayList<>();
+    textures.add(new TextureConfiguration(3, null, 32, 1f, false, true));
+
+    // cache sizes are rounded up to be odd, so buffers 2 and 3 give the same cache size.
+    final long at2 = TerrainBuilder.estimateCacheMemoryUsage(config, textures, buildConfig, 2);
+    final long at3 = TerrainBuilder.estimateCacheMemoryUsage(config, textures, buildConfig, 3);
+    final long at4 = TerrainBuilder.estimateCacheMemoryUsage(config, textures, buildConfig, 4);
+    assertEquals(at2, at3);
+    assertEquals(3, TerrainBuilder.fitCacheBufferSize(config, textures, buildConfig, at3));
+    assertEquals(3, TerrainBuilder.fitCacheBufferSize(config, textures, buildConfig, at4 - 1));
+    assertEquals(1, TerrainBuilder.fitCacheBufferSize(config, textures, buildConfig, at3 - 1));
+    assertEquals(4, TerrainBuilder.fitCacheBufferSize(config, textures, buildConfig, Long.MAX_VALUE));
+    assertEquals(0, TerrainBuilder.fitCacheBufferSize(config, textures, buildConfig, 1));
+  }
+
+  /** Accepts tasks without running them. */
+  private static class HoldingExecutorService extends AbstractExecutorService {
+    final List<Runnable> tasks = new ArrayList<>();
+
+    @Override
+    public void execute(final Runnable command) {
+      tasks.add(command);
+    }
+
+    @Override
+    public void shutdown() {}
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      return List.of();
+    }
+
+    @Override
+    public boolean isShutdown() { return false; }
+
+    @Override
+    public boolean isTerminated() { return false; }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) {
+      return true;
+    }
+  }
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2008-2024 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.terrain.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ardor3d.extension.terrain.util.Region;
+import com.ardor3d.image.PixelDataType;
+import com.ardor3d.image.Texture3D;
+import com.ardor3d.image.util.ImageUtils;
+import com.ardor3d.math.Vector3;
+import com.ardor3d.renderer.Camera;
+import com.ardor3d.renderer.ContextManager;
+import com.ardor3d.renderer.RenderContext;
+import com.ardor3d.renderer.Renderer;
+import com.ardor3d.renderer.texture.ITextureUtils;
+
+public class TestHeightClipmap {
+
+  private static final int CLIP_SIDE_SIZE = 31;
+
+  private TerrainGridCache cache;
+  private HeightClipmap heightClipmap;
+
+  @Before
+  public void setup() {
+    final TerrainConfiguration config = new TerrainConfiguration(1, 16, new Vector3(1, 10, 1), 0f, 1f, false);
+    cache = new TerrainGridCache(null, 5, new TestTerrainGridCacheQueries.WaveSource(), 16, CLIP_SIDE_SIZE, config,
+        0, 0, new TestTerrainGridCacheQueries.DirectExecutorService());
+    cache.setCurrentPosition(0, 0);
+    cache.checkForUpdates();
+    heightClipmap = new HeightClipmap(List.of(cache), CLIP_SIDE_SIZE);
+  }
+
+  @Test
+  public void testToroidalAddressing() {
+    for (int origin = -70; origin <= 70; origin += 7) {
+      for (int grid = origin; grid < origin + CLIP_SIDE_SIZE; grid++) {
+        final int texel = HeightClipmap.toTexel(grid, CLIP_SIDE_SIZE);
+        assertTrue(texel >= 0 && texel < CLIP_SIDE_SIZE);
+        assertEquals(grid, HeightClipmap.toGrid(texel, origin, CLIP_SIDE_SIZE));
+      }
+    }
+  }
+
+  @Test
+  public void testSplitToroidal() {
+    final List<Region> store = new ArrayList<>();
+
+    // fits, no wrap
+    HeightClipmap.splitToroidal(new Region(2, 5, 10, 3), 16, store);
+    assertEquals(List.of(new Region(2, 5, 10, 3)), store);
+
+    // wraps in both directions
+    store.clear();
+    HeightClipmap.splitToroidal(new Region(-3, 14, 5, 4), 16, store);
+    assertEquals(List.of(new Region(13, 14, 3, 2), new Region(0, 14, 2, 2), new Region(13, 0, 3, 2),
+        new Region(0, 0, 2, 2)), store);
+
+    // wider than the texture, so clamped to the full width
+    store.clear();
+    HeightClipmap.splitToroidal(new Region(7, -1, 40, 2), 16, store);
+    assertEquals(List.of(new Region(0, 15, 16, 1), new Region(0, 0, 16, 1)), store);
+  }
+
+  @Test
+  public void testMovementKeepsSliceInSync() throws Exception {
+    final Camera camera = new Camera();
+    final ClipmapLevel level = new ClipmapLevel(0, camera, CLIP_SIDE_SIZE, 10f, cache, heightClipmap);
+
+    final int[][] positions = {{0, 0}, {3, 0}, {3, -5}, {-9, 12}, {60, 60}, {61, 59}};
+    for (final int[] position : positions) {
+      camera.setLocation(position[0] + 0.5, 10, position[1] + 0.5);
+      heightClipmap.clearPendingUploads();
+      level.updateVertices();
+      final Region clipRegion = level.getClipRegion();
+      if (position == positions[0]) {
+        // nothing was drawn before our first move, so fill the whole level as the mailbox would.
+        level.updateRegion(clipRegion.getX(), clipRegion.getY(), CLIP_SIDE_SIZE, CLIP_SIDE_SIZE);
+      }
+
+      // every texel holds the height of the grid position the shader will map it to.
+      final float[] vertex = new float[ClipmapLevel.VERT_SIZE];
+      for (int tz = 0; tz < CLIP_SIDE_SIZE; tz++) {
+        for (int tx = 0; tx < CLIP_SIDE_SIZE; tx++) {
+          final int gx = HeightClipmap.toGrid(tx, clipRegion.getX(), CLIP_SIDE_SIZE);
+          final int gz = HeightClipmap.toGrid(tz, clipRegion.getY(), CLIP_SIDE_SIZE);
+          cache.fillRegion(vertex, 0, gx, gz, 1, 1);
+          assertEquals(vertex[1], heightClipmap.getHeight(0, tx, tz), 0f);
+          assertEquals(vertex[3], heightClipmap.getCoarserHeight(0, tx, tz), 0f);
+        }
+      }
+    }
+
+    // a small move only queues the uncovered strips for upload
+    int texels = 0;
+    for (final Region region : heightClipmap.getPendingUploads(0)) {
+      texels += region.getWidth() * region.getHeight();
+    }
+    assertTrue(texels > 0 && texels < CLIP_SIDE_SIZE * CLIP_SIDE_SIZE / 4);
+  }
+
+  @Test
+  public void testUploadSendsFloatSubImages() {
+    final Object contextKey = new Object();
+    ContextManager.addContext(contextKey, new RenderContext(contextKey));
+    try {
+      ContextManager.switchContext(contextKey);
+      heightClipmap.getTexture().setTextureIdForContext(ContextManager.getCurrentContext(), 1);
+      heightClipmap.updateRegion(0, 2, 3, 4, 2);
+
+      // record the sub-image calls the clipmap makes
+      final List<Object[]> calls = new ArrayList<>();
+      final ITextureUtils textureUtils = (ITextureUtils) Proxy.newProxyInstance(getClass().getClassLoader(),
+          new Class<?>[] {ITextureUtils.class}, (proxy, method, args) -> {
+            if ("updateTexture3DSubImage".equals(method.getName())) {
+              calls.add(args);
+            }
+            return null;
+          });
+      final Renderer renderer = (Renderer) Proxy.newProxyInstance(getClass().getClassLoader(),
+          new Class<?>[] {Renderer.class},
+          (proxy, method, args) -> "getTextureUtils".equals(method.getName()) ? textureUtils : null);
+      heightClipmap.upload(renderer);
+
+      assertEquals(1, calls.size());
+      final Object[] args = calls.get(0);
+      final Texture3D texture = (Texture3D) args[0];
+      assertSame(heightClipmap.getTexture(), texture);
+      // the renderer sends the source as the texture's data type, so it must be floats rather than bytes
+      assertEquals(PixelDataType.Float, ImageUtils.getPixelDataType(texture));
+      assertEquals(List.of(2, 3, 0, 4, 2, 1), List.of(args[1], args[2], args[3], args[4], args[5], args[6]));
+      assertEquals(List.of(2, 3, 0, CLIP_SIDE_SIZE, CLIP_SIDE_SIZE),
+          List.of(args[8], args[9], args[10], args[11], args[12]));
+
+      final ByteBuffer source = ((ByteBuffer) args[7]).duplicate().order(ByteOrder.nativeOrder());
+      final int texelBytes = 2 * Float.BYTES;
+      for (int row = 0; row < 2; row++) {
+        for (int col = 0; col < 4; col++) {
+          final int offset = ((3 + row) * CLIP_SIDE_SIZE + 2 + col) * texelBytes;
+          assertEquals(heightClipmap.getHeight(0, 2 + col, 3 + row), source.getFloat(offset), 0f);
+          assertEquals(heightClipmap.getCoarserHeight(0, 2 + col, 3 + row), source.getFloat(offset + Float.BYTES),
+              0f);
+        }
+      }
+      assertTrue(heightClipmap.getPendingUploads(0).isEmpty());
+    } finally {
+      ContextManager.removeContext(contextKey);
+    }
+  }
+}
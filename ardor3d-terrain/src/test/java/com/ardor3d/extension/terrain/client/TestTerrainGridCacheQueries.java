@@ -0,0 +1,241 @@
+/**
+ * Copyright (c) 2008-2024 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.terrain.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.FloatBuffer;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ardor3d.buffer.BufferUtils;
+import com.ardor3d.extension.terrain.util.HeightQuadTree;
+import com.ardor3d.extension.terrain.util.Region;
+import com.ardor3d.extension.terrain.util.Tile;
+import com.ardor3d.math.Ray3;
+import com.ardor3d.math.Vector3;
+
+public class TestTerrainGridCacheQueries {
+
+  private static final int TILE_SIZE = 16;
+  private static final int CACHE_SIZE = 4;
+
+  private TerrainGridCache cache;
+
+  @Before
+  public void setup() {
+    final TerrainConfiguration config =
+        new TerrainConfiguration(1, TILE_SIZE, new Vector3(1, 10, 1), 0f, 1f, false);
+    cache = new TerrainGridCache(null, CACHE_SIZE, new WaveSource(), TILE_SIZE, 64, config, 0, 0,
+        new DirectExecutorService());
+    cache.setCurrentPosition(0, 0);
+    cache.checkForUpdates();
+  }
+
+  private static float sample(final int x, final int z) {
+    return (float) (0.5 + 0.25 * Math.sin(x * 0.37) + 0.2 * Math.cos(z * 0.21 + x * 0.05));
+  }
+
+  @Test
+  public void testBulkHeightsMatchSingleQueries() {
+    final Random rand = new Random(1234);
+    final int count = 2000;
+    final float[] xs = new float[count];
+    final float[] zs = new float[count];
+    for (int i = 0; i < count; i++) {
+      // covers the whole cache area plus some space outside of it
+      xs[i] = rand.nextFloat() * 90f - 45f;
+      zs[i] = rand.nextFloat() * 90f - 45f;
+    }
+
+    final float[] heights = new float[count];
+    cache.getSubHeights(xs, zs, heights, count, true);
+    for (int i = 0; i < count; i++) {
+      assertEquals(cache.getSubHeight(xs[i], zs[i], true), heights[i], 0f);
+    }
+  }
+
+  @Test
+  public void testStagedRegionMatchesDirectUpdate() {
+    final int destinationSize = 64;
+    final FloatBuffer direct = BufferUtils.createVector4Buffer(destinationSize * destinationSize);
+    final FloatBuffer staged = BufferUtils.createVector4Buffer(destinationSize * destinationSize);
+
+    // one region wrapping the destination in both directions, one wider than the destination
+    for (final Region region : new Region[] {new Region(-10, 50, 30, 20), new Region(5, -3, 70, 2)}) {
+      cache.updateRegion(direct, region.getX(), region.getY(), region.getWidth(), region.getHeight());
+
+      final float[] store = new float[region.getWidth() * region.getHeight() * ClipmapLevel.VERT_SIZE + 3];
+      cache.fillRegion(store, 3, region.getX(), region.getY(), region.getWidth(), region.getHeight());
+      ClipmapVertexUpdater.copyRegion(store, 3, staged, destinationSize, region);
+    }
+
+    for (int i = 0; i < direct.capacity(); i++) {
+      assertEquals(direct.get(i), staged.get(i), 0f);
+    }
+  }
+
+  @Test
+  public void testQuadTreeBounds() {
+    final int size = 8;
+    final float[] heights = new float[size * size];
+    for (int i = 0; i < heights.length; i++) {
+      heights[i] = i;
+    }
+    final HeightQuadTree tree = new HeightQuadTree(size);
+    tree.build(heights, 0, size, -5f, 100f);
+
+    assertEquals(4, tree.getLevels());
+    assertEquals(-5f, tree.getMinHeight(), 0f);
+    assertEquals(100f, tree.getMaxHeight(), 0f);
+    // interior cell (1, 2) spans samples 17, 18, 25, 26
+    assertEquals(17f, tree.getMin(3, 1, 2), 0f);
+    assertEquals(26f, tree.getMax(3, 1, 2), 0f);
+    // first quadrant has no edge cells
+    assertEquals(0f, tree.getMin(1, 0, 0), 0f);
+    assertEquals(4f * size + 4f, tree.getMax(1, 0, 0), 0f);
+  }
+
+  @Test
+  public void testRayCastMatchesBruteForce() {
+    final Random rand = new Random(42);
+    final double[] normal = new double[3];
+    int hits = 0;
+    for (int i = 0; i < 300; i++) {
+      final double ox = rand.nextDouble() * 60 - 30;
+      final double oz = rand.nextDouble() * 60 - 30;
+      final double oy = 12 + rand.nextDouble() * 5;
+      double dx = rand.nextDouble() * 2 - 1;
+      double dy = -0.05 - rand.nextDouble() * 0.5;
+      double dz = rand.nextDouble() * 2 - 1;
+      final double len = Math.sqrt(dx * dx + dy * dy + dz * dz);
+      dx /= len;
+      dy /= len;
+      dz /= len;
+
+      final double expected = bruteForce(ox, oy, oz, dx, dy, dz, 200);
+      final double actual = cache.intersectRay(ox, oy, oz, dx, dy, dz, 0, 200, normal);
+      if (expected < 0) {
+        assertTrue("unexpected hit for ray " + i, actual < 0);
+      } else {
+        hits++;
+        assertEquals("ray " + i, expected, actual, 1e-6);
+        assertTrue(normal[1] > 0);
+      }
+    }
+    assertTrue(hits > 100);
+
+    // straight down, on a cell edge
+    final double t = cache.intersectRay(3.5, 50, 4, 0, -1, 0, 0, 100, null);
+    assertEquals(50 - cache.getSubHeight(3.5f, 4f, true), t, 1e-5);
+  }
+
+  private double bruteForce(final double ox, final double oy, final double oz, final double dx, final double dy,
+      final double dz, final double tMax) {
+    final int min = -CACHE_SIZE / 2 * TILE_SIZE;
+    final int max = min + CACHE_SIZE * TILE_SIZE;
+    double best = -1;
+    for (int z = min; z < max; z++) {
+      for (int x = min; x < max; x++) {
+        final double h1 = cache.getHeight(x, z, true);
+        final double h2 = cache.getHeight(x + 1, z, true);
+        final double h3 = cache.getHeight(x, z + 1, true);
+        final double h4 = cache.getHeight(x + 1, z + 1, true);
+        for (final double t : new double[] {
+            triangle(ox, oy, oz, dx, dy, dz, x, h1, z, x, h3, z + 1, x + 1, h2, z),
+            triangle(ox, oy, oz, dx, dy, dz, x + 1, h2, z, x, h3, z + 1, x + 1, h4, z + 1)}) {
+          if (t >= 0 && t <= tMax && (best < 0 || t < best)) {
+            best = t;
+          }
+        }
+      }
+    }
+    return best;
+  }
+
+  private static double triangle(final double ox, final double oy, final double oz, final double dx,
+      final double dy, final double dz, final double ax, final double ay, final double az, final double bx,
+      final double by, final double bz, final double cx, final double cy, final double cz) {
+    final Vector3 store = new Vector3();
+    final Ray3 ray = new Ray3(new Vector3(ox, oy, oz), new Vector3(dx, dy, dz));
+    if (!ray.intersectsTriangle(new Vector3(ax, ay, az), new Vector3(bx, by, bz), new Vector3(cx, cy, cz),
+        store)) {
+      return -1;
+    }
+    return store.distance(ox, oy, oz);
+  }
+
+  static class WaveSource implements TerrainSource {
+    @Override
+    public TerrainConfiguration getConfiguration() { return null; }
+
+    @Override
+    public Set<Tile> getValidTiles(final int clipmapLevel, final int tileX, final int tileY, final int numTilesX,
+        final int numTilesY) {
+      return null;
+    }
+
+    @Override
+    public Set<Tile> getInvalidTiles(final int clipmapLevel, final int tileX, final int tileY, final int numTilesX,
+        final int numTilesY) {
+      return null;
+    }
+
+    @Override
+    public float[] getTile(final int clipmapLevel, final Tile tile) throws InterruptedException {
+      final float[] data = new float[TILE_SIZE * TILE_SIZE];
+      for (int z = 0; z < TILE_SIZE; z++) {
+        for (int x = 0; x < TILE_SIZE; x++) {
+          data[z * TILE_SIZE + x] = sample(tile.getX() * TILE_SIZE + x, tile.getY() * TILE_SIZE + z);
+        }
+      }
+      return data;
+    }
+  }
+
+  static class DirectExecutorService extends AbstractExecutorService {
+    private boolean shutdown;
+
+    @Override
+    public void execute(final Runnable command) {
+      command.run();
+    }
+
+    @Override
+    public void shutdown() {
+      shutdown = true;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      shutdown = true;
+      return List.of();
+    }
+
+    @Override
+    public boolean isShutdown() { return shutdown; }
+
+    @Override
+    public boolean isTerminated() { return shutdown; }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) {
+      return true;
+    }
+  }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2008-2024 Bird Dog Games, Inc.
+ *
+ * This file is part of Ardor3D.
+ *
+ * Ardor3D is free software: you can redistribute it and/or modify it
+ * under the terms of its license which may be found in the accompanying
+ * LICENSE file or at <https://git.io/fjRmv>.
+ */
+
+package com.ardor3d.extension.terrain.providers.inmemory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ardor3d.extension.terrain.providers.inmemory.data.InMemoryTerrainData;
+import com.ardor3d.extension.terrain.util.Tile;
+import com.ardor3d.math.Vector3;
+
+public class TestInMemoryTerrainData {
+
+  private static final int SIDE = 65;
+  private static final int LEVELS = 4;
+  private static final int TILE_SIZE = 8;
+
+  private InMemoryTerrainData data;
+  private InMemoryTerrainSource source;
+
+  @Before
+  public void setup() {
+    data = new InMemoryTerrainData(SIDE, LEVELS, TILE_SIZE, new Vector3(1, 1, 1));
+    data.setMinHeight(-10);
+    data.setMaxHeight(10);
+    source = new InMemoryTerrainSource(TILE_SIZE, data);
+  }
+
+  @Test
+  public void testTilesMatchFullResolutionData() throws Exception {
+    data.applyBrush(20, 30, 9, 2.5f, null);
+    data.setHeights(40, 3, 5, 2, new float[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+
+    final float[] heights = data.getHeightData();
+    for (int level = 0; level < LEVELS; level++) {
+      final int clipmapLevel = LEVELS - level - 1;
+      final int step = 1 << level;
+      final int tiles = SIDE / (TILE_SIZE * step) + 1;
+      for (int tileY = 0; tileY < tiles; tileY++) {
+        for (int tileX = 0; tileX < tiles; tileX++) {
+          final float[] tile = source.getTile(clipmapLevel, new Tile(tileX, tileY));
+          for (int y = 0; y < TILE_SIZE; y++) {
+            for (int x = 0; x < TILE_SIZE; x++) {
+              final int hx = (tileX * TILE_SIZE + x) * step;
+              final int hy = (tileY * TILE_SIZE + y) * step;
+              final float expected = hx < SIDE && hy < SIDE ? heights[hy * SIDE + hx] : 0;
+              assertEquals(expected, tile[y * TILE_SIZE + x], 0f);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testOnlyTouchedTilesAreMarked() throws Exception {
+    // rows and columns 9 and 10 - level 1 sample 5, no level 2 or 3 samples
+    data.editHeights(9, 9, 10, 10, (x, y, height) -> 5f);
+
+    assertEquals(Set.of(new Tile(1, 1)), source.getInvalidTiles(LEVELS - 1, 0, 0, 16, 16));
+    assertEquals(Set.of(new Tile(0, 0)), source.getInvalidTiles(LEVELS - 2, 0, 0, 16, 16));
+    assertNull(source.getInvalidTiles(LEVELS - 3, 0, 0, 16, 16));
+    assertNull(source.getInvalidTiles(LEVELS - 4, 0, 0, 16, 16));
+
+    // crossing a tile edge at level 0 and reaching level 3 sample 1
+    data.editHeights(7, 8, 8, 8, (x, y, height) -> 1f);
+    assertEquals(Set.of(new Tile(0, 1), new Tile(1, 1)), source.getInvalidTiles(LEVELS - 1, 0, 0, 16, 16));
+    assertEquals(Set.of(new Tile(0, 0)), source.getInvalidTiles(LEVELS - 4, 0, 0, 16, 16));
+    assertEquals(1f, data.getLevelHeights(3)[data.getLevelSide(3) + 1], 0f);
+  }
+
+  @Test
+  public void testEditsAreHeldUntilCommit() throws Exception {
+    data.setAutoCommit(false);
+    data.applyBrush(10, 10, 3, 1f, null);
+    data.applyBrush(12, 11, 3, -1f, null);
+    assertNull(source.getInvalidTiles(LEVELS - 1, 0, 0, 16, 16));
+
+    data.commitEdits();
+    final Set<Tile> tiles = source.getInvalidTiles(LEVELS - 1, 0, 0, 16, 16);
+    // both brushes cover samples 7 through 15, so tiles 0 and 1 along each axis
+    assertEquals(Set.of(new Tile(0, 0), new Tile(0, 1), new Tile(1, 0), new Tile(1, 1)), tiles);
+    assertTrue(data.getUpdatedTerrainTiles()[0].isEmpty());
+  }
+}